@@ -0,0 +1,114 @@
+package com.company.attendance_management_system.benchmarks;
+
+import com.company.attendance_management_system.exception.InvalidAttendanceException;
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.ClockOutcome;
+import com.company.attendance_management_system.model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// hot paths of the clock terminals and the lookups behind them.
+// throughput plus sampled latency; add "-prof gc" for the allocation rate per operation.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class AttendanceBenchmarks {
+
+    // today's tap for one employee. each op also clears the clock-in again (through the
+    // setter, as a correction would) so the same employees can tap over and over
+    @Benchmark
+    public AttendanceRecord clockIn(Workforce w, Cursor c) throws Exception {
+        AttendanceRecord r = w.attendance.clockIn(c.employee(w));
+        r.setClockInTime(null);
+        return r;
+    }
+
+    // clock-out, then undo it so the employee stays clocked in for the next op
+    @Benchmark
+    public AttendanceRecord clockOut(Workforce w, ClockedIn state, Cursor c) throws Exception {
+        AttendanceRecord r = w.attendance.clockOut(c.employee(w));
+        r.setClockOutTime(null);
+        r.setHoursWorked(null);
+        return r;
+    }
+
+    // a second tap at shift change, refused by throwing
+    @Benchmark
+    public Object duplicateClockIn(Workforce w, ClockedIn state, Cursor c) throws Exception {
+        try {
+            return w.attendance.clockIn(c.employee(w));
+        } catch (InvalidAttendanceException e) {
+            return e;
+        }
+    }
+
+    // the same refusal as a code
+    @Benchmark
+    public ClockOutcome duplicateTryClockIn(Workforce w, ClockedIn state, Cursor c) {
+        return w.attendance.tryClockIn(c.employee(w));
+    }
+
+    // the steady state of the 8am peak: a correction blanks an existing employee's record of the day,
+    // then the employee clocks in and out again. allocation-free; with "-prof gc" gc.alloc.rate.norm
+    // should stay at ~0 B/op (anything above points at a regression on the tap path)
+    @Benchmark
+    public ClockOutcome tapInAndOut(Workforce w, Rostered state, Cursor c) {
+        int id = c.employee(w);
+        AttendanceRecord r = w.attendanceRepository.findRecordByDay(id, state.today);
+        r.setClockInNanos(AttendanceRecord.NO_TIME);
+        r.setClockOutNanos(AttendanceRecord.NO_TIME);
+        r.setHours(Double.NaN);
+        w.attendance.tryClockIn(id);
+        return w.attendance.tryClockOut(id);
+    }
+
+    @Benchmark
+    public Optional<AttendanceRecord> findRecordByDateAndEmployee(Workforce w, Cursor c) {
+        return w.attendanceRepository.findRecordByDateAndEmployee(c.employee(w), w.today.minusDays(c.day(w)));
+    }
+
+    @Benchmark
+    public List<AttendanceRecord> findRecordsByEmployeeId(Workforce w, Cursor c) {
+        return w.attendanceRepository.findRecordsByEmployeeId(c.employee(w));
+    }
+
+    @Benchmark
+    public Optional<Employee> findEmployeeByEmail(Workforce w, Cursor c) {
+        return w.employeeRepository.findEmployeeByEmail(Workforce.email(c.employee(w)));
+    }
+
+    // everyone clocked in and out today already, so taps only ever find and update a record
+    // (and the day's presence bitmaps stay as full as they get at the peak)
+    @State(Scope.Benchmark)
+    public static class Rostered {
+        long today;
+
+        @Setup(Level.Trial)
+        public void tapEveryoneInAndOut(Workforce w) {
+            today = w.today.toEpochDay();
+            for (int id = 1; id <= w.employees; id++) {
+                w.attendance.tryClockIn(id);
+                w.attendance.tryClockOut(id);
+            }
+        }
+    }
+
+    // every employee clocked in today before the clockOut measurements start
+    @State(Scope.Benchmark)
+    public static class ClockedIn {
+        @Setup(Level.Trial)
+        public void clockEveryoneIn(Workforce w) throws Exception {
+            for (int id = 1; id <= w.employees; id++) {
+                AttendanceRecord r = w.attendanceRepository.findOrCreateRecord(id, w.today);
+                if (r.getClockInTime() == null) {
+                    w.attendance.clockIn(id);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.company.attendance_management_system.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+// per-thread source of employee ids and history days, so lookups don't all hit the same entry
+@State(Scope.Thread)
+public class Cursor {
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    public int employee(Workforce w) {
+        return 1 + random.nextInt(w.employees);
+    }
+
+    public int day(Workforce w) {
+        return 1 + random.nextInt(w.historyDays);
+    }
+}
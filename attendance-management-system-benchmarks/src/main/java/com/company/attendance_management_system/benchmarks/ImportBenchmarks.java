@@ -0,0 +1,61 @@
+package com.company.attendance_management_system.benchmarks;
+
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.service.EmployeeImportService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// bulk onboarding: import an N row HR export into an empty employee repository.
+// every import needs an empty repository, so each op is one whole file (single shot)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+public class ImportBenchmarks {
+
+    @Benchmark
+    public EmployeeImportService.ImportResult importCsv(Export export) throws IOException {
+        try (Reader in = Files.newBufferedReader(export.file)) {
+            return new EmployeeImportService(export.repository).importCsv(in);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Export {
+        @Param({"500000"})
+        public int rows;
+
+        Path file;
+        EmployeeRepository repository;
+
+        @Setup(Level.Trial)
+        public void writeExport() throws IOException {
+            file = Files.createTempFile("hr-export", ".csv");
+            try (BufferedWriter out = Files.newBufferedWriter(file)) {
+                out.write("employeeId,name,email,department\n");
+                for (int id = 1; id <= rows; id++) {
+                    // every 1000th row repeats an earlier email, so the error path is exercised too
+                    int emailId = id % 1000 == 0 ? id - 1 : id;
+                    out.write(id + ",\"Employee " + id + "\"," + Workforce.email(emailId) + ",Dept " + (id % Workforce.DEPARTMENTS) + "\n");
+                }
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void emptyRepository() {
+            repository = new EmployeeRepository();
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteExport() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+}
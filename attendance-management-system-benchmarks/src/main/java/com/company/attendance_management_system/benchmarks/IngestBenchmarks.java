@@ -0,0 +1,93 @@
+package com.company.attendance_management_system.benchmarks;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.ClockEvent;
+import com.company.attendance_management_system.model.ClockEventResult;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.persistence.DurableStore;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import com.company.attendance_management_system.service.LeaveServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// badge uploads: N employees tap in and out once, applied through clockIn/clockOut in a loop or as
+// one ingestClockEvents upload, in memory and with --data-dir storage. every upload has to start
+// from an empty day, so each op is one whole upload against fresh stores (single shot)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class IngestBenchmarks {
+
+    // the live path can only stamp "now", so this taps everyone in and then out again
+    @Benchmark
+    public AttendanceRecord clockInOutLoop(Upload u) throws Exception {
+        AttendanceRecord last = null;
+        for (int id = 1; id <= u.employees; id++) u.attendance.clockIn(id);
+        for (int id = 1; id <= u.employees; id++) last = u.attendance.clockOut(id);
+        return last;
+    }
+
+    @Benchmark
+    public List<ClockEventResult> ingestClockEvents(Upload u) {
+        return u.attendance.ingestClockEvents(u.events);
+    }
+
+    @State(Scope.Thread)
+    public static class Upload {
+        @Param({"5000"})
+        public int employees;
+
+        // false: in memory; true: journaled to a write-ahead log in a temp dir
+        @Param({"false", "true"})
+        public boolean durable;
+
+        AttendanceServiceImpl attendance;
+        List<ClockEvent> events;
+        private DurableStore store;
+        private Path dir;
+
+        // yesterday's taps, one in and one out per employee
+        @Setup(Level.Trial)
+        public void buildUpload() {
+            events = new ArrayList<>(employees * 2);
+            LocalDateTime in = LocalDate.now().minusDays(1).atTime(9, 0);
+            for (int id = 1; id <= employees; id++) {
+                events.add(new ClockEvent(id, in.plusSeconds(id), ClockEvent.Type.IN));
+                events.add(new ClockEvent(id, in.plusHours(8).plusSeconds(id), ClockEvent.Type.OUT));
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void openStores() throws Exception {
+            EmployeeRepository er = new EmployeeRepository();
+            AttendanceRepository ar = new AttendanceRepository();
+            attendance = new AttendanceServiceImpl(er, ar);
+            for (int id = 1; id <= employees; id++) {
+                er.addEmployee(new Employee(id, "Employee " + id, Workforce.email(id), "Ops"));
+            }
+            if (durable) {
+                dir = Files.createTempDirectory("ingest-bench");
+                store = DurableStore.open(dir, er, ar, new LeaveServiceImpl(er));
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void closeStores() throws Exception {
+            if (store == null) return;
+            store.close();
+            store = null;
+            Workforce.deleteRecursively(dir);
+        }
+    }
+}
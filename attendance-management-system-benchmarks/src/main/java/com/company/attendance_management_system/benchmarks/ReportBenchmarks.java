@@ -0,0 +1,79 @@
+package com.company.attendance_management_system.benchmarks;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// ReportService paths: per-employee reports and the month-end bulk reports.
+// add "-prof gc" for the allocation rate per operation.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class ReportBenchmarks {
+
+    @Benchmark
+    public double calculateMonthlyHours(Workforce w, Cursor c) {
+        return w.reports.calculateMonthlyHours(c.employee(w), YearMonth.from(w.today.minusDays(c.day(w))));
+    }
+
+    // the employee's whole seeded history
+    @Benchmark
+    public List<AttendanceRecord> generateAttendanceReport(Workforce w, Cursor c) {
+        return w.reports.generateAttendanceReport(c.employee(w), w.today.minusDays(w.historyDays), w.today);
+    }
+
+    // month end the way it was done before the bulk reports: one calculateMonthlyHours per employee
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double calculateMonthlyHoursLoop(Workforce w) {
+        YearMonth month = YearMonth.from(w.today.minusDays(1));
+        double sum = 0;
+        for (int id = 1; id <= w.employees; id++) sum += w.reports.calculateMonthlyHours(id, month);
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Integer, Double> calculateMonthlyHoursForAll(Workforce w, Cores cores) throws Exception {
+        return cores.run(() -> w.reports.calculateMonthlyHoursForAll(YearMonth.from(w.today.minusDays(1))));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, Double> calculateMonthlyHoursByDepartment(Workforce w, Cores cores) throws Exception {
+        return cores.run(() -> w.reports.calculateMonthlyHoursByDepartment(YearMonth.from(w.today.minusDays(1))));
+    }
+
+    // the bulk reports fork into the pool they are started from, so running them inside a pool
+    // of N threads caps their parallelism at N cores
+    @State(Scope.Benchmark)
+    public static class Cores {
+        @Param({"1", "2", "4"})
+        public int cores;
+
+        private ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void startPool() {
+            pool = new ForkJoinPool(cores);
+        }
+
+        @TearDown(Level.Trial)
+        public void stopPool() {
+            pool.shutdown();
+        }
+
+        <T> T run(Callable<T> report) throws InterruptedException, ExecutionException {
+            return pool.submit(report).get();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.company.attendance_management_system.benchmarks;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.persistence.DurableStore;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.AttendanceStore;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.repository.MappedAttendanceRepository;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import com.company.attendance_management_system.service.DailyPresence;
+import com.company.attendance_management_system.service.LeaveServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// cold start of a --data-dir: N records are persisted and snapshotted once per fork, then each op
+// opens the directory and wires the services the way App does, until they are ready (single shot).
+// heap: records come from the snapshot into the heap store (the heap has to hold them, ~250 bytes each);
+// mapped: records stay in memory-mapped rows and the snapshot only holds employees and leave.
+// the heap in use once started is reported beside the time as coldStart:heapInUseMb.
+// the 10M heap case holds about 2 GB of records, hence the 4 GB heap
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class StartupBenchmarks {
+
+    @Benchmark
+    public DurableStore coldStart(DataDir d, Started s) throws IOException {
+        s.rows = d.mapped ? MappedAttendanceRepository.open(d.dir.resolve("attendance-rows")) : null;
+        AttendanceStore ar = s.rows != null ? s.rows : new AttendanceRepository();
+        EmployeeRepository er = new EmployeeRepository();
+        DailyPresence presence = new DailyPresence();
+        new AttendanceServiceImpl(er, ar, Clock.systemDefaultZone(), presence);
+        s.store = DurableStore.open(d.dir, er, ar, new LeaveServiceImpl(er, presence));
+        return s.store;
+    }
+
+    // a data dir holding about one working year per employee, snapshotted with a tiny log tail
+    @State(Scope.Benchmark)
+    public static class DataDir {
+        @Param({"1000000", "10000000"})
+        public int records;
+
+        // "heap" or "mapped"
+        @Param({"heap", "mapped"})
+        public String store;
+
+        boolean mapped;
+        Path dir;
+
+        @Setup(Level.Trial)
+        public void seed() throws IOException {
+            mapped = "mapped".equals(store);
+            dir = Files.createTempDirectory("startup-bench");
+            int employees = Math.max(1, records / 250);
+            EmployeeRepository er = new EmployeeRepository();
+            MappedAttendanceRepository rows = mapped ? MappedAttendanceRepository.open(dir.resolve("attendance-rows")) : null;
+            AttendanceStore ar = rows != null ? rows : new AttendanceRepository();
+            LocalDate firstDay = LocalDate.of(2020, 1, 1);
+            for (int i = 0; i < records; i++) {
+                AttendanceRecord r = ar.createRecord(i % employees, firstDay.plusDays(i / employees));
+                LocalDateTime in = r.getDate().atTime(9, 0);
+                r.setClockInTime(in);
+                r.setClockOutTime(in.plusHours(8));
+                r.setHoursWorked(8.0);
+            }
+            try (DurableStore ignored = DurableStore.open(dir, er, ar, new LeaveServiceImpl(er))) {
+                ignored.snapshot();
+            } finally {
+                if (rows != null) rows.close();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteDir() throws IOException {
+            Workforce.deleteRecursively(dir);
+        }
+    }
+
+    // what one start left behind, closed before the next; its public field is the heap counter
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Started {
+        public long heapInUseMb;
+        MappedAttendanceRepository rows;
+        DurableStore store;
+
+        @Setup(Level.Invocation)
+        public void collect() {
+            System.gc();
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            System.gc();
+            Runtime rt = Runtime.getRuntime();
+            heapInUseMb = (rt.totalMemory() - rt.freeMemory()) >> 20;
+            store.close();
+            if (rows != null) rows.close();
+            store = null;
+            rows = null;
+        }
+    }
+}
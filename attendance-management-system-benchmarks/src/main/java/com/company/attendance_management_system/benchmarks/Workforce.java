@@ -0,0 +1,93 @@
+package com.company.attendance_management_system.benchmarks;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.AttendanceStore;
+import com.company.attendance_management_system.repository.ColumnarAttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.repository.MappedAttendanceRepository;
+import com.company.attendance_management_system.service.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// synthetic company shared by all benchmarks: employees spread over departments, each with
+// historyDays of finished attendance (clocked in at 9, out between 16:00 and 18:45) ending yesterday.
+// seeded once per fork; the 1M case with the default history needs a large heap (see README).
+@State(Scope.Benchmark)
+public class Workforce {
+    public static final int DEPARTMENTS = 40;
+
+    @Param({"1000", "100000", "1000000"})
+    public int employees;
+
+    @Param({"20"})
+    public int historyDays;
+
+    // "heap" (one object per record), "columnar", or "mapped" (rows in memory-mapped files in a temp dir)
+    @Param({"heap"})
+    public String store;
+
+    public EmployeeRepository employeeRepository;
+    public AttendanceStore attendanceRepository;
+    public AttendanceServiceImpl attendance;
+    public ReportService reports;
+    public LocalDate today;
+    private Path rowsDir;
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        employeeRepository = new EmployeeRepository();
+        if ("mapped".equals(store)) {
+            rowsDir = Files.createTempDirectory("workforce-rows");
+            attendanceRepository = MappedAttendanceRepository.open(rowsDir);
+        } else {
+            attendanceRepository = "columnar".equals(store) ? new ColumnarAttendanceRepository() : new AttendanceRepository();
+        }
+        attendance = new AttendanceServiceImpl(employeeRepository, attendanceRepository);
+        EmployeeServiceImpl employeeService = new EmployeeServiceImpl(employeeRepository);
+        reports = new ReportService(attendance, employeeService);
+        today = LocalDate.now();
+
+        for (int id = 1; id <= employees; id++) {
+            // straight to the repository: the service's duplicate email check is itself one of the measured paths
+            employeeRepository.addEmployee(new Employee(id, "Employee " + id, email(id), "Dept " + (id % DEPARTMENTS)));
+        }
+        for (int d = historyDays; d >= 1; d--) {
+            LocalDate day = today.minusDays(d);
+            for (int id = 1; id <= employees; id++) {
+                AttendanceRecord r = attendanceRepository.createRecord(id, day);
+                LocalDateTime in = day.atTime(9, 0);
+                r.setClockInTime(in);
+                r.setClockOutTime(in.plusMinutes(420 + (id + d) % 12 * 15));
+                r.setHoursWorked((420 + (id + d) % 12 * 15) / 60.0);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteRows() throws IOException {
+        if (rowsDir == null) return;
+        ((MappedAttendanceRepository) attendanceRepository).close();
+        deleteRecursively(rowsDir);
+    }
+
+    public static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    public static String email(int employeeId) {
+        return "employee" + employeeId + "@example.com";
+    }
+}
@@ -3,30 +3,147 @@ package com.company.attendance_management_system;
 import com.company.attendance_management_system.exception.DuplicateEmployeeException;
 import com.company.attendance_management_system.exception.EmployeeNotFoundException;
 import com.company.attendance_management_system.exception.InvalidAttendanceException;
+import com.company.attendance_management_system.metrics.Metrics;
 import com.company.attendance_management_system.model.AttendanceRecord;
 import com.company.attendance_management_system.model.Employee;
 import com.company.attendance_management_system.model.LeaveRequest;
+import com.company.attendance_management_system.persistence.DurableStore;
 import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.AttendanceStore;
+import com.company.attendance_management_system.repository.ColumnarAttendanceRepository;
 import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.repository.MappedAttendanceRepository;
+import com.company.attendance_management_system.server.AttendanceHttpServer;
+import com.company.attendance_management_system.server.ClockTerminalServer;
 import com.company.attendance_management_system.service.*;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
 
 public class App {
 
+    private final Clock clock = Clock.systemDefaultZone();
     private final EmployeeRepository employeeRepo = new EmployeeRepository();
-    private final AttendanceRepository attendanceRepo = new AttendanceRepository();
+    private final AttendanceStore attendanceRepo;
 
-    private final EmployeeService employees = new EmployeeServiceImpl(employeeRepo);
-    private final AttendanceService attendance = new AttendanceServiceImpl(employeeRepo, attendanceRepo);
-    private final LeaveService leaves = new LeaveServiceImpl(employeeRepo);
-    private final ReportService reports = new ReportService(attendance);
+    private final EmployeeService employees;
+    private final AttendanceServiceImpl attendance;
+    private final LeaveServiceImpl leaveService;
+    private final EmployeeImportService importer;
+    private final LeaveService leaves;
+    private final ReportService reports;
 
-    public static void main(String[] args) {
-        new App().run();
+    private App(AttendanceStore attendanceRepo) {
+        this.attendanceRepo = attendanceRepo;
+        this.employees = new EmployeeServiceImpl(employeeRepo);
+        DailyPresence presence = new DailyPresence();
+        this.attendance = new AttendanceServiceImpl(employeeRepo, attendanceRepo, clock, presence);
+        this.leaveService = new LeaveServiceImpl(employeeRepo, presence);
+        this.importer = new EmployeeImportService(employeeRepo);
+        this.leaves = leaveService;
+        this.reports = new ReportService(attendance, employees);
+    }
+
+    private static final Duration SNAPSHOT_INTERVAL = Duration.ofMinutes(10);
+    // leave requests listed per screen
+    private static final int PAGE_SIZE = 20;
+
+    // usage: App [--data-dir=<dir>] [--store=columnar|mapped] [--http=<port>] [--terminal=<port>]
+    // (without a data dir everything stays in memory; the columnar store suits very large record counts;
+    // the mapped store keeps attendance in memory-mapped files under <data-dir>/attendance-rows, off the heap;
+    // --http serves the JSON API instead of the menu, until the process is stopped;
+    // --terminal also accepts binary clock terminal connections, alongside the menu or the HTTP API)
+    public static void main(String[] args) throws IOException {
+        // timers and counters show up in jconsole / VisualVM under com.company.attendance_management_system
+        Metrics.registerMBeans();
+        String storeType = option(args, "--store");
+        String dataDir = option(args, "--data-dir");
+        String httpPort = option(args, "--http");
+        String terminalPort = option(args, "--terminal");
+        if ("mapped".equals(storeType) && dataDir == null) {
+            throw new IllegalArgumentException("--store=mapped needs --data-dir");
+        }
+        MappedAttendanceRepository rows = "mapped".equals(storeType)
+                ? MappedAttendanceRepository.open(Paths.get(dataDir, "attendance-rows")) : null;
+        App app = new App(rows != null ? rows
+                : "columnar".equals(storeType) ? new ColumnarAttendanceRepository() : new AttendanceRepository());
+        if (dataDir == null) {
+            app.start(httpPort, terminalPort);
+            return;
+        }
+        try (DurableStore store = DurableStore.open(Paths.get(dataDir), app.employeeRepo, app.attendanceRepo, app.leaveService)) {
+            System.out.println("Loaded data from " + store.getLog().getDirectory());
+            store.startPeriodicSnapshots(SNAPSHOT_INTERVAL);
+            app.start(httpPort, terminalPort);
+        } finally {
+            if (rows != null) rows.close();
+        }
+    }
+
+    private void start(String httpPort, String terminalPort) throws IOException {
+        ClockTerminalServer terminals = null;
+        if (terminalPort != null) {
+            terminals = new ClockTerminalServer(new InetSocketAddress(Integer.parseInt(terminalPort)), attendance);
+            terminals.start();
+            System.out.println("Accepting clock terminals on port " + terminals.getAddress().getPort());
+        }
+        try {
+            if (httpPort == null) {
+                run();
+            } else {
+                serve(Integer.parseInt(httpPort));
+            }
+        } finally {
+            if (terminals != null) terminals.close();
+        }
+    }
+
+    // serve HTTP until Ctrl+C / SIGTERM; the shutdown hook waits for main to close the server and the store
+    private void serve(int port) throws IOException {
+        CountDownLatch stop = new CountDownLatch(1);
+        Thread main = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stop.countDown();
+            try {
+                main.join();
+            } catch (InterruptedException ignored) {
+                // exiting anyway
+            }
+        }, "attendance-shutdown"));
+        try (AttendanceHttpServer server = new AttendanceHttpServer(new InetSocketAddress(port),
+                employees, attendance, leaves, reports)) {
+            server.start();
+            System.out.println("Serving HTTP on port " + server.getAddress().getPort()
+                    + (server.usesVirtualThreads() ? " (virtual thread per request)" : " (platform thread pool)"));
+            stop.await();
+            System.out.println("Stopping.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String option(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return null;
     }
 
     private void run() {
@@ -46,6 +163,12 @@ public class App {
                         case "8": listEmployees(); break;
                         case "9": listEmployeeLeaves(in); break;
                         case "10": showAttendanceReport(in); break;
+                        case "11": showDepartmentHours(in); break;
+                        case "12": importEmployees(in); break;
+                        case "13": showEmployeesOnLeave(in); break;
+                        case "14": showPresence(in); break;
+                        case "15": showPendingLeaves(in); break;
+                        case "16": System.out.print(Metrics.dump()); break;
                         case "0": System.out.println("Bye."); return;
                         default: System.out.println("Unknown option.");
                     }
@@ -69,6 +192,12 @@ public class App {
         System.out.println("8) List employees");
         System.out.println("9) List employee leaves");
         System.out.println("10) Attendance report (date range)");
+        System.out.println("11) Monthly hours by department");
+        System.out.println("12) Import employees (CSV or JSONL file)");
+        System.out.println("13) Who is on leave (date)");
+        System.out.println("14) Presence dashboard (date)");
+        System.out.println("15) Pending leave requests (department)");
+        System.out.println("16) Metrics (call counts and latencies)");
         System.out.println("0) Exit");
         System.out.print("Choose: ");
     }
@@ -82,6 +211,22 @@ public class App {
         System.out.println("Saved.");
     }
 
+    private void importEmployees(Scanner in) throws IOException {
+        Path file = Paths.get(ask(in, "File (.csv or .jsonl): "));
+        EmployeeImportService.ImportResult result;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            String name = file.getFileName().toString().toLowerCase();
+            result = name.endsWith(".jsonl") || name.endsWith(".json")
+                    ? importer.importJsonLines(reader)
+                    : importer.importCsv(reader);
+        }
+        System.out.println("Imported " + result.getImported() + ", rejected " + result.getRejected() + ".");
+        result.getErrors().forEach(e -> System.out.println("  " + e));
+        if (result.getRejected() > result.getErrors().size()) {
+            System.out.println("  ... and " + (result.getRejected() - result.getErrors().size()) + " more");
+        }
+    }
+
     private void doClockIn(Scanner in) throws InvalidAttendanceException, EmployeeNotFoundException {
         int id = ensureEmployee(in);
         AttendanceRecord r = attendance.clockIn(id);
@@ -103,17 +248,26 @@ public class App {
         System.out.println("Leave requested. ID: " + req.getRequestId() + " | " + req.getStatus());
     }
 
+    // one id sets the status outright; several (comma separated) decide those still pending in one batch
     private void updateLeaveStatus(Scanner in) {
-        int rid = askInt(in, "Leave Request ID: ");
+        String ids = ask(in, "Leave Request ID(s): ");
         String yn = ask(in, "Approve? (y/n): ");
         boolean approve = yn.equalsIgnoreCase("y");
-        leaves.approveLeave(rid, approve);
-        System.out.println("Leave updated.");
+        if (!ids.contains(",")) {
+            leaves.approveLeave(Integer.parseInt(ids), approve);
+            System.out.println("Leave updated.");
+            return;
+        }
+        List<Integer> requestIds = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            requestIds.add(Integer.parseInt(id.trim()));
+        }
+        leaves.approveLeaves(requestIds, approve).forEach(System.out::println);
     }
 
     private void showTodayRecord(Scanner in) throws EmployeeNotFoundException {
         int id = ensureEmployee(in);
-        Optional<AttendanceRecord> rec = attendance.getRecordForEmployeeByDate(id, java.time.LocalDate.now());
+        Optional<AttendanceRecord> rec = attendance.getRecordForEmployeeByDate(id, java.time.LocalDate.now(clock));
         System.out.println(rec.map(Object::toString).orElse("No record for today."));
     }
 
@@ -124,6 +278,16 @@ public class App {
         System.out.println("Total hours for " + ym + ": " + hours);
     }
 
+    private void showDepartmentHours(Scanner in) {
+        YearMonth ym = askYearMonth(in, "Year-Month (YYYY-MM): ");
+        Map<String, Double> hours = reports.calculateMonthlyHoursByDepartment(ym);
+        if (hours.isEmpty()) {
+            System.out.println("No hours recorded for " + ym + ".");
+            return;
+        }
+        hours.forEach((dept, total) -> System.out.println(dept + " | " + total));
+    }
+
     private void listEmployees() {
         List<Employee> list = employees.getAllEmployees();
         if (list.isEmpty()) {
@@ -145,6 +309,44 @@ public class App {
                 "#" + r.getRequestId() + " | " + r.getStartDate() + " -> " + r.getEndDate() + " | " + r.getStatus() + " | " + r.getReason()));
     }
 
+    private void showEmployeesOnLeave(Scanner in) {
+        LocalDate date = LocalDate.parse(ask(in, "Date (YYYY-MM-DD): "));
+        List<Integer> ids = leaves.findEmployeesOnLeave(date);
+        if (ids.isEmpty()) {
+            System.out.println("Nobody is on leave.");
+            return;
+        }
+        Collections.sort(ids);
+        for (int id : ids) {
+            String name = employees.findEmployeeById(id).map(Employee::getName).orElse("?");
+            System.out.println(id + " | " + name);
+        }
+    }
+
+    private void showPresence(Scanner in) {
+        LocalDate date = LocalDate.parse(ask(in, "Date (YYYY-MM-DD): "));
+        System.out.println("Clocked in: " + attendance.getEmployeesClockedIn(date).cardinality());
+        System.out.println("Still in:   " + attendance.getEmployeesStillIn(date));
+        System.out.println("On leave:   " + leaves.findEmployeesOnLeave(date).size());
+        System.out.println("Absent:     " + attendance.getAbsentEmployees(date));
+    }
+
+    private void showPendingLeaves(Scanner in) {
+        String department = ask(in, "Department: ");
+        int total = leaves.countPendingLeaveRequests(department);
+        System.out.println(total + " pending.");
+        int after = 0;
+        while (true) {
+            List<LeaveRequest> page = leaves.getPendingLeaveRequests(department, after, PAGE_SIZE);
+            page.forEach(r -> System.out.println("#" + r.getRequestId() + " | employee " + r.getEmployeeId()
+                    + " | " + r.getStartDate() + " -> " + r.getEndDate() + " | " + r.getReason()));
+            if (page.size() < PAGE_SIZE || !ask(in, "More? (y/N): ").equalsIgnoreCase("y")) {
+                return;
+            }
+            after = page.get(page.size() - 1).getRequestId();
+        }
+    }
+
     private String ask(Scanner in, String prompt) {
         System.out.print(prompt);
         return in.nextLine().trim();
@@ -2,8 +2,9 @@ package com.company.attendance_management_system.exception;
 
 @SuppressWarnings("serial")
 public class EmployeeNotFoundException extends Exception {
+    // thrown for unknown ids in requests, never for bugs: no stack trace to capture
     public EmployeeNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
 
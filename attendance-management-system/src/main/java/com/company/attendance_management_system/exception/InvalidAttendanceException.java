@@ -3,8 +3,9 @@ package com.company.attendance_management_system.exception;
 
 @SuppressWarnings("serial")
 public class InvalidAttendanceException extends Exception {
+    // a refused tap is an expected outcome, not a bug: skip the stack trace, the bulk of the cost of throwing
     public InvalidAttendanceException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
 
@@ -0,0 +1,211 @@
+package com.company.attendance_management_system.json;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// just enough JSON for the HTTP API and the employee importer: what is read are flat objects (or arrays)
+// with string, number, boolean or null values; what is written are maps, collections, strings, numbers,
+// booleans, dates/times (written as ISO strings) or null
+public final class Json {
+
+    private Json() {
+    }
+
+    // flat object -> field values as text (null for JSON null)
+    public static Map<String, String> parseObject(String text) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        readObject(text, fields::put);
+        return fields;
+    }
+
+    // flat object -> each key and its value as text, in order, without building a map
+    public static void readObject(String text, BiConsumer<String, String> field) {
+        Cursor json = new Cursor(text);
+        json.expect('{');
+        if (!json.peek('}')) {
+            do {
+                String key = json.readString();
+                json.expect(':');
+                field.accept(key, json.readValue());
+            } while (json.peek(','));
+            json.expect('}');
+        }
+        json.end();
+    }
+
+    // flat array -> item values as text (null for JSON null)
+    public static List<String> parseArray(String text) {
+        List<String> items = new ArrayList<>();
+        Cursor json = new Cursor(text);
+        json.expect('[');
+        if (!json.peek(']')) {
+            do {
+                items.add(json.readValue());
+            } while (json.peek(','));
+            json.expect(']');
+        }
+        json.end();
+        return items;
+    }
+
+    public static String write(Object value) {
+        StringBuilder out = new StringBuilder(128);
+        write(out, value);
+        return out.toString();
+    }
+
+    private static void write(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                writeString(out, String.valueOf(e.getKey()));
+                out.append(':');
+                write(out, e.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof Collection) {
+            out.append('[');
+            boolean first = true;
+            for (Object item : (Collection<?>) value) {
+                if (!first) out.append(',');
+                first = false;
+                write(out, item);
+            }
+            out.append(']');
+        } else if (value instanceof int[]) {
+            out.append('[');
+            int[] items = (int[]) value;
+            for (int i = 0; i < items.length; i++) {
+                if (i > 0) out.append(',');
+                out.append(items[i]);
+            }
+            out.append(']');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else {
+            // strings, enums and java.time values
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder out, String s) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Cursor {
+        private final String s;
+        private int pos;
+
+        Cursor(String s) {
+            this.s = s;
+        }
+
+        // consume c if it's the next non-space character
+        boolean peek(char c) {
+            skipSpaces();
+            if (pos < s.length() && s.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!peek(c)) {
+                throw new IllegalArgumentException("Malformed JSON: expected '" + c + "' at column " + (pos + 1) + ".");
+            }
+        }
+
+        void end() {
+            skipSpaces();
+            if (pos != s.length()) {
+                throw new IllegalArgumentException("Malformed JSON: trailing text at column " + (pos + 1) + ".");
+            }
+        }
+
+        String readValue() {
+            skipSpaces();
+            if (pos < s.length() && s.charAt(pos) == '"') {
+                return readString();
+            }
+            int start = pos;
+            while (pos < s.length() && ",}] \t\r\n".indexOf(s.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = s.substring(start, pos);
+            if (literal.isEmpty() || literal.startsWith("{") || literal.startsWith("[")) {
+                throw new IllegalArgumentException("Malformed JSON: expected a plain value at column " + (start + 1) + ".");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            while (pos < s.length()) {
+                char c = s.charAt(pos++);
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (pos >= s.length()) break;
+                char e = s.charAt(pos++);
+                switch (e) {
+                    case 'n': out.append('\n'); break;
+                    case 't': out.append('\t'); break;
+                    case 'r': out.append('\r'); break;
+                    case 'b': out.append('\b'); break;
+                    case 'f': out.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) {
+                            throw new IllegalArgumentException("Malformed JSON: bad \\u escape at column " + (pos + 1) + ".");
+                        }
+                        try {
+                            out.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw new IllegalArgumentException("Malformed JSON: bad \\u escape at column " + (pos + 1) + ".");
+                        }
+                        pos += 4;
+                        break;
+                    default: out.append(e); // \" \\ \/
+                }
+            }
+            throw new IllegalArgumentException("Malformed JSON: unterminated string.");
+        }
+
+        private void skipSpaces() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.company.attendance_management_system.metrics;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.company.attendance_management_system.ClockIn")
+@Label("Clock In")
+public final class ClockInEvent extends ClockTapEvent {
+}
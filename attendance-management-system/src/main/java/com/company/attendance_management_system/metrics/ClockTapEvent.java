@@ -0,0 +1,39 @@
+package com.company.attendance_management_system.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+
+// one clock-in or clock-out: a live tap from the employee check to the stored record (lock wait
+// included), or one tap of an upload. like every attendance event it is off unless a recording turns
+// it on (see attendance.jfc); until then begin/end compile down to nothing, so they stay on the hot path.
+// usage:
+//   ClockInEvent event = new ClockInEvent();
+//   event.begin();
+//   ... event.end(employeeId, ClockOutcome.ACCEPTED.name(), 1);
+@Enabled(false)
+@Category({"Attendance Management System", "Attendance"})
+public abstract class ClockTapEvent extends jdk.jfr.Event {
+
+    // not private: JFR leaves out private fields of an event's superclass
+    @Label("Employee Id")
+    int employeeId;
+
+    @Label("Outcome")
+    @Description("ACCEPTED, or the ClockOutcome the tap was refused with")
+    String outcome;
+
+    @Label("Records Scanned")
+    @Description("Attendance records of the day looked up (0 when the employee is unknown)")
+    int recordsScanned;
+
+    public void end(int employeeId, String outcome, int recordsScanned) {
+        if (shouldCommit()) {
+            this.employeeId = employeeId;
+            this.outcome = outcome;
+            this.recordsScanned = recordsScanned;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.company.attendance_management_system.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// event count on a striped LongAdder, so hot paths on many threads don't fight over one cache line
+public final class Counter implements CounterMXBean {
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,6 @@
+package com.company.attendance_management_system.metrics;
+
+public interface CounterMXBean {
+    long getCount();
+    void reset();
+}
@@ -0,0 +1,120 @@
+package com.company.attendance_management_system.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// latency histogram laid out like HdrHistogram: values (nanoseconds) below 64 get a bucket each,
+// above that every power of two is split into 32 equal buckets, so any value is reported within
+// about 3% from 1 ns up to Long.MAX_VALUE, in 1888 buckets. recording is a few shifts and one
+// atomic increment in the calling thread's stripe, so concurrent recorders rarely share a cache line.
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // values below this have a bucket of their own
+    private static final int LINEAR = 2 * SUB_BUCKETS;
+    static final int BUCKETS = LINEAR + (Long.SIZE - 1 - (SUB_BITS + 1)) * SUB_BUCKETS;
+    private static final int STRIPES =
+            Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        stripes[(int) Thread.currentThread().getId() & (STRIPES - 1)].incrementAndGet(bucket(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += stripe.get(i);
+            }
+        }
+        return new Snapshot(merged, count.sum(), total.sum(), max.get());
+    }
+
+    // concurrent recordings may land on either side of a reset
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int high = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        return LINEAR + (high - SUB_BITS - 1) * SUB_BUCKETS + (int) ((value >>> (high - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    // largest value that falls into the bucket
+    static long highestValue(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int k = bucket - LINEAR;
+        int shift = k / SUB_BUCKETS + 1;
+        long lowest = (long) (SUB_BUCKETS + k % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    // counts frozen at one moment, for percentiles
+    public static final class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        Snapshot(long[] buckets, long count, long total, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public long getMax() { return max; }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        // smallest bucket bound that at least this percentage of recorded values lie under
+        public long getValueAtPercentile(double percentile) {
+            long recorded = 0;
+            for (long c : buckets) recorded += c;
+            if (recorded == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * recorded));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.company.attendance_management_system.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// one applyForLeave call, from the employee check to the stored request; off by default like ClockTapEvent
+@Name("com.company.attendance_management_system.LeaveApplication")
+@Label("Leave Application")
+@Enabled(false)
+@Category({"Attendance Management System", "Leave"})
+public final class LeaveApplicationEvent extends jdk.jfr.Event {
+
+    public static final String FILED = "FILED";
+    // overlaps a pending or approved request of the same employee
+    public static final String OVERLAP = "OVERLAP";
+    // unparsable dates, end before start, or outside the supported range
+    public static final String INVALID_DATES = "INVALID_DATES";
+    public static final String EMPLOYEE_NOT_FOUND = "EMPLOYEE_NOT_FOUND";
+
+    @Label("Employee Id")
+    private int employeeId;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Records Scanned")
+    @Description("Leave requests the employee already had on file, which the overlap check searched")
+    private int recordsScanned;
+
+    public void end(int employeeId, String outcome, int recordsScanned) {
+        if (shouldCommit()) {
+            this.employeeId = employeeId;
+            this.outcome = outcome;
+            this.recordsScanned = recordsScanned;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.company.attendance_management_system.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// process-wide registry of the timers and counters the services and repositories keep.
+// classes grab theirs once, into static fields (Metrics.timer("employeeRepository.findEmployeeById")),
+// and record on every call. after registerMBeans() each one also shows up in JMX under
+// com.company.attendance_management_system:type=Timer|Counter,name=<name>; dump() prints them all.
+// on by default; -Dattendance.metrics=false (or setEnabled(false)) turns timing off.
+public final class Metrics {
+    private static final Logger log = LoggerFactory.getLogger(Metrics.class);
+
+    public static final String JMX_DOMAIN = "com.company.attendance_management_system";
+
+    static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("attendance.metrics"));
+
+    private static final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private static final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    // where new metrics get registered once registerMBeans has run
+    private static MBeanServer mbeanServer;
+
+    private Metrics() {
+    }
+
+    public static Timer timer(String name) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            Timer created = new Timer(name);
+            timer = timers.putIfAbsent(name, created);
+            if (timer == null) {
+                timer = created;
+                register("Timer", name, created);
+            }
+        }
+        return timer;
+    }
+
+    public static Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            Counter created = new Counter(name);
+            counter = counters.putIfAbsent(name, created);
+            if (counter == null) {
+                counter = created;
+                register("Counter", name, created);
+            }
+        }
+        return counter;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    // expose every metric, now and later, through the platform MBean server
+    public static synchronized void registerMBeans() {
+        if (mbeanServer != null) {
+            return;
+        }
+        mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        timers.forEach((name, timer) -> register("Timer", name, timer));
+        counters.forEach((name, counter) -> register("Counter", name, counter));
+    }
+
+    public static void resetAll() {
+        timers.values().forEach(Timer::reset);
+        counters.values().forEach(Counter::reset);
+    }
+
+    // one line per metric that has seen anything, sorted by name; times in microseconds
+    public static String dump() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-48s %10s %9s %9s %9s %9s %9s %9s%n",
+                "timer (us)", "count", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        for (Timer timer : timers.values()) {
+            LatencyHistogram.Snapshot s = timer.snapshot();
+            if (s.getCount() == 0) {
+                continue;
+            }
+            out.append(String.format("%-48s %10d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", timer.getName(), s.getCount(),
+                    s.getMean() / 1000.0, micros(s, 50), micros(s, 90), micros(s, 99), micros(s, 99.9),
+                    s.getMax() / 1000.0));
+        }
+        boolean header = false;
+        for (Counter counter : counters.values()) {
+            long count = counter.getCount();
+            if (count == 0) {
+                continue;
+            }
+            if (!header) {
+                out.append(String.format("%n%-48s %10s%n", "counter", "count"));
+                header = true;
+            }
+            out.append(String.format("%-48s %10d%n", counter.getName(), count));
+        }
+        return out.toString();
+    }
+
+    private static double micros(LatencyHistogram.Snapshot snapshot, double percentile) {
+        return snapshot.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static synchronized void register(String type, String name, Object mbean) {
+        if (mbeanServer == null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (!mbeanServer.isRegistered(objectName)) {
+                mbeanServer.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Could not register metric {} with JMX", name, e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.attendance_management_system.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// one ReportService call; off by default like ClockTapEvent
+@Name("com.company.attendance_management_system.Report")
+@Label("Report")
+@Enabled(false)
+@Category({"Attendance Management System", "Reports"})
+public final class ReportEvent extends jdk.jfr.Event {
+
+    public static final String OK = "OK";
+    public static final String FAILED = "FAILED";
+
+    @Label("Report")
+    private String report;
+
+    @Label("Employee Id")
+    @Description("-1 for company-wide reports")
+    private int employeeId;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Records Scanned")
+    @Description("Attendance records or per-employee month totals the report read")
+    private int recordsScanned;
+
+    public void end(String report, int employeeId, String outcome, int recordsScanned) {
+        if (shouldCommit()) {
+            this.report = report;
+            this.employeeId = employeeId;
+            this.outcome = outcome;
+            this.recordsScanned = recordsScanned;
+            commit();
+        }
+    }
+}
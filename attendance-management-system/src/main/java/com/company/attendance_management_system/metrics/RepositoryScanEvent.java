@@ -0,0 +1,42 @@
+package com.company.attendance_management_system.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Collection;
+
+// a repository call that walks many records (an employee's history, a date range, everything);
+// off by default like ClockTapEvent. end() hands the result back so it fits in a return statement
+@Name("com.company.attendance_management_system.RepositoryScan")
+@Label("Repository Scan")
+@Enabled(false)
+@Category({"Attendance Management System", "Repository"})
+public final class RepositoryScanEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Employee Id")
+    @Description("-1 when the scan is not limited to one employee")
+    private int employeeId;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Records Scanned")
+    private int recordsScanned;
+
+    public <T extends Collection<?>> T end(String operation, int employeeId, T result) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.employeeId = employeeId;
+            this.outcome = result.isEmpty() ? "EMPTY" : "FOUND";
+            this.recordsScanned = result.size();
+            commit();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package com.company.attendance_management_system.metrics;
+
+// call count and latency distribution of one operation. usage:
+//   long started = TIMER.start();
+//   try { ... } finally { TIMER.stop(started); }
+// while Metrics is disabled start() returns 0 and stop(0) records nothing, so the cost is one flag read.
+public final class Timer implements TimerMXBean {
+
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long start() {
+        return Metrics.enabled ? System.nanoTime() : 0;
+    }
+
+    public void stop(long start) {
+        if (start != 0) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    public LatencyHistogram.Snapshot snapshot() {
+        return histogram.snapshot();
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.snapshot().getCount();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return histogram.snapshot().getMean() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return percentileMicros(50);
+    }
+
+    @Override
+    public double getP90Micros() {
+        return percentileMicros(90);
+    }
+
+    @Override
+    public double getP99Micros() {
+        return percentileMicros(99);
+    }
+
+    @Override
+    public double getP999Micros() {
+        return percentileMicros(99.9);
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return histogram.snapshot().getMax() / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        histogram.reset();
+    }
+
+    private double percentileMicros(double percentile) {
+        return histogram.snapshot().getValueAtPercentile(percentile) / 1000.0;
+    }
+}
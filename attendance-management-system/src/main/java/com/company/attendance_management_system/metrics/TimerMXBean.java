@@ -0,0 +1,13 @@
+package com.company.attendance_management_system.metrics;
+
+// what JConsole / VisualVM show for each Timer (times in microseconds)
+public interface TimerMXBean {
+    long getCount();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP90Micros();
+    double getP99Micros();
+    double getP999Micros();
+    double getMaxMicros();
+    void reset();
+}
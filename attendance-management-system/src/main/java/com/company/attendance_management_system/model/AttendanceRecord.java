@@ -2,18 +2,37 @@ package com.company.attendance_management_system.model;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Consumer;
 
 public class AttendanceRecord {
+	// told the old and new value whenever hoursWorked changes (lets the repository keep running totals);
+	// NaN stands for "no hours"
+	public interface HoursListener {
+		void hoursChanged(AttendanceRecord record, double oldHours, double newHours);
+	}
+
+	// clock times are kept as nanoseconds since 1970-01-01T00:00 local time (years 1677 to 2262),
+	// so a tap can be stamped, compared and turned into hours without creating java.time objects
+	public static final long NO_TIME = Long.MIN_VALUE;
+	public static final long NANOS_PER_MINUTE = 60_000_000_000L;
+	public static final long NANOS_PER_DAY = 24 * 60 * NANOS_PER_MINUTE;
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
 	// unique id for this record
-	private final int recordId;  
+	private final int recordId;
 	// employee id linked with this record
-	private final int employeeId;  
+	private final int employeeId;
 	// date for the attendance
-	private final LocalDate date;  
-	private LocalDateTime clockInTime;  
-	private LocalDateTime clockOutTime;  
-	// total hours worked (in decimal)
-	private Double hoursWorked;  
+	private final LocalDate date;
+	// volatile: written under the employee's lock, read from any thread
+	private volatile long clockIn = NO_TIME;
+	private volatile long clockOut = NO_TIME;
+	// total hours worked (in decimal), NaN until worked out
+	private volatile double hoursWorked = Double.NaN;
+	// told about every setter call (set by the repository that stores this record)
+	private volatile Consumer<AttendanceRecord> changeListener;
+	private volatile HoursListener hoursListener;
 
 	// constructor to create a record
 	public AttendanceRecord(int recordId, int employeeId, LocalDate date) {
@@ -26,12 +45,53 @@ public class AttendanceRecord {
 	public int getRecordId() { return recordId; }
 	public int getEmployeeId() { return employeeId; }
 	public LocalDate getDate() { return date; }
-	public LocalDateTime getClockInTime() { return clockInTime; }
-	public void setClockInTime(LocalDateTime clockInTime) { this.clockInTime = clockInTime; }
-	public LocalDateTime getClockOutTime() { return clockOutTime; }
-	public void setClockOutTime(LocalDateTime clockOutTime) { this.clockOutTime = clockOutTime; }
-	public Double getHoursWorked() { return hoursWorked; }
-	public void setHoursWorked(Double hoursWorked) { this.hoursWorked = hoursWorked; }
+	public LocalDateTime getClockInTime() { return toDateTime(getClockInNanos()); }
+	public void setClockInTime(LocalDateTime clockInTime) { setClockInNanos(toNanos(clockInTime)); }
+	public LocalDateTime getClockOutTime() { return toDateTime(getClockOutNanos()); }
+	public void setClockOutTime(LocalDateTime clockOutTime) { setClockOutNanos(toNanos(clockOutTime)); }
+	public Double getHoursWorked() {
+		double hours = getHours();
+		return Double.isNaN(hours) ? null : hours;
+	}
+	public void setHoursWorked(Double hoursWorked) { setHours(hoursWorked == null ? Double.NaN : hoursWorked); }
+
+	// the same values in their stored form, for the clock-in/out path
+	public boolean hasClockIn() { return getClockInNanos() != NO_TIME; }
+	public boolean hasClockOut() { return getClockOutNanos() != NO_TIME; }
+	public long getClockInNanos() { return clockIn; }
+	public void setClockInNanos(long clockIn) { this.clockIn = clockIn; changed(); }
+	public long getClockOutNanos() { return clockOut; }
+	public void setClockOutNanos(long clockOut) { this.clockOut = clockOut; changed(); }
+	public double getHours() { return hoursWorked; }
+	public void setHours(double hoursWorked) {
+		double previous;
+		// swap under the record's monitor so every listener sees a distinct old value
+		synchronized (this) {
+			previous = this.hoursWorked;
+			this.hoursWorked = hoursWorked;
+		}
+		HoursListener listener = hoursListener;
+		if (listener != null) listener.hoursChanged(this, previous, hoursWorked);
+		changed();
+	}
+	public void setChangeListener(Consumer<AttendanceRecord> changeListener) { this.changeListener = changeListener; }
+	public void setHoursListener(HoursListener hoursListener) { this.hoursListener = hoursListener; }
+
+	private void changed() {
+		Consumer<AttendanceRecord> listener = changeListener;
+		if (listener != null) listener.accept(this);
+	}
+
+	public static long toNanos(LocalDateTime time) {
+		if (time == null) return NO_TIME;
+		return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), time.getNano());
+	}
+
+	public static LocalDateTime toDateTime(long nanos) {
+		if (nanos == NO_TIME) return null;
+		return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+				(int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+	}
 
 	// to print record in readable format
 	@Override
@@ -40,9 +100,9 @@ public class AttendanceRecord {
 				"id=" + recordId +
 				", emp=" + employeeId +
 				", date=" + date +
-				", in=" + clockInTime +
-				", out=" + clockOutTime +
-				", hours=" + hoursWorked +
+				", in=" + getClockInTime() +
+				", out=" + getClockOutTime() +
+				", hours=" + getHoursWorked() +
 				'}';
 	}
 }
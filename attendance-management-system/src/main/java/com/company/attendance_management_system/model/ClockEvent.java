@@ -0,0 +1,34 @@
+package com.company.attendance_management_system.model;
+
+import java.time.LocalDateTime;
+
+public class ClockEvent {
+    // which way the employee tapped
+    public enum Type { IN, OUT }
+
+    // employee who tapped the badge
+    private final int employeeId;
+    // when the terminal saw the tap (may be long before the upload)
+    private final LocalDateTime timestamp;
+    private final Type type;
+
+    public ClockEvent(int employeeId, LocalDateTime timestamp, Type type) {
+        this.employeeId = employeeId;
+        this.timestamp = timestamp;
+        this.type = type;
+    }
+
+    // getters
+    public int getEmployeeId() { return employeeId; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public Type getType() { return type; }
+
+    @Override
+    public String toString() {
+        return "ClockEvent{" +
+                "emp=" + employeeId +
+                ", at=" + timestamp +
+                ", type=" + type +
+                '}';
+    }
+}
@@ -0,0 +1,36 @@
+package com.company.attendance_management_system.model;
+
+public class ClockEventResult {
+    private final ClockEvent event;
+    // record the event was applied to (null when rejected)
+    private final AttendanceRecord record;
+    // why the event was rejected (null when accepted)
+    private final String error;
+
+    private ClockEventResult(ClockEvent event, AttendanceRecord record, String error) {
+        this.event = event;
+        this.record = record;
+        this.error = error;
+    }
+
+    public static ClockEventResult accepted(ClockEvent event, AttendanceRecord record) {
+        return new ClockEventResult(event, record, null);
+    }
+
+    public static ClockEventResult rejected(ClockEvent event, String error) {
+        return new ClockEventResult(event, null, error);
+    }
+
+    // getters
+    public ClockEvent getEvent() { return event; }
+    public boolean isAccepted() { return error == null; }
+    public AttendanceRecord getRecord() { return record; }
+    public String getError() { return error; }
+
+    @Override
+    public String toString() {
+        return isAccepted()
+                ? "accepted " + event
+                : "rejected " + event + ": " + error;
+    }
+}
@@ -0,0 +1,29 @@
+package com.company.attendance_management_system.model;
+
+// how one clock-in/out tap ended. everything but ACCEPTED is a refusal; handing back one of these
+// constants allocates nothing, where clockIn/clockOut build and throw an exception instead
+public enum ClockOutcome {
+    ACCEPTED(null),
+    EMPLOYEE_NOT_FOUND("Employee not found."),
+    ALREADY_CLOCKED_IN("Already clocked in for %s."),
+    NO_CLOCK_IN("No clock-in found for %s."),
+    // the day's record exists but has no clock-in time
+    NOT_CLOCKED_IN("Cannot clock out before clocking in."),
+    ALREADY_CLOCKED_OUT("Already clocked out for %s."),
+    CLOCK_OUT_BEFORE_CLOCK_IN("Clock-out time is before the clock-in time.");
+
+    private final String message;
+
+    ClockOutcome(String message) {
+        this.message = message;
+    }
+
+    public boolean isAccepted() {
+        return this == ACCEPTED;
+    }
+
+    // the refusal as a sentence, for the day it happened on ("today" or a date)
+    public String describe(String day) {
+        return message == null ? null : String.format(message, day);
+    }
+}
@@ -1,11 +1,15 @@
 package com.company.attendance_management_system.model;
 
+import java.util.function.Consumer;
+
 public class Employee {
     // unique id for each employee
     private final int employeeId;  
     private String name;
     private String email;
     private String department;
+    // told about every setter call (set by the repository that stores this employee)
+    private volatile Consumer<Employee> changeListener;
 
     // constructor to set employee details
     public Employee(int employeeId, String name, String email, String department) {
@@ -18,11 +22,17 @@ public class Employee {
     // getters and setters
     public int getEmployeeId() { return employeeId; }
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) { this.name = name; changed(); }
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) { this.email = email; changed(); }
     public String getDepartment() { return department; }
-    public void setDepartment(String department) { this.department = department; }
+    public void setDepartment(String department) { this.department = department; changed(); }
+    public void setChangeListener(Consumer<Employee> changeListener) { this.changeListener = changeListener; }
+
+    private void changed() {
+        Consumer<Employee> listener = changeListener;
+        if (listener != null) listener.accept(this);
+    }
 
     // easy to print employee info
     @Override
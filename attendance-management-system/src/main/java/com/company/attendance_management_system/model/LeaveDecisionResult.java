@@ -0,0 +1,45 @@
+package com.company.attendance_management_system.model;
+
+public class LeaveDecisionResult {
+    public enum Outcome {
+        // the request was pending and now carries the decision
+        APPLIED,
+        // someone decided it first (or it appeared twice in the batch); its status is left alone
+        ALREADY_DECIDED,
+        NOT_FOUND
+    }
+
+    private final int requestId;
+    private final Outcome outcome;
+    // the request as it stands after the batch (null when not found)
+    private final LeaveRequest request;
+
+    private LeaveDecisionResult(int requestId, Outcome outcome, LeaveRequest request) {
+        this.requestId = requestId;
+        this.outcome = outcome;
+        this.request = request;
+    }
+
+    public static LeaveDecisionResult applied(LeaveRequest request) {
+        return new LeaveDecisionResult(request.getRequestId(), Outcome.APPLIED, request);
+    }
+
+    public static LeaveDecisionResult alreadyDecided(LeaveRequest request) {
+        return new LeaveDecisionResult(request.getRequestId(), Outcome.ALREADY_DECIDED, request);
+    }
+
+    public static LeaveDecisionResult notFound(int requestId) {
+        return new LeaveDecisionResult(requestId, Outcome.NOT_FOUND, null);
+    }
+
+    // getters
+    public int getRequestId() { return requestId; }
+    public Outcome getOutcome() { return outcome; }
+    public boolean isApplied() { return outcome == Outcome.APPLIED; }
+    public LeaveRequest getRequest() { return request; }
+
+    @Override
+    public String toString() {
+        return "#" + requestId + " " + outcome + (request == null ? "" : " (" + request.getStatus() + ")");
+    }
+}
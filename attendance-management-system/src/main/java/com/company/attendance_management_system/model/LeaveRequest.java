@@ -1,6 +1,7 @@
 package com.company.attendance_management_system.model;
 
 import java.time.LocalDate;
+import java.util.function.Consumer;
 
 public class LeaveRequest {
     // status of leave -> pending/approved/rejected
@@ -14,9 +15,11 @@ public class LeaveRequest {
     private final LocalDate startDate;
     private final LocalDate endDate;
     // current status of request
-    private Status status;
+    private volatile Status status;
     // reason for leave
     private final String reason;
+    // told about every status change (set by the service that stores this request)
+    private volatile Consumer<LeaveRequest> changeListener;
 
     // constructor - set values while creating leave request
     public LeaveRequest(int requestId, int employeeId, LocalDate startDate, LocalDate endDate, String reason) {
@@ -34,8 +37,14 @@ public class LeaveRequest {
     public LocalDate getStartDate() { return startDate; }
     public LocalDate getEndDate() { return endDate; }
     public Status getStatus() { return status; }
-    public void setStatus(Status status) { this.status = status; }
+    public void setStatus(Status status) { this.status = status; changed(); }
     public String getReason() { return reason; }
+    public void setChangeListener(Consumer<LeaveRequest> changeListener) { this.changeListener = changeListener; }
+
+    private void changed() {
+        Consumer<LeaveRequest> listener = changeListener;
+        if (listener != null) listener.accept(this);
+    }
 
     // to print leave request details
     @Override
@@ -0,0 +1,341 @@
+package com.company.attendance_management_system.persistence;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.model.LeaveRequest;
+import com.company.attendance_management_system.repository.AttendanceStore;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.service.LeaveServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// durable storage mode: rebuilds the in-memory stores from the latest snapshot plus the
+// write-ahead log tail on open, then journals every later mutation
+// (full entity state, last write wins on replay)
+public class DurableStore implements Closeable,
+        AttendanceStore.Listener, EmployeeRepository.Listener, LeaveServiceImpl.Listener {
+
+    // entry types
+    private static final byte ATTENDANCE_RECORD = 1;
+    private static final byte ATTENDANCE_CLEARED = 2;
+    private static final byte EMPLOYEE = 3;
+    private static final byte EMPLOYEES_CLEARED = 4;
+    private static final byte LEAVE_REQUEST = 5;
+
+    private static final Comparator<AttendanceRecord> BY_EMPLOYEE_AND_DATE =
+            Comparator.comparingInt(AttendanceRecord::getEmployeeId).thenComparing(AttendanceRecord::getDate);
+
+    private static final Logger logger = LoggerFactory.getLogger(DurableStore.class);
+
+    private final WriteAheadLog log;
+    private final EmployeeRepository employeeRepository;
+    private final AttendanceStore attendanceRepository;
+    private final LeaveServiceImpl leaveService;
+    private ScheduledExecutorService scheduler;
+
+    private DurableStore(WriteAheadLog log, EmployeeRepository employeeRepository,
+                         AttendanceStore attendanceRepository, LeaveServiceImpl leaveService) {
+        this.log = log;
+        this.employeeRepository = employeeRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.leaveService = leaveService;
+    }
+
+    public static DurableStore open(Path directory, EmployeeRepository employeeRepository,
+                                    AttendanceStore attendanceRepository,
+                                    LeaveServiceImpl leaveService) throws IOException {
+        return open(directory, WriteAheadLog.DEFAULT_SEGMENT_BYTES,
+                employeeRepository, attendanceRepository, leaveService);
+    }
+
+    public static DurableStore open(Path directory, long maxSegmentBytes, EmployeeRepository employeeRepository,
+                                    AttendanceStore attendanceRepository,
+                                    LeaveServiceImpl leaveService) throws IOException {
+        return open(directory, maxSegmentBytes, FileChannel::open, employeeRepository, attendanceRepository, leaveService);
+    }
+
+    static DurableStore open(Path directory, long maxSegmentBytes, WriteAheadLog.SegmentOpener opener,
+                             EmployeeRepository employeeRepository, AttendanceStore attendanceRepository,
+                             LeaveServiceImpl leaveService) throws IOException {
+        Optional<Path> snapshot = SnapshotFile.latest(directory);
+        long firstSegment = snapshot.map(SnapshotFile::firstUncoveredSegment).orElse(1L);
+        WriteAheadLog log = WriteAheadLog.open(directory, maxSegmentBytes, firstSegment, opener);
+        DurableStore store = new DurableStore(log, employeeRepository, attendanceRepository, leaveService);
+        try {
+            store.new Recovery().run(snapshot, firstSegment);
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        employeeRepository.addListener(store);
+        // a store that keeps its own rows on disk is left alone; attendance still in the log
+        // (e.g. from before switching stores) was replayed into it above and stays until the next snapshot
+        if (!attendanceRepository.isDurable()) {
+            attendanceRepository.addListener(store);
+        }
+        leaveService.addListener(store);
+        return store;
+    }
+
+    public WriteAheadLog getLog() {
+        return log;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (scheduler != null) scheduler.shutdownNow();
+        }
+        employeeRepository.removeListener(this);
+        attendanceRepository.removeListener(this);
+        leaveService.removeListener(this);
+        log.close();
+    }
+
+    // ---- journaling ----
+
+    @Override
+    public void recordSaved(AttendanceRecord record) {
+        append(out -> {
+            out.writeByte(ATTENDANCE_RECORD);
+            EntityCodec.writeRecord(out, record);
+        });
+    }
+
+    @Override
+    public void recordsSaved(List<AttendanceRecord> records) {
+        // journal a batch of clock events with a single flush
+        List<byte[]> entries = new ArrayList<>(records.size());
+        for (AttendanceRecord record : records) {
+            entries.add(encode(out -> {
+                out.writeByte(ATTENDANCE_RECORD);
+                EntityCodec.writeRecord(out, record);
+            }));
+        }
+        appendAll(entries);
+    }
+
+    @Override
+    public void recordsCleared() {
+        append(out -> out.writeByte(ATTENDANCE_CLEARED));
+    }
+
+    @Override
+    public void employeeSaved(Employee employee) {
+        append(out -> {
+            out.writeByte(EMPLOYEE);
+            EntityCodec.writeEmployee(out, employee);
+        });
+    }
+
+    @Override
+    public void employeesSaved(List<Employee> employees) {
+        // journal a bulk import with a single flush instead of one per employee
+        List<byte[]> entries = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            entries.add(encode(out -> {
+                out.writeByte(EMPLOYEE);
+                EntityCodec.writeEmployee(out, employee);
+            }));
+        }
+        appendAll(entries);
+    }
+
+    @Override
+    public void employeesCleared() {
+        append(out -> out.writeByte(EMPLOYEES_CLEARED));
+    }
+
+    @Override
+    public void leaveRequestSaved(LeaveRequest request) {
+        append(out -> {
+            out.writeByte(LEAVE_REQUEST);
+            EntityCodec.writeLeaveRequest(out, request);
+        });
+    }
+
+    @Override
+    public void leaveRequestsSaved(List<LeaveRequest> requests) {
+        // journal a bulk approval with a single flush
+        List<byte[]> entries = new ArrayList<>(requests.size());
+        for (LeaveRequest request : requests) {
+            entries.add(encode(out -> {
+                out.writeByte(LEAVE_REQUEST);
+                EntityCodec.writeLeaveRequest(out, request);
+            }));
+        }
+        appendAll(entries);
+    }
+
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private void append(EntryWriter writer) {
+        try {
+            log.append(encode(writer));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the attendance log.", e);
+        }
+    }
+
+    private void appendAll(List<byte[]> entries) {
+        try {
+            log.appendAll(entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the attendance log.", e);
+        }
+    }
+
+    private static byte[] encode(EntryWriter writer) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writer.write(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode a log entry.", e);
+        }
+    }
+
+    // ---- snapshots ----
+
+    // write a snapshot of everything and drop the log segments and snapshots it replaces
+    public synchronized Path snapshot() throws IOException {
+        // seal the log first; every change from here on lands in segment >= firstUncovered,
+        // and replaying those full-state entries over the snapshot is idempotent
+        long firstUncovered = log.rollSegment();
+        List<AttendanceRecord> records = attendanceRepository.isDurable() ? new ArrayList<>() : attendanceRepository.getAllRecords();
+        // grouped by employee in date order, so a restart fills each employee's date index in one
+        // go instead of hopping between all of them (records otherwise come out in id order)
+        records.sort(BY_EMPLOYEE_AND_DATE);
+        Path written = SnapshotFile.write(log.getDirectory(), firstUncovered,
+                attendanceRepository.getNextRecordId(), leaveService.getNextRequestId(),
+                employeeRepository.getAllEmployees(), records, leaveService.getAllLeaveRequests());
+        log.deleteSegmentsBefore(firstUncovered);
+        SnapshotFile.deleteOlderThan(log.getDirectory(), written);
+        return written;
+    }
+
+    // take a snapshot every interval on a background daemon thread (stopped by close)
+    public synchronized void startPeriodicSnapshots(Duration interval) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "attendance-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Snapshot failed", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    // ---- recovery ----
+
+    // the log tail is replayed first, into maps: it is short, and knowing whether it clears a
+    // store lets the snapshot (the bulk of the data) go straight into the stores as it is
+    // decoded instead of through a second copy of every entity; the tail then goes on top
+    private final class Recovery implements SnapshotFile.Sink {
+        private final Map<Integer, Employee> employees = new LinkedHashMap<>();
+        private final Map<Integer, AttendanceRecord> records = new LinkedHashMap<>();
+        private final Map<Integer, LeaveRequest> leaves = new LinkedHashMap<>();
+        private boolean employeesCleared;
+        private boolean recordsCleared;
+        private int nextRecordId = 1;
+        private int nextRequestId = 1;
+
+        void run(Optional<Path> snapshot, long firstSegment) throws IOException {
+            try {
+                log.replayFrom(firstSegment, entry -> {
+                    try {
+                        apply(EntityCodec.Input.of(new DataInputStream(new ByteArrayInputStream(entry))));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (snapshot.isPresent()) {
+                SnapshotFile.read(snapshot.get(), this);
+            }
+            for (Employee e : employees.values()) employeeRepository.addEmployee(e);
+            for (AttendanceRecord r : records.values()) attendanceRepository.addRecord(r);
+            for (LeaveRequest r : leaves.values()) leaveService.restoreLeaveRequest(r);
+            attendanceRepository.setNextRecordId(Math.max(nextRecordId, attendanceRepository.getNextRecordId()));
+            leaveService.setNextRequestId(Math.max(nextRequestId, leaveService.getNextRequestId()));
+        }
+
+        @Override
+        public void counters(int nextRecordId, int nextRequestId) {
+            if (!recordsCleared) this.nextRecordId = nextRecordId;
+            this.nextRequestId = nextRequestId;
+        }
+
+        @Override
+        public void employee(Employee employee) {
+            if (!employeesCleared) employeeRepository.addEmployee(employee);
+        }
+
+        @Override
+        public void record(AttendanceRecord record) {
+            if (!recordsCleared) attendanceRepository.addRecord(record);
+        }
+
+        @Override
+        public void leaveRequest(LeaveRequest request) {
+            leaveService.restoreLeaveRequest(request);
+        }
+
+        private void apply(EntityCodec.Input in) throws IOException {
+            byte type = in.readByte();
+            switch (type) {
+                case ATTENDANCE_RECORD: {
+                    AttendanceRecord r = EntityCodec.readRecord(in);
+                    records.put(r.getRecordId(), r);
+                    break;
+                }
+                case ATTENDANCE_CLEARED:
+                    records.clear();
+                    recordsCleared = true;
+                    break;
+                case EMPLOYEE: {
+                    Employee e = EntityCodec.readEmployee(in);
+                    employees.put(e.getEmployeeId(), e);
+                    break;
+                }
+                case EMPLOYEES_CLEARED:
+                    employees.clear();
+                    employeesCleared = true;
+                    break;
+                case LEAVE_REQUEST: {
+                    LeaveRequest r = EntityCodec.readLeaveRequest(in);
+                    leaves.put(r.getRequestId(), r);
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown log entry type " + type);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.company.attendance_management_system.persistence;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.model.LeaveRequest;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// binary layout of the model objects, shared by log entries and snapshots
+final class EntityCodec {
+
+    // the reads the codec needs; narrower than DataInput so a mapped buffer can implement it fully
+    interface Input {
+        boolean readBoolean() throws IOException;
+        byte readByte() throws IOException;
+        int readInt() throws IOException;
+        long readLong() throws IOException;
+        double readDouble() throws IOException;
+        String readUTF() throws IOException;
+
+        static Input of(DataInput in) {
+            return new Input() {
+                @Override public boolean readBoolean() throws IOException { return in.readBoolean(); }
+                @Override public byte readByte() throws IOException { return in.readByte(); }
+                @Override public int readInt() throws IOException { return in.readInt(); }
+                @Override public long readLong() throws IOException { return in.readLong(); }
+                @Override public double readDouble() throws IOException { return in.readDouble(); }
+                @Override public String readUTF() throws IOException { return in.readUTF(); }
+            };
+        }
+    }
+
+    private EntityCodec() { }
+
+    static void writeRecord(DataOutput out, AttendanceRecord record) throws IOException {
+        out.writeInt(record.getRecordId());
+        out.writeInt(record.getEmployeeId());
+        out.writeLong(record.getDate().toEpochDay());
+        writeDateTime(out, record.getClockInTime());
+        writeDateTime(out, record.getClockOutTime());
+        Double hours = record.getHoursWorked();
+        out.writeBoolean(hours != null);
+        if (hours != null) out.writeDouble(hours);
+    }
+
+    static AttendanceRecord readRecord(Input in) throws IOException {
+        AttendanceRecord r = new AttendanceRecord(in.readInt(), in.readInt(), LocalDate.ofEpochDay(in.readLong()));
+        r.setClockInTime(readDateTime(in));
+        r.setClockOutTime(readDateTime(in));
+        r.setHoursWorked(in.readBoolean() ? in.readDouble() : null);
+        return r;
+    }
+
+    static void writeEmployee(DataOutput out, Employee employee) throws IOException {
+        out.writeInt(employee.getEmployeeId());
+        writeString(out, employee.getName());
+        writeString(out, employee.getEmail());
+        writeString(out, employee.getDepartment());
+    }
+
+    static Employee readEmployee(Input in) throws IOException {
+        return new Employee(in.readInt(), readString(in), readString(in), readString(in));
+    }
+
+    static void writeLeaveRequest(DataOutput out, LeaveRequest request) throws IOException {
+        out.writeInt(request.getRequestId());
+        out.writeInt(request.getEmployeeId());
+        out.writeLong(request.getStartDate().toEpochDay());
+        out.writeLong(request.getEndDate().toEpochDay());
+        out.writeByte(request.getStatus().ordinal());
+        writeString(out, request.getReason());
+    }
+
+    static LeaveRequest readLeaveRequest(Input in) throws IOException {
+        int requestId = in.readInt();
+        int employeeId = in.readInt();
+        LocalDate start = LocalDate.ofEpochDay(in.readLong());
+        LocalDate end = LocalDate.ofEpochDay(in.readLong());
+        LeaveRequest.Status status = LeaveRequest.Status.values()[in.readByte()];
+        LeaveRequest r = new LeaveRequest(requestId, employeeId, start, end, readString(in));
+        r.setStatus(status);
+        return r;
+    }
+
+    private static void writeDateTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(Input in) throws IOException {
+        if (!in.readBoolean()) return null;
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(Input in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.company.attendance_management_system.persistence;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.model.LeaveRequest;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// point-in-time copy of all stores plus the id counters.
+// named snapshot-<n>.bin where n is the first log segment NOT covered by it.
+final class SnapshotFile {
+    private static final int MAGIC = 0x414D5353; // "AMSS"
+    private static final int VERSION = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    // receives a snapshot's contents one entity at a time, as they are decoded
+    interface Sink {
+        void counters(int nextRecordId, int nextRequestId);
+        void employee(Employee employee);
+        void record(AttendanceRecord record);
+        void leaveRequest(LeaveRequest request);
+    }
+
+    private SnapshotFile() { }
+
+    // write to a temp file then move it into place so a crash never leaves a half snapshot
+    static Path write(Path directory, long firstUncoveredSegment, int nextRecordId, int nextRequestId,
+                      Collection<Employee> employees, Collection<AttendanceRecord> records,
+                      Collection<LeaveRequest> leaves) throws IOException {
+        Path target = directory.resolve(String.format("%s%012d%s", PREFIX, firstUncoveredSegment, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nextRecordId);
+            out.writeInt(nextRequestId);
+            out.writeInt(employees.size());
+            for (Employee e : employees) EntityCodec.writeEmployee(out, e);
+            out.writeInt(records.size());
+            for (AttendanceRecord r : records) EntityCodec.writeRecord(out, r);
+            out.writeInt(leaves.size());
+            for (LeaveRequest r : leaves) EntityCodec.writeLeaveRequest(out, r);
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    // read a snapshot through a read-only memory mapping (no copy into a heap buffer)
+    // and hand each entity to the sink straight away, without collecting them first
+    static void read(Path path, Sink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            EntityCodec.Input in = new BufferInput(mapped);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            try {
+                readBody(in, sink);
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated snapshot file: " + path, e);
+            }
+        }
+    }
+
+    private static void readBody(EntityCodec.Input in, Sink sink) throws IOException {
+        sink.counters(in.readInt(), in.readInt());
+        for (int i = in.readInt(); i > 0; i--) {
+            sink.employee(EntityCodec.readEmployee(in));
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            sink.record(EntityCodec.readRecord(in));
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            sink.leaveRequest(EntityCodec.readLeaveRequest(in));
+        }
+    }
+
+    // newest complete snapshot in the directory, if any
+    static Optional<Path> latest(Path directory) throws IOException {
+        List<Path> all = list(directory);
+        return all.isEmpty() ? Optional.empty() : Optional.of(all.get(all.size() - 1));
+    }
+
+    static long firstUncoveredSegment(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    // remove snapshots older than the given one
+    static void deleteOlderThan(Path directory, Path keep) throws IOException {
+        for (Path p : list(directory)) {
+            if (p.compareTo(keep) < 0) Files.deleteIfExists(p);
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // codec input reading straight from a (mapped) buffer, without going through a stream
+    private static final class BufferInput implements EntityCodec.Input {
+        private final ByteBuffer buffer;
+
+        BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override public boolean readBoolean() { return buffer.get() != 0; }
+        @Override public byte readByte() { return buffer.get(); }
+        @Override public int readInt() { return buffer.getInt(); }
+        @Override public long readLong() { return buffer.getLong(); }
+        @Override public double readDouble() { return buffer.getDouble(); }
+
+        // same format as DataOutput.writeUTF: unsigned short length, then modified UTF-8
+        @Override public String readUTF() throws IOException {
+            int length = buffer.getShort() & 0xFFFF;
+            int start = buffer.position();
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++) {
+                byte b = buffer.get(start + i);
+                ascii = b > 0;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            if (ascii) {
+                return new String(bytes, StandardCharsets.US_ASCII);
+            }
+            ByteArrayOutputStream framed = new ByteArrayOutputStream(length + 2);
+            framed.write(length >>> 8);
+            framed.write(length);
+            framed.write(bytes, 0, length);
+            return DataInputStream.readUTF(new DataInputStream(new ByteArrayInputStream(framed.toByteArray())));
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.company.attendance_management_system.persistence;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// append-only log split into numbered segment files.
+// each entry is framed as [int length][int crc32][payload]. appends are group committed:
+// callers queue their entry, then one of them writes and fsyncs everything queued so far,
+// so a single disk flush covers every clock event that arrived while the previous flush ran.
+public class WriteAheadLog implements Closeable {
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final SegmentOpener opener;
+
+    // entries queued for the next group commit (guarded by "this")
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended;
+    private boolean closed;
+
+    // only one thread writes and fsyncs at a time (guarded by flushLock)
+    private final Object flushLock = new Object();
+    private long durable;
+    private long syncCount;
+    private FileChannel segment;
+    private long segmentNumber;
+    private long segmentSize;
+    // set when a write or fsync failed; from then on the log takes no more entries
+    private volatile IOException failure;
+
+    // how segment files are opened (tests hand in channels that fail)
+    interface SegmentOpener {
+        FileChannel open(Path path, OpenOption... options) throws IOException;
+    }
+
+    private WriteAheadLog(Path directory, long maxSegmentBytes, SegmentOpener opener) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.opener = opener;
+    }
+
+    // open the log in this directory, cutting off any half written entry left by a crash
+    public static WriteAheadLog open(Path directory, long maxSegmentBytes) throws IOException {
+        return open(directory, maxSegmentBytes, 1);
+    }
+
+    // as above, but never append to a segment numbered below minSegment (e.g. one a snapshot already covers)
+    public static WriteAheadLog open(Path directory, long maxSegmentBytes, long minSegment) throws IOException {
+        return open(directory, maxSegmentBytes, minSegment, FileChannel::open);
+    }
+
+    static WriteAheadLog open(Path directory, long maxSegmentBytes, long minSegment, SegmentOpener opener)
+            throws IOException {
+        Files.createDirectories(directory);
+        WriteAheadLog log = new WriteAheadLog(directory, maxSegmentBytes, opener);
+        List<Path> segments = listSegments(directory);
+        if (segments.isEmpty() || segmentNumber(segments.get(segments.size() - 1)) < minSegment) {
+            log.openSegment(minSegment);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            long valid = readSegment(last, entry -> { });
+            log.segmentNumber = segmentNumber(last);
+            log.segment = opener.open(last, StandardOpenOption.WRITE);
+            log.segment.truncate(valid);
+            log.segment.position(valid);
+            log.segmentSize = valid;
+        }
+        return log;
+    }
+
+    // feed every intact entry, oldest first, to the visitor
+    public void replay(Consumer<byte[]> visitor) throws IOException {
+        replayFrom(0, visitor);
+    }
+
+    // same as replay, but skip segments numbered below firstSegment (already covered by a snapshot)
+    public void replayFrom(long firstSegment, Consumer<byte[]> visitor) throws IOException {
+        synchronized (flushLock) {
+            for (Path path : listSegments(directory)) {
+                if (segmentNumber(path) >= firstSegment) {
+                    readSegment(path, visitor);
+                }
+            }
+        }
+    }
+
+    // flush and seal the current segment; later appends go to a new one whose number is returned
+    public long rollSegment() throws IOException {
+        long ticket;
+        synchronized (this) {
+            ticket = appended;
+        }
+        sync(ticket);
+        synchronized (flushLock) {
+            if (segmentSize > 0) {
+                segment.close();
+                openSegment(segmentNumber + 1);
+            }
+            return segmentNumber;
+        }
+    }
+
+    // delete sealed segments numbered below firstKept
+    public void deleteSegmentsBefore(long firstKept) throws IOException {
+        synchronized (flushLock) {
+            for (Path path : listSegments(directory)) {
+                long number = segmentNumber(path);
+                if (number < firstKept && number != segmentNumber) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    // append one entry and return once it is on disk
+    public void append(byte[] payload) throws IOException {
+        long ticket;
+        synchronized (this) {
+            checkOpen();
+            writeFrame(pending, payload);
+            ticket = ++appended;
+        }
+        sync(ticket);
+    }
+
+    // append several entries and return once all of them are on disk (one flush for the lot)
+    public void appendAll(List<byte[]> payloads) throws IOException {
+        long ticket;
+        synchronized (this) {
+            checkOpen();
+            for (byte[] payload : payloads) {
+                writeFrame(pending, payload);
+            }
+            appended += payloads.size();
+            ticket = appended;
+        }
+        sync(ticket);
+    }
+
+    // number of fsyncs done so far (each one covers a whole group of appends)
+    public long getSyncCount() {
+        synchronized (flushLock) {
+            return syncCount;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        long ticket;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            ticket = appended;
+        }
+        try {
+            if (failure == null) {
+                sync(ticket); // after a failure every queued append has already been failed
+            }
+        } finally {
+            synchronized (flushLock) {
+                segment.close();
+            }
+        }
+    }
+
+    // caller holds "this"
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Write-ahead log is closed.");
+        }
+        if (failure != null) {
+            throw new IOException("Write-ahead log failed and takes no more entries.", failure);
+        }
+    }
+
+    // if the write or fsync fails, the whole batch fails: its frames are cut off the segment again,
+    // durable stays where it was, and the log is marked failed so every entry still waiting (and every
+    // later append) fails too. a torn frame left behind would make open() drop whatever followed it
+    private void sync(long ticket) throws IOException {
+        synchronized (flushLock) {
+            if (durable >= ticket) {
+                return; // another thread's flush already covered this entry
+            }
+            if (failure != null) {
+                throw new IOException("Write-ahead log failed before this entry was written.", failure);
+            }
+            byte[] batch;
+            long upTo;
+            synchronized (this) {
+                batch = pending.toByteArray();
+                pending = new ByteArrayOutputStream(Math.max(32, batch.length));
+                upTo = appended;
+            }
+            try {
+                if (segmentSize > 0 && segmentSize + batch.length > maxSegmentBytes) {
+                    segment.force(false);
+                    segment.close();
+                    openSegment(segmentNumber + 1);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    segment.write(buffer);
+                }
+                segment.force(false);
+            } catch (IOException | RuntimeException e) {
+                IOException failed = e instanceof IOException ? (IOException) e : new IOException(e);
+                failure = failed;
+                try {
+                    segment.truncate(segmentSize);
+                } catch (IOException | RuntimeException truncateFailed) {
+                    failed.addSuppressed(truncateFailed); // open() still cuts the torn frame off
+                }
+                throw failed;
+            }
+            segmentSize += batch.length;
+            durable = upTo;
+            syncCount++;
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        segmentNumber = number;
+        segment = opener.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = segment.size();
+    }
+
+    private static void writeFrame(ByteArrayOutputStream out, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        int checksum = (int) crc.getValue();
+        byte[] header = {
+                (byte) (payload.length >>> 24), (byte) (payload.length >>> 16),
+                (byte) (payload.length >>> 8), (byte) payload.length,
+                (byte) (checksum >>> 24), (byte) (checksum >>> 16),
+                (byte) (checksum >>> 8), (byte) checksum
+        };
+        out.write(header, 0, header.length);
+        out.write(payload, 0, payload.length);
+    }
+
+    // read entries from one segment; returns the byte offset where intact entries end
+    private static long readSegment(Path path, Consumer<byte[]> visitor) throws IOException {
+        long valid = 0;
+        long fileSize = Files.size(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < 0 || valid + FRAME_HEADER_BYTES + length > fileSize) break;
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break; // clean end or torn tail
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) break;
+                visitor.accept(payload);
+                valid += FRAME_HEADER_BYTES + length;
+            }
+        }
+        return valid;
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+}
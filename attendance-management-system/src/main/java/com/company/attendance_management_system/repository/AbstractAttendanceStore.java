@@ -0,0 +1,166 @@
+package com.company.attendance_management_system.repository;
+
+import com.company.attendance_management_system.metrics.Metrics;
+import com.company.attendance_management_system.metrics.Timer;
+import com.company.attendance_management_system.model.AttendanceRecord;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// what every attendance store shares, whatever holds the records: the per-employee lock stripes,
+// the listeners and the per-thread batches that report (and on refusal undo) record changes.
+// holds no records itself
+public abstract class AbstractAttendanceStore implements AttendanceStore {
+
+    // default number of lock stripes (employee ids in the same block of this size never share a lock)
+    public static final int DEFAULT_LOCK_STRIPES = 1024;
+
+    // lookup timers, shared by the stores
+    static final Timer FIND_OR_CREATE = Metrics.timer("attendanceRepository.findOrCreateRecord");
+    static final Timer FIND_BY_EMPLOYEE = Metrics.timer("attendanceRepository.findRecordsByEmployeeId");
+    static final Timer FIND_BETWEEN = Metrics.timer("attendanceRepository.findRecordsByEmployeeBetween");
+    static final Timer FIND_BY_DATE = Metrics.timer("attendanceRepository.findRecordByDateAndEmployee");
+    static final Timer GET_ALL = Metrics.timer("attendanceRepository.getAllRecords");
+    static final Timer FOR_EACH_ON = Metrics.timer("attendanceRepository.forEachRecordOn");
+    static final Timer MONTHLY_HOURS = Metrics.timer("attendanceRepository.getMonthlyHours");
+    static final Timer MONTHLY_HOURS_ALL = Metrics.timer("attendanceRepository.getMonthlyHoursForAll");
+
+    // writes for one employee are serialized on that employee's stripe
+    private final ReentrantLock[] locks;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // this thread's open batch (see beginBatch), kept and reused from one batch to the next
+    private final ThreadLocal<RecordBatch> batches = ThreadLocal.withInitial(RecordBatch::new);
+
+    protected AbstractAttendanceStore(int lockStripes) {
+        if (lockStripes < 1) {
+            throw new IllegalArgumentException("lockStripes must be at least 1");
+        }
+        locks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void beginBatch() {
+        batches.get().depth++;
+    }
+
+    // a single changed record is reported through recordSaved. if a listener refuses the batch, e.g.
+    // the journal could not write, the kept values are put back before the exception goes on, so
+    // memory doesn't keep changes that never reached the disk
+    @Override
+    public void endBatch() {
+        RecordBatch batch = batches.get();
+        if (--batch.depth > 0) {
+            return;
+        }
+        try {
+            report(batch);
+        } catch (RuntimeException refused) {
+            undo(batch, refused);
+            throw refused;
+        } finally {
+            batch.reset();
+        }
+    }
+
+    @Override
+    public void keepForUndo(AttendanceRecord record, long clockIn, long clockOut, double hours) {
+        RecordBatch batch = batches.get();
+        if (batch.depth > 0) {
+            batch.keep(record, clockIn, clockOut, hours);
+        }
+    }
+
+    @Override
+    public Lock lockFor(int employeeId) {
+        return locks[stripe(employeeId)];
+    }
+
+    // which lock stripe guards this employee, for stores that keep per-stripe structures
+    protected final int stripe(int employeeId) {
+        return Math.floorMod(employeeId, locks.length);
+    }
+
+    protected final int stripeCount() {
+        return locks.length;
+    }
+
+    protected final Lock stripeLock(int stripe) {
+        return locks[stripe];
+    }
+
+    protected void fireRecordSaved(AttendanceRecord record) {
+        RecordBatch batch = batches.get();
+        if (batch.depth > 0) {
+            batch.changed(record);
+            return;
+        }
+        for (Listener listener : listeners) {
+            listener.recordSaved(record);
+        }
+    }
+
+    protected void fireRecordsCleared() {
+        RecordBatch batch = batches.get();
+        if (batch.depth > 0) {
+            // those records are gone; don't report or restore them after the clear
+            batch.clearChanges();
+            batch.clearUndo();
+        }
+        for (Listener listener : listeners) {
+            listener.recordsCleared();
+        }
+    }
+
+    // tell the listeners what the batch changed (a single record through recordSaved)
+    private void report(RecordBatch batch) {
+        AttendanceRecord only = batch.only();
+        if (only != null) {
+            for (Listener listener : listeners) {
+                listener.recordSaved(only);
+            }
+        } else if (!batch.isEmpty()) {
+            List<AttendanceRecord> saved = batch.changedRecords();
+            for (Listener listener : listeners) {
+                listener.recordsSaved(saved);
+            }
+        }
+    }
+
+    // put a refused batch's records back and report them as a batch of their own, to every listener
+    // even if the journal refuses again, so in-memory listeners (e.g. presence) follow them back
+    private void undo(RecordBatch batch, RuntimeException refused) {
+        batch.clearChanges();
+        batch.depth = 1;
+        try {
+            batch.restore(this);
+        } finally {
+            batch.depth = 0;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<AttendanceRecord> restored = batch.only() != null ? List.of(batch.only()) : batch.changedRecords();
+        for (Listener listener : listeners) {
+            try {
+                listener.recordsSaved(restored);
+            } catch (RuntimeException e) {
+                refused.addSuppressed(e);
+            }
+        }
+    }
+}
@@ -1,54 +1,299 @@
 package com.company.attendance_management_system.repository;
 
+import com.company.attendance_management_system.metrics.RepositoryScanEvent;
 import com.company.attendance_management_system.model.AttendanceRecord;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+// heap store: one AttendanceRecord object per record, indexed by employee and day and by employee
+// in date order, with month totals kept up to date as hours change
+public class AttendanceRepository extends AbstractAttendanceStore {
 
-public class AttendanceRepository {
     // store all attendance records in memory
-    private final Map<Integer, AttendanceRecord> records = new HashMap<>();
+    private final Map<Integer, AttendanceRecord> records = new ConcurrentHashMap<>();
+    // index of records by (employeeId, epoch day) so daily lookups don't scan everything. one map per
+    // lock stripe, guarded by that stripe: primitive keys, so a clock tap's lookup allocates nothing
+    private final LongObjectHashMap<AttendanceRecord>[] recordsByEmployeeAndDay;
+    // per employee records kept in date order, used for history and range queries
+    // (each TreeMap is only touched while holding that employee's lock)
+    private final Map<Integer, NavigableMap<LocalDate, AttendanceRecord>> recordsByEmployee = new ConcurrentHashMap<>();
     // auto generate unique id for records
     private final AtomicInteger idGenerator = new AtomicInteger(1);
+    // record ids by day
+    private final DayIndex recordsByDay = new DayIndex();
+    // hours per employee and month, updated on every hoursWorked change
+    private final MonthlyHoursTotals monthlyHours = new MonthlyHoursTotals();
+    // change listener handed to every stored record
+    private final Consumer<AttendanceRecord> saved = this::fireRecordSaved;
+
+    public AttendanceRepository() {
+        this(DEFAULT_LOCK_STRIPES);
+    }
+
+    @SuppressWarnings("unchecked")
+    public AttendanceRepository(int lockStripes) {
+        super(lockStripes);
+        recordsByEmployeeAndDay = (LongObjectHashMap<AttendanceRecord>[]) new LongObjectHashMap<?>[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            recordsByEmployeeAndDay[i] = new LongObjectHashMap<>(16);
+        }
+    }
 
     // create new record for employee on a date
+    @Override
     public AttendanceRecord createRecord(int employeeId, LocalDate date) {
-        int id = idGenerator.getAndIncrement();
-        AttendanceRecord record = new AttendanceRecord(id, employeeId, date);
-        records.put(id, record);
-        return record;
+        Lock lock = lockFor(employeeId);
+        lock.lock();
+        try {
+            if (byDay(employeeId).get(key(employeeId, date.toEpochDay())) != null) {
+                throw new IllegalStateException("Record already exists for employee " + employeeId + " on " + date);
+            }
+            int id = idGenerator.getAndIncrement();
+            AttendanceRecord record = new AttendanceRecord(id, employeeId, date);
+            store(record);
+            return record;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the same by epoch day (LocalDate.toEpochDay); only a missing record costs any allocation
+    @Override
+    public AttendanceRecord findOrCreateRecord(int employeeId, long epochDay) {
+        long started = FIND_OR_CREATE.start();
+        try {
+            Lock lock = lockFor(employeeId);
+            lock.lock();
+            try {
+                AttendanceRecord existing = byDay(employeeId).get(key(employeeId, epochDay));
+                return existing != null ? existing : createRecord(employeeId, LocalDate.ofEpochDay(epochDay));
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            FIND_OR_CREATE.stop(started);
+        }
     }
 
     // add an existing record
+    @Override
     public void addRecord(AttendanceRecord record) {
-        records.put(record.getRecordId(), record);
+        Lock lock = lockFor(record.getEmployeeId());
+        lock.lock();
+        try {
+            AttendanceRecord sameId = records.get(record.getRecordId());
+            if (sameId != null && sameId.getEmployeeId() != record.getEmployeeId()) {
+                throw new IllegalStateException("Record " + record.getRecordId() + " belongs to employee "
+                        + sameId.getEmployeeId());
+            }
+            AttendanceRecord sameDay = byDay(record.getEmployeeId())
+                    .get(key(record.getEmployeeId(), record.getDate().toEpochDay()));
+            if (sameDay != null && sameDay.getRecordId() != record.getRecordId()) {
+                throw new IllegalStateException("Record already exists for employee " + record.getEmployeeId()
+                        + " on " + record.getDate());
+            }
+            store(record);
+            // keep generated ids ahead of anything added from outside (e.g. restored from disk)
+            idGenerator.accumulateAndGet(record.getRecordId() + 1, Math::max);
+        } finally {
+            lock.unlock();
+        }
     }
 
     // get all records for one employee
+    @Override
     public List<AttendanceRecord> findRecordsByEmployeeId(int employeeId) {
-        return records.values().stream()
-                .filter(r -> r.getEmployeeId() == employeeId)
-                .sorted(Comparator.comparing(AttendanceRecord::getDate))
-                .collect(Collectors.toList());
+        long started = FIND_BY_EMPLOYEE.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            Lock lock = lockFor(employeeId);
+            lock.lock();
+            try {
+                NavigableMap<LocalDate, AttendanceRecord> byDate = recordsByEmployee.get(employeeId);
+                List<AttendanceRecord> found = byDate == null ? new ArrayList<>() : new ArrayList<>(byDate.values());
+                return scan.end(FIND_BY_EMPLOYEE.getName(), employeeId, found);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            FIND_BY_EMPLOYEE.stop(started);
+        }
     }
 
-    // find single record by date and employee
-    public Optional<AttendanceRecord> findRecordByDateAndEmployee(int employeeId, LocalDate date) {
-        return records.values().stream()
-                .filter(r -> r.getEmployeeId() == employeeId && r.getDate().equals(date))
-                .findFirst();
+    // get records for one employee between two dates (both inclusive), in date order
+    @Override
+    public List<AttendanceRecord> findRecordsByEmployeeBetween(int employeeId, LocalDate from, LocalDate to) {
+        long started = FIND_BETWEEN.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            if (to.isBefore(from)) {
+                return scan.end(FIND_BETWEEN.getName(), employeeId, new ArrayList<>());
+            }
+            Lock lock = lockFor(employeeId);
+            lock.lock();
+            try {
+                NavigableMap<LocalDate, AttendanceRecord> byDate = recordsByEmployee.get(employeeId);
+                List<AttendanceRecord> found = byDate == null
+                        ? new ArrayList<>() : new ArrayList<>(byDate.subMap(from, true, to, true).values());
+                return scan.end(FIND_BETWEEN.getName(), employeeId, found);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            FIND_BETWEEN.stop(started);
+        }
+    }
+
+    // the record for this employee on this epoch day (LocalDate.toEpochDay), or null if there is none
+    @Override
+    public AttendanceRecord findRecordByDay(int employeeId, long epochDay) {
+        long started = FIND_BY_DATE.start();
+        try {
+            Lock lock = lockFor(employeeId);
+            lock.lock();
+            try {
+                return byDay(employeeId).get(key(employeeId, epochDay));
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            FIND_BY_DATE.stop(started);
+        }
     }
 
     // return all attendance records
+    @Override
     public List<AttendanceRecord> getAllRecords() {
-        return new ArrayList<>(records.values());
+        long started = GET_ALL.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            return scan.end(GET_ALL.getName(), -1, new ArrayList<>(records.values()));
+        } finally {
+            GET_ALL.stop(started);
+        }
+    }
+
+    @Override
+    public boolean hasRecordsOn(LocalDate date) {
+        return recordsByDay.contains(date.toEpochDay());
+    }
+
+    @Override
+    public void forEachRecordOn(LocalDate date, Consumer<AttendanceRecord> action) {
+        long started = FOR_EACH_ON.start();
+        try {
+            for (int recordId : recordsByDay.on(date.toEpochDay())) {
+                AttendanceRecord record = records.get(recordId);
+                // skip a record re-added for another day or cleared since the index was read
+                if (record != null && record.getDate().equals(date)) {
+                    action.accept(record);
+                }
+            }
+        } finally {
+            FOR_EACH_ON.stop(started);
+        }
+    }
+
+    // total hours an employee worked in a month, rounded to the hundredth (kept up to date, no scan)
+    @Override
+    public double getMonthlyHours(int employeeId, YearMonth month) {
+        long started = MONTHLY_HOURS.start();
+        try {
+            return monthlyHours.get(employeeId, month);
+        } finally {
+            MONTHLY_HOURS.stop(started);
+        }
+    }
+
+    // month totals of every employee who has hours in that month (employee id -> hours)
+    @Override
+    public Map<Integer, Double> getMonthlyHoursForAll(YearMonth month) {
+        long started = MONTHLY_HOURS_ALL.start();
+        try {
+            return monthlyHours.getAll(month);
+        } finally {
+            MONTHLY_HOURS_ALL.stop(started);
+        }
+    }
+
+    // id the next created record will get
+    @Override
+    public int getNextRecordId() {
+        return idGenerator.get();
+    }
+
+    // used when restoring from storage so new ids continue after the saved counter
+    @Override
+    public void setNextRecordId(int nextId) {
+        idGenerator.set(nextId);
     }
 
     // clear all records (like reset)
+    @Override
     public void clear() {
         records.clear();
+        for (int i = 0; i < stripeCount(); i++) {
+            stripeLock(i).lock();
+            try {
+                recordsByEmployeeAndDay[i].clear();
+            } finally {
+                stripeLock(i).unlock();
+            }
+        }
+        recordsByEmployee.clear();
+        recordsByDay.clear();
+        monthlyHours.clear();
         idGenerator.set(1); // start id again from 1
+        fireRecordsCleared();
+    }
+
+    // put record in main map and keep the indexes in sync (caller holds the employee's lock)
+    private void store(AttendanceRecord record) {
+        AttendanceRecord previous = records.put(record.getRecordId(), record);
+        if (previous != null) {
+            // same id re-added: drop the old index entries if they still point at the old record
+            byDay(previous.getEmployeeId()).remove(key(previous.getEmployeeId(), previous.getDate().toEpochDay()), previous);
+            NavigableMap<LocalDate, AttendanceRecord> oldDates = recordsByEmployee.get(previous.getEmployeeId());
+            if (oldDates != null) {
+                oldDates.remove(previous.getDate(), previous);
+            }
+            recordsByDay.remove(previous.getDate().toEpochDay(), previous.getRecordId());
+            if (previous != record) {
+                previous.setChangeListener(null);
+                previous.setHoursListener(null);
+                monthlyHours.change(previous.getEmployeeId(), previous.getDate(), previous.getHours(), Double.NaN);
+            }
+        }
+        // the record reports its later hours changes straight to its month's total
+        MonthlyHoursTotals.Total total = monthlyHours.total(record.getEmployeeId(), record.getDate());
+        if (previous != record) {
+            total.hoursChanged(record, Double.NaN, record.getHours());
+        }
+        byDay(record.getEmployeeId()).put(key(record.getEmployeeId(), record.getDate().toEpochDay()), record);
+        recordsByEmployee.computeIfAbsent(record.getEmployeeId(), id -> new TreeMap<>())
+                .put(record.getDate(), record);
+        recordsByDay.add(record.getDate().toEpochDay(), record.getRecordId());
+        record.setChangeListener(saved);
+        record.setHoursListener(total);
+        fireRecordSaved(record);
+    }
+
+    // the day index of this employee's stripe (caller holds the employee's lock)
+    private LongObjectHashMap<AttendanceRecord> byDay(int employeeId) {
+        return recordsByEmployeeAndDay[stripe(employeeId)];
+    }
+
+    // pack employee id and epoch day into one long key
+    private static long key(int employeeId, long epochDay) {
+        return ((long) employeeId << 32) | (epochDay & 0xFFFFFFFFL);
     }
 }
@@ -0,0 +1,126 @@
+package com.company.attendance_management_system.repository;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+// where attendance records are kept: on the heap (AttendanceRepository), in primitive columns
+// (ColumnarAttendanceRepository) or in memory-mapped rows (MappedAttendanceRepository). the services,
+// DurableStore and the servers only talk to this; the lock stripes, listeners and batches every
+// store shares live in AbstractAttendanceStore.
+public interface AttendanceStore {
+    // notified whenever a stored record is created, added or changed through a setter
+    interface Listener {
+        void recordSaved(AttendanceRecord record);
+        // records changed together inside runBatch; listeners that can handle them at once override this
+        default void recordsSaved(List<AttendanceRecord> records) {
+            for (AttendanceRecord record : records) {
+                recordSaved(record);
+            }
+        }
+        default void recordsCleared() {}
+    }
+
+    void addListener(Listener listener);
+
+    void removeListener(Listener listener);
+
+    // run work and tell listeners about every record it changed in one recordsSaved call at the end
+    // (each record once, in its final state) instead of once per setter
+    default void runBatch(Runnable work) {
+        beginBatch();
+        try {
+            work.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+    // runBatch in two halves, for the clock path where a lambda would allocate:
+    //   store.beginBatch(); try { ... } finally { store.endBatch(); }
+    // batches nest on a thread; only the outermost end reports
+    void beginBatch();
+
+    // report the batch; if a listener refuses it, the values kept with keepForUndo are put back
+    // before the exception goes on
+    void endBatch();
+
+    // inside a batch: the clock values this record had before the caller changed it (caller holds
+    // the employee's lock), put back if the batch is refused. outside a batch it does nothing
+    void keepForUndo(AttendanceRecord record, long clockIn, long clockOut, double hours);
+
+    // lock guarding all writes for this employee; callers hold it for check-then-act sequences
+    Lock lockFor(int employeeId);
+
+    // true when the store keeps its records on disk itself, so DurableStore needn't journal them
+    default boolean isDurable() {
+        return false;
+    }
+
+    // create new record for employee on a date
+    AttendanceRecord createRecord(int employeeId, LocalDate date);
+
+    // return the record for this employee and date, creating it if missing (atomic per employee)
+    default AttendanceRecord findOrCreateRecord(int employeeId, LocalDate date) {
+        return findOrCreateRecord(employeeId, date.toEpochDay());
+    }
+
+    // the same by epoch day (LocalDate.toEpochDay)
+    AttendanceRecord findOrCreateRecord(int employeeId, long epochDay);
+
+    // add an existing record (e.g. restored from disk)
+    void addRecord(AttendanceRecord record);
+
+    // get all records for one employee, in date order
+    List<AttendanceRecord> findRecordsByEmployeeId(int employeeId);
+
+    // get records for one employee between two dates (both inclusive), in date order
+    List<AttendanceRecord> findRecordsByEmployeeBetween(int employeeId, LocalDate from, LocalDate to);
+
+    // find single record by date and employee
+    default Optional<AttendanceRecord> findRecordByDateAndEmployee(int employeeId, LocalDate date) {
+        return Optional.ofNullable(findRecordByDay(employeeId, date.toEpochDay()));
+    }
+
+    // the record for this employee on this epoch day (LocalDate.toEpochDay), or null if there is none
+    AttendanceRecord findRecordByDay(int employeeId, long epochDay);
+
+    // return all attendance records
+    List<AttendanceRecord> getAllRecords();
+
+    // whether any record falls on this day
+    boolean hasRecordsOn(LocalDate date);
+
+    // hand every record of this day to the action, found through the store's index by day (no lookup
+    // per employee). the store's locks are not held while the action runs
+    void forEachRecordOn(LocalDate date, Consumer<AttendanceRecord> action);
+
+    // hand every record to the action in turn; stores that can (see MappedAttendanceRepository)
+    // do it without holding all of them in a list at once
+    default void forEachRecord(Consumer<AttendanceRecord> action) {
+        for (AttendanceRecord record : getAllRecords()) {
+            action.accept(record);
+        }
+    }
+
+    // total hours an employee worked in a month, rounded to the hundredth
+    double getMonthlyHours(int employeeId, YearMonth month);
+
+    // month totals of every employee who has hours in that month (employee id -> hours)
+    Map<Integer, Double> getMonthlyHoursForAll(YearMonth month);
+
+    // id the next created record will get
+    int getNextRecordId();
+
+    // used when restoring from storage so new ids continue after the saved counter
+    void setNextRecordId(int nextId);
+
+    // clear all records (like reset)
+    void clear();
+}
@@ -0,0 +1,523 @@
+package com.company.attendance_management_system.repository;
+
+import com.company.attendance_management_system.metrics.RepositoryScanEvent;
+import com.company.attendance_management_system.model.AttendanceRecord;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// attendance store that keeps records column-wise in primitive arrays (about 32 bytes per row
+// plus index slots, instead of an object graph of 150+ bytes). lookups hand out flyweight
+// AttendanceRecord views over a row; setters on a view write straight into the columns.
+//
+// differences from the heap store:
+// - clock times are kept to the second, hours to the hundredth (what clockOut produces)
+// - addRecord copies the record in; later changes must go through records read back from here
+// - creating a row takes a short structure-wide write lock; reads and updates share it
+public class ColumnarAttendanceRepository extends AbstractAttendanceStore {
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_HOURS = Integer.MIN_VALUE;
+    private static final int INITIAL_ROWS = 1024;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // guards the arrays and indexes below: write lock to add rows or grow, read lock for everything else.
+    // cells of one row are written under the read lock; the employee's stripe keeps those writes ordered
+    private final ReentrantReadWriteLock structure = new ReentrantReadWriteLock();
+    private int size;
+    private int[] recordIds = new int[INITIAL_ROWS];
+    private int[] employeeIds = new int[INITIAL_ROWS];
+    private int[] epochDays = new int[INITIAL_ROWS];
+    private long[] clockInSeconds = new long[INITIAL_ROWS];
+    private long[] clockOutSeconds = new long[INITIAL_ROWS];
+    private int[] hundredthHours = new int[INITIAL_ROWS];
+
+    private final LongIntHashMap rowByRecordId = new LongIntHashMap(INITIAL_ROWS);
+    private final LongIntHashMap rowByEmployeeAndDay = new LongIntHashMap(INITIAL_ROWS);
+    // each employee's rows sorted by day
+    private final Map<Integer, RowList> rowsByEmployee = new HashMap<>();
+    // rows by day
+    private final DayIndex rowsByDay = new DayIndex();
+
+    private final AtomicInteger idGenerator = new AtomicInteger(1);
+    // hours per employee and month, updated on every hours change
+    private final MonthlyHoursTotals monthlyHours = new MonthlyHoursTotals();
+
+    public ColumnarAttendanceRepository() {
+        this(DEFAULT_LOCK_STRIPES);
+    }
+
+    public ColumnarAttendanceRepository(int lockStripes) {
+        super(lockStripes);
+    }
+
+    @Override
+    public AttendanceRecord createRecord(int employeeId, LocalDate date) {
+        int day = toDay(date);
+        int id;
+        int row;
+        structure.writeLock().lock();
+        try {
+            if (rowByEmployeeAndDay.get(key(employeeId, day)) != LongIntHashMap.MISSING) {
+                throw new IllegalStateException("Record already exists for employee " + employeeId + " on " + date);
+            }
+            id = idGenerator.getAndIncrement();
+            row = appendRow(id, employeeId, day);
+        } finally {
+            structure.writeLock().unlock();
+        }
+        AttendanceRecord view = new RowView(row, id, employeeId, date);
+        fireRecordSaved(view);
+        return view;
+    }
+
+    @Override
+    public AttendanceRecord findOrCreateRecord(int employeeId, long epochDay) {
+        long started = FIND_OR_CREATE.start();
+        try {
+            Lock lock = lockFor(employeeId);
+            lock.lock();
+            try {
+                AttendanceRecord existing = findRecordByDay(employeeId, epochDay);
+                return existing != null ? existing : createRecord(employeeId, LocalDate.ofEpochDay(epochDay));
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            FIND_OR_CREATE.stop(started);
+        }
+    }
+
+    @Override
+    public void addRecord(AttendanceRecord record) {
+        int employeeId = record.getEmployeeId();
+        int day = toDay(record.getDate());
+        int row;
+        structure.writeLock().lock();
+        try {
+            row = rowByRecordId.get(record.getRecordId());
+            if (row != LongIntHashMap.MISSING && employeeIds[row] != employeeId) {
+                throw new IllegalStateException("Record " + record.getRecordId() + " belongs to employee "
+                        + employeeIds[row]);
+            }
+            int sameDay = rowByEmployeeAndDay.get(key(employeeId, day));
+            if (sameDay != LongIntHashMap.MISSING && sameDay != row) {
+                throw new IllegalStateException("Record already exists for employee " + employeeId
+                        + " on " + record.getDate());
+            }
+            if (row == LongIntHashMap.MISSING) {
+                row = appendRow(record.getRecordId(), employeeId, day);
+            } else {
+                // the replaced values leave the month totals
+                monthlyHours.add(employeeId, LocalDate.ofEpochDay(epochDays[row]), -hundredths(hundredthHours[row]));
+            }
+            if (epochDays[row] != day) {
+                // same id re-added for another day: move the row in the indexes
+                rowByEmployeeAndDay.remove(key(employeeId, epochDays[row]));
+                rowsByEmployee.get(employeeId).remove(row);
+                rowsByDay.remove(epochDays[row], row);
+                rowsByDay.add(day, row);
+                epochDays[row] = day;
+                rowByEmployeeAndDay.put(key(employeeId, day), row);
+                rowsByEmployee.get(employeeId).insert(row, epochDays);
+            }
+            clockInSeconds[row] = toSeconds(record.getClockInNanos());
+            clockOutSeconds[row] = toSeconds(record.getClockOutNanos());
+            hundredthHours[row] = toHundredths(record.getHours());
+            monthlyHours.add(employeeId, record.getDate(), hundredths(hundredthHours[row]));
+            // keep generated ids ahead of anything added from outside (e.g. restored from disk)
+            idGenerator.accumulateAndGet(record.getRecordId() + 1, Math::max);
+        } finally {
+            structure.writeLock().unlock();
+        }
+        fireRecordSaved(new RowView(row, record.getRecordId(), employeeId, record.getDate()));
+    }
+
+    @Override
+    public List<AttendanceRecord> findRecordsByEmployeeId(int employeeId) {
+        long started = FIND_BY_EMPLOYEE.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            structure.readLock().lock();
+            try {
+                RowList rows = rowsByEmployee.get(employeeId);
+                List<AttendanceRecord> found = rows == null ? new ArrayList<>() : views(rows, 0, rows.size);
+                return scan.end(FIND_BY_EMPLOYEE.getName(), employeeId, found);
+            } finally {
+                structure.readLock().unlock();
+            }
+        } finally {
+            FIND_BY_EMPLOYEE.stop(started);
+        }
+    }
+
+    @Override
+    public List<AttendanceRecord> findRecordsByEmployeeBetween(int employeeId, LocalDate from, LocalDate to) {
+        long started = FIND_BETWEEN.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            if (to.isBefore(from)) {
+                return scan.end(FIND_BETWEEN.getName(), employeeId, new ArrayList<>());
+            }
+            structure.readLock().lock();
+            try {
+                RowList rows = rowsByEmployee.get(employeeId);
+                if (rows == null) {
+                    return scan.end(FIND_BETWEEN.getName(), employeeId, new ArrayList<>());
+                }
+                int start = rows.lowerBound(toDay(from), epochDays);
+                int end = rows.lowerBound(toDay(to) + 1, epochDays);
+                return scan.end(FIND_BETWEEN.getName(), employeeId, views(rows, start, end));
+            } finally {
+                structure.readLock().unlock();
+            }
+        } finally {
+            FIND_BETWEEN.stop(started);
+        }
+    }
+
+    // hands out a new view per hit, unlike the heap store's allocation-free lookup
+    @Override
+    public AttendanceRecord findRecordByDay(int employeeId, long epochDay) {
+        long started = FIND_BY_DATE.start();
+        try {
+            structure.readLock().lock();
+            try {
+                int row = rowByEmployeeAndDay.get(key(employeeId, Math.toIntExact(epochDay)));
+                return row == LongIntHashMap.MISSING ? null : view(row);
+            } finally {
+                structure.readLock().unlock();
+            }
+        } finally {
+            FIND_BY_DATE.stop(started);
+        }
+    }
+
+    @Override
+    public List<AttendanceRecord> getAllRecords() {
+        long started = GET_ALL.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            structure.readLock().lock();
+            try {
+                List<AttendanceRecord> all = new ArrayList<>(size);
+                for (int row = 0; row < size; row++) {
+                    all.add(view(row));
+                }
+                return scan.end(GET_ALL.getName(), -1, all);
+            } finally {
+                structure.readLock().unlock();
+            }
+        } finally {
+            GET_ALL.stop(started);
+        }
+    }
+
+    @Override
+    public boolean hasRecordsOn(LocalDate date) {
+        return rowsByDay.contains(date.toEpochDay());
+    }
+
+    // the views are taken under the read lock and handed out after it is let go
+    @Override
+    public void forEachRecordOn(LocalDate date, Consumer<AttendanceRecord> action) {
+        long started = FOR_EACH_ON.start();
+        try {
+            List<AttendanceRecord> found;
+            structure.readLock().lock();
+            try {
+                int[] rows = rowsByDay.on(date.toEpochDay());
+                found = new ArrayList<>(rows.length);
+                for (int row : rows) {
+                    found.add(view(row));
+                }
+            } finally {
+                structure.readLock().unlock();
+            }
+            found.forEach(action);
+        } finally {
+            FOR_EACH_ON.stop(started);
+        }
+    }
+
+    @Override
+    public double getMonthlyHours(int employeeId, YearMonth month) {
+        long started = MONTHLY_HOURS.start();
+        try {
+            return monthlyHours.get(employeeId, month);
+        } finally {
+            MONTHLY_HOURS.stop(started);
+        }
+    }
+
+    @Override
+    public Map<Integer, Double> getMonthlyHoursForAll(YearMonth month) {
+        long started = MONTHLY_HOURS_ALL.start();
+        try {
+            return monthlyHours.getAll(month);
+        } finally {
+            MONTHLY_HOURS_ALL.stop(started);
+        }
+    }
+
+    @Override
+    public int getNextRecordId() {
+        return idGenerator.get();
+    }
+
+    @Override
+    public void setNextRecordId(int nextId) {
+        idGenerator.set(nextId);
+    }
+
+    @Override
+    public void clear() {
+        structure.writeLock().lock();
+        try {
+            size = 0;
+            rowByRecordId.clear();
+            rowByEmployeeAndDay.clear();
+            rowsByEmployee.clear();
+            rowsByDay.clear();
+            monthlyHours.clear();
+            idGenerator.set(1); // start id again from 1
+        } finally {
+            structure.writeLock().unlock();
+        }
+        fireRecordsCleared();
+    }
+
+    // number of rows held
+    public int size() {
+        structure.readLock().lock();
+        try {
+            return size;
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    // ---- rows (caller holds the write lock) ----
+
+    private int appendRow(int recordId, int employeeId, int day) {
+        if (size == recordIds.length) {
+            int capacity = size + (size >> 1);
+            recordIds = Arrays.copyOf(recordIds, capacity);
+            employeeIds = Arrays.copyOf(employeeIds, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            clockInSeconds = Arrays.copyOf(clockInSeconds, capacity);
+            clockOutSeconds = Arrays.copyOf(clockOutSeconds, capacity);
+            hundredthHours = Arrays.copyOf(hundredthHours, capacity);
+        }
+        int row = size++;
+        recordIds[row] = recordId;
+        employeeIds[row] = employeeId;
+        epochDays[row] = day;
+        clockInSeconds[row] = NO_TIME;
+        clockOutSeconds[row] = NO_TIME;
+        hundredthHours[row] = NO_HOURS;
+        rowByRecordId.put(recordId, row);
+        rowByEmployeeAndDay.put(key(employeeId, day), row);
+        rowsByEmployee.computeIfAbsent(employeeId, id -> new RowList()).insert(row, epochDays);
+        rowsByDay.add(day, row);
+        return row;
+    }
+
+    // ---- views (caller holds the read lock) ----
+
+    private List<AttendanceRecord> views(RowList rows, int from, int to) {
+        List<AttendanceRecord> out = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            out.add(view(rows.rows[i]));
+        }
+        return out;
+    }
+
+    private AttendanceRecord view(int row) {
+        return new RowView(row, recordIds[row], employeeIds[row], LocalDate.ofEpochDay(epochDays[row]));
+    }
+
+    // flyweight over one row; the inherited fields hold only the immutable id, employee and date
+    private final class RowView extends AttendanceRecord {
+        private final int row;
+
+        RowView(int row, int recordId, int employeeId, LocalDate date) {
+            super(recordId, employeeId, date);
+            this.row = row;
+        }
+
+        @Override
+        public long getClockInNanos() {
+            structure.readLock().lock();
+            try {
+                return fromSeconds(clockInSeconds[row]);
+            } finally {
+                structure.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void setClockInNanos(long clockIn) {
+            structure.readLock().lock();
+            try {
+                clockInSeconds[row] = toSeconds(clockIn);
+            } finally {
+                structure.readLock().unlock();
+            }
+            fireRecordSaved(this);
+        }
+
+        @Override
+        public long getClockOutNanos() {
+            structure.readLock().lock();
+            try {
+                return fromSeconds(clockOutSeconds[row]);
+            } finally {
+                structure.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void setClockOutNanos(long clockOut) {
+            structure.readLock().lock();
+            try {
+                clockOutSeconds[row] = toSeconds(clockOut);
+            } finally {
+                structure.readLock().unlock();
+            }
+            fireRecordSaved(this);
+        }
+
+        @Override
+        public double getHours() {
+            structure.readLock().lock();
+            try {
+                int hundredths = hundredthHours[row];
+                return hundredths == NO_HOURS ? Double.NaN : hundredths / 100.0;
+            } finally {
+                structure.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void setHours(double hoursWorked) {
+            int hundredths = toHundredths(hoursWorked);
+            int previous;
+            // the stripe makes the read-and-replace atomic, so each correction moves the month total once
+            Lock lock = lockFor(getEmployeeId());
+            lock.lock();
+            try {
+                structure.readLock().lock();
+                try {
+                    previous = hundredthHours[row];
+                    hundredthHours[row] = hundredths;
+                } finally {
+                    structure.readLock().unlock();
+                }
+                monthlyHours.add(getEmployeeId(), getDate(), hundredths(hundredths) - hundredths(previous));
+            } finally {
+                lock.unlock();
+            }
+            fireRecordSaved(this);
+        }
+
+        @Override
+        public void setChangeListener(Consumer<AttendanceRecord> changeListener) {
+            // changes are always reported by the repository itself
+        }
+
+        @Override
+        public void setHoursListener(HoursListener hoursListener) {
+            // month totals are kept by the repository itself
+        }
+
+        @Override
+        public String toString() {
+            return "AttendanceRecord{" +
+                    "id=" + getRecordId() +
+                    ", emp=" + getEmployeeId() +
+                    ", date=" + getDate() +
+                    ", in=" + getClockInTime() +
+                    ", out=" + getClockOutTime() +
+                    ", hours=" + getHoursWorked() +
+                    '}';
+        }
+    }
+
+    // row numbers of one employee, kept sorted by day
+    private static final class RowList {
+        int[] rows = new int[8];
+        int size;
+
+        void insert(int row, int[] days) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size << 1);
+            }
+            // history usually arrives in date order, so this is almost always an append
+            int i = size;
+            while (i > 0 && days[rows[i - 1]] > days[row]) {
+                rows[i] = rows[i - 1];
+                i--;
+            }
+            rows[i] = row;
+            size++;
+        }
+
+        void remove(int row) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] == row) {
+                    System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        // first position whose day is >= day
+        int lowerBound(int day, int[] days) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (days[rows[mid]] < day) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    // ---- encodings ----
+
+    private static long key(int employeeId, int day) {
+        return ((long) employeeId << 32) | (day & 0xFFFFFFFFL);
+    }
+
+    private static int toDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    // cells hold whole seconds; the record API speaks local nanos
+    private static long toSeconds(long nanos) {
+        return nanos == AttendanceRecord.NO_TIME ? NO_TIME : Math.floorDiv(nanos, NANOS_PER_SECOND);
+    }
+
+    private static long fromSeconds(long seconds) {
+        return seconds == NO_TIME ? AttendanceRecord.NO_TIME : seconds * NANOS_PER_SECOND;
+    }
+
+    private static int toHundredths(double hours) {
+        return Double.isNaN(hours) ? NO_HOURS : (int) Math.round(hours * 100.0);
+    }
+
+    // hours cell as a contribution to the month totals
+    private static long hundredths(int cell) {
+        return cell == NO_HOURS ? 0 : cell;
+    }
+}
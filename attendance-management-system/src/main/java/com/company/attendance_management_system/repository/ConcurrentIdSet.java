@@ -0,0 +1,75 @@
+package com.company.attendance_management_system.repository;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// add-only set of ints (employee ids) whose contains() is lock-free and allocation-free, for the
+// "is this badge on file" check every clock tap makes (a ConcurrentHashMap<Integer, ...> boxes the
+// id on each lookup). open addressing with linear probing; ids are only ever dropped all at once
+// (clear swaps in a fresh table), so a probe never steps over a deleted slot and a reader racing
+// an add sees the id either already or not yet.
+// adds and clears must be serialized by the caller; contains may run on any thread at any time.
+final class ConcurrentIdSet {
+    private static final int FREE = 0; // id 0 itself is tracked by hasZero
+    private static final float MAX_LOAD = 0.5f;
+
+    private volatile AtomicIntegerArray table = new AtomicIntegerArray(16);
+    private volatile boolean hasZero;
+    private int size;
+
+    boolean contains(int id) {
+        if (id == FREE) {
+            return hasZero;
+        }
+        AtomicIntegerArray t = table;
+        int mask = t.length() - 1;
+        for (int i = slot(id, mask); ; i = (i + 1) & mask) {
+            int k = t.get(i);
+            if (k == id) return true;
+            if (k == FREE) return false;
+        }
+    }
+
+    void add(int id) {
+        if (id == FREE) {
+            hasZero = true;
+            return;
+        }
+        if (insert(table, id) && ++size > table.length() * MAX_LOAD) {
+            grow();
+        }
+    }
+
+    void clear() {
+        table = new AtomicIntegerArray(16);
+        hasZero = false;
+        size = 0;
+    }
+
+    private static boolean insert(AtomicIntegerArray t, int id) {
+        int mask = t.length() - 1;
+        for (int i = slot(id, mask); ; i = (i + 1) & mask) {
+            int k = t.get(i);
+            if (k == id) return false;
+            if (k == FREE) {
+                t.set(i, id);
+                return true;
+            }
+        }
+    }
+
+    // readers keep probing the old table until the filled new one is published
+    private void grow() {
+        AtomicIntegerArray old = table;
+        AtomicIntegerArray bigger = new AtomicIntegerArray(old.length() << 1);
+        for (int i = 0; i < old.length(); i++) {
+            int k = old.get(i);
+            if (k != FREE) insert(bigger, k);
+        }
+        table = bigger;
+    }
+
+    private static int slot(int id, int mask) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
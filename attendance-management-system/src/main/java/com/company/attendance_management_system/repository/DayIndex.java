@@ -0,0 +1,41 @@
+package com.company.attendance_management_system.repository;
+
+// which records fall on each day, by the store's own int handle for a record (a row number, or the
+// record id on the heap), so one day's records are found without asking after every employee.
+// a bitmap per day with records: about a bit per record for a busy company, a few bytes when sparse.
+// only record creation, moves and clears change it, never the clock path.
+// thread-safe (its own monitor); taken after an employee's stripe, never before.
+final class DayIndex {
+
+    private final LongObjectHashMap<IdBitmap> byDay = new LongObjectHashMap<>(64);
+
+    synchronized void add(long epochDay, int handle) {
+        IdBitmap handles = byDay.get(epochDay);
+        if (handles == null) {
+            handles = new IdBitmap();
+            byDay.put(epochDay, handles);
+        }
+        handles.add(handle);
+    }
+
+    synchronized void remove(long epochDay, int handle) {
+        IdBitmap handles = byDay.get(epochDay);
+        if (handles != null && handles.remove(handle) && handles.isEmpty()) {
+            byDay.remove(epochDay, handles);
+        }
+    }
+
+    synchronized boolean contains(long epochDay) {
+        return byDay.get(epochDay) != null;
+    }
+
+    // the day's handles, copied
+    synchronized int[] on(long epochDay) {
+        IdBitmap handles = byDay.get(epochDay);
+        return handles == null ? new int[0] : handles.toArray();
+    }
+
+    synchronized void clear() {
+        byDay.clear();
+    }
+}
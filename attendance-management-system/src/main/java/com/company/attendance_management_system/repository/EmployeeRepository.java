@@ -1,37 +1,211 @@
 package com.company.attendance_management_system.repository;
 
+import com.company.attendance_management_system.metrics.Metrics;
+import com.company.attendance_management_system.metrics.RepositoryScanEvent;
+import com.company.attendance_management_system.metrics.Timer;
 import com.company.attendance_management_system.model.Employee;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class EmployeeRepository {
-    // store employees in memory
-    private final Map<Integer, Employee> employees = new HashMap<>();
+    // notified whenever an employee is added or changed through a setter
+    public interface Listener {
+        void employeeSaved(Employee employee);
+        // a batch added in one go; listeners that can handle it at once override this
+        default void employeesSaved(List<Employee> employees) {
+            for (Employee employee : employees) {
+                employeeSaved(employee);
+            }
+        }
+        default void employeesCleared() {}
+    }
+
+    private static final Timer FIND_BY_ID = Metrics.timer("employeeRepository.findEmployeeById");
+    private static final Timer EXISTS = Metrics.timer("employeeRepository.exists");
+    private static final Timer FIND_BY_EMAIL = Metrics.timer("employeeRepository.findEmployeeByEmail");
+    private static final Timer GET_ALL = Metrics.timer("employeeRepository.getAllEmployees");
+    private static final Timer GET_IDS = Metrics.timer("employeeRepository.getEmployeeIds");
+
+    // store employees in memory. lookups are lock-free; writes synchronize on the repository
+    // so the email index never disagrees with the map (callers can hold the same lock to
+    // check-then-add atomically, see EmployeeServiceImpl)
+    private final Map<Integer, Employee> employees = new ConcurrentHashMap<>();
+    // normalized email -> ids of the employees using it (sorted; replaced, never changed in place), so
+    // email lookups and duplicate checks don't scan everyone. the services refuse a taken email, but a
+    // journal written before they did can restore two employees with one, and neither may drop out
+    private final Map<String, int[]> idsByEmail = new ConcurrentHashMap<>();
+    // key each employee is indexed under, to drop the stale one after setEmail
+    private final Map<Integer, String> indexedEmails = new ConcurrentHashMap<>();
+    // every stored id, for company-wide set operations (e.g. absentees); guarded by the repository lock
+    private final IdBitmap ids = new IdBitmap();
+    // the same ids for lock-free exists() checks on the clock path
+    private final ConcurrentIdSet knownIds = new ConcurrentIdSet();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
 
     // add new employee
-    public void addEmployee(Employee employee) {
-        employees.put(employee.getEmployeeId(), employee);
+    public synchronized void addEmployee(Employee employee) {
+        store(employee);
+        fireSaved(employee);
+    }
+
+    // add many employees, telling listeners about the whole batch at once (e.g. one journal flush)
+    public synchronized void addEmployees(List<Employee> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Employee employee : batch) {
+            store(employee);
+        }
+        List<Employee> saved = Collections.unmodifiableList(new ArrayList<>(batch));
+        for (Listener listener : listeners) {
+            listener.employeesSaved(saved);
+        }
     }
 
     // search employee by id
     public Optional<Employee> findEmployeeById(int id) {
-        return Optional.ofNullable(employees.get(id));
+        long started = FIND_BY_ID.start();
+        try {
+            return Optional.ofNullable(employees.get(id));
+        } finally {
+            FIND_BY_ID.stop(started);
+        }
+    }
+
+    // whether the id is on file, without wrapping the employee in an Optional or boxing the id
+    public boolean exists(int id) {
+        long started = EXISTS.start();
+        try {
+            return knownIds.contains(id);
+        } finally {
+            EXISTS.stop(started);
+        }
     }
 
     // search employee by email
     public Optional<Employee> findEmployeeByEmail(String email) {
-        return employees.values().stream()
-                .filter(e -> e.getEmail().equalsIgnoreCase(email))
-                .findFirst();
+        long started = FIND_BY_EMAIL.start();
+        try {
+            String key = normalizeEmail(email);
+            int[] held = key == null ? null : idsByEmail.get(key);
+            // a shared email finds the lowest id
+            return held == null ? Optional.empty() : Optional.ofNullable(employees.get(held[0]));
+        } finally {
+            FIND_BY_EMAIL.stop(started);
+        }
     }
 
     // get list of all employees
     public List<Employee> getAllEmployees() {
-        return new ArrayList<>(employees.values());
+        long started = GET_ALL.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            return scan.end(GET_ALL.getName(), -1, new ArrayList<>(employees.values()));
+        } finally {
+            GET_ALL.stop(started);
+        }
+    }
+
+    // ids of all employees, as a copy the caller owns
+    public synchronized IdBitmap getEmployeeIds() {
+        long started = GET_IDS.start();
+        try {
+            return ids.copy();
+        } finally {
+            GET_IDS.stop(started);
+        }
     }
 
     // remove all employees (reset)
-    public void clear() {
+    public synchronized void clear() {
         employees.clear();
+        ids.clear();
+        knownIds.clear();
+        idsByEmail.clear();
+        indexedEmails.clear();
+        for (Listener listener : listeners) {
+            listener.employeesCleared();
+        }
+    }
+
+    private void store(Employee employee) {
+        knownIds.add(employee.getEmployeeId());
+        Employee previous = employees.put(employee.getEmployeeId(), employee);
+        if (previous != null && previous != employee) {
+            previous.setChangeListener(null);
+        }
+        employee.setChangeListener(this::employeeChanged);
+        ids.add(employee.getEmployeeId());
+        indexEmail(employee);
+    }
+
+    // setter called on a stored employee: the email may have changed
+    private synchronized void employeeChanged(Employee employee) {
+        indexEmail(employee);
+        fireSaved(employee);
+    }
+
+    // move the employee's index entry to its current email
+    private void indexEmail(Employee employee) {
+        int id = employee.getEmployeeId();
+        String key = normalizeEmail(employee.getEmail());
+        String old = key == null ? indexedEmails.remove(id) : indexedEmails.put(id, key);
+        if (Objects.equals(old, key)) {
+            return;
+        }
+        if (old != null) {
+            unindexEmail(old, id);
+        }
+        if (key != null) {
+            int[] held = idsByEmail.get(key);
+            if (held == null) {
+                idsByEmail.put(key, new int[]{id});
+            } else {
+                int at = -Arrays.binarySearch(held, id) - 1;
+                int[] more = new int[held.length + 1];
+                System.arraycopy(held, 0, more, 0, at);
+                more[at] = id;
+                System.arraycopy(held, at, more, at + 1, held.length - at);
+                idsByEmail.put(key, more);
+            }
+        }
+    }
+
+    private void unindexEmail(String key, int id) {
+        int[] held = idsByEmail.get(key);
+        int at = held == null ? -1 : Arrays.binarySearch(held, id);
+        if (at < 0) {
+            return;
+        }
+        if (held.length == 1) {
+            idsByEmail.remove(key);
+            return;
+        }
+        int[] fewer = new int[held.length - 1];
+        System.arraycopy(held, 0, fewer, 0, at);
+        System.arraycopy(held, at + 1, fewer, at, fewer.length - at);
+        idsByEmail.put(key, fewer);
+    }
+
+    // emails match case-insensitively (as the old equalsIgnoreCase scan did; spaces are significant)
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    private void fireSaved(Employee employee) {
+        for (Listener listener : listeners) {
+            listener.employeeSaved(employee);
+        }
     }
 }
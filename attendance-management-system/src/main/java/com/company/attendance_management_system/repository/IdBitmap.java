@@ -0,0 +1,470 @@
+package com.company.attendance_management_system.repository;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// compressed set of ints (employee ids), laid out like a Roaring bitmap: ids are split by their
+// high 16 bits into chunks of 65536, and each chunk is a sorted char array while it holds up to
+// 4096 ids, or a 65536-bit bitmap (8 KB) once it holds more. sparse id ranges stay a few bytes per id,
+// dense ones one bit per id, and andNot/or work chunk by chunk (64 ids per long in bitmap chunks).
+// not thread-safe; callers guard it or work on copies.
+public final class IdBitmap {
+    // a chunk with more ids than this is stored as a bitmap
+    private static final int ARRAY_LIMIT = 4096;
+
+    // high 16 bits of each chunk (sign bit flipped, so chunks sort like signed ints), ascending
+    private char[] keys;
+    private Chunk[] chunks;
+    private int size;
+
+    public IdBitmap() {
+        this(0);
+    }
+
+    private IdBitmap(int capacity) {
+        keys = new char[Math.max(4, capacity)];
+        chunks = new Chunk[keys.length];
+    }
+
+    public static IdBitmap of(int... ids) {
+        IdBitmap bitmap = new IdBitmap();
+        for (int id : ids) {
+            bitmap.add(id);
+        }
+        return bitmap;
+    }
+
+    // true if the id was not there yet
+    public boolean add(int id) {
+        char key = high(id);
+        int i = find(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertChunk(i, key, new ArrayChunk());
+        }
+        int before = chunks[i].cardinality();
+        chunks[i] = chunks[i].add(low(id));
+        return chunks[i].cardinality() > before;
+    }
+
+    // true if the id was there
+    public boolean remove(int id) {
+        int i = find(high(id));
+        if (i < 0 || !chunks[i].contains(low(id))) {
+            return false;
+        }
+        Chunk chunk = chunks[i].remove(low(id));
+        if (chunk == null) {
+            removeChunk(i);
+        } else {
+            chunks[i] = chunk;
+        }
+        return true;
+    }
+
+    public boolean contains(int id) {
+        int i = find(high(id));
+        return i >= 0 && chunks[i].contains(low(id));
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += chunks[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chunks, 0, size, null);
+        size = 0;
+    }
+
+    public IdBitmap copy() {
+        IdBitmap copy = new IdBitmap(size);
+        for (int i = 0; i < size; i++) {
+            copy.keys[i] = keys[i];
+            copy.chunks[i] = chunks[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    // ids in this bitmap but not in other, as a new bitmap
+    public IdBitmap andNot(IdBitmap other) {
+        IdBitmap result = new IdBitmap(size);
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Chunk chunk = j < other.size && other.keys[j] == keys[i]
+                    ? chunks[i].andNot(other.chunks[j])
+                    : chunks[i].copy();
+            if (chunk != null) {
+                result.appendChunk(keys[i], chunk);
+            }
+        }
+        return result;
+    }
+
+    // ids in either bitmap, as a new bitmap
+    public IdBitmap or(IdBitmap other) {
+        IdBitmap result = new IdBitmap(size + other.size);
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], chunks[i++].copy());
+            } else if (i == size || other.keys[j] < keys[i]) {
+                result.appendChunk(other.keys[j], other.chunks[j++].copy());
+            } else {
+                result.appendChunk(keys[i], chunks[i++].or(other.chunks[j++]));
+            }
+        }
+        return result;
+    }
+
+    // ids in ascending order
+    public int[] toArray() {
+        int[] ids = new int[cardinality()];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            n = chunks[i].copyTo(base(keys[i]), ids, n);
+        }
+        return ids;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            chunks[i].forEach(base(keys[i]), action);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IdBitmap && Arrays.equals(toArray(), ((IdBitmap) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private int find(char key) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else if (keys[mid] > key) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private void insertChunk(int i, char key, Chunk chunk) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            chunks = Arrays.copyOf(chunks, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(chunks, i, chunks, i + 1, size - i);
+        keys[i] = key;
+        chunks[i] = chunk;
+        size++;
+    }
+
+    private void appendChunk(char key, Chunk chunk) {
+        insertChunk(size, key, chunk);
+    }
+
+    private void removeChunk(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(chunks, i + 1, chunks, i, size - i - 1);
+        chunks[--size] = null;
+    }
+
+    private static char high(int id) {
+        return (char) ((id >>> 16) ^ 0x8000);
+    }
+
+    private static char low(int id) {
+        return (char) id;
+    }
+
+    private static int base(char key) {
+        return (key ^ 0x8000) << 16;
+    }
+
+    // the ids of one chunk, by their low 16 bits. mutators return the chunk to keep using
+    // (the form may change), or null once it is empty
+    private abstract static class Chunk {
+        abstract Chunk add(char low);
+        abstract Chunk remove(char low);
+        abstract boolean contains(char low);
+        abstract int cardinality();
+        abstract Chunk andNot(Chunk other);
+        abstract Chunk or(Chunk other);
+        abstract Chunk copy();
+        abstract int copyTo(int base, int[] out, int n);
+        abstract void forEach(int base, IntConsumer action);
+    }
+
+    private static final class ArrayChunk extends Chunk {
+        char[] values;
+        int count;
+
+        ArrayChunk() {
+            this(new char[4], 0);
+        }
+
+        ArrayChunk(char[] values, int count) {
+            this.values = values;
+            this.count = count;
+        }
+
+        @Override
+        Chunk add(char low) {
+            int i = Arrays.binarySearch(values, 0, count, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (count == ARRAY_LIMIT) {
+                return toBitmap().add(low);
+            }
+            i = -i - 1;
+            if (count == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, count * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, count - i);
+            values[i] = low;
+            count++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(char low) {
+            int i = Arrays.binarySearch(values, 0, count, low);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, count - i - 1);
+                count--;
+            }
+            return count == 0 ? null : this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, count, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return count;
+        }
+
+        @Override
+        Chunk andNot(Chunk other) {
+            char[] kept = new char[count];
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (!other.contains(values[i])) {
+                    kept[n++] = values[i];
+                }
+            }
+            return n == 0 ? null : new ArrayChunk(kept, n);
+        }
+
+        @Override
+        Chunk or(Chunk other) {
+            if (other instanceof BitmapChunk) {
+                return other.or(this);
+            }
+            ArrayChunk that = (ArrayChunk) other;
+            char[] merged = new char[count + that.count];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < count && j < that.count) {
+                char a = values[i];
+                char b = that.values[j];
+                merged[n++] = a <= b ? a : b;
+                if (a <= b) i++;
+                if (b <= a) j++;
+            }
+            while (i < count) merged[n++] = values[i++];
+            while (j < that.count) merged[n++] = that.values[j++];
+            ArrayChunk union = new ArrayChunk(merged, n);
+            return n > ARRAY_LIMIT ? union.toBitmap() : union;
+        }
+
+        @Override
+        Chunk copy() {
+            return new ArrayChunk(Arrays.copyOf(values, Math.max(4, count)), count);
+        }
+
+        @Override
+        int copyTo(int base, int[] out, int n) {
+            for (int i = 0; i < count; i++) {
+                out[n++] = base | values[i];
+            }
+            return n;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < count; i++) {
+                action.accept(base | values[i]);
+            }
+        }
+
+        BitmapChunk toBitmap() {
+            BitmapChunk bitmap = new BitmapChunk();
+            for (int i = 0; i < count; i++) {
+                bitmap.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            bitmap.count = count;
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapChunk extends Chunk {
+        final long[] words = new long[1024];
+        int count;
+
+        @Override
+        Chunk add(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                count++;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk remove(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                words[low >>> 6] &= ~bit;
+                count--;
+            }
+            return count <= ARRAY_LIMIT ? toArrayChunk() : this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return count;
+        }
+
+        @Override
+        Chunk andNot(Chunk other) {
+            BitmapChunk result = new BitmapChunk();
+            if (other instanceof BitmapChunk) {
+                long[] theirs = ((BitmapChunk) other).words;
+                int n = 0;
+                for (int i = 0; i < words.length; i++) {
+                    long w = words[i] & ~theirs[i];
+                    result.words[i] = w;
+                    n += Long.bitCount(w);
+                }
+                result.count = n;
+            } else {
+                System.arraycopy(words, 0, result.words, 0, words.length);
+                result.count = count;
+                ArrayChunk that = (ArrayChunk) other;
+                for (int i = 0; i < that.count; i++) {
+                    char low = that.values[i];
+                    long bit = 1L << low;
+                    if ((result.words[low >>> 6] & bit) != 0) {
+                        result.words[low >>> 6] &= ~bit;
+                        result.count--;
+                    }
+                }
+            }
+            return result.count <= ARRAY_LIMIT ? result.toArrayChunk() : result;
+        }
+
+        @Override
+        Chunk or(Chunk other) {
+            BitmapChunk result = (BitmapChunk) copy();
+            if (other instanceof BitmapChunk) {
+                long[] theirs = ((BitmapChunk) other).words;
+                int n = 0;
+                for (int i = 0; i < words.length; i++) {
+                    result.words[i] |= theirs[i];
+                    n += Long.bitCount(result.words[i]);
+                }
+                result.count = n;
+            } else {
+                ArrayChunk that = (ArrayChunk) other;
+                for (int i = 0; i < that.count; i++) {
+                    result.add(that.values[i]);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        Chunk copy() {
+            BitmapChunk copy = new BitmapChunk();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.count = count;
+            return copy;
+        }
+
+        @Override
+        int copyTo(int base, int[] out, int n) {
+            for (int i = 0; i < words.length; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    out[n++] = base | (i << 6) | Long.numberOfTrailingZeros(w);
+                    w &= w - 1;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < words.length; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    action.accept(base | (i << 6) | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        // only called with count <= ARRAY_LIMIT
+        Chunk toArrayChunk() {
+            if (count == 0) {
+                return null;
+            }
+            char[] values = new char[count];
+            int n = 0;
+            for (int i = 0; i < words.length; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    values[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+            return new ArrayChunk(values, count);
+        }
+    }
+}
@@ -0,0 +1,751 @@
+package com.company.attendance_management_system.repository;
+
+import com.company.attendance_management_system.metrics.RepositoryScanEvent;
+import com.company.attendance_management_system.model.AttendanceRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+// attendance store whose rows live in memory-mapped files instead of on the heap. every record is
+// one fixed-width row (ROW_BYTES), appended to segment files of rowsPerSegment rows mapped with
+// FileChannel.map; clock-in, clock-out and hours are written into the row in place. the heap only
+// holds per-employee state (the row of each employee's latest day) and a compressed bitmap of record
+// ids, so heap use stays flat however many years of history pile up, and the OS page cache decides
+// which rows are resident. reopening the directory is one sequential pass over the rows' id, employee
+// and day cells; nothing is deserialized into objects.
+//
+// each row links to the same employee's row for the previous (earlier) day, so an employee's history
+// is a chain walked back from the latest day: today's record is one step, an older day or range one
+// step per row walked past. month totals are summed from the chain instead of kept on the heap.
+//
+// durability: the kernel owns the mapped pages, so every write survives the process dying; flush()
+// and close() force them to disk for power loss. an append marks its row in the header while the
+// chain is being relinked, and open() finishes the link if a crash came in between.
+//
+// like the columnar store: lookups hand out flyweight AttendanceRecord views over a row, addRecord
+// copies the record in, and reads and writes of a row take its employee's lock stripe.
+public class MappedAttendanceRepository extends AbstractAttendanceStore implements Closeable {
+    public static final int DEFAULT_ROWS_PER_SEGMENT = 1 << 20; // 40 MB segment files
+
+    // row layout
+    static final int ROW_BYTES = 40;
+    private static final int RECORD_ID = 0;
+    private static final int EMPLOYEE_ID = 4;
+    private static final int EPOCH_DAY = 8;
+    private static final int PREVIOUS_ROW = 12; // the employee's row for the previous day, or NONE
+    private static final int CLOCK_IN = 16;     // local nanos, AttendanceRecord.NO_TIME when unset
+    private static final int CLOCK_OUT = 24;
+    private static final int HOURS = 32;        // NaN when unset
+
+    // header layout
+    private static final int MAGIC = 0x41545452; // "ATTR"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_ROW_BYTES = 8;
+    private static final int H_ROWS_PER_SEGMENT = 12;
+    private static final int H_ROW_COUNT = 16;
+    private static final int H_NEXT_RECORD_ID = 20;
+    private static final int H_LINKING_ROW = 24; // row whose chain link is being written, or NONE
+
+    private static final int NONE = LongIntHashMap.MISSING;
+
+    private final Path directory;
+    private final MappedByteBuffer header;
+    private final int rowsPerSegment; // a power of two
+    private final int segmentShift;
+
+    // guards appends, the header, recordIds and growing segments. taken after an employee's stripe, never before
+    private final Object appendLock = new Object();
+    // mapped segment files, replaced by a longer array when one is added
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    // rows readers may look at; bumped after the row is written
+    private volatile int rowCount;
+    private final IdBitmap recordIds = new IdBitmap();
+    // employee id -> row of the employee's latest day, one map per lock stripe, guarded by that stripe
+    private final LongIntHashMap[] latestRow;
+    // rows by day, so presence reads a day without walking every employee's chain back to it
+    private final DayIndex rowsByDay = new DayIndex();
+
+    private MappedAttendanceRepository(Path directory, int rowsPerSegment, int lockStripes) throws IOException {
+        super(lockStripes);
+        this.directory = directory;
+        Files.createDirectories(directory);
+        header = map(directory.resolve("header"), HEADER_BYTES);
+        if (header.getInt(H_MAGIC) == 0) {
+            header.putInt(H_MAGIC, MAGIC);
+            header.putInt(H_VERSION, VERSION);
+            header.putInt(H_ROW_BYTES, ROW_BYTES);
+            header.putInt(H_ROWS_PER_SEGMENT, rowsPerSegment);
+            header.putInt(H_ROW_COUNT, 0);
+            header.putInt(H_NEXT_RECORD_ID, 1);
+            header.putInt(H_LINKING_ROW, NONE);
+        } else if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION
+                || header.getInt(H_ROW_BYTES) != ROW_BYTES) {
+            throw new IOException(directory + " does not hold attendance rows of this version");
+        }
+        // an existing store keeps the segment size it was created with
+        this.rowsPerSegment = header.getInt(H_ROWS_PER_SEGMENT);
+        this.segmentShift = Integer.numberOfTrailingZeros(this.rowsPerSegment);
+        latestRow = new LongIntHashMap[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            latestRow[i] = new LongIntHashMap(16);
+        }
+        load();
+    }
+
+    public static MappedAttendanceRepository open(Path directory) throws IOException {
+        return open(directory, DEFAULT_ROWS_PER_SEGMENT);
+    }
+
+    // rowsPerSegment applies to a new store (a power of two, up to 2^25 so a segment stays under 2 GB)
+    public static MappedAttendanceRepository open(Path directory, int rowsPerSegment) throws IOException {
+        if (Integer.bitCount(rowsPerSegment) != 1 || rowsPerSegment > 1 << 25) {
+            throw new IllegalArgumentException("rowsPerSegment must be a power of two up to 2^25");
+        }
+        return new MappedAttendanceRepository(directory, rowsPerSegment, DEFAULT_LOCK_STRIPES);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+
+    // rebuild the heap state from the rows (called once, before the store is shared)
+    private void load() throws IOException {
+        int count = header.getInt(H_ROW_COUNT);
+        int maxRecordId = 0;
+        for (int s = 0; s * (long) rowsPerSegment < count; s++) {
+            addSegment();
+        }
+        rowCount = count;
+        for (int row = 0; row < count; row++) {
+            int employeeId = getInt(row, EMPLOYEE_ID);
+            LongIntHashMap latest = latestRow[stripe(employeeId)];
+            int current = latest.get(employeeId);
+            if (current == NONE || getInt(current, EPOCH_DAY) < getInt(row, EPOCH_DAY)) {
+                latest.put(employeeId, row);
+            }
+            rowsByDay.add(getInt(row, EPOCH_DAY), row);
+            int recordId = getInt(row, RECORD_ID);
+            recordIds.add(recordId);
+            maxRecordId = Math.max(maxRecordId, recordId);
+        }
+        if (header.getInt(H_NEXT_RECORD_ID) <= maxRecordId) {
+            header.putInt(H_NEXT_RECORD_ID, maxRecordId + 1);
+        }
+        int linking = header.getInt(H_LINKING_ROW);
+        if (linking != NONE && linking < count) {
+            linkIn(linking);
+        }
+        header.putInt(H_LINKING_ROW, NONE);
+    }
+
+    @Override
+    public AttendanceRecord createRecord(int employeeId, LocalDate date) {
+        int day = toDay(date.toEpochDay());
+        int id;
+        int row;
+        Lock lock = lockFor(employeeId);
+        lock.lock();
+        try {
+            if (findRow(employeeId, day) != NONE) {
+                throw new IllegalStateException("Record already exists for employee " + employeeId + " on " + date);
+            }
+            synchronized (appendLock) {
+                id = header.getInt(H_NEXT_RECORD_ID);
+                header.putInt(H_NEXT_RECORD_ID, id + 1);
+                row = append(id, employeeId, day);
+            }
+        } finally {
+            lock.unlock();
+        }
+        AttendanceRecord view = new RowView(row, id, employeeId, date);
+        fireRecordSaved(view);
+        return view;
+    }
+
+    @Override
+    public AttendanceRecord findOrCreateRecord(int employeeId, long epochDay) {
+        long started = FIND_OR_CREATE.start();
+        try {
+            Lock lock = lockFor(employeeId);
+            lock.lock();
+            try {
+                AttendanceRecord existing = findRecordByDay(employeeId, epochDay);
+                return existing != null ? existing : createRecord(employeeId, LocalDate.ofEpochDay(epochDay));
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            FIND_OR_CREATE.stop(started);
+        }
+    }
+
+    @Override
+    public void addRecord(AttendanceRecord record) {
+        int employeeId = record.getEmployeeId();
+        int recordId = record.getRecordId();
+        int day = toDay(record.getDate().toEpochDay());
+        int row;
+        Lock lock = lockFor(employeeId);
+        lock.lock();
+        try {
+            synchronized (appendLock) {
+                boolean known = recordIds.contains(recordId);
+                row = known ? findRecordRow(employeeId, recordId) : NONE;
+                if (known && row == NONE) {
+                    throw new IllegalStateException("Record " + recordId + " belongs to another employee");
+                }
+                int sameDay = findRow(employeeId, day);
+                if (sameDay != NONE && sameDay != row) {
+                    throw new IllegalStateException("Record already exists for employee " + employeeId
+                            + " on " + record.getDate());
+                }
+                if (row == NONE) {
+                    row = append(recordId, employeeId, day);
+                } else if (getInt(row, EPOCH_DAY) != day) {
+                    move(row, day);
+                }
+                putLong(row, CLOCK_IN, record.getClockInNanos());
+                putLong(row, CLOCK_OUT, record.getClockOutNanos());
+                putDouble(row, HOURS, record.getHours());
+                // keep generated ids ahead of anything added from outside (e.g. restored from a journal)
+                if (header.getInt(H_NEXT_RECORD_ID) <= recordId) {
+                    header.putInt(H_NEXT_RECORD_ID, recordId + 1);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        fireRecordSaved(new RowView(row, recordId, employeeId, record.getDate()));
+    }
+
+    @Override
+    public List<AttendanceRecord> findRecordsByEmployeeId(int employeeId) {
+        long started = FIND_BY_EMPLOYEE.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            return scan.end(FIND_BY_EMPLOYEE.getName(), employeeId, chain(employeeId, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        } finally {
+            FIND_BY_EMPLOYEE.stop(started);
+        }
+    }
+
+    @Override
+    public List<AttendanceRecord> findRecordsByEmployeeBetween(int employeeId, LocalDate from, LocalDate to) {
+        long started = FIND_BETWEEN.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            if (to.isBefore(from)) {
+                return scan.end(FIND_BETWEEN.getName(), employeeId, new ArrayList<>());
+            }
+            return scan.end(FIND_BETWEEN.getName(), employeeId,
+                    chain(employeeId, toDay(from.toEpochDay()), toDay(to.toEpochDay())));
+        } finally {
+            FIND_BETWEEN.stop(started);
+        }
+    }
+
+    @Override
+    public AttendanceRecord findRecordByDay(int employeeId, long epochDay) {
+        long started = FIND_BY_DATE.start();
+        try {
+            if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+                return null;
+            }
+            Lock lock = lockFor(employeeId);
+            lock.lock();
+            try {
+                int row = findRow(employeeId, (int) epochDay);
+                return row == NONE ? null : view(row);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            FIND_BY_DATE.stop(started);
+        }
+    }
+
+    // every row as a view, in the order they were appended. prefer forEachRecord on big stores
+    @Override
+    public List<AttendanceRecord> getAllRecords() {
+        long started = GET_ALL.start();
+        RepositoryScanEvent scan = new RepositoryScanEvent();
+        scan.begin();
+        try {
+            int count = rowCount;
+            List<AttendanceRecord> all = new ArrayList<>(count);
+            for (int row = 0; row < count; row++) {
+                AttendanceRecord record = lockedView(row);
+                if (record == null) {
+                    break; // cleared meanwhile
+                }
+                all.add(record);
+            }
+            return scan.end(GET_ALL.getName(), -1, all);
+        } finally {
+            GET_ALL.stop(started);
+        }
+    }
+
+    // one short-lived view at a time, so history larger than the heap can be walked
+    @Override
+    public void forEachRecord(Consumer<AttendanceRecord> action) {
+        int count = rowCount;
+        for (int row = 0; row < count; row++) {
+            AttendanceRecord record = lockedView(row);
+            if (record == null) {
+                break; // cleared meanwhile
+            }
+            action.accept(record);
+        }
+    }
+
+    @Override
+    public boolean hasRecordsOn(LocalDate date) {
+        return rowsByDay.contains(date.toEpochDay());
+    }
+
+    // a clear or a move may have got to a row since the index was read, so its day is checked again
+    @Override
+    public void forEachRecordOn(LocalDate date, Consumer<AttendanceRecord> action) {
+        long started = FOR_EACH_ON.start();
+        try {
+            for (int row : rowsByDay.on(date.toEpochDay())) {
+                AttendanceRecord record = lockedView(row);
+                if (record != null && record.getDate().equals(date)) {
+                    action.accept(record);
+                }
+            }
+        } finally {
+            FOR_EACH_ON.stop(started);
+        }
+    }
+
+    @Override
+    public double getMonthlyHours(int employeeId, YearMonth month) {
+        long started = MONTHLY_HOURS.start();
+        try {
+            Lock lock = lockFor(employeeId);
+            lock.lock();
+            try {
+                return monthHundredths(latestRow[stripe(employeeId)].get(employeeId), month) / 100.0;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            MONTHLY_HOURS.stop(started);
+        }
+    }
+
+    // walks every employee's chain back to the month: cheap for recent months, a full pass for old ones
+    @Override
+    public Map<Integer, Double> getMonthlyHoursForAll(YearMonth month) {
+        long started = MONTHLY_HOURS_ALL.start();
+        try {
+            Map<Integer, Double> hours = new HashMap<>();
+            for (int stripe = 0; stripe < stripeCount(); stripe++) {
+                Lock lock = stripeLock(stripe);
+                lock.lock();
+                try {
+                    latestRow[stripe].forEach((employeeId, latest) -> {
+                        long hundredths = monthHundredths(latest, month);
+                        if (hundredths != 0) {
+                            hours.put((int) employeeId, hundredths / 100.0);
+                        }
+                    });
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return hours;
+        } finally {
+            MONTHLY_HOURS_ALL.stop(started);
+        }
+    }
+
+    @Override
+    public int getNextRecordId() {
+        synchronized (appendLock) {
+            return header.getInt(H_NEXT_RECORD_ID);
+        }
+    }
+
+    @Override
+    public void setNextRecordId(int nextId) {
+        synchronized (appendLock) {
+            header.putInt(H_NEXT_RECORD_ID, nextId);
+        }
+    }
+
+    // forget every row; the segment files stay and are written over by later appends
+    @Override
+    public void clear() {
+        for (int stripe = 0; stripe < stripeCount(); stripe++) {
+            stripeLock(stripe).lock();
+        }
+        try {
+            synchronized (appendLock) {
+                header.putInt(H_ROW_COUNT, 0);
+                header.putInt(H_NEXT_RECORD_ID, 1); // start id again from 1
+                rowCount = 0;
+                recordIds.clear();
+                rowsByDay.clear();
+                for (LongIntHashMap latest : latestRow) {
+                    latest.clear();
+                }
+            }
+        } finally {
+            for (int stripe = stripeCount() - 1; stripe >= 0; stripe--) {
+                stripeLock(stripe).unlock();
+            }
+        }
+        fireRecordsCleared();
+    }
+
+    // number of rows held
+    public int size() {
+        return rowCount;
+    }
+
+    // write every dirty page to disk (the rows already survive a crash of the process without this)
+    public void flush() {
+        synchronized (appendLock) {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            header.force();
+        }
+    }
+
+    // flushes; the mappings themselves go away once the store is unreachable
+    @Override
+    public void close() {
+        flush();
+    }
+
+    // ---- chains (caller holds the employee's lock) ----
+
+    // the employee's row for this day, or NONE
+    private int findRow(int employeeId, int day) {
+        int row = latestRow[stripe(employeeId)].get(employeeId);
+        while (row != NONE && getInt(row, EPOCH_DAY) > day) {
+            row = getInt(row, PREVIOUS_ROW);
+        }
+        return row != NONE && getInt(row, EPOCH_DAY) == day ? row : NONE;
+    }
+
+    private int findRecordRow(int employeeId, int recordId) {
+        int row = latestRow[stripe(employeeId)].get(employeeId);
+        while (row != NONE && getInt(row, RECORD_ID) != recordId) {
+            row = getInt(row, PREVIOUS_ROW);
+        }
+        return row;
+    }
+
+    // the employee's latest row before this day, or NONE
+    private int rowBefore(int employeeId, int day) {
+        int row = latestRow[stripe(employeeId)].get(employeeId);
+        while (row != NONE && getInt(row, EPOCH_DAY) >= day) {
+            row = getInt(row, PREVIOUS_ROW);
+        }
+        return row;
+    }
+
+    // views of the employee's rows from one day to another (both inclusive), in date order
+    private List<AttendanceRecord> chain(int employeeId, int fromDay, int toDay) {
+        List<AttendanceRecord> found = new ArrayList<>();
+        Lock lock = lockFor(employeeId);
+        lock.lock();
+        try {
+            for (int row = latestRow[stripe(employeeId)].get(employeeId); row != NONE; row = getInt(row, PREVIOUS_ROW)) {
+                int day = getInt(row, EPOCH_DAY);
+                if (day < fromDay) {
+                    break;
+                }
+                if (day <= toDay) {
+                    found.add(view(row));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        Collections.reverse(found);
+        return found;
+    }
+
+    // the month's hours, walking back from the given row
+    private long monthHundredths(int latest, YearMonth month) {
+        int first = toDay(month.atDay(1).toEpochDay());
+        int last = toDay(month.atEndOfMonth().toEpochDay());
+        long hundredths = 0;
+        for (int row = latest; row != NONE; row = getInt(row, PREVIOUS_ROW)) {
+            int day = getInt(row, EPOCH_DAY);
+            if (day < first) {
+                break;
+            }
+            if (day <= last) {
+                hundredths += MonthlyHoursTotals.toHundredths(getDouble(row, HOURS));
+            }
+        }
+        return hundredths;
+    }
+
+    // ---- appends and links (caller holds the employee's lock and appendLock) ----
+
+    private int append(int recordId, int employeeId, int day) {
+        int row = rowCount;
+        if (row == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Attendance row store is full");
+        }
+        if (row >>> segmentShift == segments.length) {
+            try {
+                addSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not map another attendance segment.", e);
+            }
+        }
+        header.putInt(H_LINKING_ROW, row);
+        putInt(row, RECORD_ID, recordId);
+        putInt(row, EMPLOYEE_ID, employeeId);
+        putInt(row, EPOCH_DAY, day);
+        putInt(row, PREVIOUS_ROW, rowBefore(employeeId, day));
+        putLong(row, CLOCK_IN, AttendanceRecord.NO_TIME);
+        putLong(row, CLOCK_OUT, AttendanceRecord.NO_TIME);
+        putDouble(row, HOURS, Double.NaN);
+        header.putInt(H_ROW_COUNT, row + 1);
+        rowCount = row + 1;
+        linkIn(row);
+        header.putInt(H_LINKING_ROW, NONE);
+        recordIds.add(recordId);
+        rowsByDay.add(day, row);
+        return row;
+    }
+
+    // point the row's later neighbour (or the employee's latest-row entry) at it; its own link to the
+    // earlier row is already written. stops early if the row is linked, so it can be repeated on open
+    private void linkIn(int row) {
+        int employeeId = getInt(row, EMPLOYEE_ID);
+        int day = getInt(row, EPOCH_DAY);
+        LongIntHashMap latest = latestRow[stripe(employeeId)];
+        int later = NONE;
+        int current = latest.get(employeeId);
+        while (current != NONE && getInt(current, EPOCH_DAY) > day) {
+            later = current;
+            current = getInt(current, PREVIOUS_ROW);
+        }
+        if (current == row) {
+            return;
+        }
+        if (later == NONE) {
+            latest.put(employeeId, row);
+        } else {
+            putInt(later, PREVIOUS_ROW, row);
+        }
+    }
+
+    // same record re-added for another day: take the row out of the chain and thread it back in
+    private void move(int row, int day) {
+        int employeeId = getInt(row, EMPLOYEE_ID);
+        LongIntHashMap latest = latestRow[stripe(employeeId)];
+        int later = NONE;
+        int current = latest.get(employeeId);
+        while (current != row) {
+            later = current;
+            current = getInt(current, PREVIOUS_ROW);
+        }
+        int earlier = getInt(row, PREVIOUS_ROW);
+        if (later != NONE) {
+            putInt(later, PREVIOUS_ROW, earlier);
+        } else if (earlier != NONE) {
+            latest.put(employeeId, earlier);
+        } else {
+            latest.remove(employeeId);
+        }
+        rowsByDay.remove(getInt(row, EPOCH_DAY), row);
+        rowsByDay.add(day, row);
+        putInt(row, EPOCH_DAY, day);
+        putInt(row, PREVIOUS_ROW, rowBefore(employeeId, day));
+        linkIn(row);
+    }
+
+    private void addSegment() throws IOException {
+        MappedByteBuffer[] current = segments;
+        MappedByteBuffer[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = map(directory.resolve(String.format("rows-%06d", current.length)),
+                (long) rowsPerSegment * ROW_BYTES);
+        segments = grown;
+    }
+
+    // the mapping outlives the channel, so it is closed right away
+    private static MappedByteBuffer map(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    // ---- cells ----
+
+    // the row read under its employee's stripe, as move() and clear() write it, so a scan never sees a
+    // row halfway through a move; null once a clear has taken the row away
+    private AttendanceRecord lockedView(int row) {
+        while (row < rowCount) {
+            int employeeId = getInt(row, EMPLOYEE_ID);
+            Lock lock = lockFor(employeeId);
+            lock.lock();
+            try {
+                // after a clear the row may have been written again for someone else: try their stripe
+                if (row < rowCount && getInt(row, EMPLOYEE_ID) == employeeId) {
+                    return view(row);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    private AttendanceRecord view(int row) {
+        return new RowView(row, getInt(row, RECORD_ID), getInt(row, EMPLOYEE_ID),
+                LocalDate.ofEpochDay(getInt(row, EPOCH_DAY)));
+    }
+
+    private int getInt(int row, int field) {
+        return segments[row >>> segmentShift].getInt(offset(row) + field);
+    }
+
+    private long getLong(int row, int field) {
+        return segments[row >>> segmentShift].getLong(offset(row) + field);
+    }
+
+    private double getDouble(int row, int field) {
+        return segments[row >>> segmentShift].getDouble(offset(row) + field);
+    }
+
+    private void putInt(int row, int field, int value) {
+        segments[row >>> segmentShift].putInt(offset(row) + field, value);
+    }
+
+    private void putLong(int row, int field, long value) {
+        segments[row >>> segmentShift].putLong(offset(row) + field, value);
+    }
+
+    private void putDouble(int row, int field, double value) {
+        segments[row >>> segmentShift].putDouble(offset(row) + field, value);
+    }
+
+    private int offset(int row) {
+        return (row & (rowsPerSegment - 1)) * ROW_BYTES;
+    }
+
+    private static int toDay(long epochDay) {
+        return Math.toIntExact(epochDay);
+    }
+
+    // flyweight over one row; the inherited fields hold only the immutable id, employee and date
+    private final class RowView extends AttendanceRecord {
+        private final int row;
+
+        RowView(int row, int recordId, int employeeId, LocalDate date) {
+            super(recordId, employeeId, date);
+            this.row = row;
+        }
+
+        @Override
+        public long getClockInNanos() {
+            return read(CLOCK_IN);
+        }
+
+        @Override
+        public void setClockInNanos(long clockIn) {
+            write(CLOCK_IN, clockIn);
+        }
+
+        @Override
+        public long getClockOutNanos() {
+            return read(CLOCK_OUT);
+        }
+
+        @Override
+        public void setClockOutNanos(long clockOut) {
+            write(CLOCK_OUT, clockOut);
+        }
+
+        @Override
+        public double getHours() {
+            Lock lock = lockFor(getEmployeeId());
+            lock.lock();
+            try {
+                return getDouble(row, HOURS);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void setHours(double hoursWorked) {
+            Lock lock = lockFor(getEmployeeId());
+            lock.lock();
+            try {
+                putDouble(row, HOURS, hoursWorked);
+            } finally {
+                lock.unlock();
+            }
+            fireRecordSaved(this);
+        }
+
+        @Override
+        public void setChangeListener(Consumer<AttendanceRecord> changeListener) {
+            // changes are always reported by the repository itself
+        }
+
+        @Override
+        public void setHoursListener(HoursListener hoursListener) {
+            // month totals are summed from the rows
+        }
+
+        private long read(int field) {
+            Lock lock = lockFor(getEmployeeId());
+            lock.lock();
+            try {
+                return getLong(row, field);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void write(int field, long value) {
+            Lock lock = lockFor(getEmployeeId());
+            lock.lock();
+            try {
+                putLong(row, field, value);
+            } finally {
+                lock.unlock();
+            }
+            fireRecordSaved(this);
+        }
+    }
+}
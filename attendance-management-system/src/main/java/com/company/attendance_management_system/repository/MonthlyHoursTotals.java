@@ -0,0 +1,88 @@
+package com.company.attendance_management_system.repository;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// running hours per (employee, month), kept in hundredths of an hour so repeated
+// corrections add and subtract exactly. repositories feed it the old and new value
+// every time a record's hours change, so reading a month total is a map lookup.
+// grouped by month first, so a whole-company month report only touches that month's entries.
+class MonthlyHoursTotals {
+    // maps below this size are copied on the calling thread; bigger ones are split across the fork/join pool
+    private static final long PARALLELISM_THRESHOLD = 4096;
+
+    // one employee's month. a stored record keeps its Total as hours listener, so a clock-out
+    // moves the month with one atomic add (no boxed keys or values to allocate)
+    static final class Total implements AttendanceRecord.HoursListener {
+        private final AtomicLong hundredths = new AtomicLong();
+
+        void add(long deltaHundredths) {
+            if (deltaHundredths != 0) {
+                hundredths.addAndGet(deltaHundredths);
+            }
+        }
+
+        @Override
+        public void hoursChanged(AttendanceRecord record, double oldHours, double newHours) {
+            add(toHundredths(newHours) - toHundredths(oldHours));
+        }
+    }
+
+    private final Map<Integer, ConcurrentHashMap<Integer, Total>> byMonth = new ConcurrentHashMap<>();
+
+    // the running total a record of this employee and date adds to
+    Total total(int employeeId, LocalDate date) {
+        return byMonth.computeIfAbsent(monthIndex(date.getYear(), date.getMonthValue()), m -> new ConcurrentHashMap<>())
+                .computeIfAbsent(employeeId, id -> new Total());
+    }
+
+    // apply a change of one record's hours (either side may be NaN = no hours)
+    void change(int employeeId, LocalDate date, double oldHours, double newHours) {
+        add(employeeId, date, toHundredths(newHours) - toHundredths(oldHours));
+    }
+
+    void add(int employeeId, LocalDate date, long deltaHundredths) {
+        if (deltaHundredths != 0) {
+            total(employeeId, date).add(deltaHundredths);
+        }
+    }
+
+    double get(int employeeId, YearMonth month) {
+        Map<Integer, Total> byEmployee = byMonth.get(monthIndex(month.getYear(), month.getMonthValue()));
+        Total total = byEmployee == null ? null : byEmployee.get(employeeId);
+        return total == null ? 0.0 : total.hundredths.get() / 100.0;
+    }
+
+    // hours of every employee with time in this month, in one pass over that month's totals
+    // (employees whose month nets out to zero are left out)
+    Map<Integer, Double> getAll(YearMonth month) {
+        ConcurrentHashMap<Integer, Total> byEmployee = byMonth.get(monthIndex(month.getYear(), month.getMonthValue()));
+        Map<Integer, Double> hours = new ConcurrentHashMap<>(byEmployee == null ? 16 : byEmployee.size() * 2);
+        if (byEmployee != null) {
+            byEmployee.forEach(PARALLELISM_THRESHOLD, (employeeId, total) -> {
+                long hundredths = total.hundredths.get();
+                if (hundredths != 0) {
+                    hours.put(employeeId, hundredths / 100.0);
+                }
+            });
+        }
+        return hours;
+    }
+
+    void clear() {
+        byMonth.clear();
+    }
+
+    static long toHundredths(double hours) {
+        return Double.isNaN(hours) ? 0 : Math.round(hours * 100.0);
+    }
+
+    private static int monthIndex(int year, int month) {
+        return year * 12 + month - 1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.company.attendance_management_system.repository;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+
+// one thread's open batch of record changes (see AttendanceStore.beginBatch): the records it
+// changed, reported once each in their final state when it ends, and the clock values they had
+// before, to put back if a listener refuses the batch. kept per thread and reused, so a batch that
+// changes a single record (a live tap) allocates nothing
+final class RecordBatch {
+    // slots per undo entry in the values array: clock in, clock out, hours (as raw bits), before then after
+    private static final int SLOTS = 6;
+    // undo capacity kept between batches; a bigger log (a large upload) is dropped when the batch ends
+    private static final int KEEP_CAPACITY = 64;
+
+    int depth;
+    // the one record changed so far, while there is only one
+    private AttendanceRecord only;
+    // records changed, by id, once there is more than one
+    private final Map<Integer, AttendanceRecord> changed = new LinkedHashMap<>();
+
+    private int undoSize;
+    private AttendanceRecord[] undoRecords = new AttendanceRecord[4];
+    private long[] undoValues = new long[4 * SLOTS];
+
+    void changed(AttendanceRecord record) {
+        if (changed.isEmpty() && (only == null || only.getRecordId() == record.getRecordId())) {
+            only = record;
+            return;
+        }
+        if (only != null) {
+            changed.put(only.getRecordId(), only);
+            only = null;
+        }
+        changed.put(record.getRecordId(), record);
+    }
+
+    boolean isEmpty() {
+        return only == null && changed.isEmpty();
+    }
+
+    // the single changed record, or null when none or several changed
+    AttendanceRecord only() {
+        return only;
+    }
+
+    List<AttendanceRecord> changedRecords() {
+        return Collections.unmodifiableList(new ArrayList<>(changed.values()));
+    }
+
+    void clearChanges() {
+        only = null;
+        changed.clear();
+    }
+
+    // remember the values a record had before the caller changed it, and the ones it has now
+    void keep(AttendanceRecord record, long clockIn, long clockOut, double hours) {
+        if (undoSize == undoRecords.length) {
+            undoRecords = Arrays.copyOf(undoRecords, undoSize * 2);
+            undoValues = Arrays.copyOf(undoValues, undoSize * 2 * SLOTS);
+        }
+        int at = undoSize * SLOTS;
+        undoRecords[undoSize++] = record;
+        undoValues[at] = clockIn;
+        undoValues[at + 1] = clockOut;
+        undoValues[at + 2] = Double.doubleToRawLongBits(hours);
+        undoValues[at + 3] = record.getClockInNanos();
+        undoValues[at + 4] = record.getClockOutNanos();
+        undoValues[at + 5] = Double.doubleToRawLongBits(record.getHours());
+    }
+
+    void clearUndo() {
+        Arrays.fill(undoRecords, 0, undoSize, null);
+        undoSize = 0;
+    }
+
+    // put the kept values back, newest first, each under its employee's lock. a record that changed
+    // again since (another thread's tap after the batch let go of the lock) is left alone: that
+    // change is reported on its own, in full, so it needs no undo to match what listeners hold
+    void restore(AttendanceStore store) {
+        for (int i = undoSize - 1; i >= 0; i--) {
+            AttendanceRecord record = undoRecords[i];
+            int at = i * SLOTS;
+            Lock lock = store.lockFor(record.getEmployeeId());
+            lock.lock();
+            try {
+                if (record.getClockInNanos() != undoValues[at + 3]
+                        || record.getClockOutNanos() != undoValues[at + 4]
+                        || Double.doubleToRawLongBits(record.getHours()) != undoValues[at + 5]) {
+                    continue;
+                }
+                if (undoValues[at] != undoValues[at + 3]) record.setClockInNanos(undoValues[at]);
+                if (undoValues[at + 1] != undoValues[at + 4]) record.setClockOutNanos(undoValues[at + 1]);
+                if (undoValues[at + 2] != undoValues[at + 5]) record.setHours(Double.longBitsToDouble(undoValues[at + 2]));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    void reset() {
+        clearChanges();
+        clearUndo();
+        if (undoRecords.length > KEEP_CAPACITY) {
+            undoRecords = new AttendanceRecord[4];
+            undoValues = new long[4 * SLOTS];
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package com.company.attendance_management_system.server;
+
+import com.company.attendance_management_system.exception.DuplicateEmployeeException;
+import com.company.attendance_management_system.exception.EmployeeNotFoundException;
+import com.company.attendance_management_system.exception.InvalidAttendanceException;
+import com.company.attendance_management_system.json.Json;
+import com.company.attendance_management_system.metrics.Metrics;
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.model.LeaveDecisionResult;
+import com.company.attendance_management_system.model.LeaveRequest;
+import com.company.attendance_management_system.service.AttendanceService;
+import com.company.attendance_management_system.service.EmployeeService;
+import com.company.attendance_management_system.service.LeaveService;
+import com.company.attendance_management_system.service.ReportService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// HTTP/1.1 JSON front end for the services, on the JDK's built-in server.
+// one dispatcher thread multiplexes every open connection; each request then runs on its own
+// virtual thread (Java 21+), so thousands of terminals parked on a journal fsync cost a few KB each
+// instead of a platform thread each. on older runtimes a fixed pool of platform threads is used.
+//
+//   GET  /employees                          all employees
+//   POST /employees                          {"employeeId", "name", "email", "department"}
+//   GET  /employees/{id}
+//   GET  /employees/{id}/leaves
+//   POST /attendance/{id}/clock-in
+//   POST /attendance/{id}/clock-out
+//   GET  /attendance/{id}[?date=|?from=&to=]  records, optionally one day or a date range
+//   GET  /leaves?date=YYYY-MM-DD              ids of employees on approved leave that day
+//   GET  /leaves/pending?department=[&after=][&limit=]  a department's approval queue, one page;
+//                                            "next" is the after= for the following page (null at the end)
+//   POST /leaves                             {"employeeId", "startDate", "endDate", "reason"}
+//   POST /leaves/{requestId}/approve          204, or 409 if it was already decided
+//   POST /leaves/{requestId}/reject
+//   POST /leaves/approve                     [requestId, ...]: decide many at once, one outcome each
+//   POST /leaves/reject
+//   GET  /presence?date=YYYY-MM-DD            ids clocked in, still in and absent (no clock-in, no approved leave)
+//   GET  /reports/monthly-hours?month=YYYY-MM[&employeeId=]
+//   GET  /reports/department-hours?month=YYYY-MM
+//   GET  /metrics                            call counts and latencies of the services, as a text table
+//
+// errors come back as {"error": "..."}: 400 bad input, 404 unknown employee or path,
+// 405 wrong method, 409 duplicate employee, invalid clock event or leave already decided, 500 anything else
+public class AttendanceHttpServer implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(AttendanceHttpServer.class);
+
+    // pending connections the OS queues while the dispatcher accepts (a terminal fleet reconnecting at once)
+    public static final int DEFAULT_BACKLOG = 4096;
+    // request threads on runtimes without virtual threads
+    public static final int PLATFORM_THREADS = 200;
+    // keep-alive connections allowed to sit idle between requests; the JDK default of 200 would make
+    // every terminal past the 200th reconnect after each request
+    public static final int MAX_IDLE_CONNECTIONS = 100_000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    // leave requests per page of an approval queue
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String TEXT = "text/plain; charset=utf-8";
+
+    static {
+        // the JDK server reads these once, when the first server is created; -D on the command line wins
+        setDefault("sun.net.httpserver.maxIdleConnections", String.valueOf(MAX_IDLE_CONNECTIONS));
+        setDefault("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final EmployeeService employees;
+    private final AttendanceService attendance;
+    private final LeaveService leaves;
+    private final ReportService reports;
+
+    public AttendanceHttpServer(InetSocketAddress address, EmployeeService employees, AttendanceService attendance,
+                                LeaveService leaves, ReportService reports) throws IOException {
+        this(address, DEFAULT_BACKLOG, employees, attendance, leaves, reports);
+    }
+
+    public AttendanceHttpServer(InetSocketAddress address, int backlog, EmployeeService employees,
+                                AttendanceService attendance, LeaveService leaves, ReportService reports) throws IOException {
+        this.employees = employees;
+        this.attendance = attendance;
+        this.leaves = leaves;
+        this.reports = reports;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadPool();
+        this.server = HttpServer.create(address, backlog);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // the bound address (with the real port when started on port 0)
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // stop accepting, give in-flight requests a second to finish, then stop their threads
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() when running on Java 21+, otherwise null.
+    // looked up reflectively so the same jar still runs on the Java 11 baseline.
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create the virtual thread executor.", e);
+        }
+    }
+
+    private static void setDefault(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    private static ExecutorService newPlatformThreadPool() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(PLATFORM_THREADS, r -> {
+            Thread t = new Thread(r, "attendance-http-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // ---- request handling ----
+
+    // an error with the HTTP status to answer it with
+    @SuppressWarnings("serial")
+    private static final class RequestException extends Exception {
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        // written as JSON, except a String, which goes out as plain text
+        final Object body;
+
+        Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Response response;
+        try {
+            response = route(exchange);
+        } catch (RequestException e) {
+            response = error(e.status, e.getMessage());
+        } catch (EmployeeNotFoundException e) {
+            response = error(404, e.getMessage());
+        } catch (DuplicateEmployeeException | InvalidAttendanceException e) {
+            response = error(409, e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            response = error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Request {} {} failed", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            response = error(500, "Internal error.");
+        }
+        try {
+            send(exchange, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws IOException, RequestException,
+            EmployeeNotFoundException, DuplicateEmployeeException, InvalidAttendanceException {
+        String method = exchange.getRequestMethod();
+        String[] path = segments(exchange.getRequestURI().getPath());
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        switch (path.length == 0 ? "" : path[0]) {
+            case "employees": return employees(method, path, exchange);
+            case "attendance": return attendance(method, path, query);
+            case "leaves": return leaves(method, path, query, exchange);
+            case "presence": return presence(method, path, query);
+            case "reports": return reports(method, path, query);
+            case "metrics": return metrics(method, path);
+            default: throw notFound();
+        }
+    }
+
+    private Response employees(String method, String[] path, HttpExchange exchange)
+            throws IOException, RequestException, EmployeeNotFoundException, DuplicateEmployeeException {
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                List<Employee> all = employees.getAllEmployees();
+                all.sort(Comparator.comparingInt(Employee::getEmployeeId));
+                List<Object> body = new ArrayList<>(all.size());
+                for (Employee e : all) body.add(employeeJson(e));
+                return new Response(200, body);
+            }
+            requireMethod(method, "POST");
+            Map<String, String> body = Json.parseObject(body(exchange));
+            Employee employee = new Employee(intField(body, "employeeId"), requiredField(body, "name"),
+                    requiredField(body, "email"), body.get("department"));
+            employees.addEmployee(employee);
+            return new Response(201, employeeJson(employee));
+        }
+        int id = intParam(path[1], "employee id");
+        if (path.length == 2) {
+            requireMethod(method, "GET");
+            return new Response(200, employeeJson(requireEmployee(id)));
+        }
+        if (path.length == 3 && path[2].equals("leaves")) {
+            requireMethod(method, "GET");
+            requireEmployee(id);
+            List<Object> body = new ArrayList<>();
+            for (LeaveRequest r : leaves.getLeaveRequestsForEmployee(id)) body.add(leaveJson(r));
+            return new Response(200, body);
+        }
+        throw notFound();
+    }
+
+    private Response attendance(String method, String[] path, Map<String, String> query)
+            throws RequestException, EmployeeNotFoundException, InvalidAttendanceException {
+        if (path.length < 2) throw notFound();
+        int id = intParam(path[1], "employee id");
+        if (path.length == 3) {
+            requireMethod(method, "POST");
+            switch (path[2]) {
+                case "clock-in": return new Response(200, recordJson(attendance.clockIn(id)));
+                case "clock-out": return new Response(200, recordJson(attendance.clockOut(id)));
+                default: throw notFound();
+            }
+        }
+        if (path.length != 2) throw notFound();
+        requireMethod(method, "GET");
+        requireEmployee(id);
+        String date = query.get("date");
+        if (date != null) {
+            Optional<AttendanceRecord> record = attendance.getRecordForEmployeeByDate(id, LocalDate.parse(date));
+            if (!record.isPresent()) throw new RequestException(404, "No record for " + date + ".");
+            return new Response(200, recordJson(record.get()));
+        }
+        String from = query.get("from");
+        String to = query.get("to");
+        List<AttendanceRecord> records;
+        if (from == null && to == null) {
+            records = attendance.getRecordsForEmployee(id);
+        } else if (from != null && to != null) {
+            records = attendance.getRecordsForEmployeeBetween(id, LocalDate.parse(from), LocalDate.parse(to));
+        } else {
+            throw new RequestException(400, "Give both from and to, or neither.");
+        }
+        List<Object> body = new ArrayList<>(records.size());
+        for (AttendanceRecord r : records) body.add(recordJson(r));
+        return new Response(200, body);
+    }
+
+    private Response leaves(String method, String[] path, Map<String, String> query, HttpExchange exchange)
+            throws IOException, RequestException, EmployeeNotFoundException {
+        if (path.length == 1 && method.equals("GET")) {
+            String date = query.get("date");
+            if (date == null) throw new RequestException(400, "date is required (YYYY-MM-DD).");
+            List<Integer> onLeave = leaves.findEmployeesOnLeave(LocalDate.parse(date));
+            Collections.sort(onLeave);
+            return new Response(200, onLeave);
+        }
+        if (path.length == 2 && path[1].equals("pending")) {
+            requireMethod(method, "GET");
+            return pendingPage(query);
+        }
+        requireMethod(method, "POST");
+        if (path.length == 1) {
+            Map<String, String> body = Json.parseObject(body(exchange));
+            LeaveRequest request = leaves.applyForLeave(intField(body, "employeeId"),
+                    requiredField(body, "startDate"), requiredField(body, "endDate"), body.get("reason"));
+            return new Response(201, leaveJson(request));
+        }
+        if (path.length == 2 && (path[1].equals("approve") || path[1].equals("reject"))) {
+            List<String> ids = Json.parseArray(body(exchange));
+            List<Integer> requestIds = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                if (id == null) throw new RequestException(400, "Leave request ids can't be null.");
+                requestIds.add(intParam(id, "leave request id"));
+            }
+            List<Object> outcomes = new ArrayList<>(ids.size());
+            for (LeaveDecisionResult result : leaves.approveLeaves(requestIds, path[1].equals("approve"))) {
+                outcomes.add(decisionJson(result));
+            }
+            return new Response(200, outcomes);
+        }
+        if (path.length == 3 && (path[2].equals("approve") || path[2].equals("reject"))) {
+            int id = intParam(path[1], "leave request id");
+            // decided only while pending, so a stale approval screen can't overturn someone else's decision
+            LeaveDecisionResult result = leaves.approveLeaves(List.of(id), path[2].equals("approve")).get(0);
+            switch (result.getOutcome()) {
+                case APPLIED: return new Response(204, null);
+                case NOT_FOUND: throw new RequestException(404, "Leave request " + id + " not found.");
+                default: throw new RequestException(409, "Leave request " + id + " is already "
+                        + result.getRequest().getStatus() + ".");
+            }
+        }
+        throw notFound();
+    }
+
+    private Response presence(String method, String[] path, Map<String, String> query) throws RequestException {
+        if (path.length != 1) throw notFound();
+        requireMethod(method, "GET");
+        String date = query.get("date");
+        if (date == null) throw new RequestException(400, "date is required (YYYY-MM-DD).");
+        LocalDate day = LocalDate.parse(date);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("date", day);
+        body.put("clockedIn", attendance.getEmployeesClockedIn(day).toArray());
+        body.put("stillIn", attendance.getEmployeesStillIn(day).toArray());
+        body.put("absent", attendance.getAbsentEmployees(day).toArray());
+        return new Response(200, body);
+    }
+
+    private Response metrics(String method, String[] path) throws RequestException {
+        if (path.length != 1) throw notFound();
+        requireMethod(method, "GET");
+        return new Response(200, Metrics.dump());
+    }
+
+    private Response reports(String method, String[] path, Map<String, String> query)
+            throws RequestException, EmployeeNotFoundException {
+        if (path.length != 2) throw notFound();
+        requireMethod(method, "GET");
+        String monthParam = query.get("month");
+        if (monthParam == null) throw new RequestException(400, "month is required (YYYY-MM).");
+        YearMonth month = YearMonth.parse(monthParam);
+        switch (path[1]) {
+            case "monthly-hours": {
+                String employeeId = query.get("employeeId");
+                if (employeeId != null) {
+                    int id = requireEmployee(intParam(employeeId, "employee id")).getEmployeeId();
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("employeeId", id);
+                    body.put("month", month);
+                    body.put("hours", reports.calculateMonthlyHours(id, month));
+                    return new Response(200, body);
+                }
+                return new Response(200, new TreeMap<>(reports.calculateMonthlyHoursForAll(month)));
+            }
+            case "department-hours":
+                return new Response(200, reports.calculateMonthlyHoursByDepartment(month));
+            default:
+                throw notFound();
+        }
+    }
+
+    private Employee requireEmployee(int id) throws EmployeeNotFoundException {
+        return employees.findEmployeeById(id)
+                .orElseThrow(() -> new EmployeeNotFoundException("Employee " + id + " not found."));
+    }
+
+    // ---- JSON shapes ----
+
+    private static Map<String, Object> employeeJson(Employee e) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("employeeId", e.getEmployeeId());
+        json.put("name", e.getName());
+        json.put("email", e.getEmail());
+        json.put("department", e.getDepartment());
+        return json;
+    }
+
+    private static Map<String, Object> recordJson(AttendanceRecord r) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("recordId", r.getRecordId());
+        json.put("employeeId", r.getEmployeeId());
+        json.put("date", r.getDate());
+        json.put("clockIn", r.getClockInTime());
+        json.put("clockOut", r.getClockOutTime());
+        json.put("hoursWorked", r.getHoursWorked());
+        return json;
+    }
+
+    private static Map<String, Object> leaveJson(LeaveRequest r) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("requestId", r.getRequestId());
+        json.put("employeeId", r.getEmployeeId());
+        json.put("startDate", r.getStartDate());
+        json.put("endDate", r.getEndDate());
+        json.put("status", r.getStatus());
+        json.put("reason", r.getReason());
+        return json;
+    }
+
+    private static Map<String, Object> decisionJson(LeaveDecisionResult result) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("requestId", result.getRequestId());
+        json.put("outcome", result.getOutcome());
+        json.put("status", result.getRequest() == null ? null : result.getRequest().getStatus());
+        return json;
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, Collections.singletonMap("error", message));
+    }
+
+    // ---- HTTP plumbing ----
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body == null) {
+            // a response without a body ends the exchange on the spot, and the JDK server then drops the
+            // connection unless the request body was read to the end; a client reusing it would get no answer
+            exchange.getRequestBody().close();
+            exchange.sendResponseHeaders(response.status, -1);
+            return;
+        }
+        boolean text = response.body instanceof String;
+        byte[] bytes = (text ? (String) response.body : Json.write(response.body)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", text ? TEXT : JSON);
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String body(HttpExchange exchange) throws IOException, RequestException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new RequestException(413, "Request body is larger than " + MAX_BODY_BYTES + " bytes.");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String[] segments(String path) {
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void requireMethod(String method, String expected) throws RequestException {
+        if (!method.equals(expected)) {
+            throw new RequestException(405, method + " is not supported here; use " + expected + ".");
+        }
+    }
+
+    private Response pendingPage(Map<String, String> query) throws RequestException {
+        String department = query.get("department");
+        if (department == null) throw new RequestException(400, "department is required.");
+        String after = query.get("after");
+        String limit = query.get("limit");
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(intParam(limit, "limit"), MAX_PAGE_SIZE);
+        List<LeaveRequest> page = leaves.getPendingLeaveRequests(department,
+                after == null ? 0 : intParam(after, "after"), pageSize);
+        List<Object> requests = new ArrayList<>(page.size());
+        for (LeaveRequest r : page) requests.add(leaveJson(r));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("department", department);
+        body.put("total", leaves.countPendingLeaveRequests(department));
+        body.put("requests", requests);
+        body.put("next", page.size() == pageSize ? page.get(page.size() - 1).getRequestId() : null);
+        return new Response(200, body);
+    }
+
+    private static RequestException notFound() {
+        return new RequestException(404, "No such resource.");
+    }
+
+    private static int intParam(String text, String what) throws RequestException {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "Invalid " + what + ": " + text);
+        }
+    }
+
+    private static int intField(Map<String, String> body, String name) throws RequestException {
+        return intParam(requiredField(body, name), name);
+    }
+
+    private static String requiredField(Map<String, String> body, String name) throws RequestException {
+        String value = body.get(name);
+        if (value == null || value.isBlank()) {
+            throw new RequestException(400, name + " is required.");
+        }
+        return value;
+    }
+}
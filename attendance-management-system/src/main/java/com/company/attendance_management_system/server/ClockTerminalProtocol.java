@@ -0,0 +1,39 @@
+package com.company.attendance_management_system.server;
+
+import java.nio.ByteBuffer;
+
+// binary wire format for clock terminals (big-endian), see ClockTerminalServer.
+//   request  (15 bytes): [u16 length = 13][i32 employeeId][u8 op][i64 epochMillis]
+//   response (1 byte):   status, one per request, in request order
+// terminals may pipeline any number of requests without waiting for the answers.
+// the length prefix leaves room for longer frames later; this version answers the frames before any
+// other length and then closes the connection.
+public final class ClockTerminalProtocol {
+
+    public static final int REQUEST_BYTES = 15;
+    public static final int REQUEST_BODY_BYTES = REQUEST_BYTES - 2;
+
+    // ops
+    public static final byte CLOCK_IN = 1;
+    public static final byte CLOCK_OUT = 2;
+
+    // statuses
+    public static final byte OK = 0;
+    // refused by the attendance rules (double tap, clock-out without a clock-in, ...)
+    public static final byte REJECTED = 1;
+    public static final byte UNKNOWN_EMPLOYEE = 2;
+    // unknown op, or a time outside AttendanceServiceImpl.MIN_TAP_MILLIS..MAX_TAP_MILLIS
+    public static final byte BAD_REQUEST = 3;
+    // the server failed (e.g. could not write the journal); the tap may not have been kept
+    public static final byte ERROR = 4;
+
+    private ClockTerminalProtocol() {
+    }
+
+    public static void putRequest(ByteBuffer out, int employeeId, byte op, long epochMillis) {
+        out.putShort((short) REQUEST_BODY_BYTES);
+        out.putInt(employeeId);
+        out.put(op);
+        out.putLong(epochMillis);
+    }
+}
@@ -0,0 +1,323 @@
+package com.company.attendance_management_system.server;
+
+import com.company.attendance_management_system.model.ClockOutcome;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static com.company.attendance_management_system.server.ClockTerminalProtocol.*;
+
+// clock-in/clock-out server for terminals speaking ClockTerminalProtocol.
+// one selector thread does everything. each round it reads every ready connection into a shared
+// direct buffer, dispatches all whole frames straight into AttendanceServiceImpl inside one
+// runBatch (so a durable store journals the whole round with one fsync), and only then sends the
+// statuses, so nothing is acknowledged before it is on disk.
+// frames and statuses never become objects: they are read from and written to direct buffers in place.
+// a connection whose statuses don't fit in its socket borrows a direct buffer from a small pool
+// until they drain, and isn't read meanwhile, so a slow terminal can't make the server buffer without limit.
+public class ClockTerminalServer implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ClockTerminalServer.class);
+
+    // bytes read from one connection per round
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    // statuses one read can produce
+    private static final int STATUSES_PER_READ = READ_BUFFER_BYTES / REQUEST_BYTES + 1;
+    // statuses staged per round before they are sent
+    private static final int STATUS_BUFFER_BYTES = 64 * STATUSES_PER_READ;
+    // idle pending-output buffers kept for reuse
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private final AttendanceServiceImpl attendance;
+    private final ServerSocketChannel listener;
+    private final Selector selector;
+    private final Thread thread;
+    private volatile boolean running;
+
+    // ---- selector thread only ----
+    private final ByteBuffer in = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+    private final ByteBuffer statuses = ByteBuffer.allocateDirect(STATUS_BUFFER_BYTES);
+    private final ArrayDeque<ByteBuffer> pool = new ArrayDeque<>();
+    // connections read this round, with where their statuses start and end in the status buffer
+    private Session[] staged = new Session[64];
+    private int[] stagedEnds = new int[64];
+    private int stagedCount;
+    private final Consumer<SelectionKey> onReady = this::ready;
+    private final Runnable readStaged = this::readStaged;
+
+    // one terminal connection
+    private static final class Session {
+        final SocketChannel channel;
+        final SelectionKey key;
+        // tail of a frame split across reads
+        final byte[] partial = new byte[REQUEST_BYTES];
+        int partialLength;
+        // statuses the socket hasn't taken yet (borrowed from the pool)
+        ByteBuffer pending;
+        // read (and still open) this round, so it has statuses to send
+        boolean answered;
+        // sent a frame we can't read: closed once the statuses before it are sent
+        boolean closing;
+
+        Session(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    public ClockTerminalServer(InetSocketAddress address, AttendanceServiceImpl attendance) throws IOException {
+        this.attendance = attendance;
+        this.selector = Selector.open();
+        this.listener = ServerSocketChannel.open();
+        try {
+            listener.bind(address, AttendanceHttpServer.DEFAULT_BACKLOG);
+            listener.configureBlocking(false);
+            listener.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            listener.close();
+            selector.close();
+            throw e;
+        }
+        this.thread = new Thread(this::loop, "clock-terminal-server");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) listener.getLocalAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                stagedCount = 0;
+                selector.select(onReady, 1000);
+                if (stagedCount > 0) {
+                    dispatchRound();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Clock terminal server stopped", e);
+            }
+        }
+    }
+
+    // accept, flush and note readable connections; reading waits until every ready key is known
+    private void ready(SelectionKey key) {
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isWritable()) {
+                flushPending(session);
+            }
+        } catch (IOException e) {
+            close(session);
+            return;
+        }
+        if (key.isValid() && key.isReadable() && session.pending == null) {
+            stage(session);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = listener.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Session(channel, key));
+            }
+        } catch (IOException e) {
+            // e.g. out of file descriptors; the terminal retries and the next round accepts again
+            log.warn("Clock terminal accept failed", e);
+        }
+    }
+
+    private void stage(Session session) {
+        if (stagedCount == staged.length) {
+            staged = Arrays.copyOf(staged, stagedCount * 2);
+            stagedEnds = Arrays.copyOf(stagedEnds, stagedCount * 2);
+        }
+        staged[stagedCount++] = session;
+    }
+
+    private void dispatchRound() {
+        statuses.clear();
+        try {
+            attendance.runBatch(readStaged);
+        } catch (RuntimeException e) {
+            // the batch could not be journaled and the repository has put its taps back (see
+            // AttendanceStore.endBatch): none is confirmed, and a resent tap is judged afresh
+            log.error("Clock terminal batch failed", e);
+            for (int i = 0; i < statuses.position(); i++) {
+                statuses.put(i, ERROR);
+            }
+        }
+        int start = 0;
+        for (int i = 0; i < stagedCount; i++) {
+            Session session = staged[i];
+            staged[i] = null;
+            int end = stagedEnds[i];
+            if (session.answered) {
+                if (end > start) {
+                    statuses.limit(end).position(start);
+                    send(session);
+                }
+                if (session.closing && session.pending == null) {
+                    close(session);
+                }
+            }
+            start = end;
+        }
+    }
+
+    // read and apply every staged connection's frames (runs inside the batch)
+    private void readStaged() {
+        for (int i = 0; i < stagedCount; i++) {
+            Session session = staged[i];
+            // a later round picks up whoever doesn't fit in the status buffer this time
+            session.answered = statuses.remaining() >= STATUSES_PER_READ && read(session);
+            stagedEnds[i] = statuses.position();
+        }
+    }
+
+    // false when the connection is gone
+    private boolean read(Session session) {
+        in.clear();
+        in.put(session.partial, 0, session.partialLength);
+        int n;
+        try {
+            n = session.channel.read(in);
+        } catch (IOException e) {
+            n = -1;
+        }
+        if (n < 0) {
+            close(session);
+            return false;
+        }
+        in.flip();
+        while (in.remaining() >= REQUEST_BYTES) {
+            if ((in.getShort() & 0xFFFF) != REQUEST_BODY_BYTES) {
+                // not our protocol (or a newer frame we can't read): answer what came before it, then hang up
+                session.closing = true;
+                session.partialLength = 0;
+                return true;
+            }
+            int employeeId = in.getInt();
+            byte op = in.get();
+            long epochMillis = in.getLong();
+            statuses.put(apply(employeeId, op, epochMillis));
+        }
+        session.partialLength = in.remaining();
+        in.get(session.partial, 0, session.partialLength);
+        return true;
+    }
+
+    private byte apply(int employeeId, byte op, long epochMillis) {
+        if (epochMillis < AttendanceServiceImpl.MIN_TAP_MILLIS || epochMillis > AttendanceServiceImpl.MAX_TAP_MILLIS) {
+            return BAD_REQUEST;
+        }
+        try {
+            switch (op) {
+                case CLOCK_IN: return status(attendance.tryClockInAt(employeeId, epochMillis));
+                case CLOCK_OUT: return status(attendance.tryClockOutAt(employeeId, epochMillis));
+                default: return BAD_REQUEST;
+            }
+        } catch (RuntimeException e) {
+            log.error("Clock terminal tap failed", e);
+            return ERROR;
+        }
+    }
+
+    private static byte status(ClockOutcome outcome) {
+        switch (outcome) {
+            case ACCEPTED: return OK;
+            case EMPLOYEE_NOT_FOUND: return UNKNOWN_EMPLOYEE;
+            default: return REJECTED;
+        }
+    }
+
+    // write the statuses between position and limit; park what the socket won't take
+    private void send(Session session) {
+        try {
+            session.channel.write(statuses);
+        } catch (IOException e) {
+            close(session);
+            return;
+        }
+        if (statuses.hasRemaining()) {
+            ByteBuffer pending = pool.isEmpty() ? ByteBuffer.allocateDirect(STATUS_BUFFER_BYTES) : pool.pop();
+            pending.clear();
+            pending.put(statuses).flip();
+            session.pending = pending;
+            session.key.interestOps(SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void flushPending(Session session) throws IOException {
+        session.channel.write(session.pending);
+        if (!session.pending.hasRemaining()) {
+            release(session);
+            if (session.closing) {
+                close(session);
+            } else {
+                session.key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    private void release(Session session) {
+        if (session.pending != null && pool.size() < MAX_POOLED_BUFFERS) {
+            pool.push(session.pending);
+        }
+        session.pending = null;
+    }
+
+    private void close(Session session) {
+        release(session);
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+}
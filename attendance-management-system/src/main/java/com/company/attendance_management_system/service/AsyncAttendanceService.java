@@ -0,0 +1,19 @@
+package com.company.attendance_management_system.service;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// non-blocking front for AttendanceService: calls return at once and the future completes when the
+// work has run (exceptionally with InvalidAttendanceException / EmployeeNotFoundException on a bad tap)
+public interface AsyncAttendanceService extends Closeable {
+    CompletableFuture<AttendanceRecord> clockInAsync(int employeeId);
+    CompletableFuture<AttendanceRecord> clockOutAsync(int employeeId);
+    CompletableFuture<List<AttendanceRecord>> getRecordsForEmployeeAsync(int employeeId);
+
+    // stop the worker threads after the work already queued
+    @Override
+    void close();
+}
@@ -0,0 +1,93 @@
+package com.company.attendance_management_system.service;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.repository.AbstractAttendanceStore;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+// runs each employee's calls on one single-threaded partition (chosen by employee id), so one
+// employee's taps apply in submission order while different partitions run in parallel.
+// with a partition count that divides the repository's lock stripes (powers of two do), each stripe
+// is only ever taken by its own partition thread, so the locks inside the service stay uncontended.
+// slow work such as journal flushes happens on the partition thread, never on the caller's.
+public class AsyncAttendanceServiceImpl implements AsyncAttendanceService {
+
+    private interface Work<T> {
+        T run() throws Exception;
+    }
+
+    private final AttendanceService attendanceService;
+    private final ExecutorService[] partitions;
+
+    public AsyncAttendanceServiceImpl(AttendanceService attendanceService) {
+        this(attendanceService, defaultPartitions());
+    }
+
+    public AsyncAttendanceServiceImpl(AttendanceService attendanceService, int partitionCount) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("partitionCount must be at least 1");
+        }
+        this.attendanceService = attendanceService;
+        this.partitions = new ExecutorService[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            String name = "attendance-partition-" + i;
+            partitions[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // one partition per core, rounded up to a power of two so partitions line up with lock stripes
+    private static int defaultPartitions() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int partitions = Integer.highestOneBit(cores);
+        partitions = partitions < cores ? partitions << 1 : partitions;
+        return Math.min(partitions, AbstractAttendanceStore.DEFAULT_LOCK_STRIPES);
+    }
+
+    @Override
+    public CompletableFuture<AttendanceRecord> clockInAsync(int employeeId) {
+        return submit(employeeId, () -> attendanceService.clockIn(employeeId));
+    }
+
+    @Override
+    public CompletableFuture<AttendanceRecord> clockOutAsync(int employeeId) {
+        return submit(employeeId, () -> attendanceService.clockOut(employeeId));
+    }
+
+    @Override
+    public CompletableFuture<List<AttendanceRecord>> getRecordsForEmployeeAsync(int employeeId) {
+        // same partition as the writes, so a read sees every tap submitted before it
+        return submit(employeeId, () -> attendanceService.getRecordsForEmployee(employeeId));
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService partition : partitions) {
+            partition.shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(int employeeId, Work<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            partitions[Math.floorMod(employeeId, partitions.length)].execute(() -> {
+                try {
+                    result.complete(work.run());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e); // closed
+        }
+        return result;
+    }
+}
@@ -3,14 +3,34 @@ package com.company.attendance_management_system.service;
 import com.company.attendance_management_system.exception.EmployeeNotFoundException;
 import com.company.attendance_management_system.exception.InvalidAttendanceException;
 import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.ClockEvent;
+import com.company.attendance_management_system.model.ClockEventResult;
+import com.company.attendance_management_system.model.ClockOutcome;
+import com.company.attendance_management_system.repository.IdBitmap;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface AttendanceService {
     AttendanceRecord clockIn(int employeeId) throws InvalidAttendanceException, EmployeeNotFoundException;
     AttendanceRecord clockOut(int employeeId) throws InvalidAttendanceException, EmployeeNotFoundException;
+    // same taps, but a refusal comes back as a code instead of a thrown exception (nothing is allocated for it);
+    // the stored record can be read with getRecordForEmployeeByDate
+    ClockOutcome tryClockIn(int employeeId);
+    ClockOutcome tryClockOut(int employeeId);
+    List<ClockEventResult> ingestClockEvents(List<ClockEvent> events);
     List<AttendanceRecord> getRecordsForEmployee(int employeeId);
+    List<AttendanceRecord> getRecordsForEmployeeBetween(int employeeId, LocalDate from, LocalDate to);
     Optional<AttendanceRecord> getRecordForEmployeeByDate(int employeeId, LocalDate date);
+    double getMonthlyHours(int employeeId, YearMonth month);
+    Map<Integer, Double> getMonthlyHoursForAll(YearMonth month);
+    // company-wide presence for one day, as employee id bitmaps
+    IdBitmap getEmployeesClockedIn(LocalDate date);
+    // clocked in and not (yet) clocked out
+    IdBitmap getEmployeesStillIn(LocalDate date);
+    // employees who neither clocked in nor are on approved leave that day
+    IdBitmap getAbsentEmployees(LocalDate date);
 }
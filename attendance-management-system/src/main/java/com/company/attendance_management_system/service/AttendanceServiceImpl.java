@@ -2,69 +2,354 @@ package com.company.attendance_management_system.service;
 
 import com.company.attendance_management_system.exception.EmployeeNotFoundException;
 import com.company.attendance_management_system.exception.InvalidAttendanceException;
+import com.company.attendance_management_system.metrics.ClockInEvent;
+import com.company.attendance_management_system.metrics.ClockOutEvent;
+import com.company.attendance_management_system.metrics.ClockTapEvent;
+import com.company.attendance_management_system.metrics.Counter;
+import com.company.attendance_management_system.metrics.Metrics;
+import com.company.attendance_management_system.metrics.Timer;
 import com.company.attendance_management_system.model.AttendanceRecord;
-import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.model.ClockEvent;
+import com.company.attendance_management_system.model.ClockEventResult;
+import com.company.attendance_management_system.model.ClockOutcome;
+import com.company.attendance_management_system.repository.AttendanceStore;
 import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.repository.IdBitmap;
 
-import java.time.Duration;
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
 public class AttendanceServiceImpl implements AttendanceService {
 
+    private static final Timer CLOCK_IN = Metrics.timer("attendanceService.clockIn");
+    private static final Timer CLOCK_OUT = Metrics.timer("attendanceService.clockOut");
+    private static final Timer INGEST = Metrics.timer("attendanceService.ingestClockEvents");
+    // taps turned down by the clock rules (double clock-in, clock-out before clock-in, ...)
+    private static final Counter REJECTED = Metrics.counter("attendanceService.rejectedTaps");
+
+    // tap times (epoch millis) the local-nanos encoding holds under any zone offset, about 1678 to 2261;
+    // the *At methods throw IllegalArgumentException outside them
+    public static final long MIN_TAP_MILLIS = Long.MIN_VALUE / 1_000_000 + 86_400_000L;
+    public static final long MAX_TAP_MILLIS = Long.MAX_VALUE / 1_000_000 - 86_400_000L;
+
     private final EmployeeRepository employeeRepository;
-    private final AttendanceRepository attendanceRepository;
+    private final AttendanceStore attendanceRepository;
+    // source of "now" for live taps (a fixed or simulated clock makes runs repeatable)
+    private final Clock clock;
+    // who clocked in/out each day (shared with LeaveServiceImpl when absentees should skip approved leave)
+    private final DailyPresence presence;
+    // the clock's utc offset, so "now" becomes local time without java.time objects
+    private final ZoneOffsetCache offsets;
+
+    public AttendanceServiceImpl(EmployeeRepository employeeRepository, AttendanceStore attendanceRepository) {
+        this(employeeRepository, attendanceRepository, Clock.systemDefaultZone());
+    }
+
+    public AttendanceServiceImpl(EmployeeRepository employeeRepository, AttendanceStore attendanceRepository,
+                                 Clock clock) {
+        this(employeeRepository, attendanceRepository, clock, new DailyPresence());
+    }
 
-    public AttendanceServiceImpl(EmployeeRepository employeeRepository, AttendanceRepository attendanceRepository) {
+    public AttendanceServiceImpl(EmployeeRepository employeeRepository, AttendanceStore attendanceRepository,
+                                 Clock clock, DailyPresence presence) {
         this.employeeRepository = employeeRepository;
         this.attendanceRepository = attendanceRepository;
+        this.clock = clock;
+        this.presence = presence;
+        this.offsets = new ZoneOffsetCache(clock.getZone().getRules());
+        // presence reads a day from the store's index by day when it is first asked about (nothing is
+        // read here, so a large history doesn't slow the start). after that, taps through this service
+        // update the bits as they happen; records that reach the store some other way (restored from
+        // disk, added directly) come in through its listener
+        presence.setRecordSource(new DailyPresence.RecordSource() {
+            @Override
+            public boolean hasRecordsOn(LocalDate date) {
+                return attendanceRepository.hasRecordsOn(date);
+            }
+
+            @Override
+            public void forEachRecordOn(LocalDate date, Consumer<AttendanceRecord> action) {
+                attendanceRepository.forEachRecordOn(date, action);
+            }
+        });
+        attendanceRepository.addListener(new AttendanceStore.Listener() {
+            @Override
+            public void recordSaved(AttendanceRecord record) {
+                presence.recordChanged(record);
+            }
+
+            @Override
+            public void recordsCleared() {
+                presence.clearAttendance();
+            }
+        });
     }
 
     @Override
     public AttendanceRecord clockIn(int employeeId) throws InvalidAttendanceException, EmployeeNotFoundException {
-        requireEmployee(employeeId);
+        return clockInAt(employeeId, clock.millis());
+    }
+
+    @Override
+    public AttendanceRecord clockOut(int employeeId) throws InvalidAttendanceException, EmployeeNotFoundException {
+        return clockOutAt(employeeId, clock.millis());
+    }
+
+    // accepted or refused, a tap through tryClockIn/tryClockOut for an employee whose record of the day
+    // exists allocates nothing: times stay primitive (local nanos, see AttendanceRecord), the record is
+    // found through a primitive-keyed index and hours and month totals are updated in place
+    @Override
+    public ClockOutcome tryClockIn(int employeeId) {
+        return tryClockInAt(employeeId, clock.millis());
+    }
+
+    @Override
+    public ClockOutcome tryClockOut(int employeeId) {
+        return tryClockOutAt(employeeId, clock.millis());
+    }
+
+    // a tap stamped by the terminal (epoch millis, read in this service's time zone), e.g. from the binary protocol
+    public AttendanceRecord clockInAt(int employeeId, long epochMillis) throws InvalidAttendanceException, EmployeeNotFoundException {
+        return clockIn(employeeId, toLocalNanos(epochMillis));
+    }
+
+    public AttendanceRecord clockOutAt(int employeeId, long epochMillis) throws InvalidAttendanceException, EmployeeNotFoundException {
+        return clockOut(employeeId, toLocalNanos(epochMillis));
+    }
+
+    public ClockOutcome tryClockInAt(int employeeId, long epochMillis) {
+        return tryClockIn(employeeId, toLocalNanos(epochMillis));
+    }
+
+    public ClockOutcome tryClockOutAt(int employeeId, long epochMillis) {
+        return tryClockOut(employeeId, toLocalNanos(epochMillis));
+    }
+
+    // run several taps as one batch: repository listeners (the journal) hear about them together
+    public void runBatch(Runnable taps) {
+        attendanceRepository.runBatch(taps);
+    }
+
+    // the exception-throwing forms: the tap, then its record read back under the same (reentrant) lock.
+    // here and below, at is a local time in AttendanceRecord's encoding (nanos since the local epoch)
+    private AttendanceRecord clockIn(int employeeId, long at) throws InvalidAttendanceException, EmployeeNotFoundException {
+        Lock lock = attendanceRepository.lockFor(employeeId);
+        lock.lock();
+        try {
+            return recordOrThrow(tryClockIn(employeeId, at), employeeId, epochDay(at));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private AttendanceRecord clockOut(int employeeId, long at) throws InvalidAttendanceException, EmployeeNotFoundException {
+        Lock lock = attendanceRepository.lockFor(employeeId);
+        lock.lock();
+        try {
+            return recordOrThrow(tryClockOut(employeeId, at), employeeId, epochDay(at));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private AttendanceRecord recordOrThrow(ClockOutcome outcome, int employeeId, long epochDay)
+            throws InvalidAttendanceException, EmployeeNotFoundException {
+        switch (outcome) {
+            case ACCEPTED:
+                return attendanceRepository.findRecordByDay(employeeId, epochDay);
+            case EMPLOYEE_NOT_FOUND:
+                throw new EmployeeNotFoundException("Employee " + employeeId + " not found.");
+            default:
+                throw new InvalidAttendanceException(outcome.describe(dayName(epochDay)));
+        }
+    }
 
-        LocalDate today = LocalDate.now();
-        Optional<AttendanceRecord> existing = attendanceRepository.findRecordByDateAndEmployee(employeeId, today);
+    private ClockOutcome tryClockIn(int employeeId, long at) {
+        ClockInEvent event = new ClockInEvent();
+        event.begin();
+        if (!employeeRepository.exists(employeeId)) {
+            event.end(employeeId, ClockOutcome.EMPLOYEE_NOT_FOUND.name(), 0);
+            return ClockOutcome.EMPLOYEE_NOT_FOUND;
+        }
 
-        if (existing.isPresent()) {
-            AttendanceRecord rec = existing.get();
-            if (rec.getClockInTime() != null) {
-                throw new InvalidAttendanceException("Already clocked in for today.");
+        long started = CLOCK_IN.start();
+        ClockOutcome outcome;
+        // hold the employee's lock so two terminals can't both clock in for the same day
+        Lock lock = attendanceRepository.lockFor(employeeId);
+        lock.lock();
+        try {
+            // one batch per tap: a new record and its clock-in reach the journal as one entry, written
+            // before the lock is released, so a refused tap is undone before anyone else sees it
+            attendanceRepository.beginBatch();
+            try {
+                outcome = applyClockIn(employeeId, at);
+            } finally {
+                attendanceRepository.endBatch();
             }
-            rec.setClockInTime(LocalDateTime.now());
-            return rec;
+        } finally {
+            lock.unlock();
+            CLOCK_IN.stop(started);
+        }
+        return tapped(event, employeeId, outcome);
+    }
+
+    private ClockOutcome tryClockOut(int employeeId, long at) {
+        ClockOutEvent event = new ClockOutEvent();
+        event.begin();
+        if (!employeeRepository.exists(employeeId)) {
+            event.end(employeeId, ClockOutcome.EMPLOYEE_NOT_FOUND.name(), 0);
+            return ClockOutcome.EMPLOYEE_NOT_FOUND;
         }
 
-        AttendanceRecord record = attendanceRepository.createRecord(employeeId, today);
-        record.setClockInTime(LocalDateTime.now());
-        return record;
+        long started = CLOCK_OUT.start();
+        ClockOutcome outcome;
+        Lock lock = attendanceRepository.lockFor(employeeId);
+        lock.lock();
+        try {
+            // clock-out time and hours as one journal entry, as for clock-in
+            attendanceRepository.beginBatch();
+            try {
+                outcome = applyClockOut(employeeId, at);
+            } finally {
+                attendanceRepository.endBatch();
+            }
+        } finally {
+            lock.unlock();
+            CLOCK_OUT.stop(started);
+        }
+        return tapped(event, employeeId, outcome);
+    }
+
+    // count a refusal and report the tap to a running flight recording
+    private static ClockOutcome tapped(ClockTapEvent event, int employeeId, ClockOutcome outcome) {
+        if (!outcome.isAccepted()) {
+            REJECTED.increment();
+        }
+        event.end(employeeId, outcome.name(), 1);
+        return outcome;
+    }
+
+    private long toLocalNanos(long epochMillis) {
+        if (epochMillis < MIN_TAP_MILLIS || epochMillis > MAX_TAP_MILLIS) {
+            throw new IllegalArgumentException("Tap time out of range: " + epochMillis);
+        }
+        long offsetMillis = offsets.offsetSeconds(Math.floorDiv(epochMillis, 1000)) * 1000L;
+        return Math.multiplyExact(epochMillis + offsetMillis, 1_000_000L);
+    }
+
+    private static long epochDay(long at) {
+        return Math.floorDiv(at, AttendanceRecord.NANOS_PER_DAY);
     }
 
     @Override
-    public AttendanceRecord clockOut(int employeeId) throws InvalidAttendanceException, EmployeeNotFoundException {
-        requireEmployee(employeeId);
+    public List<ClockEventResult> ingestClockEvents(List<ClockEvent> events) {
+        long started = INGEST.start();
+        try {
+            ClockEventResult[] results = new ClockEventResult[events.size()];
+            // positions of each employee's events, in upload order
+            Map<Integer, List<Integer>> byEmployee = new LinkedHashMap<>();
+            for (int i = 0; i < events.size(); i++) {
+                ClockEvent event = events.get(i);
+                if (event == null || event.getTimestamp() == null || event.getType() == null) {
+                    results[i] = ClockEventResult.rejected(event, "Incomplete clock event.");
+                } else {
+                    byEmployee.computeIfAbsent(event.getEmployeeId(), id -> new ArrayList<>()).add(i);
+                }
+            }
+            // one employee lookup and one lock per employee; listeners hear about the whole upload at once
+            attendanceRepository.runBatch(() -> {
+                for (Map.Entry<Integer, List<Integer>> entry : byEmployee.entrySet()) {
+                    int employeeId = entry.getKey();
+                    List<Integer> positions = entry.getValue();
+                    if (employeeRepository.findEmployeeById(employeeId).isEmpty()) {
+                        for (int i : positions) {
+                            results[i] = ClockEventResult.rejected(events.get(i), "Employee " + employeeId + " not found.");
+                        }
+                        continue;
+                    }
+                    // stable sort, so taps with the same timestamp keep their upload order
+                    positions.sort(Comparator.comparing(i -> events.get(i).getTimestamp()));
+                    Lock lock = attendanceRepository.lockFor(employeeId);
+                    lock.lock();
+                    try {
+                        for (int i : positions) {
+                            ClockEvent event = events.get(i);
+                            results[i] = event.getType() == ClockEvent.Type.IN
+                                    ? applyUploaded(new ClockInEvent(), employeeId, event)
+                                    : applyUploaded(new ClockOutEvent(), employeeId, event);
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            });
+            return Arrays.asList(results);
+        } finally {
+            INGEST.stop(started);
+        }
+    }
 
-        LocalDate today = LocalDate.now();
-        AttendanceRecord record = attendanceRepository
-                .findRecordByDateAndEmployee(employeeId, today)
-                .orElseThrow(() -> new InvalidAttendanceException("No clock-in found for today."));
+    // one tap of an upload (caller holds the employee's lock)
+    private ClockEventResult applyUploaded(ClockTapEvent tap, int employeeId, ClockEvent event) {
+        tap.begin();
+        long at = AttendanceRecord.toNanos(event.getTimestamp());
+        ClockOutcome outcome = tapped(tap, employeeId, event.getType() == ClockEvent.Type.IN
+                ? applyClockIn(employeeId, at)
+                : applyClockOut(employeeId, at));
+        return outcome.isAccepted()
+                ? ClockEventResult.accepted(event, attendanceRepository.findRecordByDay(employeeId, epochDay(at)))
+                : ClockEventResult.rejected(event, outcome.describe(dayName(epochDay(at))));
+    }
+
+    // clock-in rules shared by the live and batch paths (caller holds the employee's lock and has a
+    // batch open). if the batch is refused the clock-in is taken back; a record created for it stays,
+    // empty, which every rule treats like no record
+    private ClockOutcome applyClockIn(int employeeId, long at) {
+        AttendanceRecord record = attendanceRepository.findOrCreateRecord(employeeId, epochDay(at));
+        if (record.hasClockIn()) {
+            return ClockOutcome.ALREADY_CLOCKED_IN;
+        }
+        record.setClockInNanos(at);
+        attendanceRepository.keepForUndo(record, AttendanceRecord.NO_TIME, record.getClockOutNanos(), record.getHours());
+        presence.recordChanged(record);
+        return ClockOutcome.ACCEPTED;
+    }
 
-        if (record.getClockInTime() == null) {
-            throw new InvalidAttendanceException("Cannot clock out before clocking in.");
+    // clock-out rules shared by the live and batch paths (caller holds the employee's lock and has a batch open)
+    private ClockOutcome applyClockOut(int employeeId, long at) {
+        AttendanceRecord record = attendanceRepository.findRecordByDay(employeeId, epochDay(at));
+        if (record == null) {
+            return ClockOutcome.NO_CLOCK_IN;
+        }
+        long in = record.getClockInNanos();
+        if (in == AttendanceRecord.NO_TIME) {
+            return ClockOutcome.NOT_CLOCKED_IN;
+        }
+        if (record.hasClockOut()) {
+            return ClockOutcome.ALREADY_CLOCKED_OUT;
         }
-        if (record.getClockOutTime() != null) {
-            throw new InvalidAttendanceException("Already clocked out for today.");
+        if (at < in) {
+            return ClockOutcome.CLOCK_OUT_BEFORE_CLOCK_IN;
         }
 
-        LocalDateTime out = LocalDateTime.now();
-        record.setClockOutTime(out);
+        double hoursBefore = record.getHours();
+        record.setClockOutNanos(at);
 
-        double hours = Duration.between(record.getClockInTime(), out).toMinutes() / 60.0;
-        record.setHoursWorked(Math.round(hours * 100.0) / 100.0);
-        return record;
+        // whole minutes, as Duration.toMinutes counted them
+        double hours = (at - in) / AttendanceRecord.NANOS_PER_MINUTE / 60.0;
+        record.setHours(Math.round(hours * 100.0) / 100.0);
+        attendanceRepository.keepForUndo(record, in, AttendanceRecord.NO_TIME, hoursBefore);
+        presence.recordChanged(record);
+        return ClockOutcome.ACCEPTED;
+    }
+
+    private String dayName(long epochDay) {
+        LocalDate day = LocalDate.ofEpochDay(epochDay);
+        return day.equals(LocalDate.now(clock)) ? "today" : day.toString();
     }
 
     @Override
@@ -72,13 +357,39 @@ public class AttendanceServiceImpl implements AttendanceService {
         return attendanceRepository.findRecordsByEmployeeId(employeeId);
     }
 
+    @Override
+    public List<AttendanceRecord> getRecordsForEmployeeBetween(int employeeId, LocalDate from, LocalDate to) {
+        return attendanceRepository.findRecordsByEmployeeBetween(employeeId, from, to);
+    }
+
     @Override
     public Optional<AttendanceRecord> getRecordForEmployeeByDate(int employeeId, LocalDate date) {
         return attendanceRepository.findRecordByDateAndEmployee(employeeId, date);
     }
 
-    private void requireEmployee(int employeeId) throws EmployeeNotFoundException {
-        employeeRepository.findEmployeeById(employeeId)
-                .orElseThrow(() -> new EmployeeNotFoundException("Employee " + employeeId + " not found."));
+    @Override
+    public double getMonthlyHours(int employeeId, YearMonth month) {
+        // running total the repository updates whenever hoursWorked is set or corrected
+        return attendanceRepository.getMonthlyHours(employeeId, month);
+    }
+
+    @Override
+    public Map<Integer, Double> getMonthlyHoursForAll(YearMonth month) {
+        return attendanceRepository.getMonthlyHoursForAll(month);
+    }
+
+    @Override
+    public IdBitmap getEmployeesClockedIn(LocalDate date) {
+        return presence.clockedIn(date);
+    }
+
+    @Override
+    public IdBitmap getEmployeesStillIn(LocalDate date) {
+        return presence.stillIn(date);
+    }
+
+    @Override
+    public IdBitmap getAbsentEmployees(LocalDate date) {
+        return presence.absent(date, employeeRepository.getEmployeeIds());
     }
 }
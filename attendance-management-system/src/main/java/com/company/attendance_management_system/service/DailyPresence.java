@@ -0,0 +1,242 @@
+package com.company.attendance_management_system.service;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.repository.IdBitmap;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// per day, who clocked in and who clocked out, as bitmaps of employee ids, so company-wide dashboards
+// ("who is in", "absent without leave") are a couple of bitmap operations instead of a record lookup
+// per employee. a day is read from the attendance store (a RecordSource, through its index by day) the
+// first time it is asked about and kept up to date from then on; days nobody asks about cost nothing,
+// so neither a long history nor a restart pays for bitmaps up front. a day without a stored record gets
+// no bitmaps at all, and at most maxDays are kept: the one asked about least recently makes room for
+// a new one (and is read again if asked about later). AttendanceServiceImpl registers the source and
+// keeps the clock bits current. who is on approved leave comes from a LeaveSource (LeaveServiceImpl
+// registers its interval index), so a leave costs nothing per day it spans; pass the same instance
+// to both services so absentee lists skip people on leave.
+// thread-safe: each day is guarded by its own monitor, queries return copies.
+public class DailyPresence {
+
+    // employees on approved leave on a given day
+    public interface LeaveSource {
+        IdBitmap onLeave(LocalDate date);
+    }
+
+    // the stored attendance records of a given day
+    public interface RecordSource {
+        boolean hasRecordsOn(LocalDate date);
+
+        void forEachRecordOn(LocalDate date, Consumer<AttendanceRecord> action);
+    }
+
+    // days kept by default: a dashboard looks at this week, a report at a month or a year
+    public static final int DEFAULT_MAX_DAYS = 400;
+
+    private static final RecordSource NO_RECORDS = new RecordSource() {
+        @Override
+        public boolean hasRecordsOn(LocalDate date) {
+            return false;
+        }
+
+        @Override
+        public void forEachRecordOn(LocalDate date, Consumer<AttendanceRecord> action) {
+        }
+    };
+
+    private static final class Day {
+        final IdBitmap clockedIn = new IdBitmap();
+        final IdBitmap clockedOut = new IdBitmap();
+        // held while the day is read from the store; never taken by the tap path, which holds an
+        // employee's lock that the read needs too
+        final Object loading = new Object();
+        // read from the store (or cleared); until then, the employees whose bits changes have already
+        // set, which the read must not overwrite with what it saw earlier
+        boolean loaded;
+        IdBitmap changedWhileLoading = new IdBitmap();
+        // when a query last asked about the day (a tick of lastAsked); the lowest goes first
+        volatile long lastAsked;
+    }
+
+    private final int maxDays;
+    private final Map<LocalDate, Day> days = new ConcurrentHashMap<>();
+    // serializes adding (and evicting) days; queries of days already kept and taps never take it
+    private final Object admitting = new Object();
+    private final AtomicLong lastAsked = new AtomicLong();
+    private volatile LeaveSource leaves = date -> new IdBitmap();
+    private volatile RecordSource records = NO_RECORDS;
+
+    public DailyPresence() {
+        this(DEFAULT_MAX_DAYS);
+    }
+
+    public DailyPresence(int maxDays) {
+        if (maxDays < 1) {
+            throw new IllegalArgumentException("maxDays must be at least 1");
+        }
+        this.maxDays = maxDays;
+    }
+
+    // match the bits of the record's day to its current clock-in/clock-out state. a day nobody has
+    // asked about yet is left alone: it will be read from the store, change included
+    public void recordChanged(AttendanceRecord record) {
+        Day day = days.get(record.getDate());
+        if (day == null) {
+            return;
+        }
+        int id = record.getEmployeeId();
+        synchronized (day) {
+            set(day.clockedIn, id, record.hasClockIn());
+            set(day.clockedOut, id, record.hasClockOut());
+            if (!day.loaded) {
+                day.changedWhileLoading.add(id);
+            }
+        }
+    }
+
+    public void setRecordSource(RecordSource records) {
+        this.records = records;
+    }
+
+    public void setLeaveSource(LeaveSource leaves) {
+        this.leaves = leaves;
+    }
+
+    public IdBitmap clockedIn(LocalDate date) {
+        Day day = loaded(date);
+        if (day == null) {
+            return new IdBitmap();
+        }
+        synchronized (day) {
+            return day.clockedIn.copy();
+        }
+    }
+
+    // clocked in and not (yet) out
+    public IdBitmap stillIn(LocalDate date) {
+        Day day = loaded(date);
+        if (day == null) {
+            return new IdBitmap();
+        }
+        synchronized (day) {
+            return day.clockedIn.andNot(day.clockedOut);
+        }
+    }
+
+    public IdBitmap onLeave(LocalDate date) {
+        return leaves.onLeave(date);
+    }
+
+    // the given employees minus those who clocked in or are on approved leave that day
+    public IdBitmap absent(LocalDate date, IdBitmap employees) {
+        // asked before taking the day's monitor: the leave source has its own lock
+        IdBitmap notIn = employees.andNot(leaves.onLeave(date));
+        Day day = loaded(date);
+        if (day == null) {
+            return notIn;
+        }
+        synchronized (day) {
+            return notIn.andNot(day.clockedIn);
+        }
+    }
+
+    // forget the clock bits (the attendance records were cleared)
+    public void clearAttendance() {
+        for (Day day : days.values()) {
+            synchronized (day) {
+                day.clockedIn.clear();
+                day.clockedOut.clear();
+                // the store is empty now, so whatever a read in progress saw is gone too
+                day.loaded = true;
+                day.changedWhileLoading = null;
+            }
+        }
+    }
+
+    // number of days kept right now
+    int keptDays() {
+        return days.size();
+    }
+
+    boolean keeps(LocalDate date) {
+        return days.containsKey(date);
+    }
+
+    // the day's bits, read from the store first if this is the first time anyone asks; null if the
+    // store holds nothing for that day (and no bits are kept for it)
+    private Day loaded(LocalDate date) {
+        Day kept = days.get(date);
+        if (kept == null) {
+            if (!records.hasRecordsOn(date)) {
+                return null;
+            }
+            kept = admit(date);
+        }
+        Day day = kept;
+        day.lastAsked = lastAsked.incrementAndGet();
+        synchronized (day) {
+            if (day.loaded) {
+                return day;
+            }
+        }
+        synchronized (day.loading) {
+            synchronized (day) {
+                if (day.loaded) {
+                    return day; // another query read it while this one waited
+                }
+            }
+            records.forEachRecordOn(date, record -> {
+                int id = record.getEmployeeId();
+                synchronized (day) {
+                    if (!day.loaded && !day.changedWhileLoading.contains(id)) {
+                        set(day.clockedIn, id, record.hasClockIn());
+                        set(day.clockedOut, id, record.hasClockOut());
+                    }
+                }
+            });
+            synchronized (day) {
+                day.loaded = true;
+                day.changedWhileLoading = null;
+            }
+        }
+        return day;
+    }
+
+    // keep a new (not yet read) day, dropping the least recently asked about one if that makes too many.
+    // a dropped day no longer hears about taps, and is read from the store again when next asked about
+    private Day admit(LocalDate date) {
+        synchronized (admitting) {
+            Day day = days.get(date);
+            if (day != null) {
+                return day;
+            }
+            if (days.size() >= maxDays) {
+                LocalDate oldest = null;
+                long oldestAsked = Long.MAX_VALUE;
+                for (Map.Entry<LocalDate, Day> kept : days.entrySet()) {
+                    if (kept.getValue().lastAsked < oldestAsked) {
+                        oldest = kept.getKey();
+                        oldestAsked = kept.getValue().lastAsked;
+                    }
+                }
+                days.remove(oldest);
+            }
+            day = new Day();
+            day.lastAsked = lastAsked.incrementAndGet();
+            days.put(date, day);
+            return day;
+        }
+    }
+
+    private static void set(IdBitmap bitmap, int id, boolean on) {
+        if (on) {
+            bitmap.add(id);
+        } else {
+            bitmap.remove(id);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.company.attendance_management_system.service;
+
+import com.company.attendance_management_system.json.Json;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+// bulk onboarding from an HR export, one employee per line:
+// - CSV: employeeId,name,email,department (a header row naming the columns is optional;
+//   fields may be double-quoted, quoted fields can't span lines)
+// - JSON lines: {"employeeId": 1, "name": "...", "email": "...", "department": "..."}
+// rows are read and checked in batches, so memory stays at one batch however big the file is.
+// bad rows are reported with their line number and skipped; the rest of the file still loads.
+public class EmployeeImportService {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    // errors past this many are only counted, so a broken file can't fill the heap
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    // one rejected line
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message;
+        }
+    }
+
+    // what an import did
+    public static class ImportResult {
+        private long imported;
+        private long rejected;
+        private final List<RowError> errors = new ArrayList<>();
+
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        // first MAX_REPORTED_ERRORS rejected lines, in file order
+        public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "imported " + imported + ", rejected " + rejected;
+        }
+    }
+
+    private final EmployeeRepository employeeRepository;
+    private final int batchSize;
+
+    public EmployeeImportService(EmployeeRepository employeeRepository) {
+        this(employeeRepository, DEFAULT_BATCH_SIZE);
+    }
+
+    public EmployeeImportService(EmployeeRepository employeeRepository, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.employeeRepository = employeeRepository;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importCsv(Reader source) throws IOException {
+        return importLines(source, false);
+    }
+
+    public ImportResult importJsonLines(Reader source) throws IOException {
+        return importLines(source, true);
+    }
+
+    private ImportResult importLines(Reader source, boolean json) throws IOException {
+        ImportResult result = new ImportResult();
+        Batch batch = new Batch();
+        BufferedReader in = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        // CSV column positions for id, name, email, department (changed by a header row)
+        int[] columns = {0, 1, 2, 3};
+        long lineNumber = 0;
+        boolean firstRow = true;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1); // byte order mark from spreadsheet exports
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                String[] fields;
+                if (json) {
+                    fields = parseJsonFields(line);
+                } else {
+                    List<String> csv = parseCsvLine(line);
+                    if (firstRow) {
+                        firstRow = false;
+                        if (isHeader(csv)) {
+                            columns = headerColumns(csv);
+                            continue;
+                        }
+                    }
+                    fields = pick(csv, columns);
+                }
+                batch.add(lineNumber, toEmployee(fields));
+            } catch (IllegalArgumentException e) {
+                result.reject(lineNumber, e.getMessage());
+            }
+            if (batch.size() == batchSize) {
+                flush(batch, result);
+            }
+        }
+        flush(batch, result);
+        return result;
+    }
+
+    // check one batch against the repository indexes and against itself, then store the good rows together
+    // (under the repository's write lock, so employees added meanwhile from elsewhere can't slip in between)
+    private void flush(Batch batch, ImportResult result) {
+        synchronized (employeeRepository) {
+            flushLocked(batch, result);
+        }
+        batch.clear();
+    }
+
+    private void flushLocked(Batch batch, ImportResult result) {
+        Set<Integer> idsInBatch = new HashSet<>();
+        Set<String> emailsInBatch = new HashSet<>();
+        List<Employee> accepted = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Employee e = batch.employees.get(i);
+            long line = batch.lines[i];
+            String email = EmployeeRepository.normalizeEmail(e.getEmail());
+            if (employeeRepository.findEmployeeById(e.getEmployeeId()).isPresent() || !idsInBatch.add(e.getEmployeeId())) {
+                result.reject(line, "ID already exists: " + e.getEmployeeId());
+            } else if (employeeRepository.findEmployeeByEmail(email).isPresent() || !emailsInBatch.add(email)) {
+                idsInBatch.remove(e.getEmployeeId());
+                result.reject(line, "Email already exists: " + e.getEmail());
+            } else {
+                accepted.add(e);
+            }
+        }
+        employeeRepository.addEmployees(accepted);
+        result.imported += accepted.size();
+    }
+
+    private static Employee toEmployee(String[] fields) {
+        int id;
+        try {
+            id = Integer.parseInt(fields[0] == null ? "" : fields[0].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid employee ID: " + fields[0]);
+        }
+        String name = trimToNull(fields[1]);
+        String email = trimToNull(fields[2]);
+        if (name == null) {
+            throw new IllegalArgumentException("Name is required.");
+        }
+        if (email == null || email.indexOf('@') < 1) {
+            throw new IllegalArgumentException("Invalid email: " + (fields[2] == null ? "" : fields[2]));
+        }
+        return new Employee(id, name, email, trimToNull(fields[3]));
+    }
+
+    private static String trimToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+
+    // ---- CSV ----
+
+    private static boolean isHeader(List<String> fields) {
+        try {
+            Integer.parseInt(fields.get(0).trim());
+            return false;
+        } catch (NumberFormatException e) {
+            return fields.stream().anyMatch(f -> column(f) == 0);
+        }
+    }
+
+    private static int[] headerColumns(List<String> header) {
+        int[] columns = {-1, -1, -1, -1};
+        for (int i = 0; i < header.size(); i++) {
+            int which = column(header.get(i));
+            if (which >= 0 && columns[which] < 0) {
+                columns[which] = i;
+            }
+        }
+        for (int which = 0; which < 3; which++) {
+            if (columns[which] < 0) {
+                throw new IllegalArgumentException("Header must name the id, name and email columns.");
+            }
+        }
+        return columns;
+    }
+
+    // 0 = id, 1 = name, 2 = email, 3 = department, -1 = ignored column
+    private static int column(String headerName) {
+        switch (headerName.trim().toLowerCase(Locale.ROOT).replace("_", "")) {
+            case "id":
+            case "employeeid": return 0;
+            case "name": return 1;
+            case "email": return 2;
+            case "department":
+            case "dept": return 3;
+            default: return -1;
+        }
+    }
+
+    private static String[] pick(List<String> fields, int[] columns) {
+        if (fields.size() < 3) {
+            throw new IllegalArgumentException("Expected at least 3 fields, found " + fields.size() + ".");
+        }
+        String[] picked = new String[4];
+        for (int i = 0; i < 4; i++) {
+            picked[i] = columns[i] >= 0 && columns[i] < fields.size() ? fields.get(columns[i]) : null;
+        }
+        return picked;
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // ---- JSON lines (flat objects with string, number or null values) ----
+
+    static String[] parseJsonFields(String line) {
+        String[] fields = new String[4];
+        Json.readObject(line, (key, value) -> {
+            int which = column(key);
+            if (which >= 0) {
+                fields[which] = value;
+            }
+        });
+        return fields;
+    }
+
+    // rows parsed since the last flush, with their line numbers
+    private final class Batch {
+        final List<Employee> employees = new ArrayList<>(batchSize);
+        final long[] lines = new long[batchSize];
+
+        void add(long line, Employee employee) {
+            lines[employees.size()] = line;
+            employees.add(employee);
+        }
+
+        int size() {
+            return employees.size();
+        }
+
+        void clear() {
+            employees.clear();
+        }
+    }
+}
@@ -14,13 +14,16 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     public void addEmployee(Employee employee) throws DuplicateEmployeeException {
-        if (repository.findEmployeeById(employee.getEmployeeId()).isPresent()) {
-            throw new DuplicateEmployeeException("ID already exists: " + employee.getEmployeeId());
+        // the repository's own write lock, so two concurrent adds can't both pass the checks
+        synchronized (repository) {
+            if (repository.findEmployeeById(employee.getEmployeeId()).isPresent()) {
+                throw new DuplicateEmployeeException("ID already exists: " + employee.getEmployeeId());
+            }
+            if (repository.findEmployeeByEmail(employee.getEmail()).isPresent()) {
+                throw new DuplicateEmployeeException("Email already exists: " + employee.getEmail());
+            }
+            repository.addEmployee(employee);
         }
-        if (repository.findEmployeeByEmail(employee.getEmail()).isPresent()) {
-            throw new DuplicateEmployeeException("Email already exists: " + employee.getEmail());
-        }
-        repository.addEmployee(employee);
     }
 
     @Override
@@ -0,0 +1,161 @@
+package com.company.attendance_management_system.service;
+
+import com.company.attendance_management_system.model.LeaveRequest;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// leave requests indexed by their date range, so LeaveServiceImpl never scans every request.
+// - per employee: every request ordered by (start date, id), for listing and overlap checks.
+//   an employee's pending and approved leaves never overlap (applyForLeave refuses that),
+//   so only the nearest one starting on or before a new range's end can collide with it.
+// - company wide: approved leaves in a segment tree over days. each leave is stored at the
+//   O(log days) tree nodes whose day ranges exactly tile it; every leave stored on the path from
+//   the root to a day's leaf covers that day and sits there once, so "who is on leave on D"
+//   walks one path and reads off the answers: O(log days + k).
+// not thread-safe by itself; LeaveServiceImpl synchronizes on the index.
+class LeaveIntervalIndex {
+    // days the tree covers: epoch days -2^19 .. 2^19 - 1 (0534-07-20 to 3405-06-14)
+    private static final int DAY_BITS = 20;
+    private static final long FIRST_DAY = -(1L << (DAY_BITS - 1));
+    private static final int DAYS = 1 << DAY_BITS;
+
+    // (start date, request id): the order requests are listed and paged in
+    static final Comparator<LeaveRequest> BY_START =
+            Comparator.comparing(LeaveRequest::getStartDate).thenComparingInt(LeaveRequest::getRequestId);
+
+    private final Map<Integer, NavigableSet<LeaveRequest>> byEmployee = new HashMap<>();
+    // tree node (1 = root, children 2n and 2n + 1) -> approved leaves stored there, by request id
+    private final Map<Integer, Map<Integer, LeaveRequest>> nodes = new HashMap<>();
+    // approved requests currently in the tree (status can change after they are indexed)
+    private final Map<Integer, LeaveRequest> approved = new HashMap<>();
+
+    static void checkRange(LocalDate start, LocalDate end) {
+        if (day(start) < 0 || day(end) >= DAYS) {
+            throw new IllegalArgumentException("Leave dates must be between "
+                    + LocalDate.ofEpochDay(FIRST_DAY) + " and " + LocalDate.ofEpochDay(FIRST_DAY + DAYS - 1) + ".");
+        }
+    }
+
+    void add(LeaveRequest request) {
+        checkRange(request.getStartDate(), request.getEndDate());
+        byEmployee.computeIfAbsent(request.getEmployeeId(), id -> new TreeSet<>(BY_START)).add(request);
+        statusChanged(request);
+    }
+
+    void remove(LeaveRequest request) {
+        NavigableSet<LeaveRequest> timeline = byEmployee.get(request.getEmployeeId());
+        if (timeline != null && timeline.remove(request) && timeline.isEmpty()) {
+            byEmployee.remove(request.getEmployeeId());
+        }
+        if (approved.remove(request.getRequestId(), request)) {
+            update(1, 0, DAYS - 1, day(request.getStartDate()), day(request.getEndDate()), request, false);
+        }
+    }
+
+    // keep the approved tree in step with the request's current status
+    void statusChanged(LeaveRequest request) {
+        boolean isApproved = request.getStatus() == LeaveRequest.Status.APPROVED;
+        boolean indexed = isApproved(request);
+        if (isApproved && !indexed) {
+            approved.put(request.getRequestId(), request);
+            update(1, 0, DAYS - 1, day(request.getStartDate()), day(request.getEndDate()), request, true);
+        } else if (!isApproved && indexed) {
+            approved.remove(request.getRequestId());
+            update(1, 0, DAYS - 1, day(request.getStartDate()), day(request.getEndDate()), request, false);
+        }
+    }
+
+    // whether this request is currently in the approved tree
+    boolean isApproved(LeaveRequest request) {
+        return approved.get(request.getRequestId()) == request;
+    }
+
+    // a pending or approved leave of this employee sharing a day with start..end, or null
+    LeaveRequest findOverlap(int employeeId, LocalDate start, LocalDate end) {
+        NavigableSet<LeaveRequest> timeline = byEmployee.get(employeeId);
+        if (timeline == null) {
+            return null;
+        }
+        // walk back from the last leave starting on or before end; rejected ones don't count
+        LeaveRequest bound = new LeaveRequest(Integer.MAX_VALUE, employeeId, end, end, null);
+        for (LeaveRequest r : timeline.headSet(bound, true).descendingSet()) {
+            if (r.getStatus() == LeaveRequest.Status.REJECTED) {
+                continue;
+            }
+            return r.getEndDate().isBefore(start) ? null : r;
+        }
+        return null;
+    }
+
+    // requests of this employee on file, whatever their status
+    int countFor(int employeeId) {
+        NavigableSet<LeaveRequest> timeline = byEmployee.get(employeeId);
+        return timeline == null ? 0 : timeline.size();
+    }
+
+    List<LeaveRequest> forEmployee(int employeeId) {
+        NavigableSet<LeaveRequest> timeline = byEmployee.get(employeeId);
+        return timeline == null ? new ArrayList<>() : new ArrayList<>(timeline);
+    }
+
+    // approved leaves covering this day, in no particular order
+    List<LeaveRequest> approvedOn(LocalDate date) {
+        List<LeaveRequest> found = new ArrayList<>();
+        long day = day(date);
+        if (day < 0 || day >= DAYS) {
+            return found;
+        }
+        int node = 1;
+        int lo = 0;
+        int hi = DAYS - 1;
+        while (true) {
+            Map<Integer, LeaveRequest> stored = nodes.get(node);
+            if (stored != null) {
+                found.addAll(stored.values());
+            }
+            if (lo == hi) {
+                return found;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (day <= mid) {
+                node = 2 * node;
+                hi = mid;
+            } else {
+                node = 2 * node + 1;
+                lo = mid + 1;
+            }
+        }
+    }
+
+    void clear() {
+        byEmployee.clear();
+        nodes.clear();
+        approved.clear();
+    }
+
+    // store (or drop) the leave at every node whose range lies inside from..to
+    private void update(int node, int lo, int hi, long from, long to, LeaveRequest request, boolean add) {
+        if (to < lo || from > hi) {
+            return;
+        }
+        if (from <= lo && hi <= to) {
+            if (add) {
+                nodes.computeIfAbsent(node, n -> new HashMap<>(4)).put(request.getRequestId(), request);
+            } else {
+                Map<Integer, LeaveRequest> stored = nodes.get(node);
+                if (stored != null && stored.remove(request.getRequestId()) != null && stored.isEmpty()) {
+                    nodes.remove(node);
+                }
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        update(2 * node, lo, mid, from, to, request, add);
+        update(2 * node + 1, mid + 1, hi, from, to, request, add);
+    }
+
+    private static long day(LocalDate date) {
+        return date.toEpochDay() - FIRST_DAY;
+    }
+}
@@ -1,15 +1,35 @@
 package com.company.attendance_management_system.service;
 
 import com.company.attendance_management_system.exception.EmployeeNotFoundException;
+import com.company.attendance_management_system.model.LeaveDecisionResult;
 import com.company.attendance_management_system.model.LeaveRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface LeaveService {
     LeaveRequest applyForLeave(int employeeId, String startDateIso, String endDateIso, String reason)
             throws EmployeeNotFoundException, IllegalArgumentException;
 
+    // sets the status whatever it was (e.g. to revoke an approval); unknown ids throw IllegalArgumentException,
+    // and so does approving a rejected request that now overlaps another pending or approved one
     void approveLeave(int requestId, boolean approve);
 
+    // decide many pending requests at once, e.g. at month end. requests someone else already decided are
+    // left as they are, so concurrent approvers never overwrite each other. one result per id, in order
+    List<LeaveDecisionResult> approveLeaves(List<Integer> requestIds, boolean approve);
+
     List<LeaveRequest> getLeaveRequestsForEmployee(int employeeId);
+
+    // employees with an approved leave covering this date, in no particular order
+    List<Integer> findEmployeesOnLeave(LocalDate date);
+
+    // pending requests of one department's employees, by start date then id, for approval screens.
+    // pages continue after the last request id shown (0 for the first page)
+    List<LeaveRequest> getPendingLeaveRequests(String department, int afterRequestId, int limit);
+
+    int countPendingLeaveRequests(String department);
+
+    // requests with this status, in the same order and paging as above
+    List<LeaveRequest> getLeaveRequestsByStatus(LeaveRequest.Status status, int afterRequestId, int limit);
 }
@@ -1,56 +1,421 @@
 package com.company.attendance_management_system.service;
 
 import com.company.attendance_management_system.exception.EmployeeNotFoundException;
+import com.company.attendance_management_system.metrics.LeaveApplicationEvent;
+import com.company.attendance_management_system.metrics.Metrics;
+import com.company.attendance_management_system.metrics.Timer;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.model.LeaveDecisionResult;
 import com.company.attendance_management_system.model.LeaveRequest;
 import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.repository.IdBitmap;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class LeaveServiceImpl implements LeaveService {
 
+    // notified whenever a leave request is filed, restored or changes status
+    public interface Listener {
+        void leaveRequestSaved(LeaveRequest request);
+        // requests decided together by approveLeaves; listeners that can handle them at once override this
+        default void leaveRequestsSaved(List<LeaveRequest> requests) {
+            for (LeaveRequest request : requests) {
+                leaveRequestSaved(request);
+            }
+        }
+    }
+
+    // status transitions of one request are serialized on its stripe (ids in the same block of this size never share one)
+    public static final int LOCK_STRIPES = 64;
+
+    private static final Timer APPLY = Metrics.timer("leaveService.applyForLeave");
+    private static final Timer APPROVE = Metrics.timer("leaveService.approveLeave");
+    private static final Timer APPROVE_BATCH = Metrics.timer("leaveService.approveLeaves");
+    private static final Timer FOR_EMPLOYEE = Metrics.timer("leaveService.getLeaveRequestsForEmployee");
+    private static final Timer ON_LEAVE = Metrics.timer("leaveService.findEmployeesOnLeave");
+    private static final Timer PENDING = Metrics.timer("leaveService.getPendingLeaveRequests");
+    private static final Timer PENDING_COUNT = Metrics.timer("leaveService.countPendingLeaveRequests");
+    private static final Timer BY_STATUS = Metrics.timer("leaveService.getLeaveRequestsByStatus");
+
     private final EmployeeRepository employeeRepository;
-    private final Map<Integer, LeaveRequest> leaveStore = new HashMap<>();
+    private final Map<Integer, LeaveRequest> leaveStore = new ConcurrentHashMap<>();
+    // requests by date range, per employee and company wide (guarded by its own monitor)
+    private final LeaveIntervalIndex index = new LeaveIntervalIndex();
+    // requests by status and the pending queue per department (guarded by the index monitor too)
+    private final LeaveStatusIndex statuses = new LeaveStatusIndex();
     private final AtomicInteger idGenerator = new AtomicInteger(1);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // requests changed by this thread inside approveLeaves, reported together when it ends
+    private final ThreadLocal<List<LeaveRequest>> batched = new ThreadLocal<>();
 
     public LeaveServiceImpl(EmployeeRepository employeeRepository) {
+        this(employeeRepository, new DailyPresence());
+    }
+
+    public LeaveServiceImpl(EmployeeRepository employeeRepository, DailyPresence presence) {
         this.employeeRepository = employeeRepository;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        // an employee's pending requests follow them when their department changes
+        employeeRepository.addListener(this::employeeSaved);
+        // absentee lists (shared with AttendanceServiceImpl) ask the approved leave tree
+        presence.setLeaveSource(this::employeesOnLeave);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // put back a request loaded from storage, keeping its id and status
+    public void restoreLeaveRequest(LeaveRequest request) {
+        synchronized (index) {
+            store(request);
+        }
+        idGenerator.accumulateAndGet(request.getRequestId() + 1, Math::max);
+        fireSaved(request);
+    }
+
+    // id the next filed request will get
+    public int getNextRequestId() {
+        return idGenerator.get();
+    }
+
+    // used when restoring from storage so new ids continue after the saved counter
+    public void setNextRequestId(int nextId) {
+        idGenerator.set(nextId);
     }
 
     @Override
     public LeaveRequest applyForLeave(int employeeId, String startDateIso, String endDateIso, String reason)
             throws EmployeeNotFoundException, IllegalArgumentException {
+        long started = APPLY.start();
+        LeaveApplicationEvent event = new LeaveApplicationEvent();
+        event.begin();
+        String outcome = LeaveApplicationEvent.EMPLOYEE_NOT_FOUND;
+        int onFile = 0;
+        try {
+            employeeRepository.findEmployeeById(employeeId)
+                    .orElseThrow(() -> new EmployeeNotFoundException("Employee " + employeeId + " not found."));
 
-        employeeRepository.findEmployeeById(employeeId)
-                .orElseThrow(() -> new EmployeeNotFoundException("Employee " + employeeId + " not found."));
+            outcome = LeaveApplicationEvent.INVALID_DATES;
+            LocalDate start = LocalDate.parse(startDateIso);
+            LocalDate end = LocalDate.parse(endDateIso);
+            if (end.isBefore(start)) {
+                throw new IllegalArgumentException("End date must be on or after start date.");
+            }
+            LeaveIntervalIndex.checkRange(start, end);
 
-        LocalDate start = LocalDate.parse(startDateIso);
-        LocalDate end = LocalDate.parse(endDateIso);
-        if (end.isBefore(start)) {
-            throw new IllegalArgumentException("End date must be on or after start date.");
+            LeaveRequest request;
+            // check and insert together, so two overlapping requests filed at once can't both get in
+            synchronized (index) {
+                onFile = index.countFor(employeeId);
+                LeaveRequest clash = index.findOverlap(employeeId, start, end);
+                if (clash != null) {
+                    outcome = LeaveApplicationEvent.OVERLAP;
+                    throw overlapping(clash);
+                }
+                request = new LeaveRequest(idGenerator.getAndIncrement(), employeeId, start, end, reason);
+                store(request);
+            }
+            outcome = LeaveApplicationEvent.FILED;
+            fireSaved(request);
+            return request;
+        } finally {
+            event.end(employeeId, outcome, onFile);
+            APPLY.stop(started);
         }
-
-        int id = idGenerator.getAndIncrement();
-        LeaveRequest request = new LeaveRequest(id, employeeId, start, end, reason);
-        leaveStore.put(id, request);
-        return request;
     }
 
     @Override
     public void approveLeave(int requestId, boolean approve) {
-        LeaveRequest req = leaveStore.get(requestId);
-        if (req == null) return;
-        req.setStatus(approve ? LeaveRequest.Status.APPROVED : LeaveRequest.Status.REJECTED);
+        long started = APPROVE.start();
+        try {
+            LeaveRequest req = leaveStore.get(requestId);
+            if (req == null) {
+                throw new IllegalArgumentException("Leave request " + requestId + " not found.");
+            }
+            ReentrantLock lock = lockFor(requestId);
+            lock.lock();
+            LeaveRequest.Status previous = req.getStatus();
+            try {
+                if (approve && req.getStatus() == LeaveRequest.Status.REJECTED) {
+                    // leaves filed since the rejection were allowed to overlap it. check again, and approve
+                    // before letting go of the index, so no overlapping application slips in between
+                    synchronized (index) {
+                        LeaveRequest clash = index.findOverlap(req.getEmployeeId(), req.getStartDate(), req.getEndDate());
+                        if (clash != null) {
+                            throw overlapping(clash);
+                        }
+                        req.setStatus(LeaveRequest.Status.APPROVED);
+                    }
+                } else {
+                    req.setStatus(approve ? LeaveRequest.Status.APPROVED : LeaveRequest.Status.REJECTED);
+                }
+            } catch (RuntimeException refused) {
+                // a listener (e.g. the journal) refused the decision; undo it while we still hold the stripe
+                if (req.getStatus() != previous) {
+                    undo(List.of(req), previous, refused);
+                }
+                throw refused;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            APPROVE.stop(started);
+        }
+    }
+
+    @Override
+    public List<LeaveDecisionResult> approveLeaves(List<Integer> requestIds, boolean approve) {
+        long started = APPROVE_BATCH.start();
+        try {
+            LeaveRequest.Status decision = approve ? LeaveRequest.Status.APPROVED : LeaveRequest.Status.REJECTED;
+            List<LeaveDecisionResult> results = new ArrayList<>(requestIds.size());
+            // hold every stripe the batch touches (taken in stripe order, so two batches can't deadlock):
+            // no other approver can change these requests between our check and our write
+            boolean[] needed = new boolean[locks.length];
+            for (int id : requestIds) {
+                needed[stripe(id)] = true;
+            }
+            int locked = 0;
+            try {
+                for (; locked < locks.length; locked++) {
+                    if (needed[locked]) locks[locked].lock();
+                }
+                List<LeaveRequest> changed = new ArrayList<>();
+                batched.set(changed);
+                try {
+                    for (int id : requestIds) {
+                        LeaveRequest r = leaveStore.get(id);
+                        if (r == null) {
+                            results.add(LeaveDecisionResult.notFound(id));
+                        } else if (r.getStatus() != LeaveRequest.Status.PENDING) {
+                            results.add(LeaveDecisionResult.alreadyDecided(r));
+                        } else {
+                            r.setStatus(decision);
+                            results.add(LeaveDecisionResult.applied(r));
+                        }
+                    }
+                } finally {
+                    batched.remove();
+                }
+                // still under the stripes, so the journal sees these after any earlier decision on the same requests.
+                // if it refuses them they go back to pending before anyone else can see or decide them
+                if (!changed.isEmpty()) {
+                    List<LeaveRequest> saved = Collections.unmodifiableList(changed);
+                    try {
+                        for (Listener listener : listeners) {
+                            listener.leaveRequestsSaved(saved);
+                        }
+                    } catch (RuntimeException refused) {
+                        undo(saved, LeaveRequest.Status.PENDING, refused);
+                        throw refused;
+                    }
+                }
+            } finally {
+                while (--locked >= 0) {
+                    if (needed[locked]) locks[locked].unlock();
+                }
+            }
+            return results;
+        } finally {
+            APPROVE_BATCH.stop(started);
+        }
     }
 
     @Override
     public List<LeaveRequest> getLeaveRequestsForEmployee(int employeeId) {
-        List<LeaveRequest> list = new ArrayList<>();
-        for (LeaveRequest r : leaveStore.values()) {
-            if (r.getEmployeeId() == employeeId) list.add(r);
+        long started = FOR_EMPLOYEE.start();
+        try {
+            // already in start date order
+            synchronized (index) {
+                return index.forEmployee(employeeId);
+            }
+        } finally {
+            FOR_EMPLOYEE.stop(started);
+        }
+    }
+
+    @Override
+    public List<Integer> findEmployeesOnLeave(LocalDate date) {
+        long started = ON_LEAVE.start();
+        try {
+            List<LeaveRequest> onLeave;
+            synchronized (index) {
+                onLeave = index.approvedOn(date);
+            }
+            List<Integer> employeeIds = new ArrayList<>(onLeave.size());
+            for (LeaveRequest r : onLeave) {
+                employeeIds.add(r.getEmployeeId());
+            }
+            return employeeIds;
+        } finally {
+            ON_LEAVE.stop(started);
+        }
+    }
+
+    @Override
+    public List<LeaveRequest> getPendingLeaveRequests(String department, int afterRequestId, int limit) {
+        long started = PENDING.start();
+        try {
+            checkLimit(limit);
+            LeaveRequest after = cursor(afterRequestId);
+            synchronized (index) {
+                return statuses.pending(department, after, limit);
+            }
+        } finally {
+            PENDING.stop(started);
+        }
+    }
+
+    @Override
+    public int countPendingLeaveRequests(String department) {
+        long started = PENDING_COUNT.start();
+        try {
+            synchronized (index) {
+                return statuses.pendingCount(department);
+            }
+        } finally {
+            PENDING_COUNT.stop(started);
+        }
+    }
+
+    @Override
+    public List<LeaveRequest> getLeaveRequestsByStatus(LeaveRequest.Status status, int afterRequestId, int limit) {
+        long started = BY_STATUS.start();
+        try {
+            checkLimit(limit);
+            LeaveRequest after = cursor(afterRequestId);
+            synchronized (index) {
+                return statuses.withStatus(status, after, limit);
+            }
+        } finally {
+            BY_STATUS.stop(started);
+        }
+    }
+
+    // the request a page continues after (0: the first page)
+    private LeaveRequest cursor(int afterRequestId) {
+        if (afterRequestId == 0) {
+            return null;
+        }
+        LeaveRequest after = leaveStore.get(afterRequestId);
+        if (after == null) {
+            throw new IllegalArgumentException("Unknown leave request " + afterRequestId + ".");
+        }
+        return after;
+    }
+
+    private static IllegalArgumentException overlapping(LeaveRequest clash) {
+        return new IllegalArgumentException("Overlaps leave request " + clash.getRequestId()
+                + " (" + clash.getStartDate() + " to " + clash.getEndDate() + ", " + clash.getStatus() + ").");
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+    }
+
+    // every request on file (used for snapshots)
+    public List<LeaveRequest> getAllLeaveRequests() {
+        return new ArrayList<>(leaveStore.values());
+    }
+
+    // caller holds the index monitor and fires the listeners afterwards
+    private void store(LeaveRequest request) {
+        LeaveRequest previous = leaveStore.put(request.getRequestId(), request);
+        if (previous != null && previous != request) {
+            previous.setChangeListener(null);
+            index.remove(previous);
+            statuses.remove(previous);
+        }
+        index.add(request);
+        statuses.update(request, departmentOf(request.getEmployeeId()));
+        request.setChangeListener(this::statusChanged);
+    }
+
+    private void statusChanged(LeaveRequest request) {
+        synchronized (index) {
+            index.statusChanged(request);
+            statuses.update(request, departmentOf(request.getEmployeeId()));
+        }
+        fireSaved(request);
+    }
+
+    private void employeeSaved(Employee employee) {
+        synchronized (index) {
+            for (LeaveRequest r : index.forEmployee(employee.getEmployeeId())) {
+                if (r.getStatus() == LeaveRequest.Status.PENDING) {
+                    statuses.update(r, employee.getDepartment());
+                }
+            }
+        }
+    }
+
+    private String departmentOf(int employeeId) {
+        return employeeRepository.findEmployeeById(employeeId).map(Employee::getDepartment).orElse(null);
+    }
+
+    private IdBitmap employeesOnLeave(LocalDate date) {
+        IdBitmap employeeIds = new IdBitmap();
+        synchronized (index) {
+            for (LeaveRequest r : index.approvedOn(date)) {
+                employeeIds.add(r.getEmployeeId());
+            }
+        }
+        return employeeIds;
+    }
+
+    // put refused decisions back to the previous status (the indexes follow through statusChanged) and
+    // report them as a batch of their own to every listener, even if the journal refuses again, as
+    // AbstractAttendanceStore does for clock records. caller holds the requests' stripes
+    private void undo(List<LeaveRequest> requests, LeaveRequest.Status previous, RuntimeException refused) {
+        List<LeaveRequest> restored = new ArrayList<>(requests.size());
+        batched.set(restored);
+        try {
+            for (LeaveRequest r : requests) {
+                r.setStatus(previous);
+            }
+        } finally {
+            batched.remove();
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.leaveRequestsSaved(restored);
+            } catch (RuntimeException e) {
+                refused.addSuppressed(e);
+            }
+        }
+    }
+
+    private ReentrantLock lockFor(int requestId) {
+        return locks[stripe(requestId)];
+    }
+
+    private int stripe(int requestId) {
+        return Math.floorMod(requestId, locks.length);
+    }
+
+    private void fireSaved(LeaveRequest request) {
+        List<LeaveRequest> batch = batched.get();
+        if (batch != null) {
+            batch.add(request);
+            return;
+        }
+        for (Listener listener : listeners) {
+            listener.leaveRequestSaved(request);
         }
-        list.sort(Comparator.comparing(LeaveRequest::getStartDate));
-        return list;
     }
 }
@@ -0,0 +1,93 @@
+package com.company.attendance_management_system.service;
+
+import com.company.attendance_management_system.model.LeaveRequest;
+
+import java.util.*;
+
+// leave requests by status, and pending ones by the employee's department, each ordered by
+// (start date, id). approval screens page through a department's pending queue with a cursor
+// (the last request shown), so a page costs O(log pending + page size) however much history
+// has piled up under APPROVED and REJECTED.
+// not thread-safe; LeaveServiceImpl guards it with the same monitor as its LeaveIntervalIndex.
+class LeaveStatusIndex {
+
+    private final Map<LeaveRequest.Status, NavigableSet<LeaveRequest>> byStatus =
+            new EnumMap<>(LeaveRequest.Status.class);
+    // pending requests by department (null key: employee without a department, or unknown)
+    private final Map<String, NavigableSet<LeaveRequest>> pendingByDepartment = new HashMap<>();
+    // where each request is filed now, so a transition knows what to take it out of
+    private final Map<Integer, LeaveRequest.Status> filedStatus = new HashMap<>();
+    private final Map<Integer, String> filedDepartment = new HashMap<>();
+
+    LeaveStatusIndex() {
+        for (LeaveRequest.Status status : LeaveRequest.Status.values()) {
+            byStatus.put(status, new TreeSet<>(LeaveIntervalIndex.BY_START));
+        }
+    }
+
+    // file the request under its current status (and department, while pending), moving it if needed
+    void update(LeaveRequest request, String department) {
+        remove(request);
+        LeaveRequest.Status status = request.getStatus();
+        byStatus.get(status).add(request);
+        filedStatus.put(request.getRequestId(), status);
+        if (status == LeaveRequest.Status.PENDING) {
+            pendingByDepartment.computeIfAbsent(department, d -> new TreeSet<>(LeaveIntervalIndex.BY_START))
+                    .add(request);
+            filedDepartment.put(request.getRequestId(), department);
+        }
+    }
+
+    void remove(LeaveRequest request) {
+        LeaveRequest.Status status = filedStatus.remove(request.getRequestId());
+        if (status == null) {
+            return;
+        }
+        byStatus.get(status).remove(request);
+        if (filedDepartment.containsKey(request.getRequestId())) {
+            String department = filedDepartment.remove(request.getRequestId());
+            NavigableSet<LeaveRequest> queue = pendingByDepartment.get(department);
+            if (queue != null && queue.remove(request) && queue.isEmpty()) {
+                pendingByDepartment.remove(department);
+            }
+        }
+    }
+
+    // up to limit requests with this status, after the cursor (null: from the start)
+    List<LeaveRequest> withStatus(LeaveRequest.Status status, LeaveRequest after, int limit) {
+        return page(byStatus.get(status), after, limit);
+    }
+
+    List<LeaveRequest> pending(String department, LeaveRequest after, int limit) {
+        return page(pendingByDepartment.get(department), after, limit);
+    }
+
+    int pendingCount(String department) {
+        NavigableSet<LeaveRequest> queue = pendingByDepartment.get(department);
+        return queue == null ? 0 : queue.size();
+    }
+
+    void clear() {
+        for (NavigableSet<LeaveRequest> requests : byStatus.values()) {
+            requests.clear();
+        }
+        pendingByDepartment.clear();
+        filedStatus.clear();
+        filedDepartment.clear();
+    }
+
+    private static List<LeaveRequest> page(NavigableSet<LeaveRequest> requests, LeaveRequest after, int limit) {
+        List<LeaveRequest> page = new ArrayList<>(Math.min(limit, 64));
+        if (requests == null) {
+            return page;
+        }
+        // the cursor only needs its (start date, id), so it works even if it has left this set
+        for (LeaveRequest r : after == null ? requests : requests.tailSet(after, false)) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(r);
+        }
+        return page;
+    }
+}
@@ -1,33 +1,124 @@
 package com.company.attendance_management_system.service;
 
+import com.company.attendance_management_system.metrics.Metrics;
+import com.company.attendance_management_system.metrics.ReportEvent;
+import com.company.attendance_management_system.metrics.Timer;
 import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 public class ReportService {
 
+    // department name used for hours of employees without one (or no longer on file)
+    public static final String UNASSIGNED_DEPARTMENT = "Unassigned";
+
+    private static final Timer REPORT = Metrics.timer("reportService.generateAttendanceReport");
+    private static final Timer MONTHLY = Metrics.timer("reportService.calculateMonthlyHours");
+    private static final Timer MONTHLY_ALL = Metrics.timer("reportService.calculateMonthlyHoursForAll");
+    private static final Timer BY_DEPARTMENT = Metrics.timer("reportService.calculateMonthlyHoursByDepartment");
+
     private final AttendanceService attendanceService;
+    // null when built without one: the department breakdown then puts every hour under UNASSIGNED_DEPARTMENT
+    private final EmployeeService employeeService;
 
     public ReportService(AttendanceService attendanceService) {
+        this(attendanceService, null);
+    }
+
+    public ReportService(AttendanceService attendanceService, EmployeeService employeeService) {
         this.attendanceService = attendanceService;
+        this.employeeService = employeeService;
     }
 
     public List<AttendanceRecord> generateAttendanceReport(int employeeId, LocalDate startDate, LocalDate endDate) {
-        return attendanceService.getRecordsForEmployee(employeeId).stream()
-                .filter(r -> !r.getDate().isBefore(startDate) && !r.getDate().isAfter(endDate))
-                .collect(Collectors.toList());
+        long started = REPORT.start();
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        String outcome = ReportEvent.FAILED;
+        int scanned = 0;
+        try {
+            List<AttendanceRecord> records = attendanceService.getRecordsForEmployeeBetween(employeeId, startDate, endDate);
+            outcome = ReportEvent.OK;
+            scanned = records.size();
+            return records;
+        } finally {
+            event.end(REPORT.getName(), employeeId, outcome, scanned);
+            REPORT.stop(started);
+        }
     }
 
     public double calculateMonthlyHours(int employeeId, YearMonth month) {
-        double sum = 0.0;
-        for (var r : attendanceService.getRecordsForEmployee(employeeId)) {
-            if (YearMonth.from(r.getDate()).equals(month) && r.getHoursWorked() != null) {
-                sum += r.getHoursWorked();
+        long started = MONTHLY.start();
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        String outcome = ReportEvent.FAILED;
+        try {
+            double hours = attendanceService.getMonthlyHours(employeeId, month);
+            outcome = ReportEvent.OK;
+            return hours;
+        } finally {
+            // a running total: one value read, no records
+            event.end(MONTHLY.getName(), employeeId, outcome, 0);
+            MONTHLY.stop(started);
+        }
+    }
+
+    // month-end totals for the whole company: employee id -> hours (employees without hours are left out)
+    public Map<Integer, Double> calculateMonthlyHoursForAll(YearMonth month) {
+        long started = MONTHLY_ALL.start();
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        String outcome = ReportEvent.FAILED;
+        int scanned = 0;
+        try {
+            Map<Integer, Double> hours = attendanceService.getMonthlyHoursForAll(month);
+            outcome = ReportEvent.OK;
+            scanned = hours.size();
+            return hours;
+        } finally {
+            event.end(MONTHLY_ALL.getName(), -1, outcome, scanned);
+            MONTHLY_ALL.stop(started);
+        }
+    }
+
+    // month totals summed per department, sorted by department name
+    public Map<String, Double> calculateMonthlyHoursByDepartment(YearMonth month) {
+        long started = BY_DEPARTMENT.start();
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        String outcome = ReportEvent.FAILED;
+        int scanned = 0;
+        try {
+            // snapshot the department of every employee once, then join in parallel against it
+            Map<Integer, String> departments = new HashMap<>();
+            List<Employee> employees = employeeService == null ? List.of() : employeeService.getAllEmployees();
+            for (Employee e : employees) {
+                if (e.getDepartment() != null) {
+                    departments.put(e.getEmployeeId(), e.getDepartment());
+                }
             }
+            Map<Integer, Double> totals = calculateMonthlyHoursForAll(month);
+            scanned = totals.size();
+            // sum hundredths rather than doubles so the result doesn't depend on how the work was split
+            ConcurrentMap<String, Long> hundredths = totals.entrySet().parallelStream()
+                    .collect(Collectors.groupingByConcurrent(
+                            e -> departments.getOrDefault(e.getKey(), UNASSIGNED_DEPARTMENT),
+                            Collectors.summingLong(e -> Math.round(e.getValue() * 100.0))));
+            Map<String, Double> hours = new TreeMap<>();
+            hundredths.forEach((department, total) -> hours.put(department, total / 100.0));
+            outcome = ReportEvent.OK;
+            return hours;
+        } finally {
+            event.end(BY_DEPARTMENT.getName(), -1, outcome, scanned);
+            BY_DEPARTMENT.stop(started);
         }
-        return Math.round(sum * 100.0) / 100.0;
     }
 }
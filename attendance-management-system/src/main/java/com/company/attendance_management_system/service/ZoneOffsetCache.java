@@ -0,0 +1,54 @@
+package com.company.attendance_management_system.service;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+// utc offset of one time zone at a given epoch second, without creating an Instant per call.
+// the offset is cached together with the stretch of time it holds for (from the last daylight
+// saving transition up to the next), so ZoneRules is only asked again when a tap falls outside it.
+// thread-safe: the cached span is immutable and replaced as a whole.
+final class ZoneOffsetCache {
+
+    private static final class Span {
+        final long from;   // inclusive, epoch seconds
+        final long until;  // exclusive
+        final int offsetSeconds;
+
+        Span(long from, long until, int offsetSeconds) {
+            this.from = from;
+            this.until = until;
+            this.offsetSeconds = offsetSeconds;
+        }
+    }
+
+    private final ZoneRules rules;
+    private volatile Span span = new Span(0, 0, 0);
+
+    ZoneOffsetCache(ZoneRules rules) {
+        this.rules = rules;
+    }
+
+    int offsetSeconds(long epochSecond) {
+        Span s = span;
+        if (epochSecond < s.from || epochSecond >= s.until) {
+            span = s = lookup(epochSecond);
+        }
+        return s.offsetSeconds;
+    }
+
+    private Span lookup(long epochSecond) {
+        Instant instant = Instant.ofEpochSecond(epochSecond);
+        ZoneOffset offset = rules.getOffset(instant);
+        if (rules.isFixedOffset()) {
+            return new Span(Long.MIN_VALUE, Long.MAX_VALUE, offset.getTotalSeconds());
+        }
+        // previousTransition wants a later instant to include a transition at exactly this second
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        return new Span(previous == null ? Long.MIN_VALUE : previous.toEpochSecond(),
+                next == null ? Long.MAX_VALUE : next.toEpochSecond(),
+                offset.getTotalSeconds());
+    }
+}
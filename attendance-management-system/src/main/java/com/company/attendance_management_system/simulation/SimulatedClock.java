@@ -0,0 +1,45 @@
+package com.company.attendance_management_system.simulation;
+
+import java.time.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+// clock that only moves when told to. handing it to the services lets a replay or a
+// simulation run months of clock events in seconds, with the same result every time.
+public class SimulatedClock extends Clock {
+    // shared with copies made by withZone, so they follow every later set/advance
+    private final AtomicReference<Instant> now;
+    private final ZoneId zone;
+
+    public SimulatedClock(LocalDateTime start, ZoneId zone) {
+        this(new AtomicReference<>(start.atZone(zone).toInstant()), zone);
+    }
+
+    private SimulatedClock(AtomicReference<Instant> now, ZoneId zone) {
+        this.now = now;
+        this.zone = zone;
+    }
+
+    // jump to a local date-time in this clock's zone
+    public void set(LocalDateTime time) {
+        now.set(time.atZone(zone).toInstant());
+    }
+
+    public void advance(Duration by) {
+        now.updateAndGet(t -> t.plus(by));
+    }
+
+    @Override
+    public Instant instant() {
+        return now.get();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new SimulatedClock(now, zone);
+    }
+}
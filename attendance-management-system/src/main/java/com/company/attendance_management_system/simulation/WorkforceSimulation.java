@@ -0,0 +1,168 @@
+package com.company.attendance_management_system.simulation;
+
+import com.company.attendance_management_system.exception.EmployeeNotFoundException;
+import com.company.attendance_management_system.exception.InvalidAttendanceException;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.AttendanceStore;
+import com.company.attendance_management_system.repository.ColumnarAttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.repository.MappedAttendanceRepository;
+import com.company.attendance_management_system.service.AttendanceService;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+// pushes a synthetic workforce through months of working days on a simulated clock, as fast
+// as the CPU allows. every weekday each employee taps in around 9:00 and out 7-9.5 hours later;
+// some stay home and a few tap in twice (which the service rejects). the taps of a day are fed
+// in time order through the live clockIn/clockOut path, moving the clock to each tap first.
+// the same seed always produces the same events.
+//
+// usage: WorkforceSimulation [employees] [months] [seed] [heap|columnar|mapped]
+// (mapped keeps the rows in memory-mapped files in a temp dir, removed at exit)
+public class WorkforceSimulation {
+    private static final int ABSENT_PERCENT = 3;
+    private static final int DOUBLE_TAP_PERCENT = 1;
+
+    // counts from one run
+    public static class Result {
+        private final long events;
+        private final long rejected;
+        private final long elapsedNanos;
+
+        Result(long events, long rejected, long elapsedNanos) {
+            this.events = events;
+            this.rejected = rejected;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getEvents() { return events; }
+        public long getAccepted() { return events - rejected; }
+        public long getRejected() { return rejected; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getEventsPerSecond() {
+            return elapsedNanos == 0 ? 0 : events * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d events (%,d rejected) in %.2f s, %,.0f events/s",
+                    events, rejected, elapsedNanos / 1e9, getEventsPerSecond());
+        }
+    }
+
+    private final int employees;
+    private final YearMonth firstMonth;
+    private final int months;
+    private final long seed;
+
+    public WorkforceSimulation(int employees, YearMonth firstMonth, int months, long seed) {
+        this.employees = employees;
+        this.firstMonth = firstMonth;
+        this.months = months;
+        this.seed = seed;
+    }
+
+    // employees 1..N must already exist; the service must read time from the given clock
+    public Result run(AttendanceService attendance, SimulatedClock clock) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long events = 0;
+        long rejected = 0;
+        long start = System.nanoTime();
+        LocalDate end = firstMonth.plusMonths(months - 1).atEndOfMonth();
+        for (LocalDate day = firstMonth.atDay(1); !day.isAfter(end); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            long[] taps = tapsFor(random);
+            Arrays.sort(taps);
+            for (long tap : taps) {
+                int second = (int) (tap >>> 32);
+                int employeeId = (int) (tap & 0xFFFFFFFFL) >>> 1;
+                boolean in = (tap & 1) == 0;
+                clock.set(day.atStartOfDay().plusSeconds(second));
+                events++;
+                try {
+                    if (in) attendance.clockIn(employeeId);
+                    else attendance.clockOut(employeeId);
+                } catch (InvalidAttendanceException | EmployeeNotFoundException e) {
+                    rejected++;
+                }
+            }
+        }
+        return new Result(events, rejected, System.nanoTime() - start);
+    }
+
+    // one day's taps packed as (second of day, employee id, in/out) so a plain sort puts them in time order
+    private long[] tapsFor(SplittableRandom random) {
+        long[] taps = new long[employees * 3];
+        int n = 0;
+        for (int id = 1; id <= employees; id++) {
+            if (random.nextInt(100) < ABSENT_PERCENT) {
+                continue;
+            }
+            int in = 8 * 3600 + random.nextInt(2 * 3600);        // 8:00 - 10:00
+            int out = in + 7 * 3600 + random.nextInt(5 * 1800);  // 7 - 9.5 hours later
+            taps[n++] = pack(in, id, true);
+            taps[n++] = pack(out, id, false);
+            if (random.nextInt(100) < DOUBLE_TAP_PERCENT) {
+                taps[n++] = pack(in + 60 + random.nextInt(120), id, true);
+            }
+        }
+        return Arrays.copyOf(taps, n);
+    }
+
+    private static long pack(int secondOfDay, int employeeId, boolean in) {
+        return ((long) secondOfDay << 32) | ((long) employeeId << 1) | (in ? 0 : 1);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int months = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        String store = args.length > 3 ? args[3] : "heap";
+
+        YearMonth first = YearMonth.of(2024, 1);
+        SimulatedClock clock = new SimulatedClock(first.atDay(1).atStartOfDay(), ZoneOffset.UTC);
+        EmployeeRepository employeeRepository = new EmployeeRepository();
+        AttendanceStore attendanceRepository = "columnar".equals(store) ? new ColumnarAttendanceRepository()
+                : "mapped".equals(store) ? mappedRows() : new AttendanceRepository();
+        for (int id = 1; id <= employees; id++) {
+            employeeRepository.addEmployee(new Employee(id, "Employee " + id, "employee" + id + "@example.com",
+                    "Dept " + (id % 40)));
+        }
+        AttendanceService attendance = new AttendanceServiceImpl(employeeRepository, attendanceRepository, clock);
+
+        Result result = new WorkforceSimulation(employees, first, months, seed).run(attendance, clock);
+        System.out.printf("%,d employees, %d month(s) from %s: %s%n", employees, months, first, result);
+        System.out.printf("hours logged in %s: %.2f%n", first,
+                attendance.getMonthlyHoursForAll(first).values().stream().mapToDouble(Double::doubleValue).sum());
+    }
+
+    // the row files are deleted when the JVM exits
+    private static MappedAttendanceRepository mappedRows() throws IOException {
+        Path dir = Files.createTempDirectory("workforce-rows");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(p);
+                }
+            } catch (IOException ignored) {
+                // left in the temp dir
+            }
+        }));
+        return MappedAttendanceRepository.open(dir);
+    }
+}
@@ -0,0 +1,128 @@
+package com.company.attendance_management_system.metrics;
+
+import com.company.attendance_management_system.exception.EmployeeNotFoundException;
+import com.company.attendance_management_system.exception.InvalidAttendanceException;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import com.company.attendance_management_system.service.EmployeeServiceImpl;
+import com.company.attendance_management_system.service.LeaveServiceImpl;
+import com.company.attendance_management_system.service.ReportService;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Test(groups = "metrics")
+public class AttendanceEventsTest {
+
+    // unlikely to be used by anything else running in the JVM, so other tests' events can be told apart
+    private static final int EMPLOYEE = 424_242;
+    private static final String PREFIX = "com.company.attendance_management_system.";
+
+    private AttendanceServiceImpl attendance;
+    private LeaveServiceImpl leaves;
+    private ReportService reports;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        EmployeeRepository employeeRepository = new EmployeeRepository();
+        EmployeeServiceImpl employees = new EmployeeServiceImpl(employeeRepository);
+        attendance = new AttendanceServiceImpl(employeeRepository, new AttendanceRepository());
+        leaves = new LeaveServiceImpl(employeeRepository);
+        reports = new ReportService(attendance, employees);
+        employees.addEmployee(new Employee(EMPLOYEE, "Jfr Emp", "jfr@example.com", "Ops"));
+    }
+
+    @Test
+    public void attendanceSettings_recordEveryOperationWithItsOutcome() throws Exception {
+        List<RecordedEvent> events = record(attendanceSettings(), () -> {
+            attendance.clockIn(EMPLOYEE);
+            Assert.assertThrows(InvalidAttendanceException.class, () -> attendance.clockIn(EMPLOYEE));
+            Assert.assertThrows(EmployeeNotFoundException.class, () -> attendance.clockOut(EMPLOYEE + 1));
+            leaves.applyForLeave(EMPLOYEE, "2024-03-10", "2024-03-12", "trip");
+            Assert.assertThrows(IllegalArgumentException.class,
+                    () -> leaves.applyForLeave(EMPLOYEE, "2024-03-12", "2024-03-13", "again"));
+            reports.generateAttendanceReport(EMPLOYEE, LocalDate.now(), LocalDate.now());
+        });
+
+        Assert.assertEquals(outcomes(events, "ClockIn"), List.of("ACCEPTED", "ALREADY_CLOCKED_IN"));
+        RecordedEvent unknown = of(events, "ClockOut").get(0);
+        Assert.assertEquals(unknown.getString("outcome"), "EMPLOYEE_NOT_FOUND");
+        Assert.assertEquals(unknown.getInt("employeeId"), EMPLOYEE + 1);
+        Assert.assertEquals(unknown.getInt("recordsScanned"), 0);
+
+        Assert.assertEquals(outcomes(events, "LeaveApplication"), List.of("FILED", "OVERLAP"));
+        Assert.assertEquals(of(events, "LeaveApplication").get(1).getInt("recordsScanned"), 1);
+
+        RecordedEvent report = of(events, "Report").get(0);
+        Assert.assertEquals(report.getString("report"), "reportService.generateAttendanceReport");
+        Assert.assertEquals(report.getString("outcome"), "OK");
+        Assert.assertEquals(report.getInt("recordsScanned"), 1);
+        RecordedEvent scan = of(events, "RepositoryScan").get(0);
+        Assert.assertEquals(scan.getString("operation"), "attendanceRepository.findRecordsByEmployeeBetween");
+        Assert.assertEquals(scan.getInt("recordsScanned"), 1);
+    }
+
+    @Test
+    public void defaultSettings_recordNoAttendanceEvents() throws Exception {
+        List<RecordedEvent> events = record(Configuration.getConfiguration("default"), () -> {
+            attendance.clockIn(EMPLOYEE);
+            leaves.applyForLeave(EMPLOYEE, "2024-03-10", "2024-03-12", "trip");
+            reports.generateAttendanceReport(EMPLOYEE, LocalDate.now(), LocalDate.now());
+        });
+
+        Assert.assertEquals(events, List.of());
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    private static List<RecordedEvent> record(Configuration settings, Work work) throws Exception {
+        Path file = Files.createTempFile("attendance", ".jfr");
+        try {
+            try (Recording recording = new Recording(settings)) {
+                recording.start();
+                work.run();
+                recording.stop();
+                recording.dump(file);
+            }
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith(PREFIX))
+                    .filter(e -> !e.hasField("employeeId") || e.getInt("employeeId") / 2 == EMPLOYEE / 2)
+                    .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Configuration attendanceSettings() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                AttendanceEventsTest.class.getResourceAsStream("/attendance.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    private static List<RecordedEvent> of(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(PREFIX + name)).collect(Collectors.toList());
+    }
+
+    private static List<String> outcomes(List<RecordedEvent> events, String name) {
+        return of(events, name).stream().map(e -> e.getString("outcome")).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,63 @@
+package com.company.attendance_management_system.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+@Test(groups = "metrics")
+public class LatencyHistogramTest {
+
+    @Test
+    public void buckets_coverEveryValueWithinThreePercent() {
+        long previous = -1;
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            long highest = LatencyHistogram.highestValue(bucket);
+            Assert.assertTrue(highest > previous, "bucket " + bucket);
+            // the bucket's range starts right after the previous one ends
+            Assert.assertEquals(LatencyHistogram.bucket(previous + 1), bucket);
+            Assert.assertEquals(LatencyHistogram.bucket(highest), bucket);
+            Assert.assertTrue(highest - previous <= Math.max(1, (previous + 1) / 32), "bucket " + bucket);
+            previous = highest;
+        }
+        Assert.assertEquals(previous, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void percentiles_matchSortedValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(11);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // log-uniform from 1 ns to about 1 s, like service latencies with a long tail
+            values[i] = (long) Math.pow(10, random.nextDouble() * 9);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(snapshot.getCount(), values.length);
+        Assert.assertEquals(snapshot.getMax(), values[values.length - 1]);
+        for (double percentile : new double[] {1, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = snapshot.getValueAtPercentile(percentile);
+            Assert.assertTrue(reported >= exact && reported <= exact + exact / 32 + 1,
+                    "p" + percentile + ": " + reported + " vs " + exact);
+        }
+    }
+
+    @Test
+    public void reset_forgetsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5_000);
+        histogram.record(-3);
+        Assert.assertEquals(histogram.snapshot().getValueAtPercentile(0.1), 0);
+
+        histogram.reset();
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(snapshot.getCount(), 0);
+        Assert.assertEquals(snapshot.getMax(), 0);
+        Assert.assertEquals(snapshot.getValueAtPercentile(99), 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.company.attendance_management_system.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+@Test(groups = "metrics")
+public class MetricsTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        Metrics.setEnabled(true);
+    }
+
+    @Test
+    public void timer_recordsEachCall() {
+        Timer timer = Metrics.timer("metricsTest.timer");
+        Assert.assertSame(Metrics.timer("metricsTest.timer"), timer);
+        timer.reset();
+        for (int i = 0; i < 3; i++) {
+            long started = timer.start();
+            timer.stop(started);
+        }
+
+        Assert.assertEquals(timer.getCount(), 3);
+        Assert.assertTrue(Metrics.dump().contains("metricsTest.timer"));
+    }
+
+    @Test
+    public void disabled_recordsNothing() {
+        Timer timer = Metrics.timer("metricsTest.disabled");
+        timer.reset();
+        Metrics.setEnabled(false);
+        long started = timer.start();
+        timer.stop(started);
+
+        Assert.assertEquals(started, 0);
+        Assert.assertEquals(timer.getCount(), 0);
+    }
+
+    @Test
+    public void mbeans_showCountsAndResets() throws Exception {
+        Counter counter = Metrics.counter("metricsTest.counter");
+        Metrics.registerMBeans();
+        counter.reset();
+        counter.increment();
+        counter.increment();
+
+        ObjectName name = new ObjectName(Metrics.JMX_DOMAIN + ":type=Counter,name=\"metricsTest.counter\"");
+        Assert.assertEquals(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Count"), 2L);
+        ManagementFactory.getPlatformMBeanServer().invoke(name, "reset", null, null);
+        Assert.assertEquals(counter.getCount(), 0);
+    }
+}
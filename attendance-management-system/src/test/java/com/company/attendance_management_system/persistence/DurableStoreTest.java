@@ -0,0 +1,323 @@
+package com.company.attendance_management_system.persistence;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.ClockEvent;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.model.LeaveRequest;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.AttendanceStore;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.repository.MappedAttendanceRepository;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import com.company.attendance_management_system.service.EmployeeServiceImpl;
+import com.company.attendance_management_system.service.LeaveServiceImpl;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Test(groups = "persistence")
+public class DurableStoreTest {
+
+    private Path dir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("durable-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        TestFiles.deleteRecursively(dir);
+    }
+
+    @Test
+    public void restart_rebuildsEmployeesAttendanceAndLeave() throws Exception {
+        int recordId;
+        int leaveId;
+        try (Stores s = Stores.open(dir)) {
+            new EmployeeServiceImpl(s.employees).addEmployee(new Employee(1, "Ann", "ann@ex.com", "Ops"));
+            AttendanceServiceImpl attendance = new AttendanceServiceImpl(s.employees, s.attendance);
+            attendance.clockIn(1);
+            AttendanceRecord out = attendance.clockOut(1);
+            recordId = out.getRecordId();
+            LeaveRequest leave = s.leave.applyForLeave(1, "2024-03-01", "2024-03-02", "trip");
+            s.leave.approveLeave(leave.getRequestId(), true);
+            leaveId = leave.getRequestId();
+        }
+
+        try (Stores s = Stores.open(dir)) {
+            Assert.assertEquals(s.employees.findEmployeeById(1).get().getEmail(), "ann@ex.com");
+
+            AttendanceRecord r = s.attendance.findRecordByDateAndEmployee(1, LocalDate.now()).get();
+            Assert.assertEquals(r.getRecordId(), recordId);
+            Assert.assertNotNull(r.getClockInTime());
+            Assert.assertNotNull(r.getClockOutTime());
+            Assert.assertNotNull(r.getHoursWorked());
+
+            List<LeaveRequest> leaves = s.leave.getLeaveRequestsForEmployee(1);
+            Assert.assertEquals(leaves.size(), 1);
+            Assert.assertEquals(leaves.get(0).getStatus(), LeaveRequest.Status.APPROVED);
+            Assert.assertEquals(leaves.get(0).getReason(), "trip");
+
+            // id generators continue after the restored ids
+            Assert.assertTrue(s.attendance.createRecord(1, LocalDate.now().plusDays(1)).getRecordId() > recordId);
+            Assert.assertTrue(s.leave.applyForLeave(1, "2024-04-01", "2024-04-01", "x").getRequestId() > leaveId);
+        }
+    }
+
+    @Test
+    public void clear_isReplayed() throws Exception {
+        try (Stores s = Stores.open(dir)) {
+            s.attendance.createRecord(5, LocalDate.of(2024, 1, 2));
+            s.attendance.clear();
+            s.attendance.createRecord(6, LocalDate.of(2024, 1, 3));
+        }
+        try (Stores s = Stores.open(dir)) {
+            Assert.assertEquals(s.attendance.getAllRecords().size(), 1);
+            Assert.assertEquals(s.attendance.getAllRecords().get(0).getEmployeeId(), 6);
+        }
+    }
+
+    @Test
+    public void snapshot_thenMoreChanges_restartLoadsSnapshotAndTail() throws Exception {
+        LocalDate day = LocalDate.of(2024, 2, 1);
+        try (Stores s = Stores.open(dir, 256)) {
+            for (int i = 0; i < 50; i++) {
+                s.attendance.createRecord(i, day).setHoursWorked(1.5);
+            }
+            s.leave.restoreLeaveRequest(new LeaveRequest(40, 1, day, day, "old"));
+            s.store.snapshot();
+            Assert.assertEquals(WriteAheadLog.listSegments(dir).size(), 1, "covered segments are dropped");
+
+            s.attendance.createRecord(100, day);
+            s.attendance.findRecordByDateAndEmployee(3, day).get().setHoursWorked(8.0);
+        }
+
+        try (Stores s = Stores.open(dir, 256)) {
+            Assert.assertEquals(s.attendance.getAllRecords().size(), 51);
+            Assert.assertEquals(s.attendance.findRecordByDateAndEmployee(3, day).get().getHoursWorked(), 8.0);
+            Assert.assertEquals(s.attendance.findRecordByDateAndEmployee(4, day).get().getHoursWorked(), 1.5);
+            Assert.assertEquals(s.attendance.getNextRecordId(), 52);
+            Assert.assertEquals(s.leave.getNextRequestId(), 41);
+        }
+    }
+
+    @Test
+    public void snapshot_thenClearsInTheTail_restartDropsSnapshottedEntities() throws Exception {
+        LocalDate day = LocalDate.of(2024, 2, 1);
+        try (Stores s = Stores.open(dir)) {
+            s.employees.addEmployee(new Employee(1, "Ann", "ann@ex.com", "Ops"));
+            s.attendance.createRecord(1, day);
+            s.attendance.createRecord(2, day);
+            s.store.snapshot();
+
+            s.attendance.clear();
+            s.employees.clear();
+            s.employees.addEmployee(new Employee(2, "Bo", "bo@ex.com", "Ops"));
+            s.attendance.createRecord(2, day.plusDays(1));
+        }
+        try (Stores s = Stores.open(dir)) {
+            Assert.assertFalse(s.employees.findEmployeeById(1).isPresent());
+            Assert.assertEquals(s.employees.findEmployeeById(2).get().getName(), "Bo");
+            Assert.assertEquals(s.attendance.getAllRecords().size(), 1);
+            Assert.assertEquals(s.attendance.getAllRecords().get(0).getDate(), day.plusDays(1));
+            Assert.assertEquals(s.attendance.getNextRecordId(), 2);
+        }
+    }
+
+    @Test
+    public void snapshot_keepsNonAsciiAndMissingStrings() throws Exception {
+        try (Stores s = Stores.open(dir)) {
+            s.employees.addEmployee(new Employee(1, "Zoë Ñúñez", "zoe@ex.com", null));
+            s.employees.addEmployee(new Employee(2, "\u0000😀", "plain@ex.com", "Ops"));
+            s.store.snapshot();
+        }
+        try (Stores s = Stores.open(dir)) {
+            Assert.assertEquals(s.employees.findEmployeeById(1).get().getName(), "Zoë Ñúñez");
+            Assert.assertNull(s.employees.findEmployeeById(1).get().getDepartment());
+            Assert.assertEquals(s.employees.findEmployeeById(2).get().getName(), "\u0000😀");
+            Assert.assertEquals(s.employees.findEmployeeById(2).get().getEmail(), "plain@ex.com");
+        }
+    }
+
+    @Test
+    public void employeeBatch_isJournaledWithOneFlush() throws Exception {
+        try (Stores s = Stores.open(dir)) {
+            long syncsBefore = s.store.getLog().getSyncCount();
+            s.employees.addEmployees(List.of(
+                    new Employee(1, "Ann", "ann@ex.com", "Ops"),
+                    new Employee(2, "Bo", "bo@ex.com", "Ops"),
+                    new Employee(3, "Cy", "cy@ex.com", "Eng")));
+            Assert.assertEquals(s.store.getLog().getSyncCount() - syncsBefore, 1);
+        }
+
+        try (Stores s = Stores.open(dir)) {
+            Assert.assertEquals(s.employees.getAllEmployees().size(), 3);
+            Assert.assertEquals(s.employees.findEmployeeByEmail("cy@ex.com").get().getEmployeeId(), 3);
+        }
+    }
+
+    @Test
+    public void clockEventBatch_isJournaledWithOneFlush() throws Exception {
+        LocalDateTime in = LocalDate.of(2024, 3, 4).atTime(9, 0);
+        try (Stores s = Stores.open(dir)) {
+            s.employees.addEmployee(new Employee(1, "Ann", "ann@ex.com", "Ops"));
+            s.employees.addEmployee(new Employee(2, "Bo", "bo@ex.com", "Ops"));
+            AttendanceServiceImpl attendance = new AttendanceServiceImpl(s.employees, s.attendance);
+            long syncsBefore = s.store.getLog().getSyncCount();
+            attendance.ingestClockEvents(List.of(
+                    new ClockEvent(1, in, ClockEvent.Type.IN),
+                    new ClockEvent(2, in, ClockEvent.Type.IN),
+                    new ClockEvent(1, in.plusHours(7), ClockEvent.Type.OUT)));
+            Assert.assertEquals(s.store.getLog().getSyncCount() - syncsBefore, 1);
+        }
+
+        try (Stores s = Stores.open(dir)) {
+            AttendanceRecord r = s.attendance.findRecordByDateAndEmployee(1, in.toLocalDate()).get();
+            Assert.assertEquals(r.getClockOutTime(), in.plusHours(7));
+            Assert.assertEquals(r.getHoursWorked(), 7.0);
+            Assert.assertTrue(s.attendance.findRecordByDateAndEmployee(2, in.toLocalDate()).isPresent());
+        }
+    }
+
+    @Test
+    public void liveTaps_areJournaledWithOneFlushEach() throws Exception {
+        try (Stores s = Stores.open(dir)) {
+            s.employees.addEmployee(new Employee(1, "Ann", "ann@ex.com", "Ops"));
+            AttendanceServiceImpl attendance = new AttendanceServiceImpl(s.employees, s.attendance);
+            long syncsBefore = s.store.getLog().getSyncCount();
+            attendance.clockIn(1);
+            Assert.assertEquals(s.store.getLog().getSyncCount() - syncsBefore, 1, "new record and clock-in together");
+            attendance.clockOut(1);
+            Assert.assertEquals(s.store.getLog().getSyncCount() - syncsBefore, 2, "clock-out and hours together");
+        }
+
+        try (Stores s = Stores.open(dir)) {
+            AttendanceRecord r = s.attendance.findRecordByDateAndEmployee(1, LocalDate.now()).get();
+            Assert.assertNotNull(r.getClockOutTime());
+            Assert.assertNotNull(r.getHoursWorked());
+        }
+    }
+
+    @Test
+    public void bulkLeaveApproval_isJournaledWithOneFlush() throws Exception {
+        try (Stores s = Stores.open(dir)) {
+            s.employees.addEmployee(new Employee(1, "Ann", "ann@ex.com", "Ops"));
+            int first = s.leave.applyForLeave(1, "2024-05-01", "2024-05-01", "a").getRequestId();
+            int second = s.leave.applyForLeave(1, "2024-05-08", "2024-05-09", "b").getRequestId();
+            long syncsBefore = s.store.getLog().getSyncCount();
+            s.leave.approveLeaves(List.of(first, second, 999), true);
+            Assert.assertEquals(s.store.getLog().getSyncCount() - syncsBefore, 1);
+        }
+
+        try (Stores s = Stores.open(dir)) {
+            for (LeaveRequest r : s.leave.getLeaveRequestsForEmployee(1)) {
+                Assert.assertEquals(r.getStatus(), LeaveRequest.Status.APPROVED);
+            }
+        }
+    }
+
+    @Test
+    public void mappedStore_takesOverJournaledAttendance_andKeepsItOutOfSnapshots() throws Exception {
+        LocalDate day = LocalDate.of(2024, 2, 1);
+        try (Stores s = Stores.open(dir)) {
+            s.attendance.createRecord(1, day).setHoursWorked(7.5);
+        }
+
+        // switching stores: the journaled record is replayed into the rows, the snapshot leaves attendance out
+        Path rows = dir.resolve("attendance-rows");
+        try (MappedAttendanceRepository mapped = MappedAttendanceRepository.open(rows)) {
+            try (Stores s = Stores.open(dir, mapped)) {
+                Assert.assertEquals(mapped.findRecordByDateAndEmployee(1, day).get().getHoursWorked(), 7.5);
+                mapped.createRecord(2, day);
+                s.store.snapshot();
+            }
+        }
+
+        try (MappedAttendanceRepository mapped = MappedAttendanceRepository.open(rows)) {
+            try (Stores s = Stores.open(dir, mapped)) {
+                Assert.assertEquals(s.attendance.getAllRecords().size(), 2);
+                Assert.assertEquals(s.attendance.findRecordByDateAndEmployee(1, day).get().getHoursWorked(), 7.5);
+            }
+        }
+        // the journal itself no longer holds any attendance
+        try (Stores s = Stores.open(dir)) {
+            Assert.assertTrue(s.attendance.getAllRecords().isEmpty());
+        }
+    }
+
+    @Test
+    public void failedFlush_undoesTheTap_andRefusesLaterChanges() throws Exception {
+        FailingChannel.Opener opener = new FailingChannel.Opener();
+        try (Stores s = Stores.open(dir, opener)) {
+            s.employees.addEmployee(new Employee(1, "Ann", "ann@ex.com", "Ops"));
+            AttendanceServiceImpl attendance = new AttendanceServiceImpl(s.employees, s.attendance);
+
+            opener.failForces = true;
+            Assert.assertThrows(UncheckedIOException.class, () -> attendance.clockIn(1));
+            Assert.assertNull(s.attendance.findRecordByDateAndEmployee(1, LocalDate.now())
+                    .map(AttendanceRecord::getClockInTime).orElse(null), "memory keeps no clock-in the disk lost");
+
+            // the journal stays failed even once the disk recovers
+            opener.failForces = false;
+            Assert.assertThrows(UncheckedIOException.class,
+                    () -> s.employees.addEmployee(new Employee(2, "Bo", "bo@ex.com", "Ops")));
+        }
+
+        try (Stores s = Stores.open(dir)) {
+            Assert.assertTrue(s.employees.findEmployeeById(1).isPresent());
+            Assert.assertFalse(s.employees.findEmployeeById(2).isPresent());
+            Assert.assertTrue(s.attendance.getAllRecords().isEmpty());
+        }
+    }
+
+    // fresh in-memory stores, as App builds them on startup, journaled to one directory
+    private static class Stores implements AutoCloseable {
+        final EmployeeRepository employees = new EmployeeRepository();
+        final AttendanceStore attendance;
+        final LeaveServiceImpl leave = new LeaveServiceImpl(employees);
+        DurableStore store;
+
+        private Stores(AttendanceStore attendance) {
+            this.attendance = attendance;
+        }
+
+        static Stores open(Path dir) throws IOException {
+            return open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES);
+        }
+
+        static Stores open(Path dir, long segmentBytes) throws IOException {
+            return open(dir, segmentBytes, FileChannel::open, new AttendanceRepository());
+        }
+
+        static Stores open(Path dir, AttendanceStore attendance) throws IOException {
+            return open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES, FileChannel::open, attendance);
+        }
+
+        static Stores open(Path dir, WriteAheadLog.SegmentOpener opener) throws IOException {
+            return open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES, opener, new AttendanceRepository());
+        }
+
+        private static Stores open(Path dir, long segmentBytes, WriteAheadLog.SegmentOpener opener,
+                                   AttendanceStore attendance) throws IOException {
+            Stores s = new Stores(attendance);
+            s.store = DurableStore.open(dir, segmentBytes, opener, s.employees, s.attendance, s.leave);
+            return s;
+        }
+
+        @Override
+        public void close() throws IOException {
+            store.close();
+        }
+    }
+}
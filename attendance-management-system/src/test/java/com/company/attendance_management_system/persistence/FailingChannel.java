@@ -0,0 +1,150 @@
+package com.company.attendance_management_system.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// a segment channel that can be told to fail: a failing write puts half its bytes on disk first
+// (a torn frame), and the next force can be held (and then succeed) until the test lets it go
+class FailingChannel extends FileChannel {
+
+    // hands out FailingChannels that all obey the same switches
+    static class Opener implements WriteAheadLog.SegmentOpener {
+        volatile boolean failWrites;
+        volatile boolean failForces;
+        volatile CountDownLatch holdNextForce;
+        final CountDownLatch forceHeld = new CountDownLatch(1);
+
+        @Override
+        public FileChannel open(Path path, OpenOption... options) throws IOException {
+            return new FailingChannel(FileChannel.open(path, options), this);
+        }
+    }
+
+    private final FileChannel delegate;
+    private final Opener opener;
+
+    private FailingChannel(FileChannel delegate, Opener opener) {
+        this.delegate = delegate;
+        this.opener = opener;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (opener.failWrites) {
+            ByteBuffer half = src.duplicate();
+            half.limit(half.position() + half.remaining() / 2);
+            delegate.write(half);
+            throw new IOException("No space left on device");
+        }
+        return delegate.write(src);
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+        CountDownLatch hold = opener.holdNextForce;
+        if (hold != null) {
+            opener.holdNextForce = null;
+            opener.forceHeld.countDown();
+            try {
+                if (!hold.await(30, TimeUnit.SECONDS)) {
+                    throw new IOException("force was never released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            delegate.force(metaData); // the held force itself goes through
+            return;
+        }
+        if (opener.failForces) {
+            throw new IOException("Input/output error");
+        }
+        delegate.force(metaData);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        return delegate.read(dst);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+        return delegate.read(dsts, offset, length);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        return delegate.write(srcs, offset, length);
+    }
+
+    @Override
+    public long position() throws IOException {
+        return delegate.position();
+    }
+
+    @Override
+    public FileChannel position(long newPosition) throws IOException {
+        delegate.position(newPosition);
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return delegate.size();
+    }
+
+    @Override
+    public FileChannel truncate(long size) throws IOException {
+        delegate.truncate(size);
+        return this;
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        return delegate.transferTo(position, count, target);
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+        return delegate.transferFrom(src, position, count);
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+        return delegate.read(dst, position);
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) throws IOException {
+        return delegate.write(src, position);
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+        return delegate.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException {
+        return delegate.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+        return delegate.tryLock(position, size, shared);
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,172 @@
+package com.company.attendance_management_system.persistence;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+@Test(groups = "persistence")
+public class WriteAheadLogTest {
+
+    private Path dir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("wal-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        TestFiles.deleteRecursively(dir);
+    }
+
+    @Test
+    public void append_thenReopen_replaysInOrderAcrossSegments() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(dir, 64)) {
+            for (int i = 0; i < 20; i++) {
+                log.append(("entry-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        Assert.assertTrue(WriteAheadLog.listSegments(dir).size() > 1, "small segment size should roll segments");
+
+        List<String> seen = new ArrayList<>();
+        try (WriteAheadLog log = WriteAheadLog.open(dir, 64)) {
+            log.replay(e -> seen.add(new String(e, StandardCharsets.UTF_8)));
+        }
+        Assert.assertEquals(seen.size(), 20);
+        Assert.assertEquals(seen.get(0), "entry-0");
+        Assert.assertEquals(seen.get(19), "entry-19");
+    }
+
+    @Test
+    public void reopen_afterTornWrite_dropsPartialEntryAndKeepsAppending() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES)) {
+            log.append("a".getBytes(StandardCharsets.UTF_8));
+            log.append("b".getBytes(StandardCharsets.UTF_8));
+        }
+        Path segment = WriteAheadLog.listSegments(dir).get(0);
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 1); // simulate crash in the middle of the last write
+        }
+
+        List<String> seen = new ArrayList<>();
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES)) {
+            log.append("c".getBytes(StandardCharsets.UTF_8));
+            log.replay(e -> seen.add(new String(e, StandardCharsets.UTF_8)));
+        }
+        Assert.assertEquals(seen, Arrays.asList("a", "c"));
+    }
+
+    @Test
+    public void concurrentAppends_areGroupCommitted() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(pool.submit(() -> {
+                        for (int i = 0; i < perThread; i++) log.append(new byte[16]);
+                        return null;
+                    }));
+                }
+                for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+            } finally {
+                pool.shutdownNow();
+            }
+            int[] count = {0};
+            log.replay(e -> count[0]++);
+            Assert.assertEquals(count[0], threads * perThread);
+            Assert.assertTrue(log.getSyncCount() <= threads * perThread);
+        }
+    }
+
+    @Test
+    public void failedWrite_cutsTheTornFrameOffAndRefusesLaterAppends() throws IOException {
+        FailingChannel.Opener opener = new FailingChannel.Opener();
+        long goodSize;
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES, 1, opener)) {
+            log.append("a".getBytes(StandardCharsets.UTF_8));
+            goodSize = Files.size(WriteAheadLog.listSegments(dir).get(0));
+
+            opener.failWrites = true;
+            Assert.assertThrows(IOException.class, () -> log.append("b".getBytes(StandardCharsets.UTF_8)));
+            Assert.assertEquals(Files.size(WriteAheadLog.listSegments(dir).get(0)), goodSize, "torn frame is cut off");
+
+            // the disk is back, but the log stays failed rather than writing behind a lost entry
+            opener.failWrites = false;
+            Assert.assertThrows(IOException.class, () -> log.append("c".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        List<String> seen = new ArrayList<>();
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES)) {
+            log.append("d".getBytes(StandardCharsets.UTF_8));
+            log.replay(e -> seen.add(new String(e, StandardCharsets.UTF_8)));
+        }
+        Assert.assertEquals(seen, Arrays.asList("a", "d"));
+    }
+
+    @Test
+    public void failedForce_failsEveryEntryOfTheBatch() throws Exception {
+        FailingChannel.Opener opener = new FailingChannel.Opener();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES, 1, opener)) {
+            // the first append holds the flush lock inside force while two more queue up behind it
+            CountDownLatch release = new CountDownLatch(1);
+            opener.holdNextForce = release;
+            Future<?> first = pool.submit(() -> {
+                log.append("first".getBytes(StandardCharsets.UTF_8));
+                return null;
+            });
+            Assert.assertTrue(opener.forceHeld.await(30, TimeUnit.SECONDS));
+            List<Thread> waiting = new CopyOnWriteArrayList<>();
+            List<Future<?>> queued = new ArrayList<>();
+            for (String entry : Arrays.asList("second", "third")) {
+                queued.add(pool.submit(() -> {
+                    waiting.add(Thread.currentThread());
+                    log.append(entry.getBytes(StandardCharsets.UTF_8));
+                    return null;
+                }));
+            }
+            awaitBlocked(waiting, 2);
+
+            // both queued entries go out in one batch, and its fsync fails
+            opener.failForces = true;
+            release.countDown();
+            first.get(30, TimeUnit.SECONDS);
+            for (Future<?> f : queued) {
+                try {
+                    f.get(30, TimeUnit.SECONDS);
+                    Assert.fail("an entry of the failed batch was reported durable");
+                } catch (ExecutionException e) {
+                    Assert.assertTrue(e.getCause() instanceof IOException);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<String> seen = new ArrayList<>();
+        try (WriteAheadLog log = WriteAheadLog.open(dir, WriteAheadLog.DEFAULT_SEGMENT_BYTES)) {
+            log.replay(e -> seen.add(new String(e, StandardCharsets.UTF_8)));
+        }
+        Assert.assertEquals(seen, Arrays.asList("first"));
+    }
+
+    // wait until this many threads have queued and are blocked on the flush lock
+    private static void awaitBlocked(List<Thread> threads, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (threads.size() < count || threads.stream().anyMatch(t -> t.getState() != Thread.State.BLOCKED)) {
+            Assert.assertTrue(System.nanoTime() < deadline, "appends never queued up");
+            Thread.sleep(5);
+        }
+    }
+}
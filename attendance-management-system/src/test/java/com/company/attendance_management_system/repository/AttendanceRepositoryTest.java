@@ -0,0 +1,184 @@
+package com.company.attendance_management_system.repository;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@Test(groups = "repository")
+public class AttendanceRepositoryTest {
+
+    private AttendanceStore repository;
+
+    @BeforeMethod
+    public void setUp() {
+        repository = newRepository();
+    }
+
+    protected AttendanceStore newRepository() {
+        return new AttendanceRepository();
+    }
+
+    @Test
+    public void createRecord_thenFindByDateAndEmployee_returnsRecord() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        AttendanceRecord r = repository.createRecord(7, day);
+        repository.createRecord(7, day.plusDays(1));
+        repository.createRecord(8, day);
+
+        Optional<AttendanceRecord> found = repository.findRecordByDateAndEmployee(7, day);
+        Assert.assertTrue(found.isPresent());
+        Assert.assertEquals(found.get().getRecordId(), r.getRecordId());
+        Assert.assertTrue(repository.findRecordByDateAndEmployee(9, day).isEmpty());
+    }
+
+    @Test
+    public void addRecord_replacingSameId_updatesIndex() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        repository.addRecord(new AttendanceRecord(1, 7, day));
+        AttendanceRecord moved = new AttendanceRecord(1, 7, day.plusDays(1));
+        repository.addRecord(moved);
+
+        Assert.assertTrue(repository.findRecordByDateAndEmployee(7, day).isEmpty());
+        Assert.assertEquals(repository.findRecordByDateAndEmployee(7, day.plusDays(1)).get().getRecordId(),
+                moved.getRecordId());
+    }
+
+    @Test
+    public void clear_emptiesIndex() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        repository.createRecord(7, day);
+        repository.clear();
+
+        Assert.assertTrue(repository.findRecordByDateAndEmployee(7, day).isEmpty());
+    }
+
+    @Test
+    public void forEachRecordOn_followsCreatesMovesAndClear() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        repository.createRecord(7, day);
+        repository.createRecord(8, day);
+        repository.createRecord(7, day.plusDays(1));
+        repository.addRecord(new AttendanceRecord(90, 9, day));
+        repository.addRecord(new AttendanceRecord(90, 9, day.plusDays(2))); // moved off the day
+
+        Assert.assertEquals(employeesOn(day), List.of(7, 8));
+        Assert.assertEquals(employeesOn(day.plusDays(2)), List.of(9));
+        Assert.assertTrue(repository.hasRecordsOn(day.plusDays(1)));
+        Assert.assertFalse(repository.hasRecordsOn(day.minusDays(1)));
+
+        repository.clear();
+        Assert.assertTrue(employeesOn(day).isEmpty());
+        Assert.assertFalse(repository.hasRecordsOn(day));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void createRecord_sameEmployeeAndDate_throws() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        repository.createRecord(7, day);
+        repository.createRecord(7, day);
+    }
+
+    @Test
+    public void findRecordByDay_andStoredTimes_matchTheLocalDateTimeApi() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        AttendanceRecord r = repository.findOrCreateRecord(7, day.toEpochDay());
+        r.setClockInTime(day.atTime(8, 59, 30));
+        r.setHours(7.25);
+
+        AttendanceRecord found = repository.findRecordByDay(7, day.toEpochDay());
+        Assert.assertEquals(found.getRecordId(), r.getRecordId());
+        Assert.assertEquals(found.getClockInNanos(), AttendanceRecord.toNanos(day.atTime(8, 59, 30)));
+        Assert.assertEquals(found.getClockInNanos() / AttendanceRecord.NANOS_PER_DAY, day.toEpochDay());
+        Assert.assertFalse(found.hasClockOut());
+        Assert.assertEquals(found.getHoursWorked(), 7.25);
+        Assert.assertEquals(repository.getMonthlyHours(7, YearMonth.of(2024, 5)), 7.25);
+        Assert.assertNull(repository.findRecordByDay(7, day.toEpochDay() + 1));
+        Assert.assertNull(repository.findRecordByDay(8, day.toEpochDay()));
+    }
+
+    @Test
+    public void findRecordsByEmployeeBetween_isInclusiveAndInDateOrder() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        // created out of order, with another employee on the same days
+        for (int d : new int[]{4, 0, 2, 1, 3}) {
+            repository.createRecord(7, day.plusDays(d));
+            repository.createRecord(8, day.plusDays(d));
+        }
+
+        List<AttendanceRecord> found = repository.findRecordsByEmployeeBetween(7, day.plusDays(1), day.plusDays(3));
+        Assert.assertEquals(found.size(), 3);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(found.get(i).getDate(), day.plusDays(1 + i));
+            Assert.assertEquals(found.get(i).getEmployeeId(), 7);
+        }
+        Assert.assertEquals(repository.findRecordsByEmployeeBetween(7, day.plusDays(4), day.plusDays(4)).size(), 1);
+        Assert.assertEquals(repository.findRecordsByEmployeeBetween(7, day.minusDays(9), day.plusDays(9)).size(), 5);
+    }
+
+    @Test
+    public void findRecordsByEmployeeBetween_emptyReversedOrUnknown_returnsEmpty() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        repository.createRecord(7, day);
+        repository.createRecord(7, day.plusDays(2));
+
+        Assert.assertTrue(repository.findRecordsByEmployeeBetween(7, day.plusDays(1), day.plusDays(1)).isEmpty());
+        Assert.assertTrue(repository.findRecordsByEmployeeBetween(7, day.plusDays(2), day).isEmpty());
+        Assert.assertTrue(repository.findRecordsByEmployeeBetween(99, day, day.plusDays(2)).isEmpty());
+    }
+
+    @Test
+    public void findOrCreateRecord_returnsExistingRecord() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        AttendanceRecord first = repository.findOrCreateRecord(7, day);
+        Assert.assertEquals(repository.findOrCreateRecord(7, day).getRecordId(), first.getRecordId());
+        Assert.assertEquals(repository.getAllRecords().size(), 1);
+    }
+
+    @Test
+    public void lockFor_distinctStripesWithinBlock() {
+        AttendanceRepository small = new AttendanceRepository(4);
+        Assert.assertNotSame(small.lockFor(1), small.lockFor(2));
+        Assert.assertSame(small.lockFor(1), small.lockFor(5));
+    }
+
+    @Test
+    public void monthlyHours_followCorrectionsReplacementsAndClear() {
+        YearMonth may = YearMonth.of(2024, 5);
+        repository.createRecord(7, may.atDay(6)).setHoursWorked(8.0);
+        AttendanceRecord second = repository.createRecord(7, may.atDay(7));
+        second.setHoursWorked(7.25);
+        repository.createRecord(7, may.plusMonths(1).atDay(3)).setHoursWorked(4.0);
+        repository.createRecord(8, may.atDay(6)).setHoursWorked(6.0);
+        Assert.assertEquals(repository.getMonthlyHours(7, may), 15.25);
+
+        // correction through the setter replaces the old value
+        repository.findRecordByDateAndEmployee(7, may.atDay(7)).get().setHoursWorked(6.5);
+        Assert.assertEquals(repository.getMonthlyHours(7, may), 14.5);
+
+        // re-adding the same id with other hours swaps its contribution
+        AttendanceRecord restored = new AttendanceRecord(second.getRecordId(), 7, may.atDay(7));
+        restored.setHoursWorked(1.0);
+        repository.addRecord(restored);
+        Assert.assertEquals(repository.getMonthlyHours(7, may), 9.0);
+        Assert.assertEquals(repository.getMonthlyHours(7, may.plusMonths(1)), 4.0);
+        Assert.assertEquals(repository.getMonthlyHours(8, may), 6.0);
+
+        repository.clear();
+        Assert.assertEquals(repository.getMonthlyHours(7, may), 0.0);
+    }
+
+    private List<Integer> employeesOn(LocalDate day) {
+        List<Integer> employeeIds = new ArrayList<>();
+        repository.forEachRecordOn(day, record -> employeeIds.add(record.getEmployeeId()));
+        Collections.sort(employeeIds);
+        return employeeIds;
+    }
+}
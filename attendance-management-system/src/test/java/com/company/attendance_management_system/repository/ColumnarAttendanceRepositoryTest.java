@@ -0,0 +1,75 @@
+package com.company.attendance_management_system.repository;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// runs the AttendanceRepositoryTest cases against the columnar backend, plus its own checks
+@Test(groups = "repository")
+public class ColumnarAttendanceRepositoryTest extends AttendanceRepositoryTest {
+
+    @Override
+    protected AttendanceStore newRepository() {
+        return new ColumnarAttendanceRepository();
+    }
+
+    @Test
+    public void viewSetters_writeThroughToColumns() {
+        ColumnarAttendanceRepository repo = new ColumnarAttendanceRepository();
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        LocalDateTime in = day.atTime(9, 15, 30);
+        AttendanceRecord created = repo.createRecord(7, day);
+        created.setClockInTime(in);
+        created.setClockOutTime(in.plusHours(8));
+        created.setHoursWorked(8.0);
+
+        AttendanceRecord read = repo.findRecordByDateAndEmployee(7, day).get();
+        Assert.assertEquals(read.getClockInTime(), in);
+        Assert.assertEquals(read.getClockOutTime(), in.plusHours(8));
+        Assert.assertEquals(read.getHoursWorked(), 8.0);
+        Assert.assertNull(repo.createRecord(7, day.plusDays(1)).getHoursWorked());
+    }
+
+    @Test
+    public void manyRows_growColumnsAndKeepDateOrder() {
+        ColumnarAttendanceRepository repo = new ColumnarAttendanceRepository();
+        LocalDate first = LocalDate.of(2023, 1, 1);
+        // add out of order and across many employees to force growth and re-sorting
+        for (int d = 364; d >= 0; d--) {
+            for (int emp = 0; emp < 10; emp++) {
+                repo.createRecord(emp, first.plusDays(d)).setHoursWorked(d / 100.0);
+            }
+        }
+        Assert.assertEquals(repo.size(), 3650);
+
+        List<AttendanceRecord> march = repo.findRecordsByEmployeeBetween(3, LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 31));
+        Assert.assertEquals(march.size(), 31);
+        List<LocalDate> dates = new ArrayList<>();
+        march.forEach(r -> dates.add(r.getDate()));
+        Assert.assertEquals(dates.get(0), LocalDate.of(2023, 3, 1));
+        Assert.assertEquals(dates.get(30), LocalDate.of(2023, 3, 31));
+        Assert.assertEquals(repo.findRecordsByEmployeeId(3).size(), 365);
+    }
+
+    @Test
+    public void attendanceService_clockInOut_onColumnarStore() throws Exception {
+        EmployeeRepository employees = new EmployeeRepository();
+        employees.addEmployee(new Employee(10, "Col", "col@example.com", "IT"));
+        ColumnarAttendanceRepository repo = new ColumnarAttendanceRepository();
+        AttendanceServiceImpl attendance = new AttendanceServiceImpl(employees, repo);
+
+        AttendanceRecord rec = attendance.clockIn(10);
+        rec.setClockInTime(LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.SECONDS));
+        AttendanceRecord out = attendance.clockOut(10);
+        Assert.assertEquals(out.getHoursWorked(), 2.0, 0.02);
+        Assert.assertEquals(repo.findRecordsByEmployeeId(10).size(), 1);
+    }
+}
@@ -36,4 +36,71 @@ public class EmployeeRepositoryTest {
         Assert.assertTrue(found.isPresent());
         Assert.assertEquals(found.get().getEmployeeId(), 101);
     }
+
+    @Test
+    public void findByEmail_ignoresCase() {
+        repository.addEmployee(new Employee(102, "User Three", "Three@Example.com", "Ops"));
+
+        Assert.assertEquals(repository.findEmployeeByEmail("three@example.COM").get().getEmployeeId(), 102);
+        Assert.assertFalse(repository.findEmployeeByEmail(" three@example.com").isPresent());
+        Assert.assertFalse(repository.findEmployeeByEmail("four@example.com").isPresent());
+        Assert.assertFalse(repository.findEmployeeByEmail(null).isPresent());
+    }
+
+    @Test
+    public void sharedEmail_staysFoundUntilNobodyUsesIt() {
+        // e.g. restored from a journal written before duplicate emails were refused
+        Employee second = new Employee(106, "User Seven", "shared@example.com", "Ops");
+        Employee first = new Employee(105, "User Six", "Shared@example.com", "Ops");
+        repository.addEmployee(second);
+        repository.addEmployee(first);
+        Assert.assertSame(repository.findEmployeeByEmail("shared@example.com").get(), first);
+
+        first.setEmail("six@example.com");
+        Assert.assertSame(repository.findEmployeeByEmail("shared@example.com").get(), second);
+        Assert.assertSame(repository.findEmployeeByEmail("six@example.com").get(), first);
+
+        second.setEmail(null);
+        Assert.assertFalse(repository.findEmployeeByEmail("shared@example.com").isPresent());
+    }
+
+    @Test
+    public void setEmail_onStoredEmployee_movesIndexEntry() {
+        Employee e = new Employee(103, "User Four", "old@example.com", "Ops");
+        repository.addEmployee(e);
+        e.setEmail("new@example.com");
+
+        Assert.assertFalse(repository.findEmployeeByEmail("old@example.com").isPresent());
+        Assert.assertSame(repository.findEmployeeByEmail("NEW@example.com").get(), e);
+    }
+
+    @Test
+    public void replaceAndClear_keepIndexInSync() {
+        Employee first = new Employee(104, "User Five", "five@example.com", "Ops");
+        repository.addEmployee(first);
+        repository.addEmployee(new Employee(104, "User Five", "five.b@example.com", "Ops"));
+        Assert.assertFalse(repository.findEmployeeByEmail("five@example.com").isPresent());
+
+        // the replaced object is detached: changing it no longer touches the index
+        first.setEmail("stale@example.com");
+        Assert.assertFalse(repository.findEmployeeByEmail("stale@example.com").isPresent());
+        Assert.assertTrue(repository.findEmployeeByEmail("five.b@example.com").isPresent());
+
+        repository.clear();
+        Assert.assertFalse(repository.findEmployeeByEmail("five.b@example.com").isPresent());
+    }
+
+    @Test
+    public void exists_followsAddsAndClear() {
+        for (int id = -501; id <= 5000; id += 3) {
+            repository.addEmployee(new Employee(id, "User " + id, "user" + id + "@example.com", "Ops"));
+        }
+        for (int id = -501; id <= 5000; id++) {
+            Assert.assertEquals(repository.exists(id), (id + 501) % 3 == 0, "id " + id);
+        }
+
+        repository.clear();
+        Assert.assertFalse(repository.exists(3));
+        Assert.assertFalse(repository.exists(0));
+    }
 }
@@ -0,0 +1,97 @@
+package com.company.attendance_management_system.repository;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+@Test(groups = "repository")
+public class IdBitmapTest {
+
+    @Test
+    public void randomAddsAndRemoves_matchTreeSet() {
+        IdBitmap bitmap = new IdBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            int id = randomId(random);
+            if (random.nextInt(4) == 0) {
+                Assert.assertEquals(bitmap.remove(id), expected.remove(id));
+            } else {
+                Assert.assertEquals(bitmap.add(id), expected.add(id));
+            }
+        }
+        assertSame(bitmap, expected);
+        for (int i = 0; i < 10_000; i++) {
+            int id = randomId(random);
+            Assert.assertEquals(bitmap.contains(id), expected.contains(id), "id " + id);
+        }
+    }
+
+    @Test
+    public void denseChunk_switchesToBitsAndBack() {
+        IdBitmap bitmap = new IdBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int id = 70_000; id < 80_000; id++) {
+            bitmap.add(id);
+            expected.add(id);
+        }
+        assertSame(bitmap, expected);
+        for (int id = 70_000; id < 79_000; id++) {
+            bitmap.remove(id);
+            expected.remove(id);
+        }
+        assertSame(bitmap, expected);
+        for (int id = 79_000; id < 80_000; id++) {
+            bitmap.remove(id);
+        }
+        Assert.assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    public void andNotAndOr_matchSetOperations() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            IdBitmap a = new IdBitmap();
+            IdBitmap b = new IdBitmap();
+            TreeSet<Integer> setA = new TreeSet<>();
+            TreeSet<Integer> setB = new TreeSet<>();
+            // alternate sparse and dense rounds so both chunk forms meet each other
+            int spread = round % 2 == 0 ? 300_000 : 9_000;
+            for (int i = 0; i < 8_000; i++) {
+                int x = random.nextInt(spread) - 1_000;
+                a.add(x);
+                setA.add(x);
+                int y = random.nextInt(spread) - 1_000;
+                b.add(y);
+                setB.add(y);
+            }
+            TreeSet<Integer> difference = new TreeSet<>(setA);
+            difference.removeAll(setB);
+            assertSame(a.andNot(b), difference);
+            TreeSet<Integer> union = new TreeSet<>(setA);
+            union.addAll(setB);
+            assertSame(a.or(b), union);
+            assertSame(a, setA); // operands untouched
+        }
+    }
+
+    private static int randomId(Random random) {
+        switch (random.nextInt(3)) {
+            case 0: return random.nextInt(6_000);               // one busy chunk
+            case 1: return random.nextInt(5_000_000);           // sparse
+            default: return random.nextInt() | 0x4000_0000;     // anywhere, including negative
+        }
+    }
+
+    private static void assertSame(IdBitmap bitmap, TreeSet<Integer> expected) {
+        int[] ids = bitmap.toArray();
+        Assert.assertEquals(bitmap.cardinality(), expected.size());
+        Assert.assertEquals(ids.length, expected.size());
+        int i = 0;
+        for (int id : expected) {
+            Assert.assertEquals(ids[i++], id);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.company.attendance_management_system.repository;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+@Test(groups = "repository")
+public class LongIntHashMapTest {
+
+    @Test
+    public void randomPutsAndRemoves_matchHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+        Assert.assertEquals(map.size(), expected.size());
+        for (long key = 0; key < 2_000; key++) {
+            Integer value = expected.get(key);
+            Assert.assertEquals(map.get(key), value == null ? LongIntHashMap.MISSING : value.intValue(), "key " + key);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.company.attendance_management_system.repository;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+@Test(groups = "repository")
+public class LongObjectHashMapTest {
+
+    @Test
+    public void randomPutsAndRemoves_matchHashMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(4);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            // negative keys and keys sharing their low bits, as packed (employee, day) keys do
+            long key = ((long) random.nextInt(200) << 32) | (random.nextInt(20) - 10 & 0xFFFFFFFFL);
+            if (random.nextInt(3) == 0) {
+                String current = expected.get(key);
+                Assert.assertEquals(map.remove(key, current), current != null);
+                expected.remove(key);
+            } else {
+                String value = "v" + i;
+                map.put(key, value);
+                expected.put(key, value);
+            }
+        }
+        Assert.assertEquals(map.size(), expected.size());
+        for (Map.Entry<Long, String> entry : expected.entrySet()) {
+            Assert.assertEquals(map.get(entry.getKey()), entry.getValue(), "key " + entry.getKey());
+        }
+        Assert.assertNull(map.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void remove_leavesAReplacedValue() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(4);
+        map.put(7, "old");
+        map.put(7, "new");
+        Assert.assertFalse(map.remove(7, "old"));
+        Assert.assertEquals(map.get(7), "new");
+        Assert.assertTrue(map.remove(7, "new"));
+        Assert.assertNull(map.get(7));
+    }
+}
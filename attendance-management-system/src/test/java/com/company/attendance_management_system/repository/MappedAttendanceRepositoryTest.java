@@ -0,0 +1,187 @@
+package com.company.attendance_management_system.repository;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.persistence.TestFiles;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// runs the AttendanceRepositoryTest cases against the memory-mapped backend, plus its own checks
+@Test(groups = "repository")
+public class MappedAttendanceRepositoryTest extends AttendanceRepositoryTest {
+
+    private final List<Path> dirs = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        for (Path dir : dirs) {
+            TestFiles.deleteRecursively(dir);
+        }
+        dirs.clear();
+    }
+
+    @Override
+    protected AttendanceStore newRepository() {
+        return open(newDir(), 64);
+    }
+
+    @Test
+    public void reopen_keepsRowsIdsAndMonthlyHours() {
+        Path dir = newDir();
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        LocalDateTime in = day.atTime(9, 15, 30);
+        MappedAttendanceRepository repo = open(dir, 4);
+        AttendanceRecord created = repo.createRecord(7, day);
+        created.setClockInTime(in);
+        created.setClockOutTime(in.plusHours(8));
+        created.setHoursWorked(8.0);
+        repo.createRecord(7, day.plusDays(1)).setHoursWorked(1.5);
+        repo.createRecord(8, day);
+        repo.close();
+
+        MappedAttendanceRepository reopened = open(dir, 1024);
+        Assert.assertEquals(reopened.size(), 3);
+        AttendanceRecord read = reopened.findRecordByDateAndEmployee(7, day).get();
+        Assert.assertEquals(read.getRecordId(), created.getRecordId());
+        Assert.assertEquals(read.getClockInTime(), in);
+        Assert.assertEquals(read.getClockOutTime(), in.plusHours(8));
+        Assert.assertEquals(reopened.getMonthlyHours(7, YearMonth.of(2024, 5)), 9.5);
+        Assert.assertNull(reopened.findRecordByDateAndEmployee(8, day).get().getHoursWorked());
+        // the index by day is rebuilt from the rows
+        List<Integer> onDay = new ArrayList<>();
+        reopened.forEachRecordOn(day, record -> onDay.add(record.getEmployeeId()));
+        Assert.assertEquals(onDay, List.of(7, 8));
+        Assert.assertEquals(reopened.createRecord(9, day).getRecordId(), 4);
+    }
+
+    @Test
+    public void outOfOrderDays_acrossSegments_keepDateOrder() {
+        MappedAttendanceRepository repo = open(newDir(), 16);
+        LocalDate first = LocalDate.of(2023, 1, 1);
+        // every other day first, then the gaps, so rows are linked in between existing ones
+        for (int pass = 0; pass < 2; pass++) {
+            for (int d = 364 - pass; d >= 0; d -= 2) {
+                for (int emp = 0; emp < 10; emp++) {
+                    repo.createRecord(emp, first.plusDays(d)).setHoursWorked(1.0);
+                }
+            }
+        }
+        Assert.assertEquals(repo.size(), 3650);
+
+        List<AttendanceRecord> march = repo.findRecordsByEmployeeBetween(3, LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 31));
+        Assert.assertEquals(march.size(), 31);
+        for (int i = 0; i < march.size(); i++) {
+            Assert.assertEquals(march.get(i).getDate(), LocalDate.of(2023, 3, 1 + i));
+        }
+        Assert.assertEquals(repo.findRecordsByEmployeeId(3).size(), 365);
+        Assert.assertEquals(repo.getMonthlyHours(3, YearMonth.of(2023, 2)), 28.0);
+        Assert.assertEquals(repo.getMonthlyHoursForAll(YearMonth.of(2023, 2)).get(9), 28.0);
+    }
+
+    @Test
+    public void addRecord_onAnotherDay_movesTheRow() {
+        MappedAttendanceRepository repo = open(newDir(), 64);
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        repo.createRecord(7, day.minusDays(1));
+        AttendanceRecord moved = repo.createRecord(7, day);
+        repo.createRecord(7, day.plusDays(1));
+
+        repo.addRecord(new AttendanceRecord(moved.getRecordId(), 7, day.plusDays(5)));
+        Assert.assertEquals(repo.size(), 3);
+        Assert.assertFalse(repo.findRecordByDateAndEmployee(7, day).isPresent());
+        Assert.assertEquals(repo.findRecordByDateAndEmployee(7, day.plusDays(5)).get().getRecordId(), moved.getRecordId());
+        Assert.assertEquals(repo.findRecordsByEmployeeId(7).get(2).getDate(), day.plusDays(5));
+    }
+
+    @Test
+    public void scans_neverMixTwoRecordsInOneRow() throws Exception {
+        MappedAttendanceRepository repo = open(newDir(), 64);
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        // the record id says whose record it is and for which day; every refill puts other employees in each row
+        AtomicBoolean done = new AtomicBoolean();
+        Thread refills = new Thread(() -> {
+            for (int round = 0; !done.get(); round++) {
+                repo.clear();
+                for (int i = 0; i < 8; i++) {
+                    int emp = (round + i) % 8;
+                    for (int d = 0; d < 50; d++) {
+                        repo.addRecord(new AttendanceRecord(emp * 1000 + d + 1, emp, first.plusDays(d)));
+                    }
+                }
+            }
+        });
+        refills.start();
+        List<String> mixed = new ArrayList<>();
+        try {
+            long until = System.nanoTime() + 300_000_000L;
+            while (System.nanoTime() < until && mixed.isEmpty()) {
+                Consumer<AttendanceRecord> check = record -> {
+                    long d = ChronoUnit.DAYS.between(first, record.getDate());
+                    if (record.getRecordId() != record.getEmployeeId() * 1000 + d + 1) {
+                        mixed.add(record.getRecordId() + " for " + record.getEmployeeId() + " on " + record.getDate());
+                    }
+                };
+                repo.forEachRecord(check);
+                repo.getAllRecords().forEach(check);
+            }
+        } finally {
+            done.set(true);
+            refills.join();
+        }
+        Assert.assertEquals(mixed, List.of());
+    }
+
+    @Test
+    public void attendanceService_clockInOut_survivesReopen() throws Exception {
+        Path dir = newDir();
+        EmployeeRepository employees = new EmployeeRepository();
+        employees.addEmployee(new Employee(10, "Map", "map@example.com", "IT"));
+        MappedAttendanceRepository repo = open(dir, 64);
+        AttendanceServiceImpl attendance = new AttendanceServiceImpl(employees, repo);
+
+        AttendanceRecord rec = attendance.clockIn(10);
+        rec.setClockInTime(LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.SECONDS));
+        attendance.clockOut(10);
+        repo.close();
+
+        MappedAttendanceRepository reopened = open(dir, 64);
+        AttendanceServiceImpl restarted = new AttendanceServiceImpl(employees, reopened);
+        List<AttendanceRecord> history = reopened.findRecordsByEmployeeId(10);
+        Assert.assertEquals(history.size(), 1);
+        Assert.assertEquals(history.get(0).getHoursWorked(), 2.0, 0.02);
+        Assert.assertTrue(restarted.getEmployeesClockedIn(history.get(0).getDate()).contains(10));
+    }
+
+    private Path newDir() {
+        try {
+            Path dir = Files.createTempDirectory("mapped-test");
+            dirs.add(dir);
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedAttendanceRepository open(Path dir, int rowsPerSegment) {
+        try {
+            return MappedAttendanceRepository.open(dir, rowsPerSegment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
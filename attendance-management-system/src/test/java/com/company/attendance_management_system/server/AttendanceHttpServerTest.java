@@ -0,0 +1,233 @@
+package com.company.attendance_management_system.server;
+
+import com.company.attendance_management_system.json.Json;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.service.*;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Test(groups = "server")
+public class AttendanceHttpServerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 4);
+
+    private EmployeeRepository employeeRepository;
+    private AttendanceHttpServer server;
+    private HttpClient client;
+    private String base;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        employeeRepository = new EmployeeRepository();
+        AttendanceRepository attendanceRepository = new AttendanceRepository();
+        // clock-ins at 09:00, so clock-outs land on the same day
+        Clock clock = Clock.fixed(ZonedDateTime.of(DAY.atTime(9, 0), ZONE).toInstant(), ZONE);
+        EmployeeService employees = new EmployeeServiceImpl(employeeRepository);
+        DailyPresence presence = new DailyPresence();
+        AttendanceService attendance = new AttendanceServiceImpl(employeeRepository, attendanceRepository, clock, presence);
+        LeaveService leaves = new LeaveServiceImpl(employeeRepository, presence);
+        employees.addEmployee(new Employee(1, "Alice", "alice@company.com", "Dev"));
+        server = new AttendanceHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                employees, attendance, leaves, new ReportService(attendance, employees));
+        server.start();
+        base = "http://localhost:" + server.getAddress().getPort();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void addEmployee_thenFetch() throws Exception {
+        HttpResponse<String> created = post("/employees",
+                "{\"employeeId\": 2, \"name\": \"Bob \\\"B\\\"\", \"email\": \"bob@company.com\", \"department\": \"Ops\"}");
+        Assert.assertEquals(created.statusCode(), 201);
+
+        HttpResponse<String> fetched = get("/employees/2");
+        Assert.assertEquals(fetched.statusCode(), 200);
+        Assert.assertEquals(fetched.body(),
+                "{\"employeeId\":2,\"name\":\"Bob \\\"B\\\"\",\"email\":\"bob@company.com\",\"department\":\"Ops\"}");
+        Assert.assertEquals(employeeRepository.findEmployeeById(2).get().getName(), "Bob \"B\"");
+    }
+
+    @Test
+    public void duplicateEmployee_is409() throws Exception {
+        HttpResponse<String> response = post("/employees",
+                "{\"employeeId\": 1, \"name\": \"Again\", \"email\": \"x@company.com\"}");
+        Assert.assertEquals(response.statusCode(), 409);
+        Assert.assertTrue(response.body().contains("ID already exists"));
+    }
+
+    @Test
+    public void clockInTwice_secondIs409() throws Exception {
+        HttpResponse<String> first = post("/attendance/1/clock-in", "");
+        Assert.assertEquals(first.statusCode(), 200);
+        Assert.assertTrue(first.body().contains("\"clockIn\":\"2024-03-04T09:00\""));
+
+        Assert.assertEquals(post("/attendance/1/clock-in", "").statusCode(), 409);
+        HttpResponse<String> day = get("/attendance/1?date=" + DAY);
+        Assert.assertEquals(day.statusCode(), 200);
+        Assert.assertTrue(day.body().contains("\"date\":\"2024-03-04\""));
+    }
+
+    @Test
+    public void errors_mapToStatusCodes() throws Exception {
+        Assert.assertEquals(post("/attendance/99/clock-in", "").statusCode(), 404);
+        Assert.assertEquals(get("/employees/abc").statusCode(), 400);
+        Assert.assertEquals(get("/nowhere").statusCode(), 404);
+        Assert.assertEquals(get("/attendance/1/clock-in").statusCode(), 405);
+        Assert.assertEquals(get("/reports/monthly-hours").statusCode(), 400);
+        Assert.assertEquals(get("/reports/monthly-hours?month=March").statusCode(), 400);
+        Assert.assertEquals(post("/employees", "{not json").statusCode(), 400);
+    }
+
+    @Test
+    public void leaveLifecycle() throws Exception {
+        HttpResponse<String> filed = post("/leaves",
+                "{\"employeeId\": 1, \"startDate\": \"2024-03-10\", \"endDate\": \"2024-03-12\", \"reason\": \"trip\"}");
+        Assert.assertEquals(filed.statusCode(), 201);
+        Assert.assertTrue(filed.body().contains("\"status\":\"PENDING\""));
+
+        Assert.assertEquals(post("/leaves/1/approve", "").statusCode(), 204);
+        Assert.assertEquals(post("/leaves/1/reject", "").statusCode(), 409);
+        Assert.assertEquals(post("/leaves/99/reject", "").statusCode(), 404);
+        HttpResponse<String> list = get("/employees/1/leaves");
+        Assert.assertEquals(list.statusCode(), 200);
+        Assert.assertTrue(list.body().contains("\"status\":\"APPROVED\""));
+
+        Assert.assertEquals(get("/leaves?date=2024-03-12").body(), "[1]");
+        Assert.assertEquals(get("/leaves?date=2024-03-13").body(), "[]");
+        Assert.assertEquals(post("/leaves",
+                "{\"employeeId\": 1, \"startDate\": \"2024-04-01\", \"endDate\": \"2024-04-02\"}").statusCode(), 201);
+        HttpResponse<String> queue = get("/leaves/pending?department=Dev&limit=1");
+        Assert.assertEquals(queue.statusCode(), 200);
+        Assert.assertTrue(queue.body().startsWith("{\"department\":\"Dev\",\"total\":1,\"requests\":[{"), queue.body());
+        Assert.assertTrue(queue.body().endsWith(",\"next\":2}"), queue.body());
+        Assert.assertTrue(get("/leaves/pending?department=Dev&after=2").body().contains("\"requests\":[]"));
+        Assert.assertEquals(post("/leaves/approve", "[2, 1, 99]").body(),
+                "[{\"requestId\":2,\"outcome\":\"APPLIED\",\"status\":\"APPROVED\"},"
+                        + "{\"requestId\":1,\"outcome\":\"ALREADY_DECIDED\",\"status\":\"APPROVED\"},"
+                        + "{\"requestId\":99,\"outcome\":\"NOT_FOUND\",\"status\":null}]");
+        Assert.assertEquals(get("/presence?date=2024-03-12").body(),
+                "{\"date\":\"2024-03-12\",\"clockedIn\":[],\"stillIn\":[],\"absent\":[]}");
+        Assert.assertEquals(post("/leaves",
+                "{\"employeeId\": 1, \"startDate\": \"2024-03-11\", \"endDate\": \"2024-03-11\"}").statusCode(), 400);
+    }
+
+    @Test
+    public void keepAlive_approveThenReject_onOneConnection() throws Exception {
+        String leave = "{\"employeeId\": 1, \"startDate\": \"2024-03-%d\", \"endDate\": \"2024-03-%d\"}";
+        Assert.assertEquals(post("/leaves", String.format(leave, 10, 12)).statusCode(), 201);
+        Assert.assertEquals(post("/leaves", String.format(leave, 20, 21)).statusCode(), 201);
+
+        // raw socket, so both requests are certain to share the connection; each carries a body the handler never reads
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getAddress().getPort())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out.write(rawPost("/leaves/1/approve"));
+            Assert.assertEquals(readStatusLine(in), "HTTP/1.1 204 No Content");
+            out.write(rawPost("/leaves/2/reject"));
+            Assert.assertEquals(readStatusLine(in), "HTTP/1.1 204 No Content");
+        }
+        String list = get("/employees/1/leaves").body();
+        Assert.assertTrue(list.contains("\"status\":\"APPROVED\""));
+        Assert.assertTrue(list.contains("\"status\":\"REJECTED\""));
+    }
+
+    @Test
+    public void reports_returnMonthTotals() throws Exception {
+        post("/attendance/1/clock-in", "");
+        post("/attendance/1/clock-out", "");
+        String month = YearMonth.from(DAY).toString();
+
+        HttpResponse<String> one = get("/reports/monthly-hours?month=" + month + "&employeeId=1");
+        Assert.assertEquals(one.body(), "{\"employeeId\":1,\"month\":\"2024-03\",\"hours\":0.0}");
+        Assert.assertEquals(get("/reports/department-hours?month=" + month).statusCode(), 200);
+    }
+
+    @Test
+    public void metrics_areServedAsText() throws Exception {
+        post("/attendance/1/clock-in", "");
+
+        HttpResponse<String> metrics = get("/metrics");
+        Assert.assertEquals(metrics.statusCode(), 200);
+        Assert.assertTrue(metrics.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+        Assert.assertTrue(metrics.body().contains("attendanceService.clockIn"), metrics.body());
+    }
+
+    @Test
+    public void concurrentClients_eachGetTheirOwnAnswer() throws Exception {
+        for (int id = 2; id <= 50; id++) {
+            employeeRepository.addEmployee(new Employee(id, "Emp " + id, "emp" + id + "@company.com", "Ops"));
+        }
+        List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+        for (int id = 1; id <= 50; id++) {
+            calls.add(client.sendAsync(request("/attendance/" + id + "/clock-in")
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (int i = 0; i < calls.size(); i++) {
+            HttpResponse<String> response = calls.get(i).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(response.statusCode(), 200);
+            Map<String, String> record = Json.parseObject(response.body());
+            Assert.assertEquals(record.get("employeeId"), String.valueOf(i + 1));
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(request(path).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static byte[] rawPost(String path) {
+        return ("POST " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: 2\r\n\r\n{}")
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // status line of a bodiless response, skipping its headers
+    private static String readStatusLine(BufferedReader in) throws Exception {
+        String status = in.readLine();
+        for (String header = in.readLine(); header != null && !header.isEmpty(); header = in.readLine()) {
+            // skip
+        }
+        return status;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(10));
+    }
+}
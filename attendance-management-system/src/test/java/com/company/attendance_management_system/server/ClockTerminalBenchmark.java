@@ -0,0 +1,127 @@
+package com.company.attendance_management_system.server;
+
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.persistence.DurableStore;
+import com.company.attendance_management_system.persistence.TestFiles;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import com.company.attendance_management_system.service.LeaveServiceImpl;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.company.attendance_management_system.server.ClockTerminalProtocol.*;
+
+// binary protocol throughput: T terminals each own a block of employees and stream their
+// clock-ins and clock-outs day after day, keeping W frames in flight, in memory and with --data-dir storage.
+// a load harness rather than a JMH benchmark: it measures the whole server (selector, pipelining,
+// group commit) under T concurrent socket clients and fails on any refused tap; the tap path itself
+// is measured in the benchmarks project (AttendanceBenchmarks, IngestBenchmarks).
+// run with:
+//   mvn -q test-compile
+//   java -cp target/classes:target/test-classes \
+//       com.company.attendance_management_system.server.ClockTerminalBenchmark 16 1000 20 256
+// args: [terminals] [employees per terminal] [days] [frames in flight]
+public class ClockTerminalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int terminals = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int perTerminal = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int days = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int window = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+        for (boolean durable : new boolean[]{false, true}) {
+            run(terminals, perTerminal, Math.max(1, days / 4), window, durable); // warm up
+            long events = (long) terminals * perTerminal * days * 2;
+            double seconds = run(terminals, perTerminal, days, window, durable);
+            System.out.printf("%-9s %,d events from %d terminals: %.2f s, %,.0f events/s%n",
+                    durable ? "durable" : "in-memory", events, terminals, seconds, events / seconds);
+        }
+    }
+
+    private static double run(int terminals, int perTerminal, int days, int window, boolean durable) throws Exception {
+        EmployeeRepository er = new EmployeeRepository();
+        AttendanceRepository ar = new AttendanceRepository();
+        List<Employee> staff = new ArrayList<>();
+        for (int id = 1; id <= terminals * perTerminal; id++) {
+            staff.add(new Employee(id, "Emp " + id, "emp" + id + "@example.com", "Ops"));
+        }
+        er.addEmployees(staff);
+        Path dir = Files.createTempDirectory("terminal-bench");
+        DurableStore store = durable ? DurableStore.open(dir, er, ar, new LeaveServiceImpl(er)) : null;
+        AttendanceServiceImpl attendance = new AttendanceServiceImpl(er, ar);
+        AtomicLong failures = new AtomicLong();
+        long start;
+        try (ClockTerminalServer server = new ClockTerminalServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), attendance)) {
+            server.start();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < terminals; t++) {
+                int firstId = t * perTerminal + 1;
+                threads.add(new Thread(() -> terminal(server.getAddress(), firstId, perTerminal, days, window, failures)));
+            }
+            start = System.nanoTime();
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) thread.join();
+        } finally {
+            if (store != null) store.close();
+            TestFiles.deleteRecursively(dir);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " taps were not accepted");
+        }
+        return seconds;
+    }
+
+    // one terminal: every day, clock each of its employees in at 09:00 and out at 17:00
+    private static void terminal(InetSocketAddress address, int firstId, int employees, int days, int window,
+                                 AtomicLong failures) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = LocalDate.now().minusDays(days + 1);
+        ByteBuffer out = ByteBuffer.allocate(window * REQUEST_BYTES);
+        ByteBuffer in = ByteBuffer.allocate(window);
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            int inFlight = 0;
+            for (int day = 0; day < days; day++) {
+                long nine = firstDay.plusDays(day).atTime(9, 0).atZone(zone).toInstant().toEpochMilli();
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int i = 0; i < employees; i++) {
+                        putRequest(out, firstId + i, pass == 0 ? CLOCK_IN : CLOCK_OUT, nine + pass * 8 * 3_600_000L + i);
+                        if (++inFlight == window) {
+                            exchange(channel, out, in, inFlight, failures);
+                            inFlight = 0;
+                        }
+                    }
+                }
+            }
+            if (inFlight > 0) exchange(channel, out, in, inFlight, failures);
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            e.printStackTrace();
+        }
+    }
+
+    private static void exchange(SocketChannel channel, ByteBuffer out, ByteBuffer in, int frames,
+                                 AtomicLong failures) throws Exception {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+        in.clear().limit(frames);
+        while (in.hasRemaining()) {
+            if (channel.read(in) < 0) throw new IllegalStateException("server closed the connection");
+        }
+        for (int i = 0; i < frames; i++) {
+            if (in.get(i) != OK) failures.incrementAndGet();
+        }
+    }
+}
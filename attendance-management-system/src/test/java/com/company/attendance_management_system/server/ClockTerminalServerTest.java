@@ -0,0 +1,215 @@
+package com.company.attendance_management_system.server;
+
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.persistence.DurableStore;
+import com.company.attendance_management_system.persistence.TestFiles;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import com.company.attendance_management_system.service.LeaveServiceImpl;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.company.attendance_management_system.server.ClockTerminalProtocol.*;
+
+@Test(groups = "server")
+public class ClockTerminalServerTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 4);
+
+    private EmployeeRepository employeeRepository;
+    private AttendanceRepository attendanceRepository;
+    private AttendanceServiceImpl attendance;
+    private ClockTerminalServer server;
+    private SocketChannel terminal;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        employeeRepository = new EmployeeRepository();
+        attendanceRepository = new AttendanceRepository();
+        for (int id = 1; id <= 100; id++) {
+            employeeRepository.addEmployee(new Employee(id, "Emp " + id, "emp" + id + "@company.com", "Ops"));
+        }
+        attendance = new AttendanceServiceImpl(employeeRepository, attendanceRepository, Clock.system(ZONE));
+        server = new ClockTerminalServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), attendance);
+        server.start();
+        terminal = SocketChannel.open(server.getAddress());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        terminal.close();
+        server.close();
+    }
+
+    @Test
+    public void pipelinedFrames_answeredInOrder() throws Exception {
+        ByteBuffer out = ByteBuffer.allocate(6 * REQUEST_BYTES);
+        putRequest(out, 1, CLOCK_IN, millis(9, 0));
+        putRequest(out, 1, CLOCK_IN, millis(9, 1));     // double tap
+        putRequest(out, 99_999, CLOCK_IN, millis(9, 2)); // nobody
+        putRequest(out, 1, (byte) 7, millis(9, 3));      // unknown op
+        putRequest(out, 2, CLOCK_OUT, millis(9, 4));     // never clocked in
+        putRequest(out, 1, CLOCK_OUT, millis(17, 30));
+        send(out);
+
+        Assert.assertEquals(receive(6), new byte[]{OK, REJECTED, UNKNOWN_EMPLOYEE, BAD_REQUEST, REJECTED, OK});
+        AttendanceRecord record = attendanceRepository.findRecordByDateAndEmployee(1, DAY).orElseThrow();
+        Assert.assertEquals(record.getClockInTime(), DAY.atTime(9, 0));
+        Assert.assertEquals(record.getClockOutTime(), DAY.atTime(17, 30));
+        Assert.assertEquals(record.getHoursWorked(), 8.5);
+    }
+
+    @Test
+    public void frameSplitAcrossWrites_isReassembled() throws Exception {
+        ByteBuffer out = ByteBuffer.allocate(REQUEST_BYTES);
+        putRequest(out, 3, CLOCK_IN, millis(8, 15));
+        out.flip();
+        for (int i = 0; i < REQUEST_BYTES; i += 4) {
+            ByteBuffer piece = out.duplicate();
+            piece.position(i).limit(Math.min(i + 4, REQUEST_BYTES));
+            terminal.write(piece);
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(receive(1), new byte[]{OK});
+        Assert.assertEquals(attendanceRepository.findRecordByDateAndEmployee(3, DAY).orElseThrow().getClockInTime(),
+                DAY.atTime(8, 15));
+    }
+
+    @Test
+    public void wrongFrameLength_answersTheFramesBefore_thenClosesTheConnection() throws Exception {
+        ByteBuffer out = ByteBuffer.allocate(3 * REQUEST_BYTES);
+        putRequest(out, 1, CLOCK_IN, millis(9, 0));
+        out.putShort((short) 99).putInt(2).put(CLOCK_IN).putLong(millis(9, 0));
+        putRequest(out, 3, CLOCK_IN, millis(9, 0)); // after the bad frame: never read
+        send(out);
+
+        Assert.assertEquals(receive(1), new byte[]{OK});
+        Assert.assertEquals(terminal.read(ByteBuffer.allocate(1)), -1);
+        Assert.assertEquals(attendanceRepository.getAllRecords().size(), 1);
+        Assert.assertTrue(attendanceRepository.findRecordByDateAndEmployee(1, DAY).isPresent());
+    }
+
+    @Test
+    public void tapTimeOutOfRange_isABadRequest() throws Exception {
+        ByteBuffer out = ByteBuffer.allocate(3 * REQUEST_BYTES);
+        putRequest(out, 1, CLOCK_IN, Long.MAX_VALUE);
+        putRequest(out, 1, CLOCK_OUT, Long.MIN_VALUE);
+        putRequest(out, 1, CLOCK_IN, millis(9, 0));
+        send(out);
+
+        Assert.assertEquals(receive(3), new byte[]{BAD_REQUEST, BAD_REQUEST, OK});
+        Assert.assertEquals(attendanceRepository.getAllRecords().size(), 1);
+    }
+
+    @Test
+    public void manyTerminals_eachGetTheirOwnStatuses() throws Exception {
+        SocketChannel[] terminals = new SocketChannel[10];
+        try {
+            for (int t = 0; t < terminals.length; t++) {
+                terminals[t] = SocketChannel.open(server.getAddress());
+                ByteBuffer out = ByteBuffer.allocate(20 * REQUEST_BYTES);
+                for (int e = 1; e <= 10; e++) {
+                    int id = t * 10 + e;
+                    putRequest(out, id, CLOCK_IN, millis(9, e));
+                    putRequest(out, id, CLOCK_IN, millis(9, e)); // every second tap is a duplicate
+                }
+                out.flip();
+                while (out.hasRemaining()) terminals[t].write(out);
+            }
+            for (SocketChannel t : terminals) {
+                byte[] statuses = receive(t, 20);
+                for (int i = 0; i < statuses.length; i++) {
+                    Assert.assertEquals(statuses[i], i % 2 == 0 ? OK : REJECTED);
+                }
+            }
+        } finally {
+            for (SocketChannel t : terminals) {
+                if (t != null) t.close();
+            }
+        }
+        Assert.assertEquals(attendanceRepository.getAllRecords().size(), 100);
+    }
+
+    @Test
+    public void durableStore_journalsARoundWithOneFlush() throws Exception {
+        Path dir = Files.createTempDirectory("terminal-durable");
+        try (DurableStore store = DurableStore.open(dir, employeeRepository, attendanceRepository,
+                new LeaveServiceImpl(employeeRepository))) {
+            long before = store.getLog().getSyncCount();
+            ByteBuffer out = ByteBuffer.allocate(100 * REQUEST_BYTES);
+            for (int id = 1; id <= 100; id++) {
+                putRequest(out, id, CLOCK_IN, millis(9, 0));
+            }
+            send(out);
+            byte[] statuses = receive(100);
+            for (byte status : statuses) Assert.assertEquals(status, OK);
+            // the frames may arrive over a few reads, but never one flush per tap
+            Assert.assertTrue(store.getLog().getSyncCount() - before < 100);
+        } finally {
+            TestFiles.deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void refusedRound_answersError_andTheRetryIsAccepted() throws Exception {
+        // a journal that cannot write the first round
+        AtomicBoolean refusing = new AtomicBoolean(true);
+        attendanceRepository.addListener(record -> {
+            if (refusing.getAndSet(false)) throw new UncheckedIOException(new IOException("disk full"));
+        });
+        ByteBuffer out = ByteBuffer.allocate(REQUEST_BYTES);
+        putRequest(out, 1, CLOCK_IN, millis(9, 0));
+        send(out);
+        Assert.assertEquals(receive(1), new byte[]{ERROR});
+        Assert.assertFalse(attendance.getEmployeesClockedIn(DAY).contains(1));
+
+        out.clear();
+        putRequest(out, 1, CLOCK_IN, millis(9, 0));
+        send(out);
+        Assert.assertEquals(receive(1), new byte[]{OK});
+        Assert.assertEquals(attendanceRepository.findRecordByDateAndEmployee(1, DAY).orElseThrow().getClockInTime(),
+                DAY.atTime(9, 0));
+    }
+
+    private static long millis(int hour, int minute) {
+        return LocalDateTime.of(DAY.getYear(), DAY.getMonth(), DAY.getDayOfMonth(), hour, minute)
+                .atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private void send(ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) terminal.write(out);
+    }
+
+    private byte[] receive(int count) throws IOException {
+        return receive(terminal, count);
+    }
+
+    private static byte[] receive(SocketChannel channel, int count) throws IOException {
+        ByteBuffer in = ByteBuffer.allocate(count);
+        while (in.hasRemaining()) {
+            if (channel.read(in) < 0) throw new IOException("closed after " + in.position() + " statuses");
+        }
+        return in.array();
+    }
+}
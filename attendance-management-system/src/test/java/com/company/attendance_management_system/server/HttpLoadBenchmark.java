@@ -0,0 +1,359 @@
+package com.company.attendance_management_system.server;
+
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.service.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+// load test for the HTTP front end: holds N keep-alive connections open at once, each one a
+// terminal for its own employee that registers the employee (409 if already there), clocks in
+// and then polls its record (and now and then its month's hours) with a think time between requests. all connections are driven by one
+// NIO selector thread, so the client itself needs no thread per connection.
+// reports throughput, latency percentiles and failures (5xx, dropped or refused connections).
+// throughput and latency cover the steady state, from one think time after the last connection
+// opened (the connect burst, the clock-ins and JIT warm-up come before); failures count throughout.
+// a load harness rather than a JMH benchmark: what it measures is the server under N concurrent
+// connections held for minutes, often in another process, and any failure fails the run (exit code),
+// none of which fits JMH's repeated timing of one operation; the code paths themselves are in the
+// benchmarks project.
+// run with:
+//   mvn -q test-compile
+//   java -cp target/classes:target/test-classes \
+//       com.company.attendance_management_system.server.HttpLoadBenchmark 10000 60 1000
+// args: [connections] [seconds] [think ms] [host:port]. without host:port an in-memory server is
+// started in this JVM. each connection takes one file descriptor on both sides, so raise
+// `ulimit -n` (and for more than ~28k connections to one address, the local port range)
+// accordingly, or point this at a server in another process (App --http=<port>).
+public class HttpLoadBenchmark {
+
+    // connects in flight at once, so the server's accept backlog never overflows
+    private static final int MAX_PENDING_CONNECTS = 512;
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int thinkMillis = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        AttendanceHttpServer embedded = null;
+        InetSocketAddress target;
+        if (args.length > 3) {
+            String[] hostPort = args[3].split(":");
+            target = new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1]));
+        } else {
+            embedded = startEmbedded();
+            target = embedded.getAddress();
+            System.out.println("Embedded server on port " + target.getPort()
+                    + (embedded.usesVirtualThreads() ? " (virtual threads)" : " (platform thread pool)"));
+        }
+        try {
+            Stats stats = new LoadClient(target, connections, thinkMillis).run(seconds);
+            stats.print(System.out);
+            if (stats.failed() > 0 || stats.count == 0) {
+                System.exit(1);
+            }
+        } finally {
+            if (embedded != null) embedded.close();
+        }
+    }
+
+    private static AttendanceHttpServer startEmbedded() throws Exception {
+        EmployeeRepository employeeRepository = new EmployeeRepository();
+        AttendanceRepository attendanceRepository = new AttendanceRepository();
+        EmployeeService employeeService = new EmployeeServiceImpl(employeeRepository);
+        AttendanceService attendance = new AttendanceServiceImpl(employeeRepository, attendanceRepository);
+        AttendanceHttpServer server = new AttendanceHttpServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), employeeService, attendance,
+                new LeaveServiceImpl(employeeRepository), new ReportService(attendance, employeeService));
+        server.start();
+        return server;
+    }
+
+    // ---- client ----
+
+    private static final class Connection {
+        final int employeeId;
+        SocketChannel channel;
+        boolean connecting;
+        final ByteBuffer in = ByteBuffer.allocate(4096);
+        ByteBuffer out;
+        int sent;
+        long sentAt;
+        long dueAt;
+
+        Connection(int employeeId) {
+            this.employeeId = employeeId;
+        }
+    }
+
+    private static final class LoadClient {
+        private final InetSocketAddress target;
+        private final int thinkNanos;
+        private final Selector selector;
+        private final Connection[] connections;
+        private final PriorityQueue<Connection> due = new PriorityQueue<>(Comparator.comparingLong(c -> c.dueAt));
+        private final Stats stats = new Stats();
+        private final String today = LocalDate.now().toString();
+        private final String month = YearMonth.now().toString();
+        private long measureFrom = Long.MAX_VALUE;
+        private int pendingConnects;
+        private int nextToOpen;
+        private int open;
+
+        LoadClient(InetSocketAddress target, int connections, int thinkMillis) throws IOException {
+            this.target = target;
+            this.thinkNanos = Math.max(1, thinkMillis) * 1_000_000;
+            this.selector = Selector.open();
+            this.connections = new Connection[connections];
+            for (int i = 0; i < connections; i++) {
+                this.connections[i] = new Connection(i + 1);
+            }
+        }
+
+        Stats run(int seconds) throws IOException {
+            long start = System.nanoTime();
+            long deadline = start + seconds * 1_000_000_000L;
+            try {
+                while (System.nanoTime() < deadline) {
+                    while (nextToOpen < connections.length && pendingConnects < MAX_PENDING_CONNECTS) {
+                        connect(connections[nextToOpen++]);
+                    }
+                    if (stats.rampMillis < 0 && open == connections.length) {
+                        stats.rampMillis = (System.nanoTime() - start) / 1_000_000;
+                        measureFrom = System.nanoTime() + thinkNanos;
+                    }
+                    long now = System.nanoTime();
+                    while (!due.isEmpty() && due.peek().dueAt <= now) {
+                        send(due.poll(), now);
+                    }
+                    long wait = due.isEmpty() ? 10 : Math.max(1, (due.peek().dueAt - now) / 1_000_000);
+                    selector.select(Math.min(wait, 10));
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+                    stats.peakOpen = Math.max(stats.peakOpen, open);
+                }
+            } finally {
+                stats.measuredNanos = Math.max(0, System.nanoTime() - measureFrom);
+                stats.openAtEnd = open;
+                for (Connection c : connections) {
+                    if (c.channel != null) c.channel.close();
+                }
+                selector.close();
+            }
+            return stats;
+        }
+
+        private void connect(Connection c) throws IOException {
+            c.channel = SocketChannel.open();
+            c.channel.configureBlocking(false);
+            c.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            c.in.clear();
+            c.out = null;
+            c.connecting = true;
+            pendingConnects++;
+            if (c.channel.connect(target)) {
+                connected(c, c.channel.register(selector, 0, c));
+            } else {
+                c.channel.register(selector, SelectionKey.OP_CONNECT, c);
+            }
+        }
+
+        private void connected(Connection c, SelectionKey key) {
+            c.connecting = false;
+            pendingConnects--;
+            open++;
+            key.interestOps(SelectionKey.OP_READ);
+            // spread the first requests over one think time so the fleet doesn't fire in lockstep
+            schedule(c, System.nanoTime() + ThreadLocalRandom.current().nextLong(thinkNanos));
+        }
+
+        private void handle(SelectionKey key) {
+            Connection c = (Connection) key.attachment();
+            try {
+                if (key.isConnectable()) {
+                    c.channel.finishConnect();
+                    connected(c, key);
+                    return;
+                }
+                if (key.isWritable()) {
+                    c.channel.write(c.out);
+                    if (!c.out.hasRemaining()) key.interestOps(SelectionKey.OP_READ);
+                }
+                if (key.isReadable()) {
+                    if (c.channel.read(c.in) < 0) {
+                        throw new IOException("closed by server");
+                    }
+                    int status = parseStatusIfComplete(c.in);
+                    if (status > 0) {
+                        long now = System.nanoTime();
+                        stats.record(status, (now - c.sentAt) / 1000, c.sentAt >= measureFrom);
+                        c.in.clear();
+                        c.out = null;
+                        // next request after the think time, give or take half of it
+                        schedule(c, now + thinkNanos / 2 + ThreadLocalRandom.current().nextLong(thinkNanos));
+                    }
+                }
+            } catch (IOException e) {
+                fail(c, key, e);
+            }
+        }
+
+        private void send(Connection c, long now) {
+            // skip connections that are (re)connecting or still waiting for their last answer
+            if (c.channel == null || c.connecting || c.out != null) return;
+            SelectionKey key = c.channel.keyFor(selector);
+            try {
+                c.out = ByteBuffer.wrap(nextRequest(c).getBytes(StandardCharsets.US_ASCII));
+                c.sentAt = now;
+                c.sent++;
+                c.channel.write(c.out);
+                if (c.out.hasRemaining()) key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            } catch (IOException e) {
+                fail(c, key, e);
+            }
+        }
+
+        // the terminal's script: register its employee, clock in once, then poll today's record,
+        // every tenth call the month's hours
+        private String nextRequest(Connection c) {
+            String host = "Host: " + target.getHostString() + ":" + target.getPort() + "\r\n";
+            int id = c.employeeId;
+            if (c.sent == 0) {
+                String body = "{\"employeeId\": " + id + ", \"name\": \"Emp " + id + "\", \"email\": \"emp" + id
+                        + "@example.com\", \"department\": \"Dept " + (id % 20) + "\"}";
+                return "POST /employees HTTP/1.1\r\n" + host + "Content-Type: application/json\r\n"
+                        + "Content-Length: " + body.length() + "\r\n\r\n" + body;
+            }
+            if (c.sent == 1) {
+                return "POST /attendance/" + id + "/clock-in HTTP/1.1\r\n" + host + "Content-Length: 0\r\n\r\n";
+            }
+            String path = c.sent % 10 == 0
+                    ? "/reports/monthly-hours?month=" + month + "&employeeId=" + id
+                    : "/attendance/" + id + "?date=" + today;
+            return "GET " + path + " HTTP/1.1\r\n" + host + "\r\n";
+        }
+
+        // a dropped connection counts as an error; the terminal reconnects and carries on
+        private void fail(Connection c, SelectionKey key, IOException e) {
+            stats.ioErrors++;
+            if (stats.firstError == null) stats.firstError = e.toString();
+            if (key != null) key.cancel();
+            try {
+                c.channel.close();
+            } catch (IOException ignored) {
+                // already broken
+            }
+            if (c.connecting) {
+                pendingConnects--;
+            } else {
+                open--;
+            }
+            try {
+                stats.reconnects++;
+                connect(c);
+            } catch (IOException again) {
+                stats.ioErrors++;
+                c.channel = null;
+            }
+        }
+
+        private void schedule(Connection c, long at) {
+            c.dueAt = at;
+            due.add(c);
+        }
+    }
+
+    // status code once the buffer holds a whole response (headers plus Content-Length body), else 0
+    static int parseStatusIfComplete(ByteBuffer in) {
+        byte[] bytes = in.array();
+        int end = in.position();
+        int headerEnd = -1;
+        for (int i = 3; i < end; i++) {
+            if (bytes[i] == '\n' && bytes[i - 1] == '\r' && bytes[i - 2] == '\n' && bytes[i - 3] == '\r') {
+                headerEnd = i + 1;
+                break;
+            }
+        }
+        if (headerEnd < 0) return 0;
+        String headers = new String(bytes, 0, headerEnd, StandardCharsets.ISO_8859_1);
+        int contentLength = 0;
+        for (String line : headers.split("\r\n")) {
+            if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                contentLength = Integer.parseInt(line.substring(15).trim());
+            }
+        }
+        if (end < headerEnd + contentLength) return 0;
+        return Integer.parseInt(headers.substring(9, 12));
+    }
+
+    // ---- results ----
+
+    private static final class Stats {
+        long[] latenciesMicros = new long[1 << 16];
+        int count;
+        long ok;
+        long clientErrors;
+        long serverErrors;
+        long ioErrors;
+        long reconnects;
+        int peakOpen;
+        int openAtEnd;
+        long rampMillis = -1;
+        long measuredNanos;
+        String firstError;
+
+        void record(int status, long micros, boolean measured) {
+            if (measured) {
+                if (count == latenciesMicros.length) {
+                    latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+                }
+                latenciesMicros[count++] = micros;
+            }
+            if (status >= 500) serverErrors++;
+            else if (status >= 400) clientErrors++;
+            else ok++;
+        }
+
+        long failed() {
+            return serverErrors + ioErrors;
+        }
+
+        void print(java.io.PrintStream out) {
+            long[] sorted = Arrays.copyOf(latenciesMicros, count);
+            Arrays.sort(sorted);
+            double seconds = measuredNanos / 1e9;
+            out.printf("connections: peak %,d open, %,d open at the end, all open after %s%n", peakOpen, openAtEnd,
+                    rampMillis < 0 ? "(never)" : rampMillis + " ms");
+            out.printf("steady:      %,d requests in %.1f s = %,.0f req/s%n",
+                    count, seconds, seconds > 0 ? count / seconds : 0.0);
+            out.printf("all answers: 2xx %,d, 4xx %,d, 5xx %,d%n", ok, clientErrors, serverErrors);
+            out.printf("latency:     p50 %s, p90 %s, p99 %s, p99.9 %s, max %s%n",
+                    millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 0.999),
+                    count == 0 ? "-" : String.format("%.2f ms", sorted[count - 1] / 1000.0));
+            out.printf("failures:    %,d I/O errors, %,d reconnects%s%n", ioErrors, reconnects,
+                    firstError == null ? "" : " (first: " + firstError + ")");
+            out.println(failed() == 0 && openAtEnd == peakOpen && count > 0 ? "PASS" : "FAIL");
+        }
+
+        private static String millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) return "-";
+            int i = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return String.format("%.2f ms", sorted[Math.max(0, i)] / 1000.0);
+        }
+    }
+}
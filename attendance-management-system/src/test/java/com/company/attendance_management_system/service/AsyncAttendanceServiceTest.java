@@ -0,0 +1,95 @@
+package com.company.attendance_management_system.service;
+
+import com.company.attendance_management_system.exception.EmployeeNotFoundException;
+import com.company.attendance_management_system.exception.InvalidAttendanceException;
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Test(groups = "attendance")
+public class AsyncAttendanceServiceTest {
+
+    private static final int EMPLOYEES = 200;
+
+    private AttendanceRepository attendanceRepository;
+    private AsyncAttendanceServiceImpl async;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        EmployeeRepository employeeRepository = new EmployeeRepository();
+        attendanceRepository = new AttendanceRepository();
+        EmployeeServiceImpl employees = new EmployeeServiceImpl(employeeRepository);
+        for (int id = 1; id <= EMPLOYEES; id++) {
+            employees.addEmployee(new Employee(id, "Emp " + id, "emp" + id + "@example.com", "Ops"));
+        }
+        async = new AsyncAttendanceServiceImpl(new AttendanceServiceImpl(employeeRepository, attendanceRepository), 4);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        async.close();
+    }
+
+    @Test
+    public void sameEmployee_runsInSubmissionOrder() throws Exception {
+        // submitted back to back without waiting: the clock-out must still see the clock-in
+        CompletableFuture<AttendanceRecord> in = async.clockInAsync(7);
+        CompletableFuture<AttendanceRecord> out = async.clockOutAsync(7);
+        CompletableFuture<List<AttendanceRecord>> records = async.getRecordsForEmployeeAsync(7);
+
+        Assert.assertNotNull(in.get(5, TimeUnit.SECONDS).getClockInTime());
+        Assert.assertNotNull(out.get(5, TimeUnit.SECONDS).getHoursWorked());
+        Assert.assertEquals(records.get(5, TimeUnit.SECONDS).size(), 1);
+        Assert.assertNotNull(records.get().get(0).getClockOutTime());
+    }
+
+    @Test
+    public void manyEmployees_eachClockInAcceptedOnce() throws Exception {
+        List<CompletableFuture<AttendanceRecord>> taps = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int id = 1; id <= EMPLOYEES; id++) {
+                taps.add(async.clockInAsync(id));
+            }
+        }
+        CompletableFuture.allOf(taps.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(e -> null).get(30, TimeUnit.SECONDS);
+
+        long accepted = taps.stream().filter(f -> !f.isCompletedExceptionally()).count();
+        Assert.assertEquals(accepted, EMPLOYEES);
+        Assert.assertEquals(attendanceRepository.getAllRecords().size(), EMPLOYEES);
+        // the first round won for every employee
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Assert.assertFalse(taps.get(i).isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    public void failures_completeTheFutureExceptionally() throws Exception {
+        assertFailsWith(async.clockOutAsync(3), InvalidAttendanceException.class);
+        assertFailsWith(async.clockInAsync(999), EmployeeNotFoundException.class);
+
+        async.close();
+        assertFailsWith(async.clockInAsync(3), RejectedExecutionException.class);
+    }
+
+    private static void assertFailsWith(CompletableFuture<?> future, Class<? extends Throwable> type) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("expected " + type.getSimpleName());
+        } catch (ExecutionException e) {
+            Assert.assertTrue(type.isInstance(e.getCause()), "got " + e.getCause());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.company.attendance_management_system.service;
+
+import com.company.attendance_management_system.exception.InvalidAttendanceException;
+import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+@Test(groups = "attendance")
+public class AttendanceConcurrencyTest {
+
+    private static final int EMPLOYEES = 200;
+    private static final int THREADS = 16;
+    private static final int TAPS_PER_EMPLOYEE = 8;
+
+    private EmployeeRepository employeeRepository;
+    private AttendanceRepository attendanceRepository;
+    private AttendanceServiceImpl attendance;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        employeeRepository = new EmployeeRepository();
+        attendanceRepository = new AttendanceRepository();
+        attendance = new AttendanceServiceImpl(employeeRepository, attendanceRepository);
+        EmployeeServiceImpl employees = new EmployeeServiceImpl(employeeRepository);
+        for (int id = 1; id <= EMPLOYEES; id++) {
+            employees.addEmployee(new Employee(id, "Emp " + id, "emp" + id + "@example.com", "Ops"));
+        }
+    }
+
+    @Test
+    public void concurrentClockIns_createExactlyOneRecordPerEmployee() throws Exception {
+        // every employee taps several times, all taps released at once across the pool
+        List<Integer> taps = new ArrayList<>();
+        for (int i = 0; i < TAPS_PER_EMPLOYEE; i++) {
+            for (int id = 1; id <= EMPLOYEES; id++) taps.add(id);
+        }
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int id : taps) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        attendance.clockIn(id);
+                        accepted.incrementAndGet();
+                    } catch (InvalidAttendanceException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Assert.assertEquals(accepted.get(), EMPLOYEES);
+        Assert.assertEquals(rejected.get(), EMPLOYEES * (TAPS_PER_EMPLOYEE - 1));
+        Assert.assertEquals(attendanceRepository.getAllRecords().size(), EMPLOYEES);
+        for (int id = 1; id <= EMPLOYEES; id++) {
+            List<AttendanceRecord> records = attendanceRepository.findRecordsByEmployeeId(id);
+            Assert.assertEquals(records.size(), 1, "employee " + id);
+            Assert.assertNotNull(records.get(0).getClockInTime());
+        }
+    }
+
+    @Test
+    public void clockIn_notBlockedByAnotherEmployeesLock() throws Exception {
+        // hold employee 1's stripe and make sure employee 2 can still clock in
+        Lock held = attendanceRepository.lockFor(1);
+        Assert.assertNotSame(attendanceRepository.lockFor(2), held);
+        held.lock();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<AttendanceRecord> other = pool.submit(() -> attendance.clockIn(2));
+            AttendanceRecord rec = other.get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(rec.getEmployeeId(), 2);
+            Assert.assertEquals(rec.getDate(), LocalDate.now());
+        } finally {
+            held.unlock();
+            pool.shutdownNow();
+        }
+    }
+}
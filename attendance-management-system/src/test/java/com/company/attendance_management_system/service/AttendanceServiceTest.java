@@ -3,15 +3,26 @@ package com.company.attendance_management_system.service;
 import com.company.attendance_management_system.exception.EmployeeNotFoundException;
 import com.company.attendance_management_system.exception.InvalidAttendanceException;
 import com.company.attendance_management_system.model.AttendanceRecord;
+import com.company.attendance_management_system.model.ClockEvent;
+import com.company.attendance_management_system.model.ClockEventResult;
+import com.company.attendance_management_system.model.ClockOutcome;
 import com.company.attendance_management_system.model.Employee;
 import com.company.attendance_management_system.repository.AttendanceRepository;
 import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.repository.IdBitmap;
+import com.company.attendance_management_system.simulation.SimulatedClock;
 import org.testng.Assert;
 import org.testng.annotations.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 @Test(groups = "attendance")
 public class AttendanceServiceTest {
@@ -124,4 +135,271 @@ public class AttendanceServiceTest {
         var tomorrowMiss = attendance.getRecordForEmployeeByDate(10, LocalDate.now().plusDays(1));
         Assert.assertTrue(tomorrowMiss.isEmpty());
     }
+
+    @Test(priority = 10)
+    public void ingestClockEvents_sortsPerEmployeeAndAppliesSameRules() throws Exception {
+        employees.addEmployee(new Employee(11, "Other Emp", "other@example.com", "IT"));
+        LocalDateTime day = LocalDate.of(2024, 3, 4).atTime(9, 0);
+        List<ClockEvent> upload = List.of(
+                new ClockEvent(10, day.plusHours(8), ClockEvent.Type.OUT),   // arrives before its IN
+                new ClockEvent(11, day.plusMinutes(30), ClockEvent.Type.IN),
+                new ClockEvent(10, day, ClockEvent.Type.IN),
+                new ClockEvent(10, day.plusHours(1), ClockEvent.Type.IN),    // second IN same day
+                new ClockEvent(99, day, ClockEvent.Type.IN),                 // unknown employee
+                new ClockEvent(11, day.plusDays(1), ClockEvent.Type.OUT),    // no IN that day
+                new ClockEvent(10, null, ClockEvent.Type.IN));
+
+        List<ClockEventResult> results = attendance.ingestClockEvents(upload);
+
+        Assert.assertEquals(results.size(), upload.size());
+        for (int i = 0; i < upload.size(); i++) {
+            Assert.assertSame(results.get(i).getEvent(), upload.get(i));
+        }
+        Assert.assertTrue(results.get(0).isAccepted());
+        Assert.assertEquals(results.get(0).getRecord().getHoursWorked(), 8.0);
+        Assert.assertTrue(results.get(1).isAccepted());
+        Assert.assertTrue(results.get(2).isAccepted());
+        Assert.assertEquals(results.get(3).getError(), "Already clocked in for 2024-03-04.");
+        Assert.assertEquals(results.get(4).getError(), "Employee 99 not found.");
+        Assert.assertEquals(results.get(5).getError(), "No clock-in found for 2024-03-05.");
+        Assert.assertFalse(results.get(6).isAccepted());
+
+        AttendanceRecord stored = attendance.getRecordForEmployeeByDate(10, day.toLocalDate()).get();
+        Assert.assertEquals(stored.getClockInTime(), day);
+        Assert.assertEquals(stored.getClockOutTime(), day.plusHours(8));
+    }
+
+    @Test(priority = 11)
+    public void ingestClockEvents_rejectsOutBeforeStoredIn() throws Exception {
+        LocalDateTime in = LocalDate.of(2024, 3, 4).atTime(9, 0);
+        attendance.ingestClockEvents(List.of(new ClockEvent(10, in, ClockEvent.Type.IN)));
+        // a later upload from another terminal with an earlier clock-out
+        List<ClockEventResult> results = attendance.ingestClockEvents(
+                List.of(new ClockEvent(10, in.minusHours(1), ClockEvent.Type.OUT)));
+        Assert.assertFalse(results.get(0).isAccepted());
+        Assert.assertNull(attendance.getRecordForEmployeeByDate(10, in.toLocalDate()).get().getClockOutTime());
+    }
+
+    @Test(priority = 12)
+    public void clockInOut_onSimulatedClock_usesItsTime() throws Exception {
+        SimulatedClock clock = new SimulatedClock(LocalDateTime.of(2024, 3, 4, 8, 45), ZoneOffset.UTC);
+        AttendanceServiceImpl simulated = new AttendanceServiceImpl(employeeRepository, attendanceRepository, clock);
+
+        AttendanceRecord in = simulated.clockIn(10);
+        clock.advance(java.time.Duration.ofMinutes(7 * 60 + 30));
+        AttendanceRecord out = simulated.clockOut(10);
+
+        Assert.assertEquals(in.getDate(), LocalDate.of(2024, 3, 4));
+        Assert.assertEquals(out.getClockOutTime(), LocalDateTime.of(2024, 3, 4, 16, 15));
+        Assert.assertEquals(out.getHoursWorked(), 7.5);
+    }
+
+    @Test
+    public void tryClockInOut_reportRefusalsAsCodes() {
+        SimulatedClock clock = new SimulatedClock(LocalDateTime.of(2024, 3, 4, 9, 0), ZoneOffset.UTC);
+        AttendanceServiceImpl simulated = new AttendanceServiceImpl(employeeRepository, attendanceRepository, clock);
+
+        Assert.assertEquals(simulated.tryClockOut(10), ClockOutcome.NO_CLOCK_IN);
+        Assert.assertEquals(simulated.tryClockIn(10), ClockOutcome.ACCEPTED);
+        Assert.assertEquals(simulated.tryClockIn(10), ClockOutcome.ALREADY_CLOCKED_IN);
+        Assert.assertEquals(simulated.tryClockIn(9999), ClockOutcome.EMPLOYEE_NOT_FOUND);
+        Assert.assertEquals(simulated.tryClockOutAt(10, clock.millis() - 60_000), ClockOutcome.CLOCK_OUT_BEFORE_CLOCK_IN);
+        clock.advance(java.time.Duration.ofHours(8));
+        Assert.assertEquals(simulated.tryClockOut(10), ClockOutcome.ACCEPTED);
+        Assert.assertEquals(simulated.tryClockOut(10), ClockOutcome.ALREADY_CLOCKED_OUT);
+
+        AttendanceRecord record = simulated.getRecordForEmployeeByDate(10, LocalDate.of(2024, 3, 4)).get();
+        Assert.assertEquals(record.getHoursWorked(), 8.0);
+        Assert.assertEquals(ClockOutcome.ALREADY_CLOCKED_OUT.describe("today"), "Already clocked out for today.");
+    }
+
+    @Test
+    public void refusals_areThrownWithoutStackTraces() throws Exception {
+        attendance.clockIn(10);
+        try {
+            attendance.clockIn(10);
+            Assert.fail("second clock-in accepted");
+        } catch (InvalidAttendanceException e) {
+            Assert.assertEquals(e.getMessage(), "Already clocked in for today.");
+            Assert.assertEquals(e.getStackTrace().length, 0);
+        }
+        try {
+            attendance.clockOut(9999);
+            Assert.fail("unknown employee accepted");
+        } catch (EmployeeNotFoundException e) {
+            Assert.assertEquals(e.getMessage(), "Employee 9999 not found.");
+            Assert.assertEquals(e.getStackTrace().length, 0);
+        }
+    }
+
+    @Test
+    public void getRecordsForEmployeeBetween_coversInclusiveEmptyReversedAndUnknown() {
+        LocalDate day = LocalDate.of(2024, 3, 4);
+        for (int d = 0; d < 5; d++) {
+            attendanceRepository.createRecord(10, day.plusDays(d));
+        }
+        List<AttendanceRecord> middle = attendance.getRecordsForEmployeeBetween(10, day.plusDays(1), day.plusDays(3));
+        Assert.assertEquals(middle.size(), 3);
+        Assert.assertEquals(middle.get(0).getDate(), day.plusDays(1));
+        Assert.assertEquals(middle.get(2).getDate(), day.plusDays(3));
+
+        Assert.assertTrue(attendance.getRecordsForEmployeeBetween(10, day.plusDays(7), day.plusDays(9)).isEmpty());
+        Assert.assertTrue(attendance.getRecordsForEmployeeBetween(10, day.plusDays(3), day.plusDays(1)).isEmpty());
+        Assert.assertTrue(attendance.getRecordsForEmployeeBetween(9999, day, day.plusDays(4)).isEmpty());
+    }
+
+    @Test
+    public void presence_tracksClockStateAndApprovedLeave() throws Exception {
+        LocalDate day = LocalDate.of(2024, 3, 4);
+        SimulatedClock clock = new SimulatedClock(day.atTime(9, 0), ZoneOffset.UTC);
+        DailyPresence presence = new DailyPresence();
+        AttendanceServiceImpl service = new AttendanceServiceImpl(employeeRepository, attendanceRepository, clock, presence);
+        LeaveServiceImpl leaves = new LeaveServiceImpl(employeeRepository, presence);
+        for (int id = 11; id <= 14; id++) {
+            employees.addEmployee(new Employee(id, "Emp " + id, "emp" + id + "@example.com", "IT"));
+        }
+        service.clockIn(10);
+        service.clockIn(11);
+        service.clockOut(11);
+        int leave = leaves.applyForLeave(12, "2024-03-01", "2024-03-04", "vac").getRequestId();
+        leaves.approveLeave(leave, true);
+        leaves.applyForLeave(13, "2024-03-04", "2024-03-04", "pending, so still absent");
+
+        Assert.assertEquals(service.getEmployeesClockedIn(day), IdBitmap.of(10, 11));
+        Assert.assertEquals(service.getEmployeesStillIn(day), IdBitmap.of(10));
+        Assert.assertEquals(service.getAbsentEmployees(day), IdBitmap.of(13, 14));
+        Assert.assertEquals(service.getAbsentEmployees(day.plusDays(1)), IdBitmap.of(10, 11, 12, 13, 14));
+
+        leaves.approveLeave(leave, false);
+        Assert.assertEquals(service.getAbsentEmployees(day), IdBitmap.of(12, 13, 14));
+    }
+
+    @Test
+    public void presence_picksUpRecordsAddedToTheRepository() {
+        LocalDate day = LocalDate.of(2024, 3, 5);
+        AttendanceRecord restored = new AttendanceRecord(500, 10, day);
+        restored.setClockInTime(day.atTime(8, 0));
+        attendanceRepository.addRecord(restored);
+        Assert.assertEquals(attendance.getEmployeesStillIn(day), IdBitmap.of(10));
+
+        attendanceRepository.clear();
+        Assert.assertTrue(attendance.getEmployeesClockedIn(day).isEmpty());
+        Assert.assertEquals(attendance.getAbsentEmployees(day), IdBitmap.of(10));
+    }
+
+    @Test
+    public void presence_readsADayFromTheStoreOnlyWhenAsked() {
+        LocalDate day = LocalDate.of(2024, 3, 6);
+        AttendanceRepository history = new AttendanceRepository() {
+            @Override
+            public List<AttendanceRecord> getAllRecords() {
+                throw new AssertionError("presence walked the whole store");
+            }
+
+            @Override
+            public AttendanceRecord findRecordByDay(int employeeId, long epochDay) {
+                throw new AssertionError("presence looked the day up employee by employee");
+            }
+        };
+        AttendanceRecord old = history.createRecord(10, day);
+        old.setClockInTime(day.atTime(8, 0));
+        AttendanceServiceImpl restarted = new AttendanceServiceImpl(employeeRepository, history);
+
+        Assert.assertEquals(restarted.getEmployeesStillIn(day), IdBitmap.of(10));
+        // once read, the day follows later changes
+        old.setClockOutTime(day.atTime(16, 0));
+        Assert.assertTrue(restarted.getEmployeesStillIn(day).isEmpty());
+        Assert.assertEquals(restarted.getEmployeesClockedIn(day), IdBitmap.of(10));
+        Assert.assertTrue(restarted.getEmployeesClockedIn(day.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void presence_keepsOnlyTheDaysAskedAboutMostRecently() {
+        LocalDate day = LocalDate.of(2024, 3, 4);
+        DailyPresence presence = new DailyPresence(2);
+        AttendanceServiceImpl service = new AttendanceServiceImpl(employeeRepository, attendanceRepository,
+                new SimulatedClock(day.atTime(9, 0), ZoneOffset.UTC), presence);
+        for (int d = 0; d < 3; d++) {
+            attendanceRepository.createRecord(10, day.plusDays(d)).setClockInTime(day.plusDays(d).atTime(8, 0));
+        }
+
+        // days without a stored record, however far off, get no bits
+        Assert.assertTrue(service.getEmployeesClockedIn(LocalDate.of(9999, 1, 1)).isEmpty());
+        Assert.assertEquals(service.getAbsentEmployees(day.minusYears(50)), IdBitmap.of(10));
+        Assert.assertEquals(presence.keptDays(), 0);
+
+        Assert.assertEquals(service.getEmployeesStillIn(day), IdBitmap.of(10));
+        Assert.assertEquals(service.getEmployeesStillIn(day.plusDays(1)), IdBitmap.of(10));
+        Assert.assertEquals(service.getEmployeesStillIn(day), IdBitmap.of(10)); // asked again: kept longer
+        Assert.assertEquals(service.getEmployeesStillIn(day.plusDays(2)), IdBitmap.of(10));
+        Assert.assertEquals(presence.keptDays(), 2);
+        Assert.assertFalse(presence.keeps(day.plusDays(1)), "the least recently asked about day goes");
+
+        // the dropped day no longer follows taps, and is read again when asked about
+        attendanceRepository.findRecordByDay(10, day.plusDays(1).toEpochDay())
+                .setClockOutTime(day.plusDays(1).atTime(17, 0));
+        Assert.assertTrue(service.getEmployeesStillIn(day.plusDays(1)).isEmpty());
+        Assert.assertEquals(service.getEmployeesClockedIn(day.plusDays(1)), IdBitmap.of(10));
+        Assert.assertTrue(presence.keeps(day.plusDays(1)));
+        Assert.assertFalse(presence.keeps(day));
+        Assert.assertEquals(presence.keptDays(), 2);
+    }
+
+    @Test
+    public void refusedTaps_areUndone_andCanBeRetried() {
+        LocalDate day = LocalDate.of(2024, 3, 4);
+        SimulatedClock clock = new SimulatedClock(day.atTime(9, 0), ZoneOffset.UTC);
+        AttendanceServiceImpl service = new AttendanceServiceImpl(employeeRepository, attendanceRepository, clock);
+        // stands in for a journal that cannot write
+        boolean[] refusing = {true};
+        List<AttendanceRecord> journaled = new ArrayList<>();
+        attendanceRepository.addListener(record -> {
+            if (refusing[0]) throw new UncheckedIOException(new IOException("disk full"));
+            journaled.add(record);
+        });
+
+        Assert.assertThrows(UncheckedIOException.class, () -> service.tryClockIn(10));
+        Assert.assertTrue(service.getEmployeesClockedIn(day).isEmpty());
+        Assert.assertFalse(attendanceRepository.findRecordByDay(10, day.toEpochDay()).hasClockIn());
+
+        refusing[0] = false;
+        Assert.assertEquals(service.tryClockIn(10), ClockOutcome.ACCEPTED);
+        Assert.assertEquals(journaled.size(), 1, "one journal entry per tap");
+
+        clock.advance(java.time.Duration.ofHours(8));
+        refusing[0] = true;
+        Assert.assertThrows(UncheckedIOException.class, () -> service.tryClockOut(10));
+        AttendanceRecord record = attendanceRepository.findRecordByDay(10, day.toEpochDay());
+        Assert.assertFalse(record.hasClockOut());
+        Assert.assertNull(record.getHoursWorked());
+        Assert.assertEquals(service.getEmployeesStillIn(day), IdBitmap.of(10));
+
+        refusing[0] = false;
+        Assert.assertEquals(service.tryClockOut(10), ClockOutcome.ACCEPTED);
+        Assert.assertEquals(journaled.size(), 2);
+        Assert.assertEquals(record.getHoursWorked(), 8.0);
+        Assert.assertTrue(service.getEmployeesStillIn(day).isEmpty());
+    }
+
+    @Test
+    public void refusedUpload_isUndone() {
+        LocalDateTime in = LocalDate.of(2024, 3, 4).atTime(9, 0);
+        attendance.ingestClockEvents(List.of(new ClockEvent(10, in, ClockEvent.Type.IN)));
+        attendanceRepository.addListener(record -> {
+            throw new UncheckedIOException(new IOException("disk full"));
+        });
+
+        Assert.assertThrows(UncheckedIOException.class, () -> attendance.ingestClockEvents(List.of(
+                new ClockEvent(10, in.plusHours(8), ClockEvent.Type.OUT),
+                new ClockEvent(10, in.plusDays(1), ClockEvent.Type.IN),
+                new ClockEvent(10, in.plusDays(1).plusHours(4), ClockEvent.Type.OUT))));
+
+        AttendanceRecord first = attendance.getRecordForEmployeeByDate(10, in.toLocalDate()).get();
+        Assert.assertEquals(first.getClockInTime(), in);
+        Assert.assertNull(first.getClockOutTime());
+        Assert.assertNull(first.getHoursWorked());
+        Assert.assertFalse(attendance.getRecordForEmployeeByDate(10, in.toLocalDate().plusDays(1)).get().hasClockIn());
+        Assert.assertEquals(attendanceRepository.getMonthlyHours(10, YearMonth.of(2024, 3)), 0.0);
+        Assert.assertTrue(attendance.getEmployeesClockedIn(in.toLocalDate().plusDays(1)).isEmpty());
+    }
 }
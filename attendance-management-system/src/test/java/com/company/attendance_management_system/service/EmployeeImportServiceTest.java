@@ -0,0 +1,82 @@
+package com.company.attendance_management_system.service;
+
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Test(groups = "employee")
+public class EmployeeImportServiceTest {
+
+    private EmployeeRepository repository;
+    private EmployeeImportService importer;
+
+    @BeforeMethod
+    public void setUp() {
+        repository = new EmployeeRepository();
+        repository.addEmployee(new Employee(1, "Existing", "existing@example.com", "HR"));
+        importer = new EmployeeImportService(repository, 2); // tiny batches so checks cross batch boundaries
+    }
+
+    @Test
+    public void csv_withHeaderAndQuotes_importsGoodRowsAndReportsBadOnes() throws Exception {
+        String csv = "email,name,employeeId,department\n"
+                + "a@example.com,\"Smith, Ann\",10,Eng\n"
+                + "b@example.com,Bob,x,Eng\n"                  // bad id
+                + "EXISTING@example.com,Eve,11,Ops\n"          // email already stored
+                + "\n"
+                + "c@example.com,Cy,10,Ops\n"                  // id taken by row 2 (earlier batch)
+                + "d@example.com,Dee,12,\n"
+                + "D@example.com,Dee Two,13,Ops\n";            // same email as the row before, same batch
+        EmployeeImportService.ImportResult result = importer.importCsv(new StringReader(csv));
+
+        Assert.assertEquals(result.getImported(), 2);
+        Assert.assertEquals(result.getRejected(), 4);
+        Assert.assertEquals(lines(result), List.of(3L, 4L, 6L, 8L));
+        Assert.assertEquals(repository.findEmployeeById(10).get().getName(), "Smith, Ann");
+        Assert.assertNull(repository.findEmployeeById(12).get().getDepartment());
+        Assert.assertTrue(repository.findEmployeeByEmail("d@example.com").isPresent());
+    }
+
+    @Test
+    public void jsonLines_importsAndReportsMalformedRows() throws Exception {
+        String jsonl = "{\"employeeId\": 20, \"name\": \"Jo \\\"JJ\\\" Doe\", \"email\": \"jo@example.com\", \"department\": \"Eng\"}\n"
+                + "{\"employeeId\": 21, \"name\": \"No Email\"}\n"
+                + "{\"employeeId\": 22, \"name\": \"Broken\"\n"
+                + "{\"id\": 23, \"name\": \"Kim\", \"email\": \"kim@example.com\", \"department\": null, \"extra\": true}\n";
+        EmployeeImportService.ImportResult result = importer.importJsonLines(new StringReader(jsonl));
+
+        Assert.assertEquals(result.getImported(), 2);
+        Assert.assertEquals(lines(result), List.of(2L, 3L));
+        Assert.assertEquals(repository.findEmployeeById(20).get().getName(), "Jo \"JJ\" Doe");
+        Assert.assertNull(repository.findEmployeeById(23).get().getDepartment());
+    }
+
+    @Test
+    public void batch_reachesListenersInOneCall() throws Exception {
+        List<Integer> batchSizes = new ArrayList<>();
+        repository.addListener(new EmployeeRepository.Listener() {
+            @Override
+            public void employeeSaved(Employee employee) {
+                batchSizes.add(1);
+            }
+
+            @Override
+            public void employeesSaved(List<Employee> employees) {
+                batchSizes.add(employees.size());
+            }
+        });
+        importer.importCsv(new StringReader("30,A,a@x.com,Eng\n31,B,b@x.com,Eng\n32,C,c@x.com,Eng\n"));
+        Assert.assertEquals(batchSizes, List.of(2, 1));
+    }
+
+    private static List<Long> lines(EmployeeImportService.ImportResult result) {
+        return result.getErrors().stream().map(EmployeeImportService.RowError::getLine).collect(Collectors.toList());
+    }
+}
@@ -7,7 +7,11 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Test(groups = "employee")
 public class EmployeeServiceTest {
@@ -42,4 +46,34 @@ public class EmployeeServiceTest {
         service.addEmployee(new Employee(3, "Cathy", "cathy@company.com", "Support"));
         service.addEmployee(new Employee(4, "Cathy2", "cathy@company.com", "Support"));
     }
+
+    @Test
+    public void concurrentAddsOfSameEmail_onlyOneWins() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger added = new AtomicInteger();
+        List<Future<?>> done = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                int id = 100 + i;
+                done.add(pool.submit(() -> {
+                    go.await();
+                    try {
+                        service.addEmployee(new Employee(id, "Dup", "dup@company.com", "Ops"));
+                        added.incrementAndGet();
+                    } catch (DuplicateEmployeeException expected) {
+                        // lost the race
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> f : done) f.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(added.get(), 1);
+        Assert.assertEquals(service.getAllEmployees().size(), 1);
+    }
 }
@@ -2,12 +2,16 @@ package com.company.attendance_management_system.service;
 
 import com.company.attendance_management_system.exception.EmployeeNotFoundException;
 import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.model.LeaveDecisionResult;
 import com.company.attendance_management_system.model.LeaveRequest;
 import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.repository.IdBitmap;
 import org.testng.Assert;
 import org.testng.annotations.*;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
 
 @Test(groups = "leave")
 public class LeaveServiceTest {
@@ -67,4 +71,293 @@ public class LeaveServiceTest {
         Assert.assertTrue(list.stream().anyMatch(x -> x.getRequestId() == r.getRequestId()
                 && x.getStatus() == LeaveRequest.Status.REJECTED));
     }
+
+    @Test(priority = 5, expectedExceptions = IllegalArgumentException.class)
+    public void apply_overlappingPendingLeave_throws() throws Exception {
+        leave.applyForLeave(20, "2024-05-06", "2024-05-10", "trip");
+        leave.applyForLeave(20, "2024-05-10", "2024-05-14", "again");
+    }
+
+    @Test(priority = 6)
+    public void apply_overRejectedOrAdjacentLeave_isAccepted() throws Exception {
+        LeaveRequest rejected = leave.applyForLeave(20, "2024-06-03", "2024-06-07", "first try");
+        leave.approveLeave(rejected.getRequestId(), false);
+        leave.applyForLeave(20, "2024-06-04", "2024-06-06", "second try");
+        leave.applyForLeave(20, "2024-06-07", "2024-06-07", "day after");
+        leave.applyForLeave(20, "2024-06-03", "2024-06-03", "day before");
+        Assert.assertEquals(leave.getLeaveRequestsForEmployee(20).size(), 4);
+    }
+
+    @Test(priority = 7)
+    public void findEmployeesOnLeave_onlyApprovedAndInclusive() throws Exception {
+        employees.addEmployee(new Employee(21, "Other Emp", "other@example.com", "Finance"));
+        LeaveRequest a = leave.applyForLeave(20, "2024-07-01", "2024-07-05", "vac");
+        LeaveRequest b = leave.applyForLeave(21, "2024-07-05", "2024-07-09", "vac");
+        Assert.assertTrue(leave.findEmployeesOnLeave(LocalDate.of(2024, 7, 3)).isEmpty());
+
+        leave.approveLeave(a.getRequestId(), true);
+        leave.approveLeave(b.getRequestId(), true);
+        Assert.assertEquals(leave.findEmployeesOnLeave(LocalDate.of(2024, 7, 1)), List.of(20));
+        Assert.assertEquals(new HashSet<>(leave.findEmployeesOnLeave(LocalDate.of(2024, 7, 5))), Set.of(20, 21));
+        Assert.assertEquals(leave.findEmployeesOnLeave(LocalDate.of(2024, 7, 9)), List.of(21));
+        Assert.assertTrue(leave.findEmployeesOnLeave(LocalDate.of(2024, 7, 10)).isEmpty());
+
+        leave.approveLeave(a.getRequestId(), false);
+        Assert.assertEquals(leave.findEmployeesOnLeave(LocalDate.of(2024, 7, 5)), List.of(21));
+    }
+
+    @Test(priority = 8)
+    public void findEmployeesOnLeave_matchesAFullScan() throws Exception {
+        Random random = new Random(17);
+        for (int id = 100; id < 150; id++) {
+            employees.addEmployee(new Employee(id, "Emp " + id, "emp" + id + "@example.com", "Ops"));
+        }
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 2000; i++) {
+            int employeeId = 100 + random.nextInt(50);
+            LocalDate start = first.plusDays(random.nextInt(365));
+            LocalDate end = start.plusDays(random.nextInt(20));
+            LeaveRequest r;
+            try {
+                r = leave.applyForLeave(employeeId, start.toString(), end.toString(), "r" + i);
+            } catch (IllegalArgumentException overlap) {
+                continue;
+            }
+            if (random.nextInt(3) > 0) {
+                leave.approveLeave(r.getRequestId(), random.nextBoolean());
+            }
+        }
+        for (int d = -5; d < 390; d++) {
+            LocalDate day = first.plusDays(d);
+            List<Integer> expected = new ArrayList<>();
+            for (LeaveRequest r : leave.getAllLeaveRequests()) {
+                if (r.getStatus() == LeaveRequest.Status.APPROVED
+                        && !day.isBefore(r.getStartDate()) && !day.isAfter(r.getEndDate())) {
+                    expected.add(r.getEmployeeId());
+                }
+            }
+            List<Integer> actual = leave.findEmployeesOnLeave(day);
+            Collections.sort(expected);
+            Collections.sort(actual);
+            Assert.assertEquals(actual, expected, day.toString());
+        }
+    }
+
+    @Test(priority = 9)
+    public void pendingQueue_perDepartmentByStartDate_pagedWithCursor() throws Exception {
+        employees.addEmployee(new Employee(30, "Ops Emp", "ops@example.com", "Ops"));
+        LeaveRequest late = leave.applyForLeave(20, "2024-09-20", "2024-09-21", "late");
+        LeaveRequest early = leave.applyForLeave(20, "2024-09-01", "2024-09-02", "early");
+        LeaveRequest middle = leave.applyForLeave(20, "2024-09-10", "2024-09-10", "middle");
+        LeaveRequest ops = leave.applyForLeave(30, "2024-09-05", "2024-09-05", "ops");
+
+        Assert.assertEquals(leave.countPendingLeaveRequests("Finance"), 3);
+        List<LeaveRequest> first = leave.getPendingLeaveRequests("Finance", 0, 2);
+        Assert.assertEquals(first, List.of(early, middle));
+        Assert.assertEquals(leave.getPendingLeaveRequests("Finance", middle.getRequestId(), 2), List.of(late));
+        Assert.assertEquals(leave.getPendingLeaveRequests("Ops", 0, 10), List.of(ops));
+        Assert.assertTrue(leave.getPendingLeaveRequests("Nobody", 0, 10).isEmpty());
+
+        // decided requests leave the queue; a cursor that was decided meanwhile still works
+        leave.approveLeave(middle.getRequestId(), true);
+        leave.approveLeave(early.getRequestId(), false);
+        Assert.assertEquals(leave.getPendingLeaveRequests("Finance", 0, 10), List.of(late));
+        Assert.assertEquals(leave.getPendingLeaveRequests("Finance", middle.getRequestId(), 10), List.of(late));
+        Assert.assertEquals(leave.getLeaveRequestsByStatus(LeaveRequest.Status.APPROVED, 0, 10), List.of(middle));
+        Assert.assertEquals(leave.getLeaveRequestsByStatus(LeaveRequest.Status.REJECTED, 0, 10), List.of(early));
+        Assert.assertEquals(leave.getLeaveRequestsByStatus(LeaveRequest.Status.PENDING, 0, 10), List.of(ops, late));
+    }
+
+    @Test(priority = 10)
+    public void pendingQueue_followsDepartmentChange() throws Exception {
+        LeaveRequest r = leave.applyForLeave(20, "2024-10-01", "2024-10-02", "move");
+        repo.findEmployeeById(20).orElseThrow().setDepartment("Ops");
+        Assert.assertEquals(leave.countPendingLeaveRequests("Finance"), 0);
+        Assert.assertEquals(leave.getPendingLeaveRequests("Ops", 0, 10), List.of(r));
+    }
+
+    @Test(priority = 11, expectedExceptions = IllegalArgumentException.class)
+    public void pendingQueue_unknownCursor_throws() {
+        leave.getPendingLeaveRequests("Finance", 12345, 10);
+    }
+
+    @Test(priority = 12, expectedExceptions = IllegalArgumentException.class)
+    public void approve_unknownRequest_throws() {
+        leave.approveLeave(4242, true);
+    }
+
+    @Test(priority = 13)
+    public void approveLeaves_reportsAnOutcomePerId() throws Exception {
+        int pending = leave.applyForLeave(20, "2024-11-04", "2024-11-05", "a").getRequestId();
+        int decided = leave.applyForLeave(20, "2024-11-11", "2024-11-11", "b").getRequestId();
+        leave.approveLeave(decided, false);
+
+        List<LeaveDecisionResult> results = leave.approveLeaves(List.of(pending, decided, 777, pending), true);
+        Assert.assertEquals(results.size(), 4);
+        Assert.assertEquals(results.get(0).getOutcome(), LeaveDecisionResult.Outcome.APPLIED);
+        Assert.assertEquals(results.get(1).getOutcome(), LeaveDecisionResult.Outcome.ALREADY_DECIDED);
+        Assert.assertEquals(results.get(1).getRequest().getStatus(), LeaveRequest.Status.REJECTED);
+        Assert.assertEquals(results.get(2).getOutcome(), LeaveDecisionResult.Outcome.NOT_FOUND);
+        Assert.assertEquals(results.get(2).getRequestId(), 777);
+        Assert.assertEquals(results.get(3).getOutcome(), LeaveDecisionResult.Outcome.ALREADY_DECIDED);
+        Assert.assertEquals(leave.countPendingLeaveRequests("Finance"), 0);
+    }
+
+    @Test(priority = 14)
+    public void approveLeaves_concurrentApproversDecideEachRequestOnce() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 500; i++) {
+            ids.add(leave.applyForLeave(20, day.plusDays(i).toString(), day.plusDays(i).toString(), "d" + i)
+                    .getRequestId());
+        }
+        List<Integer> reversed = new ArrayList<>(ids);
+        Collections.reverse(reversed);
+        CountDownLatch start = new CountDownLatch(1);
+        List<List<LeaveDecisionResult>> results = Collections.synchronizedList(new ArrayList<>());
+        Thread approver = new Thread(() -> {
+            await(start);
+            results.add(leave.approveLeaves(ids, true));
+        });
+        Thread rejecter = new Thread(() -> {
+            await(start);
+            results.add(leave.approveLeaves(reversed, false));
+        });
+        approver.start();
+        rejecter.start();
+        start.countDown();
+        approver.join();
+        rejecter.join();
+
+        // every request was applied by exactly one of them, and holds that one's decision
+        Map<Integer, LeaveRequest.Status> applied = new HashMap<>();
+        for (List<LeaveDecisionResult> batch : results) {
+            for (LeaveDecisionResult r : batch) {
+                if (r.isApplied()) {
+                    Assert.assertNull(applied.put(r.getRequestId(), r.getRequest().getStatus()));
+                }
+            }
+        }
+        Assert.assertEquals(applied.size(), ids.size());
+        for (LeaveRequest r : leave.getLeaveRequestsForEmployee(20)) {
+            Assert.assertEquals(r.getStatus(), applied.get(r.getRequestId()));
+        }
+    }
+
+    @Test(priority = 15)
+    public void approve_rejectedLeaveOverlappingAnApprovedOne_throws() throws Exception {
+        DailyPresence presence = new DailyPresence();
+        leave = new LeaveServiceImpl(repo, presence);
+        LeaveRequest inner = leave.applyForLeave(20, "2024-01-10", "2024-01-12", "inner");
+        leave.approveLeave(inner.getRequestId(), false);
+        LeaveRequest month = leave.applyForLeave(20, "2024-01-01", "2024-01-31", "month");
+        leave.approveLeave(month.getRequestId(), true);
+
+        try {
+            leave.approveLeave(inner.getRequestId(), true);
+            Assert.fail("re-approved a leave overlapping request " + month.getRequestId());
+        } catch (IllegalArgumentException expected) {
+            Assert.assertTrue(expected.getMessage().contains("Overlaps leave request " + month.getRequestId()));
+        }
+        Assert.assertEquals(inner.getStatus(), LeaveRequest.Status.REJECTED);
+        try {
+            leave.applyForLeave(20, "2024-01-20", "2024-01-22", "inside the month");
+            Assert.fail("filed a leave inside an approved one");
+        } catch (IllegalArgumentException expected) {
+            // overlap
+        }
+        leave.approveLeave(inner.getRequestId(), false);
+        Assert.assertEquals(presence.absent(LocalDate.of(2024, 1, 11), IdBitmap.of(20)), new IdBitmap());
+        Assert.assertEquals(leave.findEmployeesOnLeave(LocalDate.of(2024, 1, 11)), List.of(20));
+    }
+
+    @Test(priority = 16)
+    public void presence_longApprovedLeave_isAnsweredFromTheIntervalTree() throws Exception {
+        DailyPresence presence = new DailyPresence();
+        leave = new LeaveServiceImpl(repo, presence);
+        // a thousand years used to mean a per-day bitmap set for every one of its days
+        LeaveRequest forever = leave.applyForLeave(20, "1000-01-01", "2999-12-31", "sabbatical");
+        leave.approveLeave(forever.getRequestId(), true);
+
+        Assert.assertEquals(presence.onLeave(LocalDate.of(1000, 1, 1)), IdBitmap.of(20));
+        Assert.assertEquals(presence.onLeave(LocalDate.of(2500, 6, 15)), IdBitmap.of(20));
+        Assert.assertEquals(presence.absent(LocalDate.of(2999, 12, 31), IdBitmap.of(20, 21)), IdBitmap.of(21));
+        Assert.assertEquals(presence.onLeave(LocalDate.of(3000, 1, 1)), new IdBitmap());
+
+        leave.approveLeave(forever.getRequestId(), false);
+        Assert.assertEquals(presence.absent(LocalDate.of(2500, 6, 15), IdBitmap.of(20)), IdBitmap.of(20));
+    }
+
+    @Test(priority = 17)
+    public void approveLeaves_refusedByAListener_putsEverythingBack() throws Exception {
+        LeaveRequest a = leave.applyForLeave(20, "2024-06-03", "2024-06-04", "a");
+        LeaveRequest b = leave.applyForLeave(20, "2024-06-10", "2024-06-10", "b");
+        List<LeaveRequest.Status> reported = new ArrayList<>();
+        LeaveServiceImpl.Listener journal = refusingApprovals(reported);
+        leave.addListener(journal);
+
+        Assert.assertThrows(IllegalStateException.class,
+                () -> leave.approveLeaves(List.of(a.getRequestId(), b.getRequestId()), true));
+        assertPending(a, b);
+        // the listener heard about them going back
+        Assert.assertEquals(reported, List.of(LeaveRequest.Status.PENDING, LeaveRequest.Status.PENDING));
+
+        // nothing is left half decided: the next batch applies to both
+        leave.removeListener(journal);
+        List<LeaveDecisionResult> results = leave.approveLeaves(List.of(a.getRequestId(), b.getRequestId()), true);
+        Assert.assertTrue(results.get(0).isApplied() && results.get(1).isApplied());
+        Assert.assertEquals(leave.findEmployeesOnLeave(LocalDate.of(2024, 6, 10)), List.of(20));
+    }
+
+    @Test(priority = 18)
+    public void approve_refusedByAListener_putsTheStatusBack() throws Exception {
+        LeaveRequest a = leave.applyForLeave(20, "2024-07-01", "2024-07-02", "a");
+        List<LeaveRequest.Status> reported = new ArrayList<>();
+        leave.addListener(refusingApprovals(reported));
+
+        Assert.assertThrows(IllegalStateException.class, () -> leave.approveLeave(a.getRequestId(), true));
+        assertPending(a);
+        Assert.assertEquals(reported, List.of(LeaveRequest.Status.PENDING));
+    }
+
+    // a listener (like a journal whose disk failed) that refuses every approval and records what else it hears
+    private static LeaveServiceImpl.Listener refusingApprovals(List<LeaveRequest.Status> reported) {
+        return new LeaveServiceImpl.Listener() {
+            @Override
+            public void leaveRequestSaved(LeaveRequest request) {
+                leaveRequestsSaved(List.of(request));
+            }
+
+            @Override
+            public void leaveRequestsSaved(List<LeaveRequest> requests) {
+                for (LeaveRequest r : requests) {
+                    if (r.getStatus() == LeaveRequest.Status.APPROVED) {
+                        throw new IllegalStateException("journal refused");
+                    }
+                }
+                for (LeaveRequest r : requests) {
+                    reported.add(r.getStatus());
+                }
+            }
+        };
+    }
+
+    // pending again, and every index agrees
+    private void assertPending(LeaveRequest... requests) {
+        for (LeaveRequest r : requests) {
+            Assert.assertEquals(r.getStatus(), LeaveRequest.Status.PENDING);
+            Assert.assertTrue(leave.findEmployeesOnLeave(r.getStartDate()).isEmpty());
+        }
+        Assert.assertEquals(leave.countPendingLeaveRequests("Finance"), requests.length);
+        Assert.assertEquals(leave.getPendingLeaveRequests("Finance", 0, 10), List.of(requests));
+        Assert.assertTrue(leave.getLeaveRequestsByStatus(LeaveRequest.Status.APPROVED, 0, 10).isEmpty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -13,6 +13,7 @@ import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @Test(groups = "reporting")
 public class ReportServiceTest {
@@ -67,4 +68,36 @@ public class ReportServiceTest {
         double total = reports.calculateMonthlyHours(50, YearMonth.now());
         Assert.assertEquals(total, 5.5, 0.001);
     }
+
+    @Test(dependsOnMethods = "monthlyHours_sumsWithRounding")
+    public void monthlyHours_reflectCorrectedRecord() {
+        AttendanceRecord r2 = ar.findRecordByDateAndEmployee(50, LocalDate.now().withDayOfMonth(1).plusDays(1)).get();
+        r2.setHoursWorked(4.25);
+        Assert.assertEquals(reports.calculateMonthlyHours(50, YearMonth.now()), 6.25, 0.001);
+        Assert.assertEquals(reports.calculateMonthlyHours(50, YearMonth.now().minusMonths(1)), 0.0, 0.001);
+    }
+
+    @Test
+    public void bulkReports_totalEveryEmployeeAndDepartment() throws Exception {
+        reports = new ReportService(attendance, employees);
+        employees.addEmployee(new Employee(51, "Ops Two", "ops2@ex.com", "Ops"));
+        employees.addEmployee(new Employee(52, "Dev One", "dev1@ex.com", "Eng"));
+        LocalDate day = LocalDate.now().withDayOfMonth(1);
+        ar.createRecord(51, day).setHoursWorked(7.25);
+        ar.createRecord(52, day).setHoursWorked(8.0);
+        ar.createRecord(99, day).setHoursWorked(1.5); // no longer on file
+        ar.createRecord(52, day.minusMonths(1)).setHoursWorked(9.0);
+
+        Map<Integer, Double> all = reports.calculateMonthlyHoursForAll(YearMonth.now());
+        Assert.assertEquals(all, Map.of(50, 5.5, 51, 7.25, 52, 8.0, 99, 1.5));
+
+        Map<String, Double> byDept = reports.calculateMonthlyHoursByDepartment(YearMonth.now());
+        Assert.assertEquals(byDept, Map.of("Ops", 12.75, "Eng", 8.0, ReportService.UNASSIGNED_DEPARTMENT, 1.5));
+    }
+
+    @Test
+    public void departmentHours_withoutEmployeeService_areUnassigned() {
+        Assert.assertEquals(reports.calculateMonthlyHoursByDepartment(YearMonth.now()),
+                Map.of(ReportService.UNASSIGNED_DEPARTMENT, 5.5));
+    }
 }
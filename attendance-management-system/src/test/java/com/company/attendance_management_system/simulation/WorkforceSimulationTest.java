@@ -0,0 +1,68 @@
+package com.company.attendance_management_system.simulation;
+
+import com.company.attendance_management_system.model.Employee;
+import com.company.attendance_management_system.repository.AttendanceRepository;
+import com.company.attendance_management_system.repository.EmployeeRepository;
+import com.company.attendance_management_system.service.AttendanceServiceImpl;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+@Test(groups = "simulation")
+public class WorkforceSimulationTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2024, 3);
+
+    @Test
+    public void sameSeed_replaysToSameTotals() {
+        Map<Integer, Double> first = simulate(42);
+        Map<Integer, Double> second = simulate(42);
+
+        Assert.assertEquals(first.size(), 50);
+        Assert.assertEquals(second, first);
+        // 21 weekdays of 7 - 9.5 hours, minus the odd absence
+        first.values().forEach(hours -> Assert.assertTrue(hours > 100 && hours < 200, "hours " + hours));
+        Assert.assertNotEquals(simulate(7), first);
+    }
+
+    @Test
+    public void result_countsEveryTap() {
+        SimulatedClock clock = new SimulatedClock(MARCH.atDay(1).atStartOfDay(), ZoneOffset.UTC);
+        WorkforceSimulation.Result result = new WorkforceSimulation(50, MARCH, 1, 42).run(service(clock), clock);
+
+        Assert.assertTrue(result.getEvents() > 50 * 21 * 2 * 9 / 10);
+        Assert.assertEquals(result.getAccepted() + result.getRejected(), result.getEvents());
+        Assert.assertTrue(result.getEventsPerSecond() > 0);
+    }
+
+    @Test
+    public void clock_movesOnlyWhenTold_andCopiesFollow() {
+        SimulatedClock clock = new SimulatedClock(LocalDateTime.of(2024, 3, 4, 9, 0), ZoneOffset.UTC);
+        var paris = clock.withZone(ZoneId.of("Europe/Paris"));
+        clock.advance(Duration.ofHours(8));
+
+        Assert.assertEquals(LocalDateTime.now(clock), LocalDateTime.of(2024, 3, 4, 17, 0));
+        Assert.assertEquals(LocalDateTime.now(paris), LocalDateTime.of(2024, 3, 4, 18, 0));
+    }
+
+    private static Map<Integer, Double> simulate(long seed) {
+        SimulatedClock clock = new SimulatedClock(MARCH.atDay(1).atStartOfDay(), ZoneOffset.UTC);
+        AttendanceServiceImpl attendance = service(clock);
+        new WorkforceSimulation(50, MARCH, 1, seed).run(attendance, clock);
+        return attendance.getMonthlyHoursForAll(MARCH);
+    }
+
+    private static AttendanceServiceImpl service(SimulatedClock clock) {
+        EmployeeRepository employees = new EmployeeRepository();
+        for (int id = 1; id <= 50; id++) {
+            employees.addEmployee(new Employee(id, "Emp " + id, "emp" + id + "@example.com", "Ops"));
+        }
+        return new AttendanceServiceImpl(employees, new AttendanceRepository(), clock);
+    }
+}